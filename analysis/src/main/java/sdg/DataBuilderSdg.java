@@ -28,13 +28,13 @@ public class DataBuilderSdg extends DefaultDataContainer {
 
     public static DataContainerSdg getModelData(Properties properties, Config config) {
 
-        HouseholdData householdData = new HouseholdDataImpl();
-        DwellingData dwellingData = new DwellingDataImpl();
+        HouseholdData householdData = new HouseholdDataImpl(properties.main.idIndexedDataStores);
+        DwellingData dwellingData = new DwellingDataImpl(properties.main.idIndexedDataStores);
         GeoData geoData = new DefaultGeoData();
         RealEstateDataManager realEstateDataManager = new RealEstateDataManagerImpl(new DefaultDwellingTypes(), dwellingData, householdData, geoData, new DwellingFactoryImpl(), properties);
         SchoolData schoolData = new SchoolDataImpl(geoData, dwellingData, properties);
         JobFactory jobFactory = new JobFactoryImpl();
-        JobData jobData = new JobDataImpl();
+        JobData jobData = new JobDataImpl(properties.main.idIndexedDataStores);
         JobDataManager jobDataManager = new JobDataManagerImpl(properties, jobFactory, jobData, geoData, null, null);
         final HouseholdFactory hhFactory = new HouseholdFactoryImpl();
         HouseholdDataManager householdDataManager = new HouseholdDataManagerImpl(
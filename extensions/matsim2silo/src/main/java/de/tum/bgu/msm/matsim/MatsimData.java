@@ -2,6 +2,8 @@ package de.tum.bgu.msm.matsim;
 
 import ch.sbb.matsim.routing.pt.raptor.*;
 import com.google.common.collect.Sets;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
 import de.tum.bgu.msm.container.DataContainer;
 import de.tum.bgu.msm.data.Zone;
 import de.tum.bgu.msm.properties.Properties;
@@ -17,6 +19,7 @@ import org.matsim.core.network.NetworkUtils;
 import org.matsim.core.network.algorithms.TransportModeNetworkFilter;
 import org.matsim.core.router.*;
 import org.matsim.core.router.costcalculators.FreespeedTravelTimeAndDisutility;
+import org.matsim.core.router.costcalculators.TravelDisutilityFactory;
 import org.matsim.core.router.util.LeastCostPathCalculator;
 import org.matsim.core.router.util.LeastCostPathCalculatorFactory;
 import org.matsim.core.router.util.TravelDisutility;
@@ -27,6 +30,7 @@ import org.matsim.pt.transitSchedule.api.TransitSchedule;
 import org.matsim.vehicles.Vehicles;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 
 public final class MatsimData {
@@ -52,6 +56,7 @@ public final class MatsimData {
     private TravelTime travelTime;
 
     private final ZoneConnectorManager zoneConnectorManager;
+    private ZoneConnectorIndex zoneConnectorIndex;
     private final static int NUMBER_OF_CALC_POINTS = 1;
 
 	// yyyyyy The TripRouter needs the vehicles container to work properly.  This is provided to the TripRouter via the Scenario.  In consequence, we need to maintain a somewhat
@@ -156,12 +161,17 @@ public final class MatsimData {
 
         this.carNetwork = carNetwork;
         this.ptNetwork = ptNetwork;
+        this.zoneConnectorIndex = new ZoneConnectorIndex(zoneConnectorManager, carNetwork);
     }
 
     ZoneConnectorManager getZoneConnectorManager() {
         return zoneConnectorManager;
     }
 
+    ZoneConnectorIndex getZoneConnectorIndex() {
+        return zoneConnectorIndex;
+    }
+
     public Network getCarNetwork() {
         return carNetwork;
     }
@@ -193,6 +203,7 @@ public final class MatsimData {
                     new DefaultRaptorIntermodalAccessEgress(),
                     null);
             routeSelector = new LeastCostRaptorRouteSelector();
+            zoneConnectorIndex.updateTransitData(raptorDataOneToAll, raptorParameters);
         }
     }
 
@@ -200,6 +211,19 @@ public final class MatsimData {
         return (MultiNodePathCalculator) multiNodeFactory.createPathCalculator(carNetwork, travelDisutility, travelTime);
     }
 
+    /**
+     * Creates a path calculator for one-to-many car queries that uses the car travel times and disutilities of the
+     * trip routers created by {@link #createTripRouter()}, so its paths have the travel times of their car legs.
+     */
+    MultiNodePathCalculator createTripRouterMultiNodePathCalculator() {
+        com.google.inject.Injector injector = Injector.createMinimalMatsimInjector( this.scenario.getConfig(), scenario );
+        TravelTime carTravelTime = injector.getInstance(Key.get(new TypeLiteral<Map<String, TravelTime>>() {}))
+                .get(TransportMode.car);
+        TravelDisutility carTravelDisutility = injector.getInstance(Key.get(new TypeLiteral<Map<String, TravelDisutilityFactory>>() {}))
+                .get(TransportMode.car).createTravelDisutility(carTravelTime);
+        return (MultiNodePathCalculator) multiNodeFactory.createPathCalculator(carNetwork, carTravelDisutility, carTravelTime);
+    }
+
     MultiNodePathCalculator createFreeSpeedMultiNodePathCalculator() {
         FreespeedTravelTimeAndDisutility freespeed = new FreespeedTravelTimeAndDisutility( this.scenario.getConfig().scoring());
         return (MultiNodePathCalculator) multiNodeFactory.createPathCalculator(carNetwork, freespeed, freespeed);
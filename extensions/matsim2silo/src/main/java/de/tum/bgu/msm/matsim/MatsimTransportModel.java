@@ -23,6 +23,7 @@ import de.tum.bgu.msm.data.household.Household;
 import de.tum.bgu.msm.data.person.Person;
 import de.tum.bgu.msm.data.travelTimes.SkimTravelTimes;
 import de.tum.bgu.msm.data.travelTimes.TravelTimes;
+import de.tum.bgu.msm.io.checkpoint.Checkpointable;
 import de.tum.bgu.msm.models.transportModel.TransportModel;
 import de.tum.bgu.msm.properties.Properties;
 import org.apache.logging.log4j.LogManager;
@@ -45,8 +46,10 @@ import org.matsim.vehicles.VehicleType;
 import org.matsim.vehicles.VehicleUtils;
 import org.matsim.vehicles.VehiclesFactory;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.File;
-
+import java.io.IOException;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Objects;
@@ -57,7 +60,7 @@ import static de.tum.bgu.msm.properties.modules.TransportModelPropertiesModule.*
 /**
  * @author dziemke, nkuehnel
  */
-public final class MatsimTransportModel implements TransportModel {
+public final class MatsimTransportModel implements TransportModel, Checkpointable {
 
     private static final Logger logger = LogManager.getLogger(MatsimTransportModel.class);
 
@@ -71,6 +74,12 @@ public final class MatsimTransportModel implements TransportModel {
 
     private MatsimScenarioAssembler scenarioAssembler;
 
+    /**
+     * Year of the MATSim run that the travel times in use come from, or -1 if they were replayed from the initial events file.
+     */
+    private int travelTimesYear = -1;
+    private int resumeYear = -1;
+
     public MatsimTransportModel(DataContainer dataContainer, Config matsimConfig,
                                 Properties properties, MatsimScenarioAssembler scenarioAssembler,
                                 MatsimData matsimData) {
@@ -98,7 +107,9 @@ public final class MatsimTransportModel implements TransportModel {
 
         internalTravelTimes.initialize(dataContainer.getGeoData(), matsimData);
 
-        if (properties.transportModel.matsimInitialEventsFile == null) {
+        if (resumeYear > 0) {
+            restoreTravelTimes(getLastTransportModelYear(resumeYear));
+        } else if (properties.transportModel.matsimInitialEventsFile == null) {
             runTransportModel(properties.main.startYear);
         } else {
             String eventsFile = properties.main.baseDirectory + properties.transportModel.matsimInitialEventsFile;
@@ -122,6 +133,63 @@ public final class MatsimTransportModel implements TransportModel {
     public void endSimulation() {
     }
 
+    /**
+     * Makes the setup of a resumed run read the travel times of the last MATSim run before the checkpoint from its
+     * output events instead of running MATSim for the start year.
+     */
+    @Override
+    public void prepareResume(int year) {
+        resumeYear = year;
+    }
+
+    @Override
+    public void writeCheckpoint(DataOutput out) throws IOException {
+        out.writeInt(travelTimesYear);
+    }
+
+    @Override
+    public void readCheckpoint(DataInput in) throws IOException {
+        final int year = in.readInt();
+        if (year != travelTimesYear) {
+            logger.warn("Checkpoint uses the travel times of year " + year + " instead of " + travelTimesYear
+                    + ", probably because the transport model years changed.");
+            restoreTravelTimes(year);
+        }
+    }
+
+    /**
+     * @return the year of the last MATSim run up to the given year, or -1 if no run took place and the travel
+     * times come from the initial events file
+     */
+    private int getLastTransportModelYear(int year) {
+        int lastYear = properties.transportModel.matsimInitialEventsFile == null ? properties.main.startYear : -1;
+        for (int transportModelYear : properties.transportModel.transportModelYears) {
+            if (transportModelYear > properties.main.startYear && transportModelYear <= year && transportModelYear > lastYear) {
+                lastYear = transportModelYear;
+            }
+        }
+        return lastYear;
+    }
+
+    /**
+     * Replays the events of the last iteration of the MATSim run of the given year, or the initial events file if the year is -1.
+     */
+    private void restoreTravelTimes(int year) {
+        final String eventsFile;
+        if (year < 0) {
+            eventsFile = properties.main.baseDirectory + properties.transportModel.matsimInitialEventsFile;
+        } else {
+            eventsFile = properties.main.baseDirectory + "scenOutput/" + properties.main.scenarioName
+                    + "/matsim/" + year + "/" + year + ".output_events.xml.gz";
+        }
+        if (!new File(eventsFile).exists()) {
+            throw new RuntimeException("Cannot restore the travel times of year " + year + ", events file " + eventsFile + " does not exist.");
+        }
+        logger.warn("Restoring the travel times of year " + year + " from " + eventsFile + ".");
+        replayFromEvents(eventsFile);
+        travelTimesYear = year;
+    }
+
     private void runTransportModel(int year) {
         logger.warn("Running MATSim transport model for year " + year + ".");
 
@@ -194,6 +262,7 @@ public final class MatsimTransportModel implements TransportModel {
         TravelTime travelTime = controler.getLinkTravelTimes();
         TravelDisutility travelDisutility = controler.getTravelDisutilityFactory().createTravelDisutility(travelTime);
         updateTravelTimes(travelTime, travelDisutility);
+        travelTimesYear = year;
     }
 
     private void finalizeConfig(Config config, int runId, String dir) {
@@ -1,8 +1,13 @@
 package de.tum.bgu.msm.matsim;
 
 import ch.sbb.matsim.routing.pt.raptor.SwissRailRaptorRoutingModule;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import de.tum.bgu.msm.data.Location;
 import de.tum.bgu.msm.data.MicroLocation;
+import de.tum.bgu.msm.data.OneToManyTravelTimes;
 import de.tum.bgu.msm.data.Region;
 import de.tum.bgu.msm.data.Zone;
 import de.tum.bgu.msm.data.geo.GeoData;
@@ -18,6 +23,7 @@ import org.matsim.api.core.v01.Scenario;
 import org.matsim.api.core.v01.TransportMode;
 import org.matsim.api.core.v01.network.Link;
 import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
 import org.matsim.api.core.v01.population.Leg;
 import org.matsim.api.core.v01.population.PlanElement;
 import org.matsim.api.core.v01.population.Route;
@@ -39,11 +45,13 @@ import org.matsim.vehicles.VehicleUtils;
 import org.matsim.vehicles.VehiclesFactory;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author dziemke, nkuehnel
  */
-public final class MatsimTravelTimesAndCosts implements TravelTimes {
+public final class MatsimTravelTimesAndCosts implements TravelTimes, OneToManyTravelTimes {
 
     private final static Logger logger = LogManager.getLogger(MatsimTravelTimesAndCosts.class);
 
@@ -58,6 +66,31 @@ public final class MatsimTravelTimesAndCosts implements TravelTimes {
     private final Map<String, IndexedDoubleMatrix2D> travelTimesToRegion = new LinkedHashMap<>();
     private Collection<Region> regions;
 
+    /**
+     * Routes without a person, by nearest links of origin and destination, departure time bin and mode. Null if
+     * the cache is disabled.
+     */
+    private Cache<RouteKey, CachedRoute> routeCache;
+    private double routeCacheTimeBin_s;
+
+    private static final int CAR_EGRESS_CACHE_SIZE = 100000;
+    private static final double CAR_TREE_TOLERANCE_MIN = 1e-6;
+
+    /**
+     * Path calculators for one-to-many car queries, one per thread, with the car travel times of the trip router.
+     */
+    private ThreadLocal<MultiNodePathCalculator> carTreeCalculators;
+    /**
+     * Egress of routed car trips by destination, i.e. the last link of the car leg and the time from leaving it to
+     * arriving at the destination.
+     */
+    private Cache<Object, CarEgress> carEgressCache;
+    /**
+     * Whether the car trees reproduce the routed travel times: 0 until checked by the first tree query after an
+     * update, 1 if they do and -1 if they do not, in which case one-to-many car queries are routed per destination.
+     */
+    private AtomicInteger carTreeState;
+
     private final Config config;
 
     public MatsimTravelTimesAndCosts(Config config) {
@@ -73,9 +106,13 @@ public final class MatsimTravelTimesAndCosts implements TravelTimes {
     public void update(MatsimData matsimData) {
         this.matsimData = matsimData;
         this.tripRouter = matsimData.createTripRouter();
+        this.carTreeCalculators = ThreadLocal.withInitial(matsimData::createTripRouterMultiNodePathCalculator);
+        this.carEgressCache = CacheBuilder.newBuilder().maximumSize(CAR_EGRESS_CACHE_SIZE).build();
+        this.carTreeState = new AtomicInteger();
         this.skimsByMode.clear();
         this.travelTimesFromRegion.clear();
         this.travelTimesToRegion.clear();
+        resetRouteCache();
         updateSkims();
         updateRegionalTravelTimes();
     }
@@ -86,6 +123,21 @@ public final class MatsimTravelTimesAndCosts implements TravelTimes {
         getPeakSkim(TransportMode.pt);
     }
 
+    private void resetRouteCache() {
+        if (routeCache != null) {
+            final CacheStats stats = routeCache.stats();
+            logger.info("Route cache: " + stats.requestCount() + " requests, hit rate " + stats.hitRate()
+                    + ", " + stats.evictionCount() + " evictions.");
+        }
+        final int cacheSize = Properties.get().transportModel.matsimRouteCacheSize;
+        if (cacheSize > 0) {
+            routeCache = CacheBuilder.newBuilder().maximumSize(cacheSize).recordStats().build();
+            routeCacheTimeBin_s = Properties.get().transportModel.matsimRouteCacheTimeBin_s;
+        } else {
+            routeCache = null;
+        }
+    }
+
     private void updateRegionalTravelTimes() {
         logger.info("Updating minimal zone to region travel times...");
         IndexedDoubleMatrix2D travelTimesFromRegionCar = new IndexedDoubleMatrix2D(regions, zones.values());
@@ -133,7 +185,15 @@ public final class MatsimTravelTimesAndCosts implements TravelTimes {
 
     @Override
     public double getTravelTime(Location origin, Location destination, double timeOfDay_s, String mode) {
-        List<? extends PlanElement> planElements = getRoute(origin, destination, timeOfDay_s, mode, null);
+        return getCachedRoute(origin, destination, timeOfDay_s, mode).getTravelTime();
+    }
+
+    public double getTravelTime(Location origin, Location destination, double timeOfDay_s, String mode, Person siloPerson) {
+        if (siloPerson == null) {
+            return getTravelTime(origin, destination, timeOfDay_s, mode);
+        }
+
+        List<? extends PlanElement> planElements = getRoute(origin, destination, timeOfDay_s, mode, siloPerson);
         double arrivalTime = timeOfDay_s;
 
         if (!planElements.isEmpty()) {
@@ -148,25 +208,131 @@ public final class MatsimTravelTimesAndCosts implements TravelTimes {
         return time;
     }
 
-    public double getTravelTime(Location origin, Location destination, double timeOfDay_s, String mode, Person siloPerson) {
+    /**
+     * Answers car queries with a single least cost path tree from the origin. The first destination is routed like
+     * a single query, which gives the access to the network of the origin and the departure time of the car leg.
+     * The egress of each destination is taken from earlier routed trips to it, destinations without one are routed
+     * as well. The car legs to all other destinations come from the tree, which uses the travel times and
+     * disutilities of the trip router, so the results are the same as those of {@link #getTravelTime}. The first
+     * tree query after an update checks this against routed trips and falls back to routing per destination if the
+     * routing module does not match, e.g. because it adds access and egress legs that depend on the departure time.
+     * Queries of other modes are routed per destination.
+     */
+    @Override
+    public double[] getTravelTimes(Location origin, List<? extends Location> destinations, double timeOfDay_s, String mode) {
+        final double[] times = new double[destinations.size()];
+        if (!TransportMode.car.equals(mode) || destinations.size() < 2 || carTreeState.get() < 0
+                || !calculateCarTreeTravelTimes(origin, destinations, timeOfDay_s, times)) {
+            for (int i = 0; i < times.length; i++) {
+                times[i] = getTravelTime(origin, destinations.get(i), timeOfDay_s, mode);
+            }
+        }
+        return times;
+    }
 
-        List<? extends PlanElement> planElements = getRoute(origin, destination, timeOfDay_s, mode, siloPerson);
-        double arrivalTime = timeOfDay_s;
+    /**
+     * @return false if the trip to the first destination has no car leg, so there is no access to the network
+     */
+    private boolean calculateCarTreeTravelTimes(Location origin, List<? extends Location> destinations, double timeOfDay_s,
+                                                double[] times) {
+        final CachedRoute firstRoute = getCachedRoute(origin, destinations.get(0), timeOfDay_s, TransportMode.car);
+        final Leg firstCarLeg = firstRoute.getCarLeg();
+        if (firstCarLeg == null) {
+            return false;
+        }
+        times[0] = firstRoute.getTravelTime();
+        rememberCarEgress(destinations.get(0), firstRoute, firstCarLeg);
+
+        final Network carNetwork = matsimData.getCarNetwork();
+        final Link fromLink = carNetwork.getLinks().get(firstCarLeg.getRoute().getStartLinkId());
+        final double carDepartureTime_s = timeOfDay_s + (firstCarLeg.getDepartureTime().seconds() - firstRoute.departureTime_s);
+
+        final CarEgress[] egresses = new CarEgress[times.length];
+        final Set<InitialNode> toNodes = new HashSet<>();
+        for (int i = 1; i < times.length; i++) {
+            final Location destination = destinations.get(i);
+            egresses[i] = carEgressCache.getIfPresent(getCarEgressKey(destination));
+            if (egresses[i] == null) {
+                final CachedRoute route = getCachedRoute(origin, destination, timeOfDay_s, TransportMode.car);
+                times[i] = route.getTravelTime();
+                final Leg carLeg = route.getCarLeg();
+                if (carLeg != null) {
+                    rememberCarEgress(destination, route, carLeg);
+                }
+            } else {
+                toNodes.add(new InitialNode(carNetwork.getLinks().get(egresses[i].linkId).getFromNode(), 0., 0.));
+            }
+        }
+        if (toNodes.isEmpty()) {
+            return true;
+        }
 
-        if (!planElements.isEmpty()) {
-            final Leg lastLeg = (Leg) planElements.get(planElements.size() - 1);
-            arrivalTime = lastLeg.getDepartureTime().seconds() + lastLeg.getTravelTime().seconds();
+        final MultiNodePathCalculator calculator = carTreeCalculators.get();
+        final Node fromNode = fromLink.getToNode();
+        calculator.calcLeastCostPath(fromNode, MultiNodeDijkstra.createImaginaryNode(toNodes), carDepartureTime_s, null, null);
+        for (int i = 1; i < times.length; i++) {
+            if (egresses[i] != null) {
+                final Link toLink = carNetwork.getLinks().get(egresses[i].linkId);
+                // the trip router does not route trips that start and end on the same link
+                final double carTravelTime_s = toLink == fromLink || toLink.getFromNode() == fromNode ? 0. :
+                        calculator.constructPath(fromNode, toLink.getFromNode(), carDepartureTime_s).travelTime;
+                final double arrivalTime_s = carDepartureTime_s + carTravelTime_s + egresses[i].travelTime_s;
+                //convert to minutes
+                times[i] = (arrivalTime_s - timeOfDay_s) / 60.;
+            }
+        }
+        if (carTreeState.get() == 0) {
+            checkCarTreeTravelTimes(origin, destinations, timeOfDay_s, times, egresses);
         }
+        return true;
+    }
 
-        double time = arrivalTime - timeOfDay_s;
+    /**
+     * Compares the travel times taken from the tree with those of trips routed without the route cache.
+     */
+    private void checkCarTreeTravelTimes(Location origin, List<? extends Location> destinations, double timeOfDay_s,
+                                         double[] times, CarEgress[] egresses) {
+        for (int i = 0; i < times.length; i++) {
+            if (egresses[i] == null) {
+                continue;
+            }
+            final double routedTime = new CachedRoute(getRoute(origin, destinations.get(i), timeOfDay_s, TransportMode.car, null),
+                    timeOfDay_s).getTravelTime();
+            if (Math.abs(routedTime - times[i]) > CAR_TREE_TOLERANCE_MIN) {
+                if (carTreeState.compareAndSet(0, -1)) {
+                    logger.warn("Car travel times of the least cost path tree differ from the routed ones (" + times[i]
+                            + " instead of " + routedTime + " min). One-to-many car queries are routed per destination.");
+                }
+                for (int j = 0; j < times.length; j++) {
+                    times[j] = getTravelTime(origin, destinations.get(j), timeOfDay_s, TransportMode.car);
+                }
+                return;
+            }
+        }
+        carTreeState.compareAndSet(0, 1);
+    }
 
-        //convert to minutes
-        time /= 60.;
-        return time;
+    private void rememberCarEgress(Location destination, CachedRoute route, Leg carLeg) {
+        final double carArrivalTime_s = carLeg.getDepartureTime().seconds() + carLeg.getTravelTime().seconds();
+        carEgressCache.put(getCarEgressKey(destination),
+                new CarEgress(carLeg.getRoute().getEndLinkId(), route.getArrivalTime() - carArrivalTime_s));
+    }
+
+    private Object getCarEgressKey(Location destination) {
+        return destination instanceof Zone ? Integer.valueOf(destination.getZoneId()) : getCoord(destination);
     }
 
     public double getGeneralizedTravelCosts(Location origin, Location destination, double timeOfDay_s, String mode) {
-        List<? extends PlanElement> planElements = getRoute(origin, destination, timeOfDay_s, mode, null);
+        final CachedRoute route = getCachedRoute(origin, destination, timeOfDay_s, mode);
+        double costs = route.generalizedCosts;
+        if (Double.isNaN(costs)) {
+            costs = calculateGeneralizedCosts(route.planElements, mode);
+            route.generalizedCosts = costs;
+        }
+        return costs;
+    }
+
+    private double calculateGeneralizedCosts(List<? extends PlanElement> planElements, String mode) {
         RoutingModule routingModule = tripRouter.getRoutingModule(mode);
         ScoringConfigGroup cnScoringGroup = config.scoring();
 
@@ -202,29 +368,84 @@ public final class MatsimTravelTimesAndCosts implements TravelTimes {
         return -utility;
     }
 
+    /**
+     * Returns the route without a person from the cache, or calculates and caches it. Routes are shared by all queries
+     * of the same mode in the same departure time bin. Routes of modes that are routed on the network without access
+     * and egress legs only depend on the nearest links of origin and destination, routes of all other modes (with
+     * beeline, walk or transit legs) are only shared between the same coordinates.
+     */
+    private CachedRoute getCachedRoute(Location origin, Location destination, double timeOfDay_s, String mode) {
+        final Cache<RouteKey, CachedRoute> cache = routeCache;
+        if (cache == null) {
+            return new CachedRoute(getRoute(origin, destination, timeOfDay_s, mode, null), timeOfDay_s);
+        }
+        final int timeBin = (int) Math.floor(timeOfDay_s / routeCacheTimeBin_s);
+        final RouteKey key;
+        if (tripRouter.getRoutingModule(mode) instanceof NetworkRoutingModule) {
+            key = new RouteKey(getNearestLinkId(origin), getNearestLinkId(destination), timeBin, mode);
+        } else {
+            key = new RouteKey(getCoord(origin), getCoord(destination), timeBin, mode);
+        }
+        try {
+            return cache.get(key, () -> new CachedRoute(getRoute(origin, destination, timeOfDay_s, mode, null), timeOfDay_s));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private Id<Link> getNearestLinkId(Location location) {
+        if (location instanceof MicroLocation) {
+            final Coord coord = CoordUtils.createCoord(((MicroLocation) location).getCoordinate());
+            return NetworkUtils.getNearestLink(matsimData.getCarNetwork(), coord).getId();
+        } else if (location instanceof Zone) {
+            return matsimData.getZoneConnectorIndex().getConnector(location.getZoneId()).getLinkId();
+        } else {
+            throw new IllegalArgumentException("Unknown location type " + location.getClass().getSimpleName());
+        }
+    }
+
+    private Coord getCoord(Location location) {
+        if (location instanceof MicroLocation) {
+            return CoordUtils.createCoord(((MicroLocation) location).getCoordinate());
+        } else if (location instanceof Zone) {
+            return matsimData.getZoneConnectorIndex().getConnector(location.getZoneId()).getCoord();
+        } else {
+            throw new IllegalArgumentException("Unknown location type " + location.getClass().getSimpleName());
+        }
+    }
+
     private List<? extends PlanElement> getRoute(Location origin, Location destination, double timeOfDay_s, String mode, Person siloPerson) {
+        final boolean needsLinks = tripRouter.getRoutingModule(mode) instanceof FreespeedFactorRoutingModule;
         Coord originCoord;
         Coord destinationCoord;
+        Id<Link> fromLink = null;
+        Id<Link> toLink = null;
         if (origin instanceof MicroLocation && destination instanceof MicroLocation) {
             // Microlocations case
             originCoord = CoordUtils.createCoord(((MicroLocation) origin).getCoordinate());
             destinationCoord = CoordUtils.createCoord(((MicroLocation) destination).getCoordinate());
+            if (needsLinks) {
+                final Network carNetwork = matsimData.getCarNetwork();
+                fromLink = NetworkUtils.getNearestLink(carNetwork, originCoord).getId();
+                toLink = NetworkUtils.getNearestLink(carNetwork, destinationCoord).getId();
+            }
         } else if (origin instanceof Zone && destination instanceof Zone) {
-            // Non-microlocations case
-            originCoord = matsimData.getZoneConnectorManager().getCoordsForZone(origin.getZoneId()).get(0);
-            destinationCoord = matsimData.getZoneConnectorManager().getCoordsForZone(destination.getZoneId()).get(0);
+            // Non-microlocations case, connectors are resolved to the network once per zone
+            final ZoneConnectorIndex.ZoneConnector originConnector = matsimData.getZoneConnectorIndex().getConnector(origin.getZoneId());
+            final ZoneConnectorIndex.ZoneConnector destinationConnector = matsimData.getZoneConnectorIndex().getConnector(destination.getZoneId());
+            originCoord = originConnector.getCoord();
+            destinationCoord = destinationConnector.getCoord();
+            if (needsLinks) {
+                fromLink = originConnector.getLinkId();
+                toLink = destinationConnector.getLinkId();
+            }
         } else {
             throw new IllegalArgumentException("Origin and destination have to be consistent in location type!");
         }
 
-        Id<Link> fromLink = null;
-        Id<Link> toLink = null;
-        if(tripRouter.getRoutingModule(mode) instanceof FreespeedFactorRoutingModule) {
-            final Network carNetwork = matsimData.getCarNetwork();
-            fromLink = NetworkUtils.getNearestLink(carNetwork, originCoord).getId();
-            toLink = NetworkUtils.getNearestLink(carNetwork, destinationCoord).getId();
-        }
-
         ActivityFacilitiesFactoryImpl activityFacilitiesFactory = new ActivityFacilitiesFactoryImpl();
         Facility fromFacility = ((ActivityFacilitiesFactory) activityFacilitiesFactory).createActivityFacility(Id.create(1, ActivityFacility.class), originCoord, fromLink);
         Facility toFacility = ((ActivityFacilitiesFactory) activityFacilitiesFactory).createActivityFacility(Id.create(2, ActivityFacility.class), destinationCoord, toLink);
@@ -311,6 +532,102 @@ public final class MatsimTravelTimesAndCosts implements TravelTimes {
         }
     }
 
+    /**
+     * Origin and destination are either the ids of the nearest links or the coordinates.
+     */
+    private static final class RouteKey {
+        private final Object from;
+        private final Object to;
+        private final int timeBin;
+        private final String mode;
+
+        private RouteKey(Object from, Object to, int timeBin, String mode) {
+            this.from = from;
+            this.to = to;
+            this.timeBin = timeBin;
+            this.mode = mode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RouteKey)) {
+                return false;
+            }
+            RouteKey other = (RouteKey) o;
+            return timeBin == other.timeBin && Objects.equals(from, other.from)
+                    && Objects.equals(to, other.to) && mode.equals(other.mode);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(from, to, timeBin, mode);
+        }
+    }
+
+    private static final class CarEgress {
+        private final Id<Link> linkId;
+        private final double travelTime_s;
+
+        private CarEgress(Id<Link> linkId, double travelTime_s) {
+            this.linkId = linkId;
+            this.travelTime_s = travelTime_s;
+        }
+    }
+
+    private static final class CachedRoute {
+        private final List<? extends PlanElement> planElements;
+        private final double departureTime_s;
+        /**
+         * Calculated on first request, NaN until then.
+         */
+        private volatile double generalizedCosts = Double.NaN;
+
+        private CachedRoute(List<? extends PlanElement> planElements, double departureTime_s) {
+            this.planElements = planElements;
+            this.departureTime_s = departureTime_s;
+        }
+
+        /**
+         * @return the leg on the car network, or null if the trip has none
+         */
+        private Leg getCarLeg() {
+            for (PlanElement planElement : planElements) {
+                if (planElement instanceof Leg && TransportMode.car.equals(((Leg) planElement).getMode())
+                        && ((Leg) planElement).getRoute() instanceof NetworkRoute) {
+                    return (Leg) planElement;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return the arrival time in seconds
+         */
+        private double getArrivalTime() {
+            double arrivalTime = departureTime_s;
+
+            if (!planElements.isEmpty()) {
+                final Leg lastLeg = (Leg) planElements.get(planElements.size() - 1);
+                arrivalTime = lastLeg.getDepartureTime().seconds() + lastLeg.getTravelTime().seconds();
+            }
+            return arrivalTime;
+        }
+
+        /**
+         * @return the travel time in minutes
+         */
+        private double getTravelTime() {
+            double time = getArrivalTime() - departureTime_s;
+
+            //convert to minutes
+            time /= 60.;
+            return time;
+        }
+    }
+
     @Override
     public TravelTimes duplicate() {
         logger.warn("Creating another TravelTimes object.");
@@ -319,6 +636,11 @@ public final class MatsimTravelTimesAndCosts implements TravelTimes {
         matsimTravelTimesAndCosts.regions = this.regions;
         matsimTravelTimesAndCosts.matsimData = matsimData;
         matsimTravelTimesAndCosts.tripRouter = matsimData.createTripRouter();
+        matsimTravelTimesAndCosts.routeCache = routeCache;
+        matsimTravelTimesAndCosts.routeCacheTimeBin_s = routeCacheTimeBin_s;
+        matsimTravelTimesAndCosts.carTreeCalculators = carTreeCalculators;
+        matsimTravelTimesAndCosts.carEgressCache = carEgressCache;
+        matsimTravelTimesAndCosts.carTreeState = carTreeState;
         matsimTravelTimesAndCosts.skimsByMode.putAll(this.skimsByMode);
         matsimTravelTimesAndCosts.travelTimesFromRegion.putAll(travelTimesFromRegion);
         matsimTravelTimesAndCosts.travelTimesToRegion.putAll(travelTimesToRegion);
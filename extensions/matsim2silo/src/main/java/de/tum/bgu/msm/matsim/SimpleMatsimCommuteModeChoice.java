@@ -41,6 +41,18 @@ public class SimpleMatsimCommuteModeChoice implements CommuteModeChoice {
         geoData = dataContainer.getGeoData();
     }
 
+    private SimpleMatsimCommuteModeChoice(SimpleMatsimCommuteModeChoice template, Random random) {
+        this.properties = template.properties;
+        this.commutingTimeProbability = template.commutingTimeProbability;
+        this.jobDataManager = template.jobDataManager;
+        this.geoData = template.geoData;
+        this.random = random;
+    }
+
+    @Override
+    public CommuteModeChoice duplicate(Random random) {
+        return new SimpleMatsimCommuteModeChoice(this, random);
+    }
 
     @Override
     public CommuteModeChoiceMapping assignCommuteModeChoice(Location from, TravelTimes travelTimes, Household household) {
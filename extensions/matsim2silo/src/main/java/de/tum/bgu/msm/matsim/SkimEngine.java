@@ -0,0 +1,106 @@
+package de.tum.bgu.msm.matsim;
+
+import de.tum.bgu.msm.data.Id;
+import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix2D;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Computes skim matrices row by row on a work-stealing pool. Origins are scheduled in small blocks, so that threads
+ * which are done with cheap origins take over the remaining ones instead of waiting for a thread with a large static
+ * partition. Each thread creates its router (e.g. a path calculator) once and reuses it for all its origins. Rows are
+ * written straight into the skim matrix and the progress is logged about every 10%, including an estimate of the
+ * remaining time.
+ */
+final class SkimEngine {
+
+    private final static Logger logger = LogManager.getLogger(SkimEngine.class);
+
+    private static final int MAX_ORIGIN_BLOCK_SIZE = 16;
+    private static final int BLOCKS_PER_THREAD = 16;
+    private static final int NUMBER_OF_PROGRESS_REPORTS = 10;
+
+    /**
+     * Computes the row of one origin. Called concurrently for different origins, each thread with its own router.
+     */
+    interface RowCalculator<R> {
+        /**
+         * @param row travel times from the origin to the destinations, in the order of the destinations
+         */
+        void calculateRow(R router, Id origin, List<? extends Id> destinations, double[] row) throws Exception;
+    }
+
+    private SkimEngine() {
+    }
+
+    static <R> IndexedDoubleMatrix2D computeSkim(String name, Collection<? extends Id> zones, int numberOfThreads,
+                                                 Supplier<R> routerFactory, RowCalculator<R> calculator) {
+        final List<? extends Id> origins = new ArrayList<>(zones);
+        final IndexedDoubleMatrix2D skim = new IndexedDoubleMatrix2D(zones, zones);
+        final int numberOfThreadsUsed = Math.max(1, numberOfThreads);
+        final int blockSize = Math.max(1, Math.min(MAX_ORIGIN_BLOCK_SIZE,
+                origins.size() / (numberOfThreadsUsed * BLOCKS_PER_THREAD)));
+        final int reportInterval = Math.max(1, origins.size() / NUMBER_OF_PROGRESS_REPORTS);
+
+        final ThreadLocal<R> routers = ThreadLocal.withInitial(routerFactory);
+        final AtomicInteger finishedOrigins = new AtomicInteger();
+        final long start = System.currentTimeMillis();
+
+        final ForkJoinPool pool = new ForkJoinPool(numberOfThreadsUsed);
+        try {
+            final List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            for (int blockStart = 0; blockStart < origins.size(); blockStart += blockSize) {
+                final int from = blockStart;
+                final int to = Math.min(blockStart + blockSize, origins.size());
+                tasks.add(pool.submit(() -> {
+                    final R router = routers.get();
+                    final double[] row = new double[origins.size()];
+                    for (int i = from; i < to; i++) {
+                        final Id origin = origins.get(i);
+                        try {
+                            calculator.calculateRow(router, origin, origins, row);
+                        } catch (Exception e) {
+                            throw new RuntimeException("Could not compute " + name + " skim for origin " + origin.getId(), e);
+                        }
+                        for (int j = 0; j < row.length; j++) {
+                            skim.setIndexed(origin.getId(), origins.get(j).getId(), row[j]);
+                        }
+                        final int finished = finishedOrigins.incrementAndGet();
+                        if (finished % reportInterval == 0 && finished < origins.size()) {
+                            logProgress(name, finished, origins.size(), start);
+                        }
+                    }
+                }));
+            }
+            for (ForkJoinTask<?> task : tasks) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        logger.info("Computed " + name + " skim for " + origins.size() + " origins in "
+                + (System.currentTimeMillis() - start) / 1000 + " s using " + numberOfThreadsUsed + " threads.");
+        return skim;
+    }
+
+    private static void logProgress(String name, int finished, int total, long start) {
+        final long elapsed = System.currentTimeMillis() - start;
+        final long remaining = elapsed * (total - finished) / finished;
+        logger.info("  " + name + " skim: " + finished + " of " + total + " origins ("
+                + (100 * finished / total) + "%), about " + remaining / 1000 + " s remaining.");
+    }
+}
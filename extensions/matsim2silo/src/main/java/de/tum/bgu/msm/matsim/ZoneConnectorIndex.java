@@ -0,0 +1,142 @@
+package de.tum.bgu.msm.matsim;
+
+import ch.sbb.matsim.routing.pt.raptor.RaptorParameters;
+import ch.sbb.matsim.routing.pt.raptor.SwissRailRaptorData;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.utils.geometry.CoordUtils;
+import org.matsim.pt.transitSchedule.api.TransitStopFacility;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resolves the connectors of the {@link ZoneConnectorManager} to the nearest nodes and links of the car network and
+ * to the nearby transit stops. Every zone is resolved once, on first use, so that skim creation and routing between
+ * zones do not search the network for every origin destination pair. Can be shared between threads.
+ */
+final class ZoneConnectorIndex {
+
+    static final class ZoneConnector {
+        private final Coord coord;
+        private final Node node;
+        private final Id<Link> linkId;
+        private final List<Node> allNodes;
+
+        private ZoneConnector(Coord coord, Node node, Id<Link> linkId, List<Node> allNodes) {
+            this.coord = coord;
+            this.node = node;
+            this.linkId = linkId;
+            this.allNodes = allNodes;
+        }
+
+        /**
+         * @return the first connector of the zone
+         */
+        Coord getCoord() {
+            return coord;
+        }
+
+        /**
+         * @return the car network node nearest to the first connector of the zone
+         */
+        Node getNode() {
+            return node;
+        }
+
+        /**
+         * @return the car network link nearest to the first connector of the zone
+         */
+        Id<Link> getLinkId() {
+            return linkId;
+        }
+
+        /**
+         * @return the car network nodes nearest to all connectors of the zone
+         */
+        List<Node> getAllNodes() {
+            return allNodes;
+        }
+    }
+
+    private final ZoneConnectorManager zoneConnectorManager;
+    private final Network carNetwork;
+
+    private final ConcurrentMap<Integer, ZoneConnector> connectorsByZone = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, Collection<TransitStopFacility>> stopsByZone = new ConcurrentHashMap<>();
+
+    private volatile SwissRailRaptorData raptorData;
+    private volatile RaptorParameters raptorParameters;
+
+    ZoneConnectorIndex(ZoneConnectorManager zoneConnectorManager, Network carNetwork) {
+        this.zoneConnectorManager = zoneConnectorManager;
+        this.carNetwork = carNetwork;
+    }
+
+    ZoneConnector getConnector(int zoneId) {
+        return connectorsByZone.computeIfAbsent(zoneId, this::resolveConnector);
+    }
+
+    /**
+     * Returns the transit stops within the search radius of the first connector of the zone. If there are none, the
+     * stops within the distance of the nearest stop plus the extension radius are returned.
+     */
+    Collection<TransitStopFacility> getTransitStops(int zoneId) {
+        if (raptorData == null) {
+            throw new IllegalStateException("Transit stops of zones are not available before the transit schedule is set.");
+        }
+        return stopsByZone.computeIfAbsent(zoneId, id -> findTransitStops(getConnector(id).getCoord()));
+    }
+
+    /**
+     * Sets the transit data used to find the stops of zones, which discards all stops found so far.
+     */
+    void updateTransitData(SwissRailRaptorData raptorData, RaptorParameters raptorParameters) {
+        this.raptorData = raptorData;
+        this.raptorParameters = raptorParameters;
+        stopsByZone.clear();
+    }
+
+    private ZoneConnector resolveConnector(int zoneId) {
+        final List<Coord> coords = zoneConnectorManager.getCoordsForZone(zoneId);
+        if (coords == null || coords.isEmpty()) {
+            throw new IllegalArgumentException("There is no zone connector for zone " + zoneId);
+        }
+        final List<Node> allNodes = new ArrayList<>(coords.size());
+        for (Coord coord : coords) {
+            allNodes.add(NetworkUtils.getNearestNode(carNetwork, coord));
+        }
+        final Coord coord = coords.get(0);
+        final Link link = NetworkUtils.getNearestLink(carNetwork, coord);
+        return new ZoneConnector(coord, allNodes.get(0), link == null ? null : link.getId(),
+                Collections.unmodifiableList(allNodes));
+    }
+
+    /**
+     * Same as {@link #getTransitStops(int)}, but for any coordinate and without caching the result.
+     */
+    Collection<TransitStopFacility> findTransitStops(Coord coord) {
+        final SwissRailRaptorData raptorData = this.raptorData;
+        final RaptorParameters raptorParameters = this.raptorParameters;
+        if (raptorData == null) {
+            throw new IllegalStateException("Transit stops are not available before the transit schedule is set.");
+        }
+        Collection<TransitStopFacility> stops = raptorData.findNearbyStops(coord.getX(), coord.getY(),
+                raptorParameters.getSearchRadius());
+        if (stops.isEmpty()) {
+            TransitStopFacility nearest = raptorData.findNearestStop(coord.getX(), coord.getY());
+            double nearestStopDistance = CoordUtils.calcEuclideanDistance(coord, nearest.getCoord());
+            stops = raptorData.findNearbyStops(coord.getX(), coord.getY(),
+                    nearestStopDistance + raptorParameters.getExtensionRadius());
+        }
+        return stops;
+    }
+}
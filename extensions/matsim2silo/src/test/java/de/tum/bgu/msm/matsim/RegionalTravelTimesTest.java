@@ -28,6 +28,8 @@ import org.matsim.core.network.NetworkUtils;
 import org.matsim.core.router.util.TravelDisutility;
 import org.matsim.vehicles.Vehicle;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 
@@ -36,6 +38,62 @@ public class RegionalTravelTimesTest {
     @Test
     public void testRegionalTravelTimesWithMatsim() {
 
+        GeoData geoData = createGeoData();
+        final Region region1 = geoData.getRegions().get(1);
+        final Region region2 = geoData.getRegions().get(2);
+        final Zone zone1 = geoData.getZones().get(1);
+        final Zone zone2 = geoData.getZones().get(2);
+        final Zone zone3 = geoData.getZones().get(3);
+        final Zone zone4 = geoData.getZones().get(4);
+        final Zone zone5 = geoData.getZones().get(5);
+        MatsimTravelTimesAndCosts travelTimes = createTravelTimes(geoData);
+
+        Assert.assertEquals(0.0, travelTimes.getTravelTimeFromRegion(region1, zone1, 0, TransportMode.car), 0.001);
+        Assert.assertEquals(0.0471, travelTimes.getTravelTimeFromRegion(region1, zone2, 0, TransportMode.car), 0.001);
+        Assert.assertEquals(0.0471, travelTimes.getTravelTimeFromRegion(region1, zone3, 0, TransportMode.car), 0.001);
+        Assert.assertEquals(0.0471, travelTimes.getTravelTimeFromRegion(region1, zone4, 0, TransportMode.car), 0.001);
+        Assert.assertEquals(0.0942, travelTimes.getTravelTimeFromRegion(region1, zone5, 0, TransportMode.car), 0.001);
+
+        Assert.assertEquals(0.1414, travelTimes.getTravelTimeFromRegion(region2, zone1, 0, TransportMode.car), 0.001);
+        Assert.assertEquals(0.0942, travelTimes.getTravelTimeFromRegion(region2, zone2, 0, TransportMode.car), 0.001);
+        Assert.assertEquals(0.0471, travelTimes.getTravelTimeFromRegion(region2, zone3, 0, TransportMode.car), 0.001);
+        Assert.assertEquals(0.0471, travelTimes.getTravelTimeFromRegion(region2, zone4, 0, TransportMode.car), 0.001);
+        Assert.assertEquals(0.0471, travelTimes.getTravelTimeFromRegion(region2, zone5, 0, TransportMode.car), 0.001);
+
+        Assert.assertEquals(0.0, travelTimes.getTravelTimeToRegion(zone1, region1, 0, TransportMode.car), 0.001);
+        Assert.assertEquals(0.0471, travelTimes.getTravelTimeToRegion(zone2, region1, 0, TransportMode.car), 0.001);
+        Assert.assertEquals(0.0471, travelTimes.getTravelTimeToRegion(zone3, region1, 0, TransportMode.car), 0.001);
+        Assert.assertEquals(0.0471, travelTimes.getTravelTimeToRegion(zone4, region1, 0, TransportMode.car), 0.001);
+        Assert.assertEquals(0.0942, travelTimes.getTravelTimeToRegion(zone5, region1, 0, TransportMode.car), 0.001);
+
+        Assert.assertEquals(0.1414, travelTimes.getTravelTimeToRegion(zone1, region2, 0, TransportMode.car), 0.001);
+        Assert.assertEquals(0.0942, travelTimes.getTravelTimeToRegion(zone2, region2, 0, TransportMode.car), 0.001);
+        Assert.assertEquals(0.0471, travelTimes.getTravelTimeToRegion(zone3, region2, 0, TransportMode.car), 0.001);
+        Assert.assertEquals(0.0471, travelTimes.getTravelTimeToRegion(zone4, region2, 0, TransportMode.car), 0.001);
+        Assert.assertEquals(0.0471, travelTimes.getTravelTimeToRegion(zone5, region2, 0, TransportMode.car), 0.001);
+    }
+
+    @Test
+    public void testOneToManyTravelTimesEqualSingleQueries() {
+        GeoData geoData = createGeoData();
+        MatsimTravelTimesAndCosts travelTimes = createTravelTimes(geoData);
+
+        final List<Zone> destinations = new ArrayList<>(geoData.getZones().values());
+        destinations.add(geoData.getZones().get(2));
+        destinations.add(0, geoData.getZones().get(4));
+        // destinations are routed until their egress is known, afterwards their times come from the tree
+        for (int round = 0; round < 2; round++) {
+            for (Zone origin : geoData.getZones().values()) {
+                final double[] times = travelTimes.getTravelTimes(origin, destinations, 0, TransportMode.car);
+                Assert.assertEquals(destinations.size(), times.length);
+                for (int i = 0; i < times.length; i++) {
+                    Assert.assertEquals(travelTimes.getTravelTime(origin, destinations.get(i), 0, TransportMode.car), times[i], 1e-6);
+                }
+            }
+        }
+    }
+
+    private GeoData createGeoData() {
         GeoData geoData = new DefaultGeoData();
         final RegionImpl region1 = new RegionImpl(1);
         final RegionImpl region2 = new RegionImpl(2);
@@ -58,7 +116,10 @@ public class RegionalTravelTimesTest {
         final MockZone zone5 = new MockZone(5, 10, region2);
         region2.addZone(zone5);
         geoData.addZone(zone5);
+        return geoData;
+    }
 
+    private MatsimTravelTimesAndCosts createTravelTimes(GeoData geoData) {
         Random random = new Random(42);
         IndexedDoubleMatrix2D matrix = new IndexedDoubleMatrix2D(geoData.getZones().values(), geoData.getZones().values());
         matrix.assign(argument -> random.nextDouble() * 10);
@@ -84,31 +145,7 @@ public class RegionalTravelTimesTest {
         }, (link, v, person, vehicle) -> link.getLength() / link.getFreespeed());
         travelTimes.initialize(geoData, matsimData);
         travelTimes.update(matsimData);
-
-
-        Assert.assertEquals(0.0, travelTimes.getTravelTimeFromRegion(region1, zone1, 0, TransportMode.car), 0.001);
-        Assert.assertEquals(0.0471, travelTimes.getTravelTimeFromRegion(region1, zone2, 0, TransportMode.car), 0.001);
-        Assert.assertEquals(0.0471, travelTimes.getTravelTimeFromRegion(region1, zone3, 0, TransportMode.car), 0.001);
-        Assert.assertEquals(0.0471, travelTimes.getTravelTimeFromRegion(region1, zone4, 0, TransportMode.car), 0.001);
-        Assert.assertEquals(0.0942, travelTimes.getTravelTimeFromRegion(region1, zone5, 0, TransportMode.car), 0.001);
-
-        Assert.assertEquals(0.1414, travelTimes.getTravelTimeFromRegion(region2, zone1, 0, TransportMode.car), 0.001);
-        Assert.assertEquals(0.0942, travelTimes.getTravelTimeFromRegion(region2, zone2, 0, TransportMode.car), 0.001);
-        Assert.assertEquals(0.0471, travelTimes.getTravelTimeFromRegion(region2, zone3, 0, TransportMode.car), 0.001);
-        Assert.assertEquals(0.0471, travelTimes.getTravelTimeFromRegion(region2, zone4, 0, TransportMode.car), 0.001);
-        Assert.assertEquals(0.0471, travelTimes.getTravelTimeFromRegion(region2, zone5, 0, TransportMode.car), 0.001);
-
-        Assert.assertEquals(0.0, travelTimes.getTravelTimeToRegion(zone1, region1, 0, TransportMode.car), 0.001);
-        Assert.assertEquals(0.0471, travelTimes.getTravelTimeToRegion(zone2, region1, 0, TransportMode.car), 0.001);
-        Assert.assertEquals(0.0471, travelTimes.getTravelTimeToRegion(zone3, region1, 0, TransportMode.car), 0.001);
-        Assert.assertEquals(0.0471, travelTimes.getTravelTimeToRegion(zone4, region1, 0, TransportMode.car), 0.001);
-        Assert.assertEquals(0.0942, travelTimes.getTravelTimeToRegion(zone5, region1, 0, TransportMode.car), 0.001);
-
-        Assert.assertEquals(0.1414, travelTimes.getTravelTimeToRegion(zone1, region2, 0, TransportMode.car), 0.001);
-        Assert.assertEquals(0.0942, travelTimes.getTravelTimeToRegion(zone2, region2, 0, TransportMode.car), 0.001);
-        Assert.assertEquals(0.0471, travelTimes.getTravelTimeToRegion(zone3, region2, 0, TransportMode.car), 0.001);
-        Assert.assertEquals(0.0471, travelTimes.getTravelTimeToRegion(zone4, region2, 0, TransportMode.car), 0.001);
-        Assert.assertEquals(0.0471, travelTimes.getTravelTimeToRegion(zone5, region2, 0, TransportMode.car), 0.001);
+        return travelTimes;
     }
 
     private Network getNetwork() {
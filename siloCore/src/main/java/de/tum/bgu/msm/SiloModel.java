@@ -21,16 +21,23 @@ import de.tum.bgu.msm.container.ModelContainer;
 import de.tum.bgu.msm.data.SummarizeData;
 import de.tum.bgu.msm.data.household.HouseholdDataManager;
 import de.tum.bgu.msm.events.MicroEvent;
+import de.tum.bgu.msm.io.checkpoint.MicroDataCheckpointAttributes;
+import de.tum.bgu.msm.io.checkpoint.SimulationCheckpointReader;
+import de.tum.bgu.msm.io.checkpoint.SimulationCheckpointWriter;
+import de.tum.bgu.msm.io.output.AsyncFileWriter;
 import de.tum.bgu.msm.io.output.ResultsMonitor;
 import de.tum.bgu.msm.models.EventModel;
 import de.tum.bgu.msm.models.ModelUpdateListener;
 import de.tum.bgu.msm.properties.Properties;
 import de.tum.bgu.msm.simulator.Simulator;
+import de.tum.bgu.msm.utils.EventTimeTracker;
 import de.tum.bgu.msm.utils.SiloUtil;
 import de.tum.bgu.msm.utils.TimeTracker;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -51,8 +58,13 @@ public final class SiloModel {
 
     private Simulator simulator;
     private final TimeTracker timeTracker = new TimeTracker();
+    private final EventTimeTracker eventTimeTracker = new EventTimeTracker();
 	private Set<ResultsMonitor> resultsMonitors = new HashSet<>();
 
+	private File resumeFile;
+	private int firstYear;
+	private MicroDataCheckpointAttributes checkpointAttributes = new MicroDataCheckpointAttributes() {};
+
 	/**
      * @param properties
      * @param dataContainer
@@ -71,6 +83,26 @@ public final class SiloModel {
   		resultsMonitors.add(resultsMonitor);
 	}
 
+	/**
+	 * Resumes the simulation from a checkpoint instead of the start year. The data container must hold the
+	 * geo data, but no micro data, as the micro data is read from the checkpoint. Requires id indexed data stores,
+	 * as the results would otherwise depend on the iteration order of the restored hash maps.
+	 */
+	public void resumeFrom(File checkpoint) {
+		if (!properties.main.idIndexedDataStores) {
+			throw new IllegalStateException("Resuming from a checkpoint requires id indexed data stores. Set id.indexed.data.stores = true.");
+		}
+		this.resumeFile = checkpoint;
+	}
+
+	/**
+	 * Sets the attributes of use case specific dwellings, households, persons and jobs that are written to and
+	 * read from checkpoints in addition to the attributes of the core data.
+	 */
+	public void setCheckpointAttributes(MicroDataCheckpointAttributes checkpointAttributes) {
+		this.checkpointAttributes = checkpointAttributes;
+	}
+
 	public void runModel() {
 		logger.info("Scenario: " + properties.main.scenarioName + ", Simulation start year: " + properties.main.startYear);
 		long startTime = System.currentTimeMillis();
@@ -80,6 +112,7 @@ public final class SiloModel {
 			runYearByYear();
 			logger.warn("... done with runYearByYear, now entering endSimulation ... ");
 			endSimulation();
+			AsyncFileWriter.awaitAll();
 		} catch (Exception e){
 			logger.error("Error running SILO.");
 			throw new RuntimeException(e);
@@ -92,7 +125,8 @@ public final class SiloModel {
 
 		logger.info("Setting up SILO Model");
 
-		simulator = new Simulator(timeTracker);
+		simulator = new Simulator(timeTracker, properties.main.trackTime ? eventTimeTracker : null,
+				properties.main.eventBatchSize, properties.main.numberOfThreads);
 		for(Map.Entry<Class<? extends MicroEvent>, EventModel> eventModel: modelContainer.getEventModels().entrySet()) {
 			if(eventModel.getValue() != null) {
 				simulator.registerEventModel(eventModel.getKey(), eventModel.getValue());
@@ -111,8 +145,36 @@ public final class SiloModel {
 
         setupScalingYears();
 
-        dataContainer.setup();
-        simulator.setup();
+		firstYear = properties.main.startYear;
+		if (resumeFile != null) {
+			resumeSetup();
+		} else {
+			dataContainer.setup();
+			simulator.setup();
+		}
+	}
+
+	private void resumeSetup() {
+		try (SimulationCheckpointReader reader = new SimulationCheckpointReader(resumeFile)) {
+			reader.readMicroData(dataContainer, checkpointAttributes);
+			reader.prepareResume(dataContainer, modelContainer);
+			dataContainer.setup();
+			simulator.setup();
+			reader.readState(dataContainer, modelContainer);
+			firstYear = reader.getYear();
+		} catch (IOException e) {
+			throw new RuntimeException("Could not resume from checkpoint " + resumeFile, e);
+		}
+		logger.info("Resuming simulation in year " + firstYear + " from checkpoint " + resumeFile);
+	}
+
+	private void writeCheckpoint(int year) {
+		try {
+			SimulationCheckpointWriter.write(SimulationCheckpointWriter.getCheckpointFile(properties, year), year,
+					dataContainer, modelContainer, checkpointAttributes);
+		} catch (IOException e) {
+			throw new RuntimeException("Could not write checkpoint of year " + year, e);
+		}
 	}
 
 	private void setupScalingYears() {
@@ -125,7 +187,7 @@ public final class SiloModel {
 	private void runYearByYear() {
 
         final HouseholdDataManager householdDataManager = dataContainer.getHouseholdDataManager();
-        for (int year = properties.main.startYear; year < properties.main.endYear; year++) {
+        for (int year = firstYear; year < properties.main.endYear; year++) {
 			logger.warn("###################################################");
 			logger.warn("###################################################");
 			logger.warn("###################################################");
@@ -146,7 +208,13 @@ public final class SiloModel {
                 SiloUtil.summarizeMicroData(year, modelContainer, dataContainer);
             }
             simulator.simulate(year);
+			if (properties.main.trackTime) {
+				SiloUtil.writeOutEventTimeTracker(eventTimeTracker, year);
+			}
 			dataContainer.endYear(year);
+			if (properties.main.checkpointYears.contains(year + 1)) {
+				writeCheckpoint(year + 1);
+			}
 
 			logger.info("  Finished this simulation period with " + householdDataManager.getPersons().size() +
 					" persons, " + householdDataManager.getHouseholds().size() + " households and "  +
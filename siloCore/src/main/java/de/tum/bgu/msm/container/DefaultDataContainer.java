@@ -8,10 +8,15 @@ import de.tum.bgu.msm.data.geo.GeoData;
 import de.tum.bgu.msm.data.household.HouseholdDataManager;
 import de.tum.bgu.msm.data.job.JobDataManager;
 import de.tum.bgu.msm.data.travelTimes.TravelTimes;
+import de.tum.bgu.msm.io.checkpoint.Checkpointable;
 import de.tum.bgu.msm.properties.Properties;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * @author moeckel
  * The Silo Data Container holds all the various Data classes used by the SILO events.
@@ -19,7 +24,7 @@ import org.apache.logging.log4j.Logger;
  * using the respective getter.  \n
  * All the data items are constructed within the ModelContainer
  */
-public class DefaultDataContainer implements DataContainer {
+public class DefaultDataContainer implements DataContainer, Checkpointable {
 
     private final static Logger logger = LogManager.getLogger(DefaultDataContainer.class);
 
@@ -43,6 +48,9 @@ public class DefaultDataContainer implements DataContainer {
         this.householdDataManager = householdDataManager;
         this.travelTimes = new TravelTimesWrapper(travelTimes, properties, geoData);
         this.accessibility = accessibility;
+        if (accessibility != null) {
+            this.travelTimes.addSkimUpdateListener(accessibility::skimsUpdated);
+        }
         this.commutingTimeProbability = commutingTimeProbability;
         this.properties = properties;
     }
@@ -82,6 +90,20 @@ public class DefaultDataContainer implements DataContainer {
     	return commutingTimeProbability;
     }
 
+    /**
+     * Checkpoints the travel time wrapper, which is not accessible from outside, as {@link #getTravelTimes()}
+     * returns the wrapped travel times.
+     */
+    @Override
+    public void writeCheckpoint(DataOutput out) throws IOException {
+        travelTimes.writeCheckpoint(out);
+    }
+
+    @Override
+    public void readCheckpoint(DataInput in) throws IOException {
+        travelTimes.readCheckpoint(in);
+    }
+
     @Override
     public void setup() {
         geoData.setup();
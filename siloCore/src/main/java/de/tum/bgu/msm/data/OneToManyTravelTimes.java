@@ -0,0 +1,45 @@
+package de.tum.bgu.msm.data;
+
+import de.tum.bgu.msm.data.travelTimes.SkimTravelTimes;
+import de.tum.bgu.msm.data.travelTimes.TravelTimes;
+import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix2D;
+
+import java.util.List;
+
+/**
+ * Travel times from one origin to many destinations at the same time of day, which implementations can answer with
+ * a single shortest path tree or a single row of a skim matrix instead of one query per destination. The results
+ * have to be the same as those of {@link TravelTimes#getTravelTime} for each destination.
+ */
+public interface OneToManyTravelTimes {
+
+    /**
+     * @return the travel times in minutes from the origin to each destination, in the order of the destinations
+     */
+    double[] getTravelTimes(Location origin, List<? extends Location> destinations, double timeOfDay_s, String mode);
+
+    /**
+     * Returns the travel times in minutes from the origin to each destination. Uses the one-to-many query if the
+     * travel times support it, a row lookup in the peak skim for skim travel times, and one query per destination
+     * otherwise.
+     */
+    static double[] getTravelTimes(TravelTimes travelTimes, Location origin, List<? extends Location> destinations,
+                                   double timeOfDay_s, String mode) {
+        if (travelTimes instanceof OneToManyTravelTimes) {
+            return ((OneToManyTravelTimes) travelTimes).getTravelTimes(origin, destinations, timeOfDay_s, mode);
+        }
+        final double[] times = new double[destinations.size()];
+        if (travelTimes instanceof SkimTravelTimes) {
+            final IndexedDoubleMatrix2D skim = travelTimes.getPeakSkim(mode);
+            final int originZone = origin.getZoneId();
+            for (int i = 0; i < times.length; i++) {
+                times[i] = skim.getIndexed(originZone, destinations.get(i).getZoneId());
+            }
+        } else {
+            for (int i = 0; i < times.length; i++) {
+                times[i] = travelTimes.getTravelTime(origin, destinations.get(i), timeOfDay_s, mode);
+            }
+        }
+        return times;
+    }
+}
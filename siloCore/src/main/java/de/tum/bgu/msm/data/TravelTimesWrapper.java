@@ -4,13 +4,20 @@ package de.tum.bgu.msm.data;
 import de.tum.bgu.msm.data.geo.GeoData;
 import de.tum.bgu.msm.data.travelTimes.SkimTravelTimes;
 import de.tum.bgu.msm.data.travelTimes.TravelTimes;
+import de.tum.bgu.msm.io.checkpoint.Checkpointable;
 import de.tum.bgu.msm.models.ModelUpdateListener;
 import de.tum.bgu.msm.properties.Properties;
 import de.tum.bgu.msm.properties.modules.TransportModelPropertiesModule;
 import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix2D;
 import de.tum.bgu.msm.utils.TravelTimeUtil;
 
-public class TravelTimesWrapper implements TravelTimes, ModelUpdateListener {
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TravelTimesWrapper implements TravelTimes, OneToManyTravelTimes, ModelUpdateListener, Checkpointable {
 
     @Deprecated
     public TravelTimes getDelegate() {
@@ -21,6 +28,10 @@ public class TravelTimesWrapper implements TravelTimes, ModelUpdateListener {
     private final Properties properties;
     private final GeoData geoData;
 
+    private int skimYear = -1;
+
+    private final List<Runnable> skimUpdateListeners = new ArrayList<>();
+
     public TravelTimesWrapper(TravelTimes travelTimes, Properties properties, GeoData geoData) {
         delegate = travelTimes;
         this.properties = properties;
@@ -33,6 +44,11 @@ public class TravelTimesWrapper implements TravelTimes, ModelUpdateListener {
         return delegate.getTravelTime(origin, destination, timeOfDay_s, mode);
     }
 
+    @Override
+    public double[] getTravelTimes(Location origin, List<? extends Location> destinations, double timeOfDay_s, String mode) {
+        return OneToManyTravelTimes.getTravelTimes(delegate, origin, destinations, timeOfDay_s, mode);
+    }
+
     @Override
     public double getTravelTimeFromRegion(Region region, Zone zone, double v, String s) {
         return delegate.getTravelTimeFromRegion(region, zone, v, s);
@@ -77,11 +93,46 @@ public class TravelTimesWrapper implements TravelTimes, ModelUpdateListener {
 
     }
 
+    /**
+     * Writes the year of the skims in use, so that a resumed run reads the same skims instead of the ones of the start year.
+     */
+    @Override
+    public void writeCheckpoint(DataOutput out) throws IOException {
+        out.writeInt(skimYear);
+    }
+
+    @Override
+    public void readCheckpoint(DataInput in) throws IOException {
+        final int year = in.readInt();
+        if (year > 0 && year != skimYear && delegate instanceof SkimTravelTimes) {
+            updateSkims(year);
+        }
+    }
+
     private void updateSkims(int year) {
         if (properties.transportModel.transportModelIdentifier != TransportModelPropertiesModule.TransportModelIdentifier.MATSIM) {
             TravelTimeUtil.updateCarSkim((SkimTravelTimes) delegate, year, properties);
             TravelTimeUtil.updateTransitSkim((SkimTravelTimes) delegate, year, properties);
             ((SkimTravelTimes) delegate).updateRegionalTravelTimes(geoData.getRegions().values(), geoData.getZones().values());
+            skimYear = year;
+            notifySkimsUpdated();
+        }
+    }
+
+    /**
+     * Registers a listener that is called whenever the skims of the wrapped travel times are updated.
+     */
+    public void addSkimUpdateListener(Runnable listener) {
+        skimUpdateListeners.add(listener);
+    }
+
+    /**
+     * Notifies all listeners that the skims have been updated. Called by the wrapper after reading skims, and to be
+     * called by anyone who modifies the skims of the wrapped travel times in place.
+     */
+    public void notifySkimsUpdated() {
+        for (Runnable listener : skimUpdateListeners) {
+            listener.run();
         }
     }
 }
\ No newline at end of file
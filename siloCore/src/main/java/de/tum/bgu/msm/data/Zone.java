@@ -20,8 +20,17 @@ public interface Zone extends Location, Id {
 
 	SimpleFeature getZoneFeature();
 
+	/**
+	 * Draws a uniformly distributed coordinate within the zone feature.
+	 */
 	Coordinate getRandomCoordinate(Random random);
 
+	/**
+	 * Prepares the zone feature for drawing random coordinates, so that this is not done on the first draw.
+	 */
+	default void prepareGeometry() {
+	}
+
 	Development getDevelopment();
 
     void setDevelopment(Development development);
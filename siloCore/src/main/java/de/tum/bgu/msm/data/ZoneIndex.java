@@ -0,0 +1,88 @@
+package de.tum.bgu.msm.data;
+
+import java.util.*;
+
+/**
+ * Keeps track of the objects located in each zone, so that models do not need to group all dwellings
+ * or jobs by zone again every year. Objects are added to and removed from the list of their zone in
+ * constant time (removal moves the last object of the zone into the freed position).
+ * The index remembers the zone an object was added in, so it has to be told via {@link #update(Id)}
+ * when an object changes its zone.
+ */
+public final class ZoneIndex<T extends Id & Location> {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final Map<Integer, List<T>> objectsByZone = new HashMap<>();
+    private int[] zoneById = EMPTY;
+    private int[] positionById = EMPTY;
+
+    public synchronized void add(T object) {
+        final int id = object.getId();
+        ensureCapacity(id);
+        if (positionById[id] > 0) {
+            remove(id);
+        }
+        final int zone = object.getZoneId();
+        final List<T> objects = objectsByZone.computeIfAbsent(zone, z -> new ArrayList<>());
+        objects.add(object);
+        zoneById[id] = zone;
+        // positions are stored one-based so that zero marks objects that are not indexed
+        positionById[id] = objects.size();
+    }
+
+    public synchronized void remove(T object) {
+        remove(object.getId());
+    }
+
+    /**
+     * Moves the object to the list of its current zone if it changed its zone since it was indexed.
+     */
+    public synchronized void update(T object) {
+        final int id = object.getId();
+        if (id >= positionById.length || positionById[id] == 0 || zoneById[id] != object.getZoneId()) {
+            add(object);
+        }
+    }
+
+    private void remove(int id) {
+        if (id < 0 || id >= positionById.length || positionById[id] == 0) {
+            return;
+        }
+        final List<T> objects = objectsByZone.get(zoneById[id]);
+        final int position = positionById[id] - 1;
+        final T last = objects.remove(objects.size() - 1);
+        if (position < objects.size()) {
+            objects.set(position, last);
+            positionById[last.getId()] = position + 1;
+        }
+        positionById[id] = 0;
+    }
+
+    private void ensureCapacity(int id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Ids must not be negative: " + id);
+        }
+        if (id >= positionById.length) {
+            final int newLength = Math.max(id + 1, positionById.length * 3 / 2 + 16);
+            positionById = Arrays.copyOf(positionById, newLength);
+            zoneById = Arrays.copyOf(zoneById, newLength);
+        }
+    }
+
+    public synchronized void clear() {
+        objectsByZone.clear();
+        Arrays.fill(positionById, 0);
+    }
+
+    /**
+     * Returns an unmodifiable view of the objects in the zone. The view must not be used while the index is modified.
+     */
+    public List<T> getObjectsInZone(int zone) {
+        return Collections.unmodifiableList(objectsByZone.getOrDefault(zone, Collections.emptyList()));
+    }
+
+    public int getNumberOfObjectsInZone(int zone) {
+        return objectsByZone.getOrDefault(zone, Collections.emptyList()).size();
+    }
+}
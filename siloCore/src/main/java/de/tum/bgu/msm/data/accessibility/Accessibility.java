@@ -23,4 +23,10 @@ public interface Accessibility extends ModelUpdateListener {
     double getTransitAccessibilityForZone(Zone zoneId);
 
     double getRegionalAccessibility(Region region);
+
+    /**
+     * Called whenever the skims are replaced or modified in place, so that values derived from them can be dropped.
+     */
+    default void skimsUpdated() {
+    }
 }
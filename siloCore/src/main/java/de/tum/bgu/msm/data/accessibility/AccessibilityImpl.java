@@ -1,13 +1,10 @@
 package de.tum.bgu.msm.data.accessibility;
 
 import cern.jet.math.tdouble.DoubleFunctions;
-import de.tum.bgu.msm.data.Location;
 import de.tum.bgu.msm.data.Region;
 import de.tum.bgu.msm.data.Zone;
-import de.tum.bgu.msm.data.dwelling.Dwelling;
 import de.tum.bgu.msm.data.dwelling.DwellingData;
 import de.tum.bgu.msm.data.geo.GeoData;
-import de.tum.bgu.msm.data.job.Job;
 import de.tum.bgu.msm.data.job.JobData;
 import de.tum.bgu.msm.data.travelTimes.TravelTimes;
 import de.tum.bgu.msm.properties.Properties;
@@ -18,9 +15,8 @@ import org.apache.logging.log4j.Logger;
 import org.matsim.api.core.v01.TransportMode;
 
 import java.util.Collection;
-import java.util.List;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * Calculates and stores accessibilities
@@ -45,6 +41,10 @@ public class AccessibilityImpl implements Accessibility {
     private final float alphaTransit;
     private final float betaTransit;
 
+    private final boolean incremental;
+    private HansenImpedance autoImpedance;
+    private HansenImpedance transitImpedance;
+
     public AccessibilityImpl(GeoData geoData, TravelTimes travelTimes, Properties properties,
                              DwellingData dwellingData, JobData jobData) {
         this.geoData = geoData;
@@ -53,6 +53,7 @@ public class AccessibilityImpl implements Accessibility {
         this.betaAuto = properties.accessibility.betaAuto;
         this.alphaTransit = properties.accessibility.alphaTransit;
         this.betaTransit = properties.accessibility.betaTransit;
+        this.incremental = properties.accessibility.incrementalHansenAccessibility;
         this.dwellingData = dwellingData;
         this.jobData = jobData;
     }
@@ -62,6 +63,8 @@ public class AccessibilityImpl implements Accessibility {
         this.autoAccessibilities = new IndexedDoubleMatrix1D(geoData.getZones().values());
         this.transitAccessibilities = new IndexedDoubleMatrix1D(geoData.getZones().values());
         this.regionalAccessibilities = new IndexedDoubleMatrix1D(geoData.getRegions().values());
+        this.autoImpedance = null;
+        this.transitImpedance = null;
     }
 
     @Override
@@ -69,6 +72,16 @@ public class AccessibilityImpl implements Accessibility {
         calculateHansenAccessibilities(year);
     }
 
+    /**
+     * Drops the cached impedances of the incremental calculation, which are recalculated from the skims on the next
+     * calculation of accessibilities.
+     */
+    @Override
+    public void skimsUpdated() {
+        autoImpedance = null;
+        transitImpedance = null;
+    }
+
     @Override
     public void endYear(int year) {
 
@@ -83,38 +96,32 @@ public class AccessibilityImpl implements Accessibility {
     public void calculateHansenAccessibilities(int year) {
 
         logger.info("  Calculating accessibilities for " + year);
-        final Map<Integer, List<Job>> jobsByZone = jobData.getJobs().stream().collect(Collectors.groupingBy(Location::getZoneId));
         IndexedDoubleMatrix1D employment = new IndexedDoubleMatrix1D(geoData.getZones().values());
-        for(int zoneId : geoData.getZones().keySet()){
-            if (jobsByZone.keySet().contains(zoneId)){
-                employment.setIndexed(zoneId, jobsByZone.get(zoneId).size());
-            } else {
-                employment.setIndexed(zoneId, 0.);
-            }
-
-        }
-
-        final Map<Integer, List<Dwelling>> dwellingsByZone = dwellingData.getDwellings().stream().collect(Collectors.groupingBy(Location::getZoneId));
         IndexedDoubleMatrix1D popDensity = new IndexedDoubleMatrix1D(geoData.getZones().values());
-        for(Map.Entry<Integer, List<Dwelling>> entry: dwellingsByZone.entrySet()) {
-            popDensity.setIndexed(entry.getKey(), entry.getValue().size());
+        for(int zoneId : geoData.getZones().keySet()){
+            employment.setIndexed(zoneId, jobData.getJobsInZone(zoneId).size());
+            popDensity.setIndexed(zoneId, dwellingData.getDwellingsInZone(zoneId).size());
         }
 
-        logger.info("  Calculating zone zone accessibilities: auto");
-        final IndexedDoubleMatrix2D peakTravelTimeMatrixCar =
-                travelTimes.getPeakSkim(TransportMode.car);
-        final IndexedDoubleMatrix2D autoAccessZoneToZone =
-                calculateZoneToZoneAccessibilities(employment, peakTravelTimeMatrixCar, alphaAuto, betaAuto);
-        logger.info("  Calculating zone zone accessibilities: transit");
-        final IndexedDoubleMatrix2D peakTravelTimeMatrixTransit =
-                travelTimes.getPeakSkim(TransportMode.pt);
-        final IndexedDoubleMatrix2D transitAccessZoneToZone =
-                calculateZoneToZoneAccessibilities(employment,
-                        peakTravelTimeMatrixTransit, alphaTransit, betaTransit);
+        if (incremental) {
+            calculateIncrementalAccessibilities(employment);
+        } else {
+            logger.info("  Calculating zone zone accessibilities: auto");
+            final IndexedDoubleMatrix2D peakTravelTimeMatrixCar =
+                    travelTimes.getPeakSkim(TransportMode.car);
+            final IndexedDoubleMatrix2D autoAccessZoneToZone =
+                    calculateZoneToZoneAccessibilities(employment, peakTravelTimeMatrixCar, alphaAuto, betaAuto);
+            logger.info("  Calculating zone zone accessibilities: transit");
+            final IndexedDoubleMatrix2D peakTravelTimeMatrixTransit =
+                    travelTimes.getPeakSkim(TransportMode.pt);
+            final IndexedDoubleMatrix2D transitAccessZoneToZone =
+                    calculateZoneToZoneAccessibilities(employment,
+                            peakTravelTimeMatrixTransit, alphaTransit, betaTransit);
 
-        logger.info("  Aggregating zone accessibilities");
-        aggregateAccessibilities(autoAccessZoneToZone, transitAccessZoneToZone,
-                autoAccessibilities, transitAccessibilities, geoData.getZones().keySet());
+            logger.info("  Aggregating zone accessibilities");
+            aggregateAccessibilities(autoAccessZoneToZone, transitAccessZoneToZone,
+                    autoAccessibilities, transitAccessibilities, geoData.getZones().keySet());
+        }
 
         logger.info("  Scaling zone accessibilities");
         scaleAccessibility(autoAccessibilities);
@@ -197,6 +204,81 @@ public class AccessibilityImpl implements Accessibility {
                 travelTime > 0 ? Math.pow(employment.getIndexed(travelTimesCopy.getIdForInternalColumnIndex(destination)), alpha) * Math.exp(beta * travelTime) : 0);
     }
 
+    private void calculateIncrementalAccessibilities(IndexedDoubleMatrix1D employment) {
+        final IndexedDoubleMatrix2D peakTravelTimeMatrixCar = travelTimes.getPeakSkim(TransportMode.car);
+        if (autoImpedance == null || !autoImpedance.isFor(peakTravelTimeMatrixCar)) {
+            logger.info("  Calculating zone zone impedances: auto");
+            autoImpedance = new HansenImpedance(peakTravelTimeMatrixCar, betaAuto);
+        }
+        final IndexedDoubleMatrix2D peakTravelTimeMatrixTransit = travelTimes.getPeakSkim(TransportMode.pt);
+        if (transitImpedance == null || !transitImpedance.isFor(peakTravelTimeMatrixTransit)) {
+            logger.info("  Calculating zone zone impedances: transit");
+            transitImpedance = new HansenImpedance(peakTravelTimeMatrixTransit, betaTransit);
+        }
+        logger.info("  Aggregating zone accessibilities");
+        autoImpedance.aggregateAccessibilities(employment, alphaAuto, autoAccessibilities, geoData.getZones().keySet());
+        transitImpedance.aggregateAccessibilities(employment, alphaTransit, transitAccessibilities, geoData.getZones().keySet());
+    }
+
+    /**
+     * Keeps e^(beta * traveltime_ij) of a travel time matrix, so that the Hansen accessibilities can be
+     * recalculated for a new employment vector without evaluating the exponential function for every pair of zones.
+     * The cache remembers the travel time matrix it was calculated for and is considered outdated as soon as the skim
+     * is a different object. Skims that are modified in place have to be announced with
+     * {@link AccessibilityImpl#skimsUpdated()}.
+     */
+    static final class HansenImpedance {
+
+        private final IndexedDoubleMatrix2D travelTimes;
+        private final double[][] impedance;
+        private final int[] destinationIds;
+        private final Map<Integer, Integer> originIndexById = new HashMap<>();
+
+        HansenImpedance(IndexedDoubleMatrix2D travelTimes, double beta) {
+            this.travelTimes = travelTimes;
+            final int origins = travelTimes.rows();
+            final int destinations = travelTimes.columns();
+            this.impedance = new double[origins][destinations];
+            this.destinationIds = new int[destinations];
+            for (int destination = 0; destination < destinations; destination++) {
+                destinationIds[destination] = travelTimes.getIdForInternalColumnIndex(destination);
+            }
+            for (int origin = 0; origin < origins; origin++) {
+                final int originId = travelTimes.getIdForInternalRowIndex(origin);
+                originIndexById.put(originId, origin);
+                final double[] row = impedance[origin];
+                for (int destination = 0; destination < destinations; destination++) {
+                    final double travelTime = travelTimes.getIndexed(originId, destinationIds[destination]);
+                    row[destination] = travelTime > 0 ? Math.exp(beta * travelTime) : 0;
+                }
+            }
+        }
+
+        boolean isFor(IndexedDoubleMatrix2D travelTimes) {
+            return this.travelTimes == travelTimes;
+        }
+
+        /**
+         * Writes the sum over all destinations j of employment_j^alpha * e^(beta * traveltime_ij) for every origin i
+         * in the given keys to the accessibility vector.
+         */
+        void aggregateAccessibilities(IndexedDoubleMatrix1D employment, double alpha,
+                                      IndexedDoubleMatrix1D accessibilities, Collection<Integer> keys) {
+            final double[] attraction = new double[destinationIds.length];
+            for (int destination = 0; destination < destinationIds.length; destination++) {
+                attraction[destination] = Math.pow(employment.getIndexed(destinationIds[destination]), alpha);
+            }
+            for (int key : keys) {
+                final double[] row = impedance[originIndexById.get(key)];
+                double sum = 0;
+                for (int destination = 0; destination < row.length; destination++) {
+                    sum += attraction[destination] * row[destination];
+                }
+                accessibilities.setIndexed(key, sum);
+            }
+        }
+    }
+
     @Override
     public double getAutoAccessibilityForZone(Zone zone) {
     	// Can be combined with getTransitAccessibilityForZone into one method which get the mode
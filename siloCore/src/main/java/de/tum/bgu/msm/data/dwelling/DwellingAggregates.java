@@ -0,0 +1,245 @@
+package de.tum.bgu.msm.data.dwelling;
+
+import de.tum.bgu.msm.data.Zone;
+import de.tum.bgu.msm.data.geo.GeoData;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregates of all dwellings by dwelling type and zone (and rolled up to regions): number of dwellings,
+ * number of vacant dwellings, sum of prices and sum of bedrooms, plus the number of dwellings by quality.
+ * The aggregates are calculated in a single pass over all dwellings, zones are processed in parallel.
+ * They are a snapshot and are not updated when dwellings change afterwards.
+ * Types are referred to by their index in the list of dwelling types, zones and regions by their id.
+ */
+public final class DwellingAggregates {
+
+    private final List<DwellingType> types;
+    private final int zoneSlots;
+    private final int regionSlots;
+
+    private final int[] countByTypeAndZone;
+    private final int[] vacantByTypeAndZone;
+    private final long[] priceSumByTypeAndZone;
+    private final long[] sizeSumByTypeAndZone;
+
+    private final int[] countByTypeAndRegion;
+    private final int[] vacantByTypeAndRegion;
+    private final long[] priceSumByTypeAndRegion;
+    private final long[] sizeSumByTypeAndRegion;
+
+    private int[] countByQuality = new int[0];
+    private int totalCount = 0;
+
+    private DwellingAggregates(List<DwellingType> types, int highestZoneId, int highestRegionId) {
+        this.types = types;
+        this.zoneSlots = highestZoneId + 1;
+        this.regionSlots = highestRegionId + 1;
+        countByTypeAndZone = new int[types.size() * zoneSlots];
+        vacantByTypeAndZone = new int[types.size() * zoneSlots];
+        priceSumByTypeAndZone = new long[types.size() * zoneSlots];
+        sizeSumByTypeAndZone = new long[types.size() * zoneSlots];
+        countByTypeAndRegion = new int[types.size() * regionSlots];
+        vacantByTypeAndRegion = new int[types.size() * regionSlots];
+        priceSumByTypeAndRegion = new long[types.size() * regionSlots];
+        sizeSumByTypeAndRegion = new long[types.size() * regionSlots];
+    }
+
+    /**
+     * Calculates the aggregates of all dwellings located in the zones of geoData. Every zone is handled by
+     * one task of a parallel stream and only writes to the cells of its own zone, the results by region
+     * and by quality are summed up afterwards.
+     */
+    public static DwellingAggregates calculate(DwellingData dwellingData, List<DwellingType> types, GeoData geoData) {
+        final Collection<Zone> zones = geoData.getZones().values();
+        final int highestZoneId = zones.stream().mapToInt(Zone::getZoneId).max().orElse(0);
+        final int highestRegionId = geoData.getRegions().keySet().stream().mapToInt(Integer::intValue).max().orElse(0);
+        final DwellingAggregates aggregates = new DwellingAggregates(types, highestZoneId, highestRegionId);
+
+        final int[][] countByZoneAndQuality = new int[highestZoneId + 1][];
+        zones.parallelStream().forEach(zone -> {
+            final int zoneId = zone.getZoneId();
+            int[] countByQuality = new int[0];
+            for (Dwelling dd : dwellingData.getDwellingsInZone(zoneId)) {
+                final int cell = types.indexOf(dd.getType()) * aggregates.zoneSlots + zoneId;
+                aggregates.countByTypeAndZone[cell]++;
+                if (dd.getResidentId() <= 0) {
+                    aggregates.vacantByTypeAndZone[cell]++;
+                }
+                aggregates.priceSumByTypeAndZone[cell] += dd.getPrice();
+                aggregates.sizeSumByTypeAndZone[cell] += dd.getBedrooms();
+                countByQuality = increment(countByQuality, dd.getQuality());
+            }
+            countByZoneAndQuality[zoneId] = countByQuality;
+        });
+
+        for (Zone zone : zones) {
+            final int zoneId = zone.getZoneId();
+            final int regionId = zone.getRegion().getId();
+            for (int type = 0; type < types.size(); type++) {
+                final int zoneCell = type * aggregates.zoneSlots + zoneId;
+                final int regionCell = type * aggregates.regionSlots + regionId;
+                aggregates.countByTypeAndRegion[regionCell] += aggregates.countByTypeAndZone[zoneCell];
+                aggregates.vacantByTypeAndRegion[regionCell] += aggregates.vacantByTypeAndZone[zoneCell];
+                aggregates.priceSumByTypeAndRegion[regionCell] += aggregates.priceSumByTypeAndZone[zoneCell];
+                aggregates.sizeSumByTypeAndRegion[regionCell] += aggregates.sizeSumByTypeAndZone[zoneCell];
+                aggregates.totalCount += aggregates.countByTypeAndZone[zoneCell];
+            }
+            final int[] countByQuality = countByZoneAndQuality[zoneId];
+            if (aggregates.countByQuality.length < countByQuality.length) {
+                aggregates.countByQuality = Arrays.copyOf(aggregates.countByQuality, countByQuality.length);
+            }
+            for (int quality = 0; quality < countByQuality.length; quality++) {
+                aggregates.countByQuality[quality] += countByQuality[quality];
+            }
+        }
+        return aggregates;
+    }
+
+    private static int[] increment(int[] counts, int index) {
+        if (index < 0) {
+            throw new IllegalArgumentException("Dwelling quality must not be negative: " + index);
+        }
+        if (index >= counts.length) {
+            counts = Arrays.copyOf(counts, index + 1);
+        }
+        counts[index]++;
+        return counts;
+    }
+
+    public List<DwellingType> getTypes() {
+        return types;
+    }
+
+    public int getHighestZoneId() {
+        return zoneSlots - 1;
+    }
+
+    public int getHighestRegionId() {
+        return regionSlots - 1;
+    }
+
+    public int getCountInZone(int type, int zone) {
+        return countByTypeAndZone[type * zoneSlots + zone];
+    }
+
+    public int getVacantInZone(int type, int zone) {
+        return vacantByTypeAndZone[type * zoneSlots + zone];
+    }
+
+    public long getPriceSumInZone(int type, int zone) {
+        return priceSumByTypeAndZone[type * zoneSlots + zone];
+    }
+
+    public long getSizeSumInZone(int type, int zone) {
+        return sizeSumByTypeAndZone[type * zoneSlots + zone];
+    }
+
+    public int getCountInRegion(int type, int region) {
+        return countByTypeAndRegion[type * regionSlots + region];
+    }
+
+    public int getVacantInRegion(int type, int region) {
+        return vacantByTypeAndRegion[type * regionSlots + region];
+    }
+
+    public long getPriceSumInRegion(int type, int region) {
+        return priceSumByTypeAndRegion[type * regionSlots + region];
+    }
+
+    public long getSizeSumInRegion(int type, int region) {
+        return sizeSumByTypeAndRegion[type * regionSlots + region];
+    }
+
+    /**
+     * @return number of dwellings of all types in the region
+     */
+    public int getCountInRegion(int region) {
+        int count = 0;
+        for (int type = 0; type < types.size(); type++) {
+            count += getCountInRegion(type, region);
+        }
+        return count;
+    }
+
+    public int getCount(int type) {
+        return sum(countByTypeAndRegion, type);
+    }
+
+    public int getVacant(int type) {
+        return sum(vacantByTypeAndRegion, type);
+    }
+
+    public long getPriceSum(int type) {
+        long sum = 0;
+        for (int region = 0; region < regionSlots; region++) {
+            sum += priceSumByTypeAndRegion[type * regionSlots + region];
+        }
+        return sum;
+    }
+
+    private int sum(int[] valuesByTypeAndRegion, int type) {
+        int sum = 0;
+        for (int region = 0; region < regionSlots; region++) {
+            sum += valuesByTypeAndRegion[type * regionSlots + region];
+        }
+        return sum;
+    }
+
+    /**
+     * @return average price of the type in the zone, or 0 if there is no such dwelling in the zone
+     */
+    public double getAveragePriceInZone(int type, int zone) {
+        final int count = getCountInZone(type, zone);
+        return count > 0 ? getPriceSumInZone(type, zone) / (double) count : 0;
+    }
+
+    /**
+     * @return average price of the type in the region, or 0 if there is no such dwelling in the region
+     */
+    public double getAveragePriceInRegion(int type, int region) {
+        final int count = getCountInRegion(type, region);
+        return count > 0 ? getPriceSumInRegion(type, region) / (double) count : 0;
+    }
+
+    /**
+     * @return average number of bedrooms of the type in the region, or 0 if there is no such dwelling in the region
+     */
+    public float getAverageSizeInRegion(int type, int region) {
+        final int count = getCountInRegion(type, region);
+        return count > 0 ? (float) getSizeSumInRegion(type, region) / count : 0;
+    }
+
+    /**
+     * @return share of vacant dwellings of the type in the region, or 0 if there is no such dwelling in the region
+     */
+    public double getVacancyRateInRegion(int type, int region) {
+        final int count = getCountInRegion(type, region);
+        return count > 0 ? (double) getVacantInRegion(type, region) / (double) count : 0.;
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public int getCountByQuality(int quality) {
+        return quality >= 0 && quality < countByQuality.length ? countByQuality[quality] : 0;
+    }
+
+    /**
+     * @return share of all dwellings by quality level, for the quality levels that occur, in ascending order
+     */
+    public Map<Integer, Double> getQualityShares() {
+        final Map<Integer, Double> shares = new LinkedHashMap<>();
+        for (int quality = 0; quality < countByQuality.length; quality++) {
+            if (countByQuality[quality] > 0) {
+                shares.put(quality, ((double) countByQuality[quality]) / totalCount);
+            }
+        }
+        return shares;
+    }
+}
@@ -1,12 +1,19 @@
 package de.tum.bgu.msm.data.dwelling;
 
 import java.util.Collection;
+import java.util.List;
 
 public interface DwellingData {
     Dwelling getDwelling(int dwellingId);
 
     Collection<Dwelling> getDwellings();
 
+    /**
+     * Returns an unmodifiable view of the dwellings in the given zone, which is kept up to date
+     * as dwellings are added and removed.
+     */
+    List<Dwelling> getDwellingsInZone(int zoneId);
+
     void removeDwelling(int id);
 
     void addDwelling(Dwelling dwelling);
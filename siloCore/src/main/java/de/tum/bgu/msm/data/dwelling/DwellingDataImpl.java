@@ -1,13 +1,30 @@
 package de.tum.bgu.msm.data.dwelling;
 
+import de.tum.bgu.msm.data.ZoneIndex;
+import de.tum.bgu.msm.utils.DenseIdMap;
+
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class DwellingDataImpl implements DwellingData {
 
 
-    private final Map<Integer, Dwelling> dwellings = new ConcurrentHashMap<>();
+    private final Map<Integer, Dwelling> dwellings;
+    private final ZoneIndex<Dwelling> dwellingsByZone = new ZoneIndex<>();
+
+    public DwellingDataImpl() {
+        this(false);
+    }
+
+    /**
+     * @param idIndexed if true, dwellings are stored in an array indexed by their id (see {@link DenseIdMap})
+     *                  instead of a hash map. Saves memory if dwelling ids are dense.
+     */
+    public DwellingDataImpl(boolean idIndexed) {
+        dwellings = idIndexed ? new DenseIdMap<>() : new ConcurrentHashMap<>();
+    }
 
     @Override
     public Dwelling getDwelling(int dwellingId) {
@@ -19,16 +36,22 @@ public class DwellingDataImpl implements DwellingData {
         return dwellings.values();
     }
 
+    @Override
+    public List<Dwelling> getDwellingsInZone(int zoneId) {
+        return dwellingsByZone.getObjectsInZone(zoneId);
+    }
+
     @Override
     public void removeDwelling(int id) {
-        dwellings.remove(id);
+        Dwelling dwelling = dwellings.remove(id);
+        if (dwelling != null) {
+            dwellingsByZone.remove(dwelling);
+        }
     }
 
     @Override
     public void addDwelling(Dwelling dwelling) {
-        if(dwellings.get(dwelling.getId())!=null){
-
-        }
         dwellings.put(dwelling.getId(), dwelling);
+        dwellingsByZone.add(dwelling);
     }
 }
@@ -4,8 +4,11 @@ import de.tum.bgu.msm.data.household.IncomeCategory;
 import de.tum.bgu.msm.models.ModelUpdateListener;
 
 import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 public interface RealEstateDataManager extends ModelUpdateListener {
 
@@ -23,6 +26,16 @@ public interface RealEstateDataManager extends ModelUpdateListener {
 
     List<Dwelling> getListOfVacantDwellingsInRegion(int region);
 
+    /**
+     * Returns up to count distinct vacant dwellings of the region, drawn uniformly at random in random order.
+     * Does not modify the vacancy list and may be called concurrently while no vacancies are added or removed.
+     */
+    default List<Dwelling> sampleVacantDwellingsInRegion(int region, int count, Random random) {
+        List<Dwelling> vacantDwellings = new ArrayList<>(getListOfVacantDwellingsInRegion(region));
+        Collections.shuffle(vacantDwellings, random);
+        return vacantDwellings.subList(0, Math.min(count, vacantDwellings.size()));
+    }
+
     int getNumberOfVacantDDinRegion(int region);
 
     DwellingTypes getDwellingTypes();
@@ -51,6 +64,20 @@ public interface RealEstateDataManager extends ModelUpdateListener {
 
     int[][] getDwellingCountByTypeAndRegion();
 
+    /**
+     * Returns the aggregates of all dwellings by type and zone as of their last calculation. They are
+     * recalculated at the beginning of every year, and again on the first call after dwellings were added
+     * or removed or became vacant or occupied, so that all models of a phase share one calculation instead of
+     * going through all dwellings again. Prices, sizes and qualities changed on the dwellings themselves are
+     * picked up with the next recalculation.
+     */
+    DwellingAggregates getDwellingAggregates();
+
+    /**
+     * Recalculates the aggregates of all dwellings from their current state.
+     */
+    DwellingAggregates calculateDwellingAggregates();
+
     double getAvailableCapacityForConstruction(int zone);
 
     void convertLand(int zone, float acres);
@@ -10,16 +10,20 @@ import de.tum.bgu.msm.data.geo.GeoData;
 import de.tum.bgu.msm.data.household.HouseholdData;
 import de.tum.bgu.msm.data.household.HouseholdUtil;
 import de.tum.bgu.msm.data.household.IncomeCategory;
+import de.tum.bgu.msm.io.checkpoint.Checkpointable;
+import de.tum.bgu.msm.io.columnar.ColumnarTable;
 import de.tum.bgu.msm.io.output.DefaultDwellingWriter;
 import de.tum.bgu.msm.properties.Properties;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.math.RoundingMode;
 import java.text.DecimalFormat;
 import java.util.*;
-import java.util.stream.Collectors;
 
 import static de.tum.bgu.msm.data.dwelling.RealEstateUtils.RENT_CATEGORIES;
 
@@ -28,7 +32,7 @@ import static de.tum.bgu.msm.data.dwelling.RealEstateUtils.RENT_CATEGORIES;
  * Author: Rolf Moeckel, PB Albuquerque
  * Created on 7 January 2010 in Rhede
  **/
-public class RealEstateDataManagerImpl implements RealEstateDataManager {
+public class RealEstateDataManagerImpl implements RealEstateDataManager, Checkpointable {
 
     private final static Logger logger = LogManager.getLogger(RealEstateDataManagerImpl.class);
 
@@ -54,11 +58,17 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
     private int highestDwellingIdInUse;
     private static final Map<IncomeCategory, Map<Integer, Float>> ddPriceByIncomeCategory = new EnumMap<>(IncomeCategory.class);
 
-    private Map<Integer, List<Dwelling>> vacDwellingsByRegion = new LinkedHashMap<>();
+    private final VacantDwellingIndex vacDwellingsByRegion = new VacantDwellingIndex();
 
     private double[] avePrice;
     private double[] aveVac;
 
+    /**
+     * Aggregates shared by all models of a phase, null if dwellings were added or removed or became vacant or occupied
+     * since they were calculated.
+     */
+    private DwellingAggregates dwellingAggregates;
+
     private final DwellingTypes dwellingTypes;
 
     public RealEstateDataManagerImpl(DwellingTypes dwellingTypes, DwellingData dwellingData,
@@ -93,12 +103,107 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
 
     @Override
     public void prepareYear(int year) {
-        calculateRegionWidePriceAndVacancyByDwellingType();
+        final DwellingAggregates aggregates = calculateDwellingAggregates();
+        calculateRegionWidePriceAndVacancyByDwellingType(aggregates);
         updatedQualityShares.clear();
-        Map<Integer, List<Dwelling>> sortedDds = dwellingData.getDwellings().stream().collect(Collectors.groupingBy(Dwelling::getQuality));
-        for(Map.Entry<Integer, List<Dwelling>> entry: sortedDds.entrySet()) {
-            updatedQualityShares.put(entry.getKey(), ((double) entry.getValue().size()) / dwellingData.getDwellings().size());
+        updatedQualityShares.putAll(aggregates.getQualityShares());
+    }
+
+    /**
+     * Writes the state derived from the micro data of the start year, the order of the vacancy lists and the
+     * remaining development capacity of all zones.
+     */
+    @Override
+    public void writeCheckpoint(DataOutput out) throws IOException {
+        out.writeInt(highestDwellingIdInUse);
+        out.writeInt(largestNoBedrooms);
+        out.writeInt(initialQualityShares.size());
+        for (Map.Entry<Integer, Double> share : initialQualityShares.entrySet()) {
+            out.writeInt(share.getKey());
+            out.writeDouble(share.getValue());
+        }
+        for (IncomeCategory incomeCategory : IncomeCategory.values()) {
+            final Map<Integer, Float> shares = ddPriceByIncomeCategory.getOrDefault(incomeCategory, Collections.emptyMap());
+            out.writeInt(shares.size());
+            for (Map.Entry<Integer, Float> share : shares.entrySet()) {
+                out.writeInt(share.getKey());
+                out.writeFloat(share.getValue());
+            }
+        }
+
+        out.writeInt(vacDwellingsByRegion.getRegions().size());
+        for (int region : vacDwellingsByRegion.getRegions()) {
+            final List<Dwelling> vacantDwellings = vacDwellingsByRegion.getVacantDwellings(region);
+            out.writeInt(region);
+            out.writeInt(vacantDwellings.size());
+            for (Dwelling dd : vacantDwellings) {
+                out.writeInt(dd.getId());
+            }
+        }
+
+        final List<Zone> developedZones = new ArrayList<>();
+        for (Zone zone : geoData.getZones().values()) {
+            if (zone.getDevelopment() != null) {
+                developedZones.add(zone);
+            }
+        }
+        out.writeInt(developedZones.size());
+        for (Zone zone : developedZones) {
+            out.writeInt(zone.getZoneId());
+            out.writeDouble(zone.getDevelopment().getDevelopableArea());
+            out.writeInt(zone.getDevelopment().getDwellingCapacity());
+        }
+    }
+
+    @Override
+    public void readCheckpoint(DataInput in) throws IOException {
+        highestDwellingIdInUse = in.readInt();
+        largestNoBedrooms = in.readInt();
+        initialQualityShares.clear();
+        final int qualityLevels = in.readInt();
+        for (int i = 0; i < qualityLevels; i++) {
+            initialQualityShares.put(in.readInt(), in.readDouble());
+        }
+        for (IncomeCategory incomeCategory : IncomeCategory.values()) {
+            final Map<Integer, Float> shares = new LinkedHashMap<>();
+            final int rentCategories = in.readInt();
+            for (int i = 0; i < rentCategories; i++) {
+                shares.put(in.readInt(), in.readFloat());
+            }
+            ddPriceByIncomeCategory.put(incomeCategory, shares);
+        }
+
+        vacDwellingsByRegion.clear();
+        final int regions = in.readInt();
+        for (int i = 0; i < regions; i++) {
+            final int region = in.readInt();
+            final int vacantDwellings = in.readInt();
+            for (int j = 0; j < vacantDwellings; j++) {
+                vacDwellingsByRegion.add(region, dwellingData.getDwelling(in.readInt()));
+            }
+        }
+
+        // the development of the zones is read from the input files in setup and reduced to the saved state
+        final int zones = in.readInt();
+        for (int i = 0; i < zones; i++) {
+            final Development development = geoData.getZones().get(in.readInt()).getDevelopment();
+            development.changeAreaBy(in.readDouble() - development.getDevelopableArea());
+            development.changeCapacityBy(in.readInt() - development.getDwellingCapacity());
+        }
+    }
+
+    @Override
+    public DwellingAggregates getDwellingAggregates() {
+        if (dwellingAggregates == null) {
+            return calculateDwellingAggregates();
         }
+        return dwellingAggregates;
+    }
+
+    @Override
+    public DwellingAggregates calculateDwellingAggregates() {
+        dwellingAggregates = DwellingAggregates.calculate(dwellingData, dwellingTypes.getTypes(), geoData);
+        return dwellingAggregates;
     }
 
     @Override
@@ -109,7 +214,7 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
                     + properties.realEstate.dwellingsIntermediatesFileName
                     + "_"
                     + year
-                    + ".csv";
+                    + ColumnarTable.getMicroDataExtension(properties);
             new DefaultDwellingWriter(this.dwellingData.getDwellings()).writeDwellings(filedd);
         }
     }
@@ -121,7 +226,7 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
                 + properties.realEstate.dwellingsFinalFileName
                 + "_"
                 + properties.main.endYear
-                + ".csv";
+                + ColumnarTable.getMicroDataExtension(properties);
         new DefaultDwellingWriter(this.dwellingData.getDwellings()).writeDwellings(filedd);
     }
 
@@ -153,13 +258,17 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
      */
     @Override
     public List<Dwelling> getListOfVacantDwellingsInRegion(int region) {
-        return Collections.unmodifiableList(vacDwellingsByRegion.getOrDefault(region,
-                new ArrayList<>()));
+        return vacDwellingsByRegion.getVacantDwellings(region);
+    }
+
+    @Override
+    public List<Dwelling> sampleVacantDwellingsInRegion(int region, int count, Random random) {
+        return vacDwellingsByRegion.sample(region, count, random);
     }
 
     @Override
     public int getNumberOfVacantDDinRegion(int region) {
-        return vacDwellingsByRegion.getOrDefault(region, new ArrayList<>()).size();
+        return vacDwellingsByRegion.getNumberOfVacantDwellings(region);
     }
 
     @Override
@@ -180,11 +289,13 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
     @Override
     public void removeDwelling(int id) {
         dwellingData.removeDwelling(id);
+        dwellingAggregates = null;
     }
 
     @Override
     public void addDwelling(Dwelling dwelling) {
         this.dwellingData.addDwelling(dwelling);
+        dwellingAggregates = null;
     }
 
 
@@ -199,23 +310,20 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
                 int dwellingId = dd.getId();
                 //logger.info(dwellingId);
                 int region = geoData.getZones().get(dd.getZoneId()).getRegion().getId();
-                vacDwellingsByRegion.putIfAbsent(region, new ArrayList<>());
-                vacDwellingsByRegion.get(region).add(dd);
+                vacDwellingsByRegion.add(region, dd);
                 if (dwellingId == SiloUtil.trackDd) {
                     SiloUtil.trackWriter.println("Added dwelling " + dwellingId + " to list of vacant dwelling.");
                 }
             }
         }
+        dwellingAggregates = null;
     }
 
     /**
      *  Count number of dwellings by quality and calculate average quality
      */
     private void calculateInitialDistributionOfDwellingQualityLevels() {
-        Map<Integer, List<Dwelling>> sortedDds = dwellingData.getDwellings().stream().collect(Collectors.groupingBy(Dwelling::getQuality));
-        for(Map.Entry<Integer, List<Dwelling>> entry: sortedDds.entrySet()) {
-            initialQualityShares.put(entry.getKey(), ((double) entry.getValue().size()) / dwellingData.getDwellings().size());
-        }
+        initialQualityShares.putAll(calculateDwellingAggregates().getQualityShares());
     }
 
     /**
@@ -224,13 +332,23 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
      */
     @Override
     public Map<Integer, Double> calculateRegionalPrices() {
-        final Map<Integer, Zone> zones = geoData.getZones();
-        final Map<Integer, List<Dwelling>> dwellingsByRegion =
-                dwellingData.getDwellings().parallelStream().collect(Collectors.groupingByConcurrent(d ->
-                        zones.get(d.getZoneId()).getRegion().getId()));
-        //We set
-        final Map<Integer, Double> rentsByRegion = geoData.getRegions().entrySet().parallelStream()
-                .collect(Collectors.toMap(Map.Entry::getKey, e -> dwellingsByRegion.getOrDefault(e.getKey(),Collections.emptyList()).stream().mapToDouble(Dwelling::getPrice).average().orElse(Double.POSITIVE_INFINITY)));
+        final Map<Integer, long[]> priceSumAndCountByRegion = new HashMap<>();
+        for (Zone zone : geoData.getZones().values()) {
+            final long[] priceSumAndCount = priceSumAndCountByRegion.computeIfAbsent(zone.getRegion().getId(), r -> new long[2]);
+            for (Dwelling dwelling : dwellingData.getDwellingsInZone(zone.getZoneId())) {
+                priceSumAndCount[0] += dwelling.getPrice();
+                priceSumAndCount[1]++;
+            }
+        }
+        final Map<Integer, Double> rentsByRegion = new HashMap<>();
+        for (Integer region : geoData.getRegions().keySet()) {
+            final long[] priceSumAndCount = priceSumAndCountByRegion.get(region);
+            if (priceSumAndCount == null || priceSumAndCount[1] == 0) {
+                rentsByRegion.put(region, Double.POSITIVE_INFINITY);
+            } else {
+                rentsByRegion.put(region, (double) priceSumAndCount[0] / priceSumAndCount[1]);
+            }
+        }
         return rentsByRegion;
     }
 
@@ -285,17 +403,13 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
     @Override
     public void removeDwellingFromVacancyList(int ddId) {
 
-        boolean found = false;
-
         Dwelling dwelling = dwellingData.getDwelling(ddId);
         int region = geoData.getZones().get(dwelling.getZoneId()).getRegion().getId();
-        List<Dwelling> vacDwellings = vacDwellingsByRegion.get(region);
-        if (vacDwellings != null) {
-            found = vacDwellings.remove(dwelling);
-            if (ddId == SiloUtil.trackDd) {
-                SiloUtil.trackWriter.println("Removed dwelling " + ddId +
-                        " from list of vacant dwellings.");
-            }
+        boolean found = vacDwellingsByRegion.remove(region, dwelling);
+        dwellingAggregates = null;
+        if (found && ddId == SiloUtil.trackDd) {
+            SiloUtil.trackWriter.println("Removed dwelling " + ddId +
+                    " from list of vacant dwellings.");
         }
 
         if (!found) {
@@ -312,8 +426,10 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
     public void addDwellingToVacancyList(Dwelling dd) {
 
         int region = geoData.getZones().get(dd.getZoneId()).getRegion().getId();
-        vacDwellingsByRegion.putIfAbsent(region, new ArrayList<>());
-        vacDwellingsByRegion.get(region).add(dd);
+        if (!vacDwellingsByRegion.add(region, dd)) {
+            logger.warn("Consistency error: Dwelling " + dd.getId() + " is already in list of vacant dwellings.");
+        }
+        dwellingAggregates = null;
         if (dd.getId() == SiloUtil.trackDd) {
             SiloUtil.trackWriter.println("Added dwelling " + dd.getId() +
                     " to list of vacant dwellings.");
@@ -321,24 +437,11 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
     }
 
 
-    private void calculateRegionWidePriceAndVacancyByDwellingType() {
+    private void calculateRegionWidePriceAndVacancyByDwellingType(DwellingAggregates aggregates) {
         // calculate region-wide average dwelling costs and vacancy by dwelling type
         logger.info("Updating region-wide average dwelling costs and vacancies:");
 
         int distinctDdTypes = dwellingTypes.getTypes().size();
-        int[][] vacOcc = SiloUtil.setArrayToValue(new int[2][distinctDdTypes], 0);
-        long[] price = SiloUtil.setArrayToValue(new long[distinctDdTypes], 0);
-
-        for (Dwelling dd : dwellingData.getDwellings()) {
-            int dto = dwellingTypes.getTypes().indexOf(dd.getType());
-            price[dto] += dd.getPrice();
-
-            if (dd.getResidentId() > 0) {
-                vacOcc[1][dto]++;
-            } else {
-                vacOcc[0][dto]++;
-            }
-        }
         aveVac = new double[distinctDdTypes];
         avePrice = new double[distinctDdTypes];
 
@@ -347,9 +450,10 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
         for (DwellingType dt : dwellingTypes.getTypes()) {
             int dto = dwellingTypes.getTypes().indexOf(dt);
 
-            if (vacOcc[0][dto] + vacOcc[1][dto] > 0) {
-                aveVac[dto] = (double) vacOcc[0][dto] / (double) (vacOcc[0][dto] + vacOcc[1][dto]);
-                avePrice[dto] = price[dto] / (double) (vacOcc[0][dto] + vacOcc[1][dto]);
+            final int count = aggregates.getCount(dto);
+            if (count > 0) {
+                aveVac[dto] = (double) aggregates.getVacant(dto) / (double) count;
+                avePrice[dto] = aggregates.getPriceSum(dto) / (double) count;
 
             } else {
                 aveVac[dto] = 0;
@@ -363,27 +467,11 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
     @Override
     public double[][] getVacancyRateByTypeAndRegion() {
         // calculate vacancy rate by region and dwelling type
-        final int highestRegionId = geoData.getRegions().keySet().stream().mapToInt(Integer::intValue).max().getAsInt();
-        int[][][] vacOcc = SiloUtil.setArrayToValue(new int[2][dwellingTypes.getTypes().size()][highestRegionId + 1], 0);
-
-        for (Dwelling dd : dwellingData.getDwellings()) {
-            int dto = dwellingTypes.getTypes().indexOf(dd.getType());
-            if (dd.getResidentId() > 0) {
-                vacOcc[1][dto][geoData.getZones().get(dd.getZoneId()).getRegion().getId()]++;
-            } else {
-                vacOcc[0][dto][geoData.getZones().get(dd.getZoneId()).getRegion().getId()]++;
-            }
-        }
-
-        double[][] vacRate = new double[dwellingTypes.getTypes().size()][highestRegionId + 1];
-        for (DwellingType dt : dwellingTypes.getTypes()) {
-            int dto = dwellingTypes.getTypes().indexOf(dt);
+        final DwellingAggregates aggregates = getDwellingAggregates();
+        double[][] vacRate = new double[dwellingTypes.getTypes().size()][aggregates.getHighestRegionId() + 1];
+        for (int dto = 0; dto < dwellingTypes.getTypes().size(); dto++) {
             for (int region : geoData.getRegions().keySet()) {
-                if ((vacOcc[0][dto][region] + vacOcc[1][dto][region]) > 0) {
-                    vacRate[dto][region] = (double) vacOcc[0][dto][region] / (double) (vacOcc[0][dto][region] + vacOcc[1][dto][region]);
-                } else {
-                    vacRate[dto][region] = 0.;
-                }
+                vacRate[dto][region] = aggregates.getVacancyRateInRegion(dto, region);
             }
         }
         return vacRate;
@@ -411,12 +499,13 @@ public class RealEstateDataManagerImpl implements RealEstateDataManager {
     @Override
     public int[][] getDwellingCountByTypeAndRegion() {
         // return number of dwellings by type and region
-        final int highestRegionId = geoData.getRegions().keySet().stream().mapToInt(Integer::intValue).max().getAsInt();
+        final DwellingAggregates aggregates = getDwellingAggregates();
         int[][] dwellingCount =
-                SiloUtil.setArrayToValue(new int[dwellingTypes.getTypes().size()][highestRegionId + 1], 1);
-
-        for (Dwelling dd : dwellingData.getDwellings()) {
-            dwellingCount[dwellingTypes.getTypes().indexOf(dd.getType())][geoData.getZones().get(dd.getZoneId()).getRegion().getId()]++;
+                SiloUtil.setArrayToValue(new int[dwellingTypes.getTypes().size()][aggregates.getHighestRegionId() + 1], 1);
+        for (int dto = 0; dto < dwellingTypes.getTypes().size(); dto++) {
+            for (int region = 0; region <= aggregates.getHighestRegionId(); region++) {
+                dwellingCount[dto][region] += aggregates.getCountInRegion(dto, region);
+            }
         }
         return dwellingCount;
     }
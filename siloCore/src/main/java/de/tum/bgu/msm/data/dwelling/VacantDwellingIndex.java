@@ -0,0 +1,233 @@
+package de.tum.bgu.msm.data.dwelling;
+
+import java.util.*;
+
+/**
+ * Keeps the vacant dwellings of every region in the order in which they became vacant, exactly like an array list
+ * that vacant dwellings are appended to and removed from. Every dwelling occupies a slot of its region, removed
+ * dwellings leave an empty slot, and a Fenwick tree counts the vacant dwellings up to each slot. Thus adding and
+ * removing a vacancy and looking up the vacant dwelling at a position of the list take logarithmic time, while
+ * the remaining vacant dwellings keep their order. Empty slots are dropped whenever the slots of a region are full.
+ */
+final class VacantDwellingIndex {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<Integer, RegionVacancies> vacanciesByRegion = new LinkedHashMap<>();
+    private final Map<Integer, Integer> slotByDwellingId = new HashMap<>();
+
+    /**
+     * @return false if the dwelling was already registered as vacant
+     */
+    boolean add(int region, Dwelling dwelling) {
+        if (slotByDwellingId.containsKey(dwelling.getId())) {
+            return false;
+        }
+        final RegionVacancies vacancies = vacanciesByRegion.computeIfAbsent(region, r -> new RegionVacancies());
+        slotByDwellingId.put(dwelling.getId(), vacancies.addVacancy(dwelling));
+        return true;
+    }
+
+    /**
+     * @return false if the dwelling was not registered as vacant in the given region
+     */
+    boolean remove(int region, Dwelling dwelling) {
+        final RegionVacancies vacancies = vacanciesByRegion.get(region);
+        final Integer slot = slotByDwellingId.get(dwelling.getId());
+        if (vacancies == null || slot == null || !vacancies.occupies(slot, dwelling)) {
+            return false;
+        }
+        slotByDwellingId.remove(dwelling.getId());
+        vacancies.removeSlot(slot);
+        return true;
+    }
+
+    /**
+     * @return the regions with a list of vacant dwellings, in the order in which their lists were created
+     */
+    Set<Integer> getRegions() {
+        return Collections.unmodifiableSet(vacanciesByRegion.keySet());
+    }
+
+    void clear() {
+        vacanciesByRegion.clear();
+        slotByDwellingId.clear();
+    }
+
+    /**
+     * @return an unmodifiable view of the vacant dwellings of the region, in the order in which they became vacant
+     */
+    List<Dwelling> getVacantDwellings(int region) {
+        final RegionVacancies vacancies = vacanciesByRegion.get(region);
+        return vacancies == null ? Collections.emptyList() : Collections.unmodifiableList(vacancies);
+    }
+
+    int getNumberOfVacantDwellings(int region) {
+        final RegionVacancies vacancies = vacanciesByRegion.get(region);
+        return vacancies == null ? 0 : vacancies.size();
+    }
+
+    /**
+     * Draws up to {@code count} distinct vacant dwellings of the region uniformly at random (Floyd's algorithm).
+     * Takes time proportional to {@code count} instead of the number of vacant dwellings and does not modify
+     * the index, so it may be called concurrently as long as no vacancies are added or removed at the same time.
+     * The order of the returned dwellings only depends on the state of the index and the given random number generator.
+     */
+    List<Dwelling> sample(int region, int count, Random random) {
+        final List<Dwelling> vacantDwellings = getVacantDwellings(region);
+        final int size = vacantDwellings.size();
+        if (count >= size) {
+            final List<Dwelling> all = new ArrayList<>(vacantDwellings);
+            Collections.shuffle(all, random);
+            return all;
+        }
+        final Set<Integer> selected = new LinkedHashSet<>(count * 2);
+        for (int j = size - count; j < size; j++) {
+            final int candidate = random.nextInt(j + 1);
+            if (!selected.add(candidate)) {
+                selected.add(j);
+            }
+        }
+        final List<Dwelling> sample = new ArrayList<>(count);
+        for (int position : selected) {
+            sample.add(vacantDwellings.get(position));
+        }
+        return sample;
+    }
+
+    /**
+     * The vacant dwellings of one region. The list positions of the vacant dwellings are their ranks among the
+     * occupied slots.
+     */
+    private final class RegionVacancies extends AbstractList<Dwelling> implements RandomAccess {
+
+        private Dwelling[] slots = new Dwelling[INITIAL_CAPACITY];
+        /**
+         * Fenwick tree of the number of occupied slots, tree[i] covers the slots (i - (i & -i), i].
+         */
+        private int[] tree = new int[INITIAL_CAPACITY + 1];
+        private int usedSlots = 0;
+        private int size = 0;
+
+        /**
+         * @return the slot of the added dwelling
+         */
+        int addVacancy(Dwelling dwelling) {
+            if (usedSlots == slots.length) {
+                compact(Math.max(INITIAL_CAPACITY, 2 * size + 1));
+            }
+            final int slot = usedSlots++;
+            slots[slot] = dwelling;
+            update(slot, 1);
+            size++;
+            return slot;
+        }
+
+        boolean occupies(int slot, Dwelling dwelling) {
+            return slot < usedSlots && slots[slot] != null && slots[slot].getId() == dwelling.getId();
+        }
+
+        void removeSlot(int slot) {
+            slots[slot] = null;
+            update(slot, -1);
+            size--;
+        }
+
+        @Override
+        public Dwelling get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            // find the slot with the (index + 1)-th occupied slot
+            int position = 0;
+            int remaining = index + 1;
+            for (int step = Integer.highestOneBit(slots.length); step > 0; step >>= 1) {
+                final int next = position + step;
+                if (next < tree.length && tree[next] < remaining) {
+                    position = next;
+                    remaining -= tree[next];
+                }
+            }
+            return slots[position];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<Dwelling> iterator() {
+            return new Iterator<Dwelling>() {
+                private int slot = nextOccupied(0);
+
+                @Override
+                public boolean hasNext() {
+                    return slot < usedSlots;
+                }
+
+                @Override
+                public Dwelling next() {
+                    if (slot >= usedSlots) {
+                        throw new NoSuchElementException();
+                    }
+                    final Dwelling dwelling = slots[slot];
+                    slot = nextOccupied(slot + 1);
+                    return dwelling;
+                }
+            };
+        }
+
+        @Override
+        public Object[] toArray() {
+            final Object[] array = new Object[size];
+            int i = 0;
+            for (int slot = 0; slot < usedSlots; slot++) {
+                if (slots[slot] != null) {
+                    array[i++] = slots[slot];
+                }
+            }
+            return array;
+        }
+
+        private int nextOccupied(int slot) {
+            while (slot < usedSlots && slots[slot] == null) {
+                slot++;
+            }
+            return slot;
+        }
+
+        private void update(int slot, int delta) {
+            for (int i = slot + 1; i < tree.length; i += i & -i) {
+                tree[i] += delta;
+            }
+        }
+
+        /**
+         * Moves the vacant dwellings to the first slots, keeping their order, and rebuilds the tree in linear time.
+         */
+        private void compact(int capacity) {
+            final Dwelling[] compacted = new Dwelling[capacity];
+            int used = 0;
+            for (int slot = 0; slot < usedSlots; slot++) {
+                if (slots[slot] != null) {
+                    compacted[used] = slots[slot];
+                    slotByDwellingId.put(slots[slot].getId(), used);
+                    used++;
+                }
+            }
+            slots = compacted;
+            usedSlots = used;
+            tree = new int[capacity + 1];
+            for (int i = 1; i <= capacity; i++) {
+                if (i <= used) {
+                    tree[i]++;
+                }
+                final int parent = i + (i & -i);
+                if (parent <= capacity) {
+                    tree[parent] += tree[i];
+                }
+            }
+        }
+    }
+}
@@ -45,7 +45,7 @@ public class DefaultGeoData implements GeoData {
 
     @Override
     public void setup() {
-
+        zones.values().parallelStream().forEach(Zone::prepareGeometry);
     }
 
     @Override
@@ -3,17 +3,11 @@ package de.tum.bgu.msm.data.geo;
 import de.tum.bgu.msm.data.Region;
 import de.tum.bgu.msm.data.Zone;
 import de.tum.bgu.msm.data.development.Development;
-import de.tum.bgu.msm.utils.SeededRandomPointsBuilder;
-import de.tum.bgu.msm.utils.SiloUtil;
+import de.tum.bgu.msm.utils.PolygonPointSampler;
 import org.geotools.api.feature.simple.SimpleFeature;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
-import org.locationtech.jts.geom.GeometryFactory;
-import org.locationtech.jts.geom.Point;
-import org.locationtech.jts.shape.random.RandomPointsBuilder;
-import org.matsim.core.utils.geometry.geotools.MGC;
 
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Random;
@@ -27,6 +21,8 @@ public class ZoneImpl implements Zone {
     
     private SimpleFeature zoneFeature;
 
+    private volatile PolygonPointSampler pointSampler;
+
     private Development development;
 
     private final Map<String, Object> attributes = new LinkedHashMap<>();
@@ -60,17 +56,28 @@ public class ZoneImpl implements Zone {
     @Override
 	public void setZoneFeature(SimpleFeature zoneFeature) {
         this.zoneFeature = zoneFeature;
+        this.pointSampler = null;
+    }
+
+    @Override
+    public void prepareGeometry() {
+        if (zoneFeature != null) {
+            pointSampler = new PolygonPointSampler((Geometry) zoneFeature.getDefaultGeometry());
+        }
     }
 
     @Override
 	public Coordinate getRandomCoordinate(Random random) {
-        //TODO:this can be optimized by using the same (static) points builder multiple times instead of recreating it
-        RandomPointsBuilder randomPointsBuilder = new SeededRandomPointsBuilder(new GeometryFactory(), random);
-        randomPointsBuilder.setNumPoints(1);
-        randomPointsBuilder.setExtent((Geometry) zoneFeature.getDefaultGeometry());
-        Coordinate coordinate = randomPointsBuilder.getGeometry().getCoordinates()[0];
-        Point p = MGC.coordinate2Point(coordinate);
-        return new Coordinate(p.getX(), p.getY());
+        PolygonPointSampler sampler = pointSampler;
+        if (sampler == null) {
+            // geometry was not prepared in GeoData.setup, e.g. in the synthetic population generator
+            prepareGeometry();
+            sampler = pointSampler;
+            if (sampler == null) {
+                throw new IllegalStateException("Zone " + id + " has no geometry to draw a random coordinate from.");
+            }
+        }
+        return sampler.sample(random);
     }
 
     @Override
@@ -1,6 +1,7 @@
 package de.tum.bgu.msm.data.household;
 
 import de.tum.bgu.msm.data.person.Person;
+import de.tum.bgu.msm.utils.DenseIdMap;
 
 import java.util.Collection;
 import java.util.Map;
@@ -8,8 +9,21 @@ import java.util.concurrent.ConcurrentHashMap;
 
 public class HouseholdDataImpl implements HouseholdData {
 
-    private final Map<Integer, Person> persons = new ConcurrentHashMap<>();
-    private final Map<Integer, Household> households = new ConcurrentHashMap<>();
+    private final Map<Integer, Person> persons;
+    private final Map<Integer, Household> households;
+
+    public HouseholdDataImpl() {
+        this(false);
+    }
+
+    /**
+     * @param idIndexed if true, persons and households are stored in arrays indexed by their id
+     *                  (see {@link DenseIdMap}) instead of hash maps. Saves memory if ids are dense.
+     */
+    public HouseholdDataImpl(boolean idIndexed) {
+        persons = idIndexed ? new DenseIdMap<>() : new ConcurrentHashMap<>();
+        households = idIndexed ? new DenseIdMap<>() : new ConcurrentHashMap<>();
+    }
 
 
     @Override
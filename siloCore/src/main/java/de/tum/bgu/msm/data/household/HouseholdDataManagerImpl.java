@@ -23,6 +23,8 @@ import de.tum.bgu.msm.data.person.Gender;
 import de.tum.bgu.msm.data.person.Occupation;
 import de.tum.bgu.msm.data.person.Person;
 import de.tum.bgu.msm.data.person.PersonFactory;
+import de.tum.bgu.msm.io.checkpoint.Checkpointable;
+import de.tum.bgu.msm.io.columnar.ColumnarTable;
 import de.tum.bgu.msm.io.output.DefaultHouseholdWriter;
 import de.tum.bgu.msm.io.output.DefaultPersonWriter;
 import de.tum.bgu.msm.properties.Properties;
@@ -31,13 +33,16 @@ import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.*;
 
 /**
  * @author Greg Erhardt
  * Created on Dec 2, 2009
  */
-public class HouseholdDataManagerImpl implements HouseholdDataManager {
+public class HouseholdDataManagerImpl implements HouseholdDataManager, Checkpointable {
 
     private final static Logger logger = LogManager.getLogger(HouseholdDataManagerImpl.class);
 
@@ -79,6 +84,39 @@ public class HouseholdDataManagerImpl implements HouseholdDataManager {
     public void prepareYear(int year) {
     }
 
+    /**
+     * Writes the highest ids in use and the income distribution of the start year, which income changes are based on.
+     */
+    @Override
+    public void writeCheckpoint(DataOutput out) throws IOException {
+        out.writeInt(highestHouseholdIdInUse);
+        out.writeInt(highestPersonIdInUse);
+        out.writeInt(avgIncomeByGenderByAgeByOccupation.length);
+        out.writeInt(avgIncomeByGenderByAgeByOccupation[0].length);
+        out.writeInt(avgIncomeByGenderByAgeByOccupation[0][0].length);
+        for (float[][] incomeByAgeAndOccupation : avgIncomeByGenderByAgeByOccupation) {
+            for (float[] incomeByOccupation : incomeByAgeAndOccupation) {
+                for (float income : incomeByOccupation) {
+                    out.writeFloat(income);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void readCheckpoint(DataInput in) throws IOException {
+        highestHouseholdIdInUse = in.readInt();
+        highestPersonIdInUse = in.readInt();
+        avgIncomeByGenderByAgeByOccupation = new float[in.readInt()][in.readInt()][in.readInt()];
+        for (float[][] incomeByAgeAndOccupation : avgIncomeByGenderByAgeByOccupation) {
+            for (float[] incomeByOccupation : incomeByAgeAndOccupation) {
+                for (int i = 0; i < incomeByOccupation.length; i++) {
+                    incomeByOccupation[i] = in.readFloat();
+                }
+            }
+        }
+    }
+
     @Override
     public void endYear(int year) {
         householdMementos.clear();
@@ -89,14 +127,14 @@ public class HouseholdDataManagerImpl implements HouseholdDataManager {
         if (!Properties.get().householdData.householdIntermediatesFileName.equals("")) {
             String filehh = outputDirectory + "/" + properties.householdData.householdFinalFileName + "_"
                     + year
-                    + ".csv";
+                    + ColumnarTable.getMicroDataExtension(properties);
             new DefaultHouseholdWriter(this.householdData.getHouseholds()).writeHouseholds(filehh);
         }
 
         if (!Properties.get().householdData.personIntermediatesFileName.equals("")) {
             String filepp = outputDirectory + "/" + properties.householdData.personIntermediatesFileName + "_"
                     + year
-                    + ".csv";
+                    + ColumnarTable.getMicroDataExtension(properties);
             new DefaultPersonWriter(householdData).writePersons(filepp);
         }
     }
@@ -106,12 +144,12 @@ public class HouseholdDataManagerImpl implements HouseholdDataManager {
         final String outputDirectory = properties.main.baseDirectory + "scenOutput/" + properties.main.scenarioName;
         String filehh = outputDirectory +"/"+ properties.householdData.householdFinalFileName + "_"
                 + properties.main.endYear
-                + ".csv";
+                + ColumnarTable.getMicroDataExtension(properties);
         new DefaultHouseholdWriter(this.householdData.getHouseholds()).writeHouseholds(filehh);
 
         String filepp = outputDirectory +"/"+ properties.householdData.personFinalFileName + "_"
                 + properties.main.endYear
-                + ".csv";
+                + ColumnarTable.getMicroDataExtension(properties);
         new DefaultPersonWriter(householdData).writePersons(filepp);
     }
 
@@ -306,17 +344,25 @@ public class HouseholdDataManagerImpl implements HouseholdDataManager {
 
     @Override
     public void saveHouseholdMemento(Household hh) {
+        if (householdMementos.containsKey(hh.getId())) {
+            //only the state before the first change of the year is kept, so there is nothing to copy for later changes
+            return;
+        }
         Household householdMemento = hhFactory.duplicate(hh, hh.getId());
         //do not confuse with duplicate household. That one changes the id of the hh, while this methods keeps it.
         //similarly, the memento hh should keep the dwelling id of the original, otherwise silo will understand that
         //was always relocated.
         householdMemento.setDwelling(hh.getDwellingId());
         for (Person originalPerson : hh.getPersons().values()) {
-            Person personDuplicate = ppFactory.duplicate(originalPerson, getNextPersonId());
+            //the copies are never added to the population, so they keep the ids of the original persons instead of
+            //using up new ones. They are not added via addPersonToHousehold so they do not show up in the tracking
+            //of the original person.
+            Person personDuplicate = ppFactory.duplicate(originalPerson, originalPerson.getId());
             personDuplicate.setRole(originalPerson.getRole());
-            addPersonToHousehold(personDuplicate, householdMemento);
+            householdMemento.addPerson(personDuplicate);
+            personDuplicate.setHousehold(householdMemento);
         }
-        householdMementos.putIfAbsent(hh.getId(), householdMemento);
+        householdMementos.put(hh.getId(), householdMemento);
     }
 
     /**
@@ -1,13 +1,29 @@
 package de.tum.bgu.msm.data.job;
 
+import de.tum.bgu.msm.data.Zone;
+import org.locationtech.jts.geom.Coordinate;
+
 import java.util.Collection;
+import java.util.List;
 
 public interface JobData {
     Job get(int jobId);
 
     Collection<Job> getJobs();
 
+    /**
+     * Returns an unmodifiable view of the jobs in the given zone, which is kept up to date
+     * as jobs are added, relocated and removed.
+     */
+    List<Job> getJobsInZone(int zoneId);
+
     void removeJob(int id);
 
     void addJob(Job jj);
+
+    /**
+     * Moves the job to a new zone. Use this instead of {@link Job#relocateJob(Zone, Coordinate)}
+     * so that the jobs by zone are updated as well.
+     */
+    void relocateJob(Job job, Zone newZone, Coordinate newCoordinate);
 }
@@ -1,12 +1,31 @@
 package de.tum.bgu.msm.data.job;
 
+import de.tum.bgu.msm.data.Zone;
+import de.tum.bgu.msm.data.ZoneIndex;
+import de.tum.bgu.msm.utils.DenseIdMap;
+import org.locationtech.jts.geom.Coordinate;
+
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class JobDataImpl implements JobData {
 
-    private final Map<Integer, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<Integer, Job> jobs;
+    private final ZoneIndex<Job> jobsByZone = new ZoneIndex<>();
+
+    public JobDataImpl() {
+        this(false);
+    }
+
+    /**
+     * @param idIndexed if true, jobs are stored in an array indexed by their id (see {@link DenseIdMap})
+     *                  instead of a hash map. Saves memory if job ids are dense.
+     */
+    public JobDataImpl(boolean idIndexed) {
+        jobs = idIndexed ? new DenseIdMap<>() : new ConcurrentHashMap<>();
+    }
 
     @Override
     public Job get(int jobId) {
@@ -18,13 +37,28 @@ public class JobDataImpl implements JobData {
         return jobs.values();
     }
 
+    @Override
+    public List<Job> getJobsInZone(int zoneId) {
+        return jobsByZone.getObjectsInZone(zoneId);
+    }
+
     @Override
     public void removeJob(int id) {
-        jobs.remove(id);
+        Job job = jobs.remove(id);
+        if (job != null) {
+            jobsByZone.remove(job);
+        }
     }
 
     @Override
     public void addJob(Job jj) {
         jobs.put(jj.getId(), jj);
+        jobsByZone.add(jj);
+    }
+
+    @Override
+    public void relocateJob(Job job, Zone newZone, Coordinate newCoordinate) {
+        job.relocateJob(newZone, newCoordinate);
+        jobsByZone.update(job);
     }
 }
@@ -4,10 +4,12 @@ import de.tum.bgu.msm.data.Region;
 import de.tum.bgu.msm.data.Zone;
 import de.tum.bgu.msm.data.person.Person;
 import de.tum.bgu.msm.models.ModelUpdateListener;
+import org.locationtech.jts.geom.Coordinate;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 public interface JobDataManager extends ModelUpdateListener {
     Job getJobFromId(int jobId);
@@ -26,12 +28,28 @@ public interface JobDataManager extends ModelUpdateListener {
 
     Job findVacantJob(Zone homeZone, Collection<Region> regions);
 
+    /**
+     * Chooses a vacant job for a person living in the home zone like {@link #findVacantJob(Zone, Collection)}, but
+     * draws from the given random number generator and leaves the job vacant. Does not change any data, so it may be
+     * called concurrently for a batch of job seekers. The chosen job is taken with {@link #takeVacantJob(Job)}.
+     * @return the chosen job or null if no job could be chosen
+     */
+    Job chooseVacantJob(Zone homeZone, Collection<Region> regions, Random random);
+
+    /**
+     * Removes the job from the vacant jobs.
+     * @return false if the job is not vacant anymore
+     */
+    boolean takeVacantJob(Job job);
+
     double getJobDensityInZone(int zone);
 
     int getJobDensityCategoryOfZone(int zone);
 
     void addJob(Job jj);
 
+    void relocateJob(Job job, Zone newZone, Coordinate newCoordinate);
+
     JobFactory getFactory();
 
     Map<Integer, List<Job>> getVacantJobsByRegion();
@@ -17,8 +17,6 @@
 package de.tum.bgu.msm.data.job;
 
 
-import com.google.common.collect.ConcurrentHashMultiset;
-import com.google.common.collect.Multiset;
 import de.tum.bgu.msm.common.datafile.TableDataSet;
 import de.tum.bgu.msm.data.Region;
 import de.tum.bgu.msm.data.Zone;
@@ -27,19 +25,23 @@ import de.tum.bgu.msm.data.geo.GeoData;
 import de.tum.bgu.msm.data.household.Household;
 import de.tum.bgu.msm.data.person.*;
 import de.tum.bgu.msm.data.travelTimes.TravelTimes;
+import de.tum.bgu.msm.io.checkpoint.Checkpointable;
+import de.tum.bgu.msm.io.columnar.ColumnarTable;
 import de.tum.bgu.msm.io.output.DefaultJobWriter;
 import de.tum.bgu.msm.models.modeChoice.CommuteModeChoice;
 import de.tum.bgu.msm.models.modeChoice.CommuteModeChoiceMapping;
 import de.tum.bgu.msm.properties.Properties;
 import de.tum.bgu.msm.properties.modules.JobDataProperties;
 import de.tum.bgu.msm.simulator.UpdateListener;
-import de.tum.bgu.msm.utils.SampleException;
-import de.tum.bgu.msm.utils.Sampler;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.locationtech.jts.geom.Coordinate;
 import org.matsim.api.core.v01.TransportMode;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -50,7 +52,7 @@ import java.util.concurrent.ConcurrentHashMap;
  * Author: Rolf Moeckel, PB Albuquerque
  * Created on 22 February 2013 in Rhede
  **/
-public class JobDataManagerWithCommuteModeChoice implements UpdateListener, JobDataManager {
+public class JobDataManagerWithCommuteModeChoice implements UpdateListener, JobDataManager, Checkpointable {
 
     private final static Logger logger = LogManager.getLogger(JobDataManagerWithCommuteModeChoice.class);
 
@@ -64,12 +66,14 @@ public class JobDataManagerWithCommuteModeChoice implements UpdateListener, JobD
 
     private int highestJobIdInUse;
 
-    private final Map<Integer, List<Job>> vacantJobsByRegion = new LinkedHashMap<>();
+    private final JobMarketIndex jobMarket = new JobMarketIndex();
+    private final JobMarketIndex.RegionChoice regionChoice = new JobMarketIndex.RegionChoice();
     private final Map<Integer, Double> zonalJobDensity;
 
     private final Map<Integer, Map<Integer, Map<String, Float>>> jobsByYearByZoneByIndustry = new ConcurrentHashMap<>();
 
     private final CommuteModeChoice commuteModeChoice;
+    private final Person oneWorker = OneWorker();
 
     public JobDataManagerWithCommuteModeChoice(Properties properties,
                                                JobFactory jobFactory, JobData jobData, GeoData geoData,
@@ -97,6 +101,50 @@ public class JobDataManagerWithCommuteModeChoice implements UpdateListener, JobD
         identifyVacantJobs();
     }
 
+    /**
+     * Writes the highest job id in use and the employment forecast, which may be derived from the jobs of the start year.
+     * Vacant jobs are identified again at the beginning of every year.
+     */
+    @Override
+    public void writeCheckpoint(DataOutput out) throws IOException {
+        out.writeInt(highestJobIdInUse);
+        out.writeInt(jobsByYearByZoneByIndustry.size());
+        for (Map.Entry<Integer, Map<Integer, Map<String, Float>>> jobsByZone : jobsByYearByZoneByIndustry.entrySet()) {
+            out.writeInt(jobsByZone.getKey());
+            out.writeInt(jobsByZone.getValue().size());
+            for (Map.Entry<Integer, Map<String, Float>> jobsByIndustry : jobsByZone.getValue().entrySet()) {
+                out.writeInt(jobsByIndustry.getKey());
+                out.writeInt(jobsByIndustry.getValue().size());
+                for (Map.Entry<String, Float> jobs : jobsByIndustry.getValue().entrySet()) {
+                    out.writeUTF(jobs.getKey());
+                    out.writeFloat(jobs.getValue());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void readCheckpoint(DataInput in) throws IOException {
+        highestJobIdInUse = in.readInt();
+        jobsByYearByZoneByIndustry.clear();
+        final int years = in.readInt();
+        for (int i = 0; i < years; i++) {
+            final int year = in.readInt();
+            final Map<Integer, Map<String, Float>> jobsByZone = new LinkedHashMap<>();
+            final int zones = in.readInt();
+            for (int j = 0; j < zones; j++) {
+                final int zone = in.readInt();
+                final Map<String, Float> jobsByIndustry = new LinkedHashMap<>();
+                final int industries = in.readInt();
+                for (int k = 0; k < industries; k++) {
+                    jobsByIndustry.put(in.readUTF(), in.readFloat());
+                }
+                jobsByZone.put(zone, jobsByIndustry);
+            }
+            jobsByYearByZoneByIndustry.put(year, jobsByZone);
+        }
+    }
+
     @Override
     public void endYear(int year) {
         if (!Properties.get().jobData.jobsIntermediatesFileName.equals("")) {
@@ -104,7 +152,7 @@ public class JobDataManagerWithCommuteModeChoice implements UpdateListener, JobD
             String filejj = outputDirectory
                     + properties.jobData.jobsIntermediatesFileName
                     + "_"
-                    + year + ".csv";
+                    + year + ColumnarTable.getMicroDataExtension(properties);
             new DefaultJobWriter(this.jobData.getJobs()).writeJobs(filejj);
         }
     }
@@ -115,7 +163,7 @@ public class JobDataManagerWithCommuteModeChoice implements UpdateListener, JobD
         String filejj = outputDirectory
                 + properties.jobData.jobsFinalFileName
                 + "_"
-                + properties.main.endYear + ".csv";
+                + properties.main.endYear + ColumnarTable.getMicroDataExtension(properties);
         new DefaultJobWriter(this.jobData.getJobs()).writeJobs(filejj);
     }
 
@@ -311,12 +359,13 @@ public class JobDataManagerWithCommuteModeChoice implements UpdateListener, JobD
      */
     private void identifyVacantJobs() {
         logger.info("  Identifying vacant jobs");
+        jobMarket.clearVacantJobs();
+        jobMarket.resetImpedances(geoData.getRegions().values());
         for (Job jj : jobData.getJobs()) {
             if (jj.getWorkerId() == -1) {
                 int region = geoData.getZones().get(jj.getZoneId()).getRegion().getId();
 
-                vacantJobsByRegion.putIfAbsent(region, new ArrayList<>());
-                vacantJobsByRegion.get(region).add(jj);
+                jobMarket.addVacantJob(region, jj);
 
                 if (jj.getId() == SiloUtil.trackJj) {
                     SiloUtil.trackWriter.println("Added job " + jj.getId() + " to list of vacant jobs.");
@@ -350,40 +399,66 @@ public class JobDataManagerWithCommuteModeChoice implements UpdateListener, JobD
     }
 
     private int getNumberOfVacantJobsByRegion(int region) {
-        return vacantJobsByRegion.getOrDefault(region, Collections.EMPTY_LIST).size();
+        return jobMarket.getNumberOfVacantJobs(region);
     }
 
     @Override
     public Job findVacantJob(Zone homeZone, Collection<Region> regions) {
         // select vacant job for person living in homeZone
         //todo move find vacant job to a model
-        Sampler<Region> regionSampler = new Sampler<>(regions.size(), Region.class, SiloUtil.getRandomObject());
+        final Job selectedJob = chooseVacantJob(homeZone, regions, commuteModeChoice, regionChoice, SiloUtil.getRandomObject());
+        if (selectedJob != null) {
+            takeVacantJob(selectedJob);
+        }
+        return selectedJob;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The commute mode choice is duplicated with the given random number generator. The travel times of the mode
+     * choice are queried by one thread at a time.
+     */
+    @Override
+    public Job chooseVacantJob(Zone homeZone, Collection<Region> regions, Random random) {
+        return chooseVacantJob(homeZone, regions, commuteModeChoice.duplicate(random), new JobMarketIndex.RegionChoice(), random);
+    }
+
+    private Job chooseVacantJob(Zone homeZone, Collection<Region> regions, CommuteModeChoice modeChoice,
+                                JobMarketIndex.RegionChoice choice, Random random) {
+        choice.clear(regions.size());
 
         if (homeZone != null) {
             // person has home location (i.e., is not inmigrating right now)
-            for (Region reg : regions) {
-                int numberOfVacantJobs = getNumberOfVacantJobsByRegion(reg.getId());
-                if (numberOfVacantJobs > 0) {
+            synchronized (jobMarket) {
+                for (Region reg : regions) {
+                    int numberOfVacantJobs = getNumberOfVacantJobsByRegion(reg.getId());
+                    if (numberOfVacantJobs > 0) {
 
-                    CommuteModeChoiceMapping mapping =
-                            commuteModeChoice.assignRegionalCommuteModeChoiceToFindNewJobs(reg,
-                                    homeZone,
-                                    travelTimes,
-                                    OneWorker());
+                        CommuteModeChoiceMapping mapping =
+                                modeChoice.assignRegionalCommuteModeChoiceToFindNewJobs(reg,
+                                        homeZone,
+                                        travelTimes,
+                                        oneWorker);
 
 
-                    final double prob = mapping.getMode(OneWorker()).utility;
-                            regionSampler.incrementalAdd(reg, prob);
+                        final double prob = mapping.getUtility(oneWorker);
+                        choice.add(reg, prob);
+                    }
                 }
             }
-            if (regionSampler.getCumulatedProbability() == 0) {
+            final JobMarketIndex.RegionImpedance impedance = choice.getWeightSum() == 0 ?
+                    jobMarket.getImpedance(homeZone, geoData.getRegions().values(),
+                            travelTimes, commutingTimeProbability, properties.transportModel.peakHour_s) : null;
+            if (choice.getWeightSum() == 0) {
                 // could not find job in reasonable distance. Person will have to commute far and is likely to relocate in the future
+                choice.clear(regions.size());
                 for (Region reg : regions) {
                     if (getNumberOfVacantJobsByRegion(reg.getId()) > 0) {
-                        int travelTime_min = (int) ((travelTimes.getTravelTimeToRegion(homeZone, reg,
-                                properties.transportModel.peakHour_s, TransportMode.car) + 0.5));
+                        final int index = jobMarket.getRegionIndex(reg.getId());
+                        int travelTime_min = index >= 0 ? impedance.travelTimeMinutes[index] :
+                                jobMarket.getUncachedTravelTime(homeZone, reg, travelTimes, properties.transportModel.peakHour_s);
                         final double prob = 1. / Math.max(1, travelTime_min);
-                        regionSampler.incrementalAdd(reg, prob);
+                        choice.add(reg, prob);
                     }
                 }
             }
@@ -392,29 +467,33 @@ public class JobDataManagerWithCommuteModeChoice implements UpdateListener, JobD
             for (Region reg : regions) {
                 int numberOfJobs = getNumberOfVacantJobsByRegion(reg.getId());
                 if (numberOfJobs > 0) {
-                    regionSampler.incrementalAdd(reg, (double) numberOfJobs);
+                    choice.add(reg, (double) numberOfJobs);
                 }
             }
         }
 
-        if (regionSampler.getCumulatedProbability() == 0) {
+        if (choice.getWeightSum() == 0) {
             logger.warn("No jobs remaining. Could not find new job.");
             return null;
         }
-        int selectedRegion = -1;
-        try {
-            selectedRegion = regionSampler.sampleObject().getId();
-        } catch (SampleException e) {
-            e.printStackTrace();
+        final Region region = choice.choose(random);
+        if (region == null) {
+            logger.warn("Could not choose a region to find a new job.");
+            return null;
         }
+        int selectedRegion = region.getId();
+        return jobMarket.getVacantJob(selectedRegion, random.nextInt(getNumberOfVacantJobsByRegion(selectedRegion)));
+    }
 
-        List<Job> eligibleJobs = vacantJobsByRegion.get(selectedRegion);
-        Job selectedJob = eligibleJobs.remove(SiloUtil.getRandomObject().nextInt(eligibleJobs.size()));
-
-        if (selectedJob.getId() == SiloUtil.trackJj) {
-            SiloUtil.trackWriter.println("Removed job " + selectedJob.getId() + " from list of vacant jobs.");
+    @Override
+    public boolean takeVacantJob(Job job) {
+        if (!jobMarket.removeVacantJob(job)) {
+            return false;
         }
-        return selectedJob;
+        if (job.getId() == SiloUtil.trackJj) {
+            SiloUtil.trackWriter.println("Removed job " + job.getId() + " from list of vacant jobs.");
+        }
+        return true;
     }
 
 
@@ -427,8 +506,7 @@ public class JobDataManagerWithCommuteModeChoice implements UpdateListener, JobD
     private void addJobToVacancyList(Job job) {
 
         int region = geoData.getZones().get(job.getZoneId()).getRegion().getId();
-        vacantJobsByRegion.putIfAbsent(region, new ArrayList<>());
-        vacantJobsByRegion.get(region).add(job);
+        jobMarket.addVacantJob(region, job);
 
         if (job.getId() == SiloUtil.trackJj) {
             SiloUtil.trackWriter.println("Added job " + job.getId() + " to list of vacant jobs.");
@@ -437,9 +515,7 @@ public class JobDataManagerWithCommuteModeChoice implements UpdateListener, JobD
 
 
     private void calculateJobDensityByZone() {
-        final Multiset<Integer> counter = ConcurrentHashMultiset.create();
-        jobData.getJobs().parallelStream().forEach(j -> counter.add(j.getZoneId()));
-        geoData.getZones().forEach((id, zone) -> zonalJobDensity.put(id, (double) (counter.count(id) / zone.getArea_sqmi())));
+        geoData.getZones().forEach((id, zone) -> zonalJobDensity.put(id, (double) (jobData.getJobsInZone(id).size() / zone.getArea_sqmi())));
     }
 
 
@@ -466,6 +542,11 @@ public class JobDataManagerWithCommuteModeChoice implements UpdateListener, JobD
         this.jobData.addJob(jj);
     }
 
+    @Override
+    public void relocateJob(Job job, Zone newZone, Coordinate newCoordinate) {
+        jobData.relocateJob(job, newZone, newCoordinate);
+    }
+
     @Override
     public JobFactory getFactory() {
         return jobFactory;
@@ -473,7 +554,7 @@ public class JobDataManagerWithCommuteModeChoice implements UpdateListener, JobD
 
     @Override
     public Map<Integer, List<Job>> getVacantJobsByRegion() {
-        return vacantJobsByRegion;
+        return jobMarket.getVacantJobsByRegion();
     }
 
     private Person OneWorker() {
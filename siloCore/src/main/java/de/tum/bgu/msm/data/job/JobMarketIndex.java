@@ -0,0 +1,361 @@
+package de.tum.bgu.msm.data.job;
+
+import de.tum.bgu.msm.data.Region;
+import de.tum.bgu.msm.data.Zone;
+import de.tum.bgu.msm.data.accessibility.CommutingTimeProbability;
+import de.tum.bgu.msm.data.travelTimes.TravelTimes;
+import org.matsim.api.core.v01.TransportMode;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the data needed to find vacant jobs for job seekers.
+ * Vacant jobs are stored by region in the order in which they became vacant, exactly like an array list that vacant
+ * jobs are appended to and removed from, so that the same random draw selects the same job as with a plain list.
+ * Every vacant job occupies a slot of its region, removed jobs leave an empty slot, and a Fenwick tree counts the
+ * vacant jobs up to each slot, like in the index of vacant dwellings. Thus adding and removing a vacant job and
+ * looking up the vacant job at a position of the list take logarithmic time. Empty slots are dropped whenever the
+ * slots of a region are full.
+ * The travel times from a home zone to all regions only change with new skims, so they are cached per home zone
+ * until {@link #resetImpedances(Collection)} is called.
+ * Vacant jobs may be looked up concurrently as long as none are added or removed at the same time, everything else
+ * is meant to be used on the simulation thread.
+ */
+final class JobMarketIndex {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<Integer, RegionVacancies> vacantJobsByRegion = new LinkedHashMap<>();
+    private final Map<Integer, Integer> slotByJobId = new HashMap<>();
+    private final Map<Integer, Integer> regionByJobId = new HashMap<>();
+
+    private final Map<Integer, Integer> regionIndexById = new HashMap<>();
+    private final Map<Integer, RegionImpedance> impedanceByHomeZone = new ConcurrentHashMap<>();
+
+    /**
+     * Travel times from one home zone to all regions, in minutes rounded as used to find a job, and the car commuting
+     * time probability of these travel times. Both are indexed by {@link #getRegionIndex(int)}.
+     */
+    static final class RegionImpedance {
+        final int[] travelTimeMinutes;
+        final double[] carCommutingTimeProbability;
+
+        private RegionImpedance(int numberOfRegions) {
+            travelTimeMinutes = new int[numberOfRegions];
+            carCommutingTimeProbability = new double[numberOfRegions];
+        }
+    }
+
+    /**
+     * @return false if the job was already registered as vacant
+     */
+    boolean addVacantJob(int region, Job job) {
+        if (slotByJobId.containsKey(job.getId())) {
+            return false;
+        }
+        final RegionVacancies vacancies = vacantJobsByRegion.computeIfAbsent(region, r -> new RegionVacancies());
+        slotByJobId.put(job.getId(), vacancies.addVacancy(job));
+        regionByJobId.put(job.getId(), region);
+        return true;
+    }
+
+    /**
+     * Returns the vacant job at the given position of the list of vacant jobs of the region, like
+     * {@link List#get(int)}.
+     */
+    Job getVacantJob(int region, int position) {
+        final RegionVacancies vacancies = vacantJobsByRegion.get(region);
+        if (vacancies == null) {
+            throw new IndexOutOfBoundsException("Index: " + position + ", Size: 0");
+        }
+        return vacancies.get(position);
+    }
+
+    /**
+     * Removes and returns the vacant job at the given position of the list of vacant jobs of the region, like
+     * {@link List#remove(int)}.
+     */
+    Job removeVacantJob(int region, int position) {
+        final Job job = getVacantJob(region, position);
+        removeVacantJob(job);
+        return job;
+    }
+
+    /**
+     * Removes the job from the vacant jobs of the region it was registered in.
+     * @return false if the job was not registered as vacant
+     */
+    boolean removeVacantJob(Job job) {
+        final Integer region = regionByJobId.get(job.getId());
+        final Integer slot = slotByJobId.get(job.getId());
+        if (region == null || slot == null || !vacantJobsByRegion.get(region).occupies(slot, job)) {
+            return false;
+        }
+        slotByJobId.remove(job.getId());
+        regionByJobId.remove(job.getId());
+        vacantJobsByRegion.get(region).removeSlot(slot);
+        return true;
+    }
+
+    int getNumberOfVacantJobs(int region) {
+        final RegionVacancies vacancies = vacantJobsByRegion.get(region);
+        return vacancies == null ? 0 : vacancies.size();
+    }
+
+    void clearVacantJobs() {
+        vacantJobsByRegion.clear();
+        slotByJobId.clear();
+        regionByJobId.clear();
+    }
+
+    /**
+     * Returns an unmodifiable view of the vacant jobs by region.
+     */
+    Map<Integer, List<Job>> getVacantJobsByRegion() {
+        return Collections.unmodifiableMap(vacantJobsByRegion);
+    }
+
+    /**
+     * Drops all cached travel times. Needs to be called whenever travel times may have changed.
+     */
+    void resetImpedances(Collection<Region> regions) {
+        impedanceByHomeZone.clear();
+        regionIndexById.clear();
+        for (Region region : regions) {
+            regionIndexById.put(region.getId(), regionIndexById.size());
+        }
+    }
+
+    /**
+     * @return the index of the region in the arrays of {@link RegionImpedance}, or -1 if the region was not known
+     * when the impedances were reset
+     */
+    int getRegionIndex(int regionId) {
+        return regionIndexById.getOrDefault(regionId, -1);
+    }
+
+    /**
+     * Returns the cached impedances of the home zone. May be called concurrently, the travel times of a missing home
+     * zone are queried by one thread at a time.
+     */
+    RegionImpedance getImpedance(Zone homeZone, Collection<Region> regions, TravelTimes travelTimes,
+                                 CommutingTimeProbability commutingTimeProbability, double peakHour_s) {
+        final RegionImpedance impedance = impedanceByHomeZone.get(homeZone.getZoneId());
+        if (impedance != null) {
+            return impedance;
+        }
+        return computeImpedance(homeZone, regions, travelTimes, commutingTimeProbability, peakHour_s);
+    }
+
+    private synchronized RegionImpedance computeImpedance(Zone homeZone, Collection<Region> regions, TravelTimes travelTimes,
+                                                          CommutingTimeProbability commutingTimeProbability, double peakHour_s) {
+        RegionImpedance impedance = impedanceByHomeZone.get(homeZone.getZoneId());
+        if (impedance == null) {
+            impedance = new RegionImpedance(regionIndexById.size());
+            for (Region region : regions) {
+                final int index = getRegionIndex(region.getId());
+                if (index >= 0) {
+                    final int travelTime_min = travelTimeToRegion(homeZone, region, travelTimes, peakHour_s);
+                    impedance.travelTimeMinutes[index] = travelTime_min;
+                    impedance.carCommutingTimeProbability[index] =
+                            commutingTimeProbability.getCommutingTimeProbability(Math.max(1, travelTime_min), TransportMode.car);
+                }
+            }
+            impedanceByHomeZone.put(homeZone.getZoneId(), impedance);
+        }
+        return impedance;
+    }
+
+    /**
+     * Travel time to a region that is not cached, see {@link #getRegionIndex(int)}. Like the cached travel times,
+     * queried by one thread at a time.
+     */
+    synchronized int getUncachedTravelTime(Zone homeZone, Region region, TravelTimes travelTimes, double peakHour_s) {
+        return travelTimeToRegion(homeZone, region, travelTimes, peakHour_s);
+    }
+
+    private static int travelTimeToRegion(Zone homeZone, Region region, TravelTimes travelTimes, double peakHour_s) {
+        return (int) ((travelTimes.getTravelTimeToRegion(homeZone, region, peakHour_s, TransportMode.car) + 0.5));
+    }
+
+    /**
+     * A choice of a region with a probability proportional to the weights of the added regions. The arrays are reused
+     * by the following choices, so every thread needs its own instance.
+     */
+    static final class RegionChoice {
+
+        private Region[] candidateRegions = new Region[0];
+        private double[] candidateWeights = new double[0];
+        private int numberOfCandidates = 0;
+        private double candidateWeightSum = 0;
+
+        /**
+         * Starts a new choice of a region. The arrays of the previous choice are reused.
+         */
+        void clear(int expectedNumberOfRegions) {
+            if (candidateRegions.length < expectedNumberOfRegions) {
+                candidateRegions = new Region[expectedNumberOfRegions];
+                candidateWeights = new double[expectedNumberOfRegions];
+            }
+            Arrays.fill(candidateRegions, 0, numberOfCandidates, null);
+            numberOfCandidates = 0;
+            candidateWeightSum = 0;
+        }
+
+        void add(Region region, double weight) {
+            if (numberOfCandidates == candidateRegions.length) {
+                candidateRegions = Arrays.copyOf(candidateRegions, numberOfCandidates * 2 + 1);
+                candidateWeights = Arrays.copyOf(candidateWeights, numberOfCandidates * 2 + 1);
+            }
+            candidateRegions[numberOfCandidates] = region;
+            candidateWeights[numberOfCandidates] = weight;
+            numberOfCandidates++;
+            candidateWeightSum += weight;
+        }
+
+        double getWeightSum() {
+            return candidateWeightSum;
+        }
+
+        /**
+         * Chooses one of the added regions with a probability proportional to its weight, exactly like
+         * {@link de.tum.bgu.msm.utils.Sampler#sampleObject()} would for the same weights and random number generator.
+         * @return the chosen region or null if no region could be chosen
+         */
+        Region choose(Random random) {
+            final double selPos = candidateWeightSum * random.nextDouble();
+            double sum = 0;
+            for (int i = 0; i < numberOfCandidates; i++) {
+                sum += candidateWeights[i];
+                if (sum > selPos) {
+                    return candidateRegions[i];
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * The vacant jobs of one region. The list positions of the vacant jobs are their ranks among the occupied slots.
+     */
+    private final class RegionVacancies extends AbstractList<Job> implements RandomAccess {
+
+        private Job[] slots = new Job[INITIAL_CAPACITY];
+        /**
+         * Fenwick tree of the number of occupied slots, tree[i] covers the slots (i - (i & -i), i].
+         */
+        private int[] tree = new int[INITIAL_CAPACITY + 1];
+        private int usedSlots = 0;
+        private int size = 0;
+
+        /**
+         * @return the slot of the added job
+         */
+        int addVacancy(Job job) {
+            if (usedSlots == slots.length) {
+                compact(Math.max(INITIAL_CAPACITY, 2 * size + 1));
+            }
+            final int slot = usedSlots++;
+            slots[slot] = job;
+            update(slot, 1);
+            size++;
+            return slot;
+        }
+
+        boolean occupies(int slot, Job job) {
+            return slot < usedSlots && slots[slot] != null && slots[slot].getId() == job.getId();
+        }
+
+        void removeSlot(int slot) {
+            slots[slot] = null;
+            update(slot, -1);
+            size--;
+        }
+
+        @Override
+        public Job get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            // find the slot with the (index + 1)-th occupied slot
+            int position = 0;
+            int remaining = index + 1;
+            for (int step = Integer.highestOneBit(slots.length); step > 0; step >>= 1) {
+                final int next = position + step;
+                if (next < tree.length && tree[next] < remaining) {
+                    position = next;
+                    remaining -= tree[next];
+                }
+            }
+            return slots[position];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<Job> iterator() {
+            return new Iterator<Job>() {
+                private int slot = nextOccupied(0);
+
+                @Override
+                public boolean hasNext() {
+                    return slot < usedSlots;
+                }
+
+                @Override
+                public Job next() {
+                    if (slot >= usedSlots) {
+                        throw new NoSuchElementException();
+                    }
+                    final Job job = slots[slot];
+                    slot = nextOccupied(slot + 1);
+                    return job;
+                }
+            };
+        }
+
+        private int nextOccupied(int slot) {
+            while (slot < usedSlots && slots[slot] == null) {
+                slot++;
+            }
+            return slot;
+        }
+
+        private void update(int slot, int delta) {
+            for (int i = slot + 1; i < tree.length; i += i & -i) {
+                tree[i] += delta;
+            }
+        }
+
+        /**
+         * Moves the vacant jobs to the first slots, keeping their order, and rebuilds the tree in linear time.
+         */
+        private void compact(int capacity) {
+            final Job[] compacted = new Job[capacity];
+            int used = 0;
+            for (int slot = 0; slot < usedSlots; slot++) {
+                if (slots[slot] != null) {
+                    compacted[used] = slots[slot];
+                    slotByJobId.put(slots[slot].getId(), used);
+                    used++;
+                }
+            }
+            slots = compacted;
+            usedSlots = used;
+            tree = new int[capacity + 1];
+            for (int i = 1; i <= capacity; i++) {
+                if (i <= used) {
+                    tree[i]++;
+                }
+                final int parent = i + (i & -i);
+                if (parent <= capacity) {
+                    tree[parent] += tree[i];
+                }
+            }
+        }
+    }
+}
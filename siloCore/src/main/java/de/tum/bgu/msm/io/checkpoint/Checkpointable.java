@@ -0,0 +1,26 @@
+package de.tum.bgu.msm.io.checkpoint;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Implemented by data managers and models that keep state across years which cannot be derived from the micro data,
+ * so that this state is written to simulation checkpoints and restored when a run is resumed.
+ * The state is restored after all data managers and models were set up with the restored micro data, so
+ * implementations overwrite whatever their setup derived from it.
+ */
+public interface Checkpointable {
+
+    void writeCheckpoint(DataOutput out) throws IOException;
+
+    void readCheckpoint(DataInput in) throws IOException;
+
+    /**
+     * Called with the year of the checkpoint after the micro data was read and before the setup of a resumed run,
+     * so that implementations can skip expensive setup work (e.g. running the transport model) whose result is
+     * replaced by the restored state.
+     */
+    default void prepareResume(int year) {
+    }
+}
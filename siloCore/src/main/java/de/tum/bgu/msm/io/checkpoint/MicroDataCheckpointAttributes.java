@@ -0,0 +1,42 @@
+package de.tum.bgu.msm.io.checkpoint;
+
+import de.tum.bgu.msm.data.dwelling.Dwelling;
+import de.tum.bgu.msm.data.household.Household;
+import de.tum.bgu.msm.data.job.Job;
+import de.tum.bgu.msm.data.person.Person;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Writes and reads the attributes of use case specific implementations of the micro data that are not part of
+ * the core interfaces. The objects passed to the read methods were created by the factories of the data container,
+ * and already carry all core attributes. By default, no additional attributes are stored.
+ */
+public interface MicroDataCheckpointAttributes {
+
+    default void writeDwelling(Dwelling dwelling, DataOutput out) throws IOException {
+    }
+
+    default void readDwelling(Dwelling dwelling, DataInput in) throws IOException {
+    }
+
+    default void writeHousehold(Household household, DataOutput out) throws IOException {
+    }
+
+    default void readHousehold(Household household, DataInput in) throws IOException {
+    }
+
+    default void writePerson(Person person, DataOutput out) throws IOException {
+    }
+
+    default void readPerson(Person person, DataInput in) throws IOException {
+    }
+
+    default void writeJob(Job job, DataOutput out) throws IOException {
+    }
+
+    default void readJob(Job job, DataInput in) throws IOException {
+    }
+}
@@ -0,0 +1,232 @@
+package de.tum.bgu.msm.io.checkpoint;
+
+import de.tum.bgu.msm.container.DataContainer;
+import de.tum.bgu.msm.container.ModelContainer;
+import de.tum.bgu.msm.data.dwelling.Dwelling;
+import de.tum.bgu.msm.data.dwelling.DwellingFactory;
+import de.tum.bgu.msm.data.dwelling.DwellingType;
+import de.tum.bgu.msm.data.dwelling.DwellingUsage;
+import de.tum.bgu.msm.data.dwelling.RealEstateDataManager;
+import de.tum.bgu.msm.data.household.Household;
+import de.tum.bgu.msm.data.household.HouseholdDataManager;
+import de.tum.bgu.msm.data.job.Job;
+import de.tum.bgu.msm.data.job.JobDataManager;
+import de.tum.bgu.msm.data.person.Gender;
+import de.tum.bgu.msm.data.person.Occupation;
+import de.tum.bgu.msm.data.person.Person;
+import de.tum.bgu.msm.data.person.PersonRole;
+import de.tum.bgu.msm.data.vehicle.Car;
+import de.tum.bgu.msm.data.vehicle.CarType;
+import de.tum.bgu.msm.utils.SiloUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.locationtech.jts.geom.Coordinate;
+
+import java.io.*;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads a checkpoint written by {@link SimulationCheckpointWriter}. The micro data is read into the empty data
+ * container before the setup of the simulation, the remaining state after all data managers and models were set up.
+ */
+public final class SimulationCheckpointReader implements Closeable {
+
+    private final static Logger logger = LogManager.getLogger(SimulationCheckpointReader.class);
+
+    /**
+     * Command line argument followed by the checkpoint file to resume a run from.
+     */
+    public static final String RESUME_ARGUMENT = "--resume-from";
+
+    private final File file;
+    private final DataInputStream in;
+    private final int year;
+
+    public SimulationCheckpointReader(File file) throws IOException {
+        this.file = file;
+        in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(file), 1 << 16), 1 << 16));
+        if (in.readInt() != SimulationCheckpointWriter.MAGIC) {
+            in.close();
+            throw new IOException(file + " is not a SILO checkpoint.");
+        }
+        final int version = in.readInt();
+        if (version != SimulationCheckpointWriter.VERSION) {
+            in.close();
+            throw new IOException("Checkpoint " + file + " has version " + version
+                    + ", but version " + SimulationCheckpointWriter.VERSION + " is required.");
+        }
+        year = in.readInt();
+    }
+
+    /**
+     * @return the year at the beginning of which the checkpoint was written, i.e. the first year to simulate
+     */
+    public int getYear() {
+        return year;
+    }
+
+    public void readMicroData(DataContainer dataContainer, MicroDataCheckpointAttributes attributes) throws IOException {
+        logger.info("Reading micro data of year " + year + " from checkpoint " + file);
+        readDwellings(dataContainer.getRealEstateDataManager(), attributes);
+        readHouseholdsAndPersons(dataContainer.getHouseholdDataManager(), attributes);
+        readJobs(dataContainer.getJobDataManager(), attributes);
+    }
+
+    /**
+     * Tells the data managers and models that the run is resumed from this checkpoint, before they are set up.
+     */
+    public void prepareResume(DataContainer dataContainer, ModelContainer modelContainer) {
+        for (Checkpointable component : SimulationCheckpointWriter.collectComponents(dataContainer, modelContainer).values()) {
+            component.prepareResume(year);
+        }
+    }
+
+    public void readState(DataContainer dataContainer, ModelContainer modelContainer) throws IOException {
+        SiloUtil.readRandomStates(in);
+        final Map<String, Checkpointable> components = SimulationCheckpointWriter.collectComponents(dataContainer, modelContainer);
+        final Set<String> restored = new HashSet<>();
+        final int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            final String key = in.readUTF();
+            final byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            final Checkpointable component = components.get(key);
+            if (component == null) {
+                logger.warn("Checkpoint contains state of " + key + ", which is not part of this simulation.");
+                continue;
+            }
+            try (DataInputStream componentIn = new DataInputStream(new ByteArrayInputStream(bytes))) {
+                component.readCheckpoint(componentIn);
+            }
+            restored.add(key);
+        }
+        for (String key : components.keySet()) {
+            if (!restored.contains(key)) {
+                logger.warn("Checkpoint does not contain state of " + key + ".");
+            }
+        }
+    }
+
+    private void readDwellings(RealEstateDataManager realEstate, MicroDataCheckpointAttributes attributes) throws IOException {
+        final List<DwellingType> types = realEstate.getDwellingTypes().getTypes();
+        final DwellingFactory factory = realEstate.getDwellingFactory();
+        final DwellingUsage[] usages = DwellingUsage.values();
+        final int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            final int id = in.readInt();
+            final int zoneId = in.readInt();
+            final Coordinate coordinate = readCoordinate();
+            final int residentId = in.readInt();
+            final DwellingType type = types.get(in.readInt());
+            final int bedrooms = in.readInt();
+            final int quality = in.readInt();
+            final int price = in.readInt();
+            final int yearBuilt = in.readInt();
+            final Dwelling dd = factory.createDwelling(id, zoneId, coordinate, residentId, type, bedrooms, quality, price, yearBuilt);
+            dd.setFloorSpace(in.readInt());
+            final int usage = in.readInt();
+            if (usage >= 0) {
+                dd.setUsage(usages[usage]);
+            }
+            attributes.readDwelling(dd, in);
+            realEstate.addDwelling(dd);
+        }
+        logger.info("Read " + count + " dwellings.");
+    }
+
+    private void readHouseholdsAndPersons(HouseholdDataManager householdDataManager,
+                                          MicroDataCheckpointAttributes attributes) throws IOException {
+        final Gender[] genders = Gender.values();
+        final Occupation[] occupations = Occupation.values();
+        final PersonRole[] roles = PersonRole.values();
+        final CarType[] carTypes = CarType.values();
+        final int count = in.readInt();
+        int personCount = 0;
+        for (int i = 0; i < count; i++) {
+            final Household hh = householdDataManager.getHouseholdFactory().createHousehold(in.readInt(), in.readInt(), 0);
+            hh.getVehicles().clear();
+            final int vehicles = in.readInt();
+            for (int j = 0; j < vehicles; j++) {
+                final int id = in.readInt();
+                final CarType carType = carTypes[in.readInt()];
+                hh.getVehicles().add(new Car(id, carType, in.readInt()));
+            }
+            attributes.readHousehold(hh, in);
+            householdDataManager.addHousehold(hh);
+
+            final int persons = in.readInt();
+            for (int j = 0; j < persons; j++) {
+                final int id = in.readInt();
+                final int age = in.readInt();
+                final Gender gender = genders[in.readInt()];
+                final Occupation occupation = occupations[in.readInt()];
+                final PersonRole role = roles[in.readInt()];
+                final int jobId = in.readInt();
+                final int income = in.readInt();
+                final Person pp = householdDataManager.getPersonFactory().createPerson(id, age, gender, occupation, role, jobId, income);
+                pp.setDriverLicense(in.readBoolean());
+                householdDataManager.addPerson(pp);
+                householdDataManager.addPersonToHousehold(pp, hh);
+                attributes.readPerson(pp, in);
+            }
+            personCount += persons;
+        }
+        logger.info("Read " + count + " households with " + personCount + " persons.");
+    }
+
+    private void readJobs(JobDataManager jobDataManager, MicroDataCheckpointAttributes attributes) throws IOException {
+        final int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            final int id = in.readInt();
+            final int zoneId = in.readInt();
+            final Coordinate coordinate = readCoordinate();
+            final int workerId = in.readInt();
+            final Job jj = jobDataManager.getFactory().createJob(id, zoneId, coordinate, workerId, in.readUTF());
+            attributes.readJob(jj, in);
+            jobDataManager.addJob(jj);
+        }
+        logger.info("Read " + count + " jobs.");
+    }
+
+    private Coordinate readCoordinate() throws IOException {
+        if (in.readBoolean()) {
+            return new Coordinate(in.readDouble(), in.readDouble());
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * @return the checkpoint file given after {@link #RESUME_ARGUMENT}, or null if the run is not resumed
+     */
+    public static File getResumeFile(String[] args) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (RESUME_ARGUMENT.equals(args[i])) {
+                return new File(args[i + 1]);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the command line arguments without {@link #RESUME_ARGUMENT} and its file, so that positional
+     * arguments keep their position
+     */
+    public static String[] removeResumeArguments(String[] args) {
+        final List<String> remaining = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (RESUME_ARGUMENT.equals(args[i])) {
+                i++;
+            } else {
+                remaining.add(args[i]);
+            }
+        }
+        return remaining.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,202 @@
+package de.tum.bgu.msm.io.checkpoint;
+
+import de.tum.bgu.msm.container.DataContainer;
+import de.tum.bgu.msm.container.ModelContainer;
+import de.tum.bgu.msm.data.dwelling.Dwelling;
+import de.tum.bgu.msm.data.dwelling.DwellingType;
+import de.tum.bgu.msm.data.dwelling.DwellingUsage;
+import de.tum.bgu.msm.data.household.Household;
+import de.tum.bgu.msm.data.job.Job;
+import de.tum.bgu.msm.data.person.Person;
+import de.tum.bgu.msm.data.vehicle.Car;
+import de.tum.bgu.msm.data.vehicle.Vehicle;
+import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.utils.SiloUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.locationtech.jts.geom.Coordinate;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the state of a simulation at the beginning of a year to a compressed binary checkpoint, from which the
+ * run can be resumed with {@link SimulationCheckpointReader}. A checkpoint consists of
+ * <ol>
+ *     <li>the micro data: dwellings, households with their vehicles and persons, and jobs, in the order of their
+ *     data stores,</li>
+ *     <li>the states of the random number generators (see {@link SiloUtil#writeRandomStates(DataOutput)}),</li>
+ *     <li>the state of every data manager and model that is {@link Checkpointable}, by class name.</li>
+ * </ol>
+ * Subsequent results of a resumed run are identical to the ones of the original run if the data stores iterate
+ * in id order, i.e. if id indexed data stores are used.
+ */
+public final class SimulationCheckpointWriter {
+
+    private final static Logger logger = LogManager.getLogger(SimulationCheckpointWriter.class);
+
+    static final int MAGIC = 0x53494c4f;
+    static final int VERSION = 1;
+
+    private SimulationCheckpointWriter() {
+    }
+
+    /**
+     * Returns the file of the checkpoint at the beginning of the given year in the scenario output folder.
+     */
+    public static File getCheckpointFile(Properties properties, int year) {
+        return new File(properties.main.baseDirectory + "scenOutput/" + properties.main.scenarioName
+                + "/checkpoints/checkpoint_" + year + ".bin");
+    }
+
+    /**
+     * Writes the checkpoint to a temporary file first, so that a crash while writing never leaves an incomplete checkpoint.
+     */
+    public static void write(File file, int year, DataContainer dataContainer, ModelContainer modelContainer,
+                             MicroDataCheckpointAttributes attributes) throws IOException {
+        logger.info("Writing checkpoint for the beginning of year " + year + " to " + file);
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        final File tempFile = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(new FileOutputStream(tempFile), 1 << 16), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(year);
+            writeDwellings(out, dataContainer, attributes);
+            writeHouseholdsAndPersons(out, dataContainer, attributes);
+            writeJobs(out, dataContainer, attributes);
+            SiloUtil.writeRandomStates(out);
+            writeComponents(out, collectComponents(dataContainer, modelContainer));
+        }
+        Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void writeDwellings(DataOutput out, DataContainer dataContainer,
+                                       MicroDataCheckpointAttributes attributes) throws IOException {
+        final List<DwellingType> types = dataContainer.getRealEstateDataManager().getDwellingTypes().getTypes();
+        final List<Dwelling> dwellings = new ArrayList<>(dataContainer.getRealEstateDataManager().getDwellings());
+        out.writeInt(dwellings.size());
+        for (Dwelling dd : dwellings) {
+            out.writeInt(dd.getId());
+            out.writeInt(dd.getZoneId());
+            writeCoordinate(out, dd.getCoordinate());
+            out.writeInt(dd.getResidentId());
+            out.writeInt(types.indexOf(dd.getType()));
+            out.writeInt(dd.getBedrooms());
+            out.writeInt(dd.getQuality());
+            out.writeInt(dd.getPrice());
+            out.writeInt(dd.getYearBuilt());
+            out.writeInt(dd.getFloorSpace());
+            final DwellingUsage usage = dd.getUsage();
+            out.writeInt(usage == null ? -1 : usage.ordinal());
+            attributes.writeDwelling(dd, out);
+        }
+    }
+
+    private static void writeHouseholdsAndPersons(DataOutput out, DataContainer dataContainer,
+                                                  MicroDataCheckpointAttributes attributes) throws IOException {
+        final List<Household> households = new ArrayList<>(dataContainer.getHouseholdDataManager().getHouseholds());
+        out.writeInt(households.size());
+        for (Household hh : households) {
+            out.writeInt(hh.getId());
+            out.writeInt(hh.getDwellingId());
+            out.writeInt(hh.getVehicles().size());
+            for (Vehicle vehicle : hh.getVehicles()) {
+                if (!(vehicle instanceof Car)) {
+                    throw new IllegalStateException("Cannot write vehicle " + vehicle.getId() + " of type "
+                            + vehicle.getType() + " to checkpoint.");
+                }
+                out.writeInt(vehicle.getId());
+                out.writeInt(((Car) vehicle).getCarType().ordinal());
+                out.writeInt(vehicle.getAge());
+            }
+            attributes.writeHousehold(hh, out);
+            // persons are stored with their household to keep the order of persons within the household
+            out.writeInt(hh.getPersons().size());
+            for (Person pp : hh.getPersons().values()) {
+                out.writeInt(pp.getId());
+                out.writeInt(pp.getAge());
+                out.writeInt(pp.getGender().ordinal());
+                out.writeInt(pp.getOccupation().ordinal());
+                out.writeInt(pp.getRole().ordinal());
+                out.writeInt(pp.getJobId());
+                out.writeInt(pp.getAnnualIncome());
+                out.writeBoolean(pp.hasDriverLicense());
+                attributes.writePerson(pp, out);
+            }
+        }
+    }
+
+    private static void writeJobs(DataOutput out, DataContainer dataContainer,
+                                  MicroDataCheckpointAttributes attributes) throws IOException {
+        final List<Job> jobs = new ArrayList<>(dataContainer.getJobDataManager().getJobs());
+        out.writeInt(jobs.size());
+        for (Job jj : jobs) {
+            out.writeInt(jj.getId());
+            out.writeInt(jj.getZoneId());
+            writeCoordinate(out, jj.getCoordinate());
+            out.writeInt(jj.getWorkerId());
+            out.writeUTF(jj.getType());
+            attributes.writeJob(jj, out);
+        }
+    }
+
+    private static void writeCoordinate(DataOutput out, Coordinate coordinate) throws IOException {
+        out.writeBoolean(coordinate != null);
+        if (coordinate != null) {
+            out.writeDouble(coordinate.x);
+            out.writeDouble(coordinate.y);
+        }
+    }
+
+    private static void writeComponents(DataOutput out, Map<String, Checkpointable> components) throws IOException {
+        out.writeInt(components.size());
+        for (Map.Entry<String, Checkpointable> component : components.entrySet()) {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream componentOut = new DataOutputStream(bytes)) {
+                component.getValue().writeCheckpoint(componentOut);
+            }
+            out.writeUTF(component.getKey());
+            out.writeInt(bytes.size());
+            out.write(bytes.toByteArray());
+        }
+    }
+
+    /**
+     * Collects the checkpointable data managers and models by class name. Models are sorted by class name, as
+     * the order of event models in the model container may differ between runs.
+     */
+    static Map<String, Checkpointable> collectComponents(DataContainer dataContainer, ModelContainer modelContainer) {
+        final Map<String, Checkpointable> components = new LinkedHashMap<>();
+        addComponent(components, dataContainer);
+        addComponent(components, dataContainer.getGeoData());
+        addComponent(components, dataContainer.getRealEstateDataManager());
+        addComponent(components, dataContainer.getJobDataManager());
+        addComponent(components, dataContainer.getHouseholdDataManager());
+        addComponent(components, dataContainer.getAccessibility());
+        addComponent(components, dataContainer.getCommutingTimeProbability());
+
+        final List<Object> models = new ArrayList<>(modelContainer.getEventModels().values());
+        models.addAll(modelContainer.getModelUpdateListeners());
+        models.removeIf(Objects::isNull);
+        models.sort(Comparator.comparing(model -> model.getClass().getName()));
+        for (Object model : models) {
+            addComponent(components, model);
+        }
+        return components;
+    }
+
+    private static void addComponent(Map<String, Checkpointable> components, Object component) {
+        if (component instanceof Checkpointable && !components.containsValue(component)) {
+            String key = component.getClass().getName();
+            int count = 1;
+            while (components.containsKey(key)) {
+                key = component.getClass().getName() + "#" + (++count);
+            }
+            components.put(key, (Checkpointable) component);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package de.tum.bgu.msm.io.columnar;
+
+import de.tum.bgu.msm.properties.Properties;
+
+import java.io.File;
+
+/**
+ * Binary, column oriented file format for micro data tables. Every column is stored in one block, encoded by its type
+ * and compressed with deflate:
+ * <ul>
+ *     <li>{@link #INT}: variable length integers, small values take one byte,</li>
+ *     <li>{@link #ID}: variable length differences to the previous value, for ids in (nearly) ascending order,</li>
+ *     <li>{@link #DICTIONARY}: the distinct strings once, followed by the index of the value of every row,
+ *     for enums and types,</li>
+ *     <li>{@link #DOUBLE}: 8 bytes per value, NaN for missing values,</li>
+ *     <li>{@link #BOOLEAN}: one bit per value.</li>
+ * </ul>
+ * A file starts with {@link #MAGIC}, {@link #VERSION}, the number of rows and the number of columns. Every column
+ * consists of its name, its encoding, the compressed and uncompressed length and the compressed bytes.
+ */
+public final class ColumnarTable {
+
+    public static final String FILE_EXTENSION = ".columnar";
+
+    static final int MAGIC = 0x53434f4c;
+    static final int VERSION = 1;
+
+    static final byte INT = 1;
+    static final byte ID = 2;
+    static final byte DICTIONARY = 3;
+    static final byte DOUBLE = 4;
+    static final byte BOOLEAN = 5;
+
+    private ColumnarTable() {
+    }
+
+    public static boolean isColumnarFile(String path) {
+        return path.endsWith(FILE_EXTENSION);
+    }
+
+    /**
+     * @return the file extension of micro data files written by SILO, depending on the output format
+     */
+    public static String getMicroDataExtension(Properties properties) {
+        return properties.main.columnarMicroDataOutput ? FILE_EXTENSION : ".csv";
+    }
+
+    /**
+     * Returns the columnar file of a csv file name if only the columnar file exists, so that the output of
+     * a previous run can be used as input without changing the input file names. Returns the path unchanged otherwise.
+     */
+    public static String resolveInputFile(String path) {
+        if (path.endsWith(".csv") && !new File(path).exists()) {
+            final String columnarPath = path.substring(0, path.length() - ".csv".length()) + FILE_EXTENSION;
+            if (new File(columnarPath).exists()) {
+                return columnarPath;
+            }
+        }
+        return path;
+    }
+}
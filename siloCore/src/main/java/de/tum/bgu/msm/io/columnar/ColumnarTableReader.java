@@ -0,0 +1,189 @@
+package de.tum.bgu.msm.io.columnar;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads a table in the {@link ColumnarTable} format. The compressed columns are kept in memory and only
+ * decoded when they are requested.
+ */
+public final class ColumnarTableReader {
+
+    private final String path;
+    private final int rows;
+    private final Map<String, Column> columns = new LinkedHashMap<>();
+
+    private static final class Column {
+        private final byte encoding;
+        private final byte[] compressed;
+        private final int length;
+
+        private Column(byte encoding, byte[] compressed, int length) {
+            this.encoding = encoding;
+            this.compressed = compressed;
+            this.length = length;
+        }
+    }
+
+    public ColumnarTableReader(String path) throws IOException {
+        this.path = path;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path), 1 << 16))) {
+            if (in.readInt() != ColumnarTable.MAGIC) {
+                throw new IOException(path + " is not a columnar micro data file.");
+            }
+            final int version = in.readInt();
+            if (version != ColumnarTable.VERSION) {
+                throw new IOException(path + " has version " + version + ", but version " + ColumnarTable.VERSION + " is required.");
+            }
+            rows = in.readInt();
+            final int numberOfColumns = in.readInt();
+            for (int i = 0; i < numberOfColumns; i++) {
+                final String name = in.readUTF();
+                final byte encoding = in.readByte();
+                final byte[] compressed = new byte[in.readInt()];
+                final int length = in.readInt();
+                in.readFully(compressed);
+                columns.put(name, new Column(encoding, compressed, length));
+            }
+        }
+    }
+
+    public int getRowCount() {
+        return rows;
+    }
+
+    public boolean hasColumn(String name) {
+        return columns.containsKey(name);
+    }
+
+    /**
+     * Returns the values of a column that was written as int or id column.
+     */
+    public int[] getIntColumn(String name) {
+        final Column column = getColumn(name, ColumnarTable.INT, ColumnarTable.ID);
+        final ColumnBytes in = new ColumnBytes(decompress(name, column));
+        final int[] values = new int[rows];
+        if (column.encoding == ColumnarTable.ID) {
+            int previous = 0;
+            for (int i = 0; i < rows; i++) {
+                previous += in.readVarInt();
+                values[i] = previous;
+            }
+        } else {
+            for (int i = 0; i < rows; i++) {
+                values[i] = in.readVarInt();
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Returns the values of a dictionary column. Equal values are the same string instance.
+     */
+    public String[] getStringColumn(String name) {
+        final ColumnBytes in = new ColumnBytes(decompress(name, getColumn(name, ColumnarTable.DICTIONARY)));
+        final String[] dictionary = new String[in.readVarInt()];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = in.readString();
+        }
+        final String[] values = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            values[i] = dictionary[in.readVarInt()];
+        }
+        return values;
+    }
+
+    public double[] getDoubleColumn(String name) {
+        final ColumnBytes in = new ColumnBytes(decompress(name, getColumn(name, ColumnarTable.DOUBLE)));
+        final double[] values = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            values[i] = Double.longBitsToDouble(in.readLong());
+        }
+        return values;
+    }
+
+    public boolean[] getBooleanColumn(String name) {
+        final byte[] bits = decompress(name, getColumn(name, ColumnarTable.BOOLEAN));
+        final boolean[] values = new boolean[rows];
+        for (int i = 0; i < rows; i++) {
+            values[i] = (bits[i >> 3] & (1 << (i & 7))) != 0;
+        }
+        return values;
+    }
+
+    private Column getColumn(String name, byte... encodings) {
+        final Column column = columns.get(name);
+        if (column == null) {
+            throw new IllegalArgumentException("Column " + name + " does not exist in " + path);
+        }
+        for (byte encoding : encodings) {
+            if (column.encoding == encoding) {
+                return column;
+            }
+        }
+        throw new IllegalArgumentException("Column " + name + " in " + path + " has a different type.");
+    }
+
+    private byte[] decompress(String name, Column column) {
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(column.compressed);
+            final byte[] data = new byte[column.length];
+            int length = 0;
+            while (length < data.length && !inflater.finished()) {
+                final int inflated = inflater.inflate(data, length, data.length - length);
+                if (inflated == 0 && inflater.needsInput()) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != data.length) {
+                throw new IllegalStateException("Column " + name + " in " + path + " is truncated.");
+            }
+            return data;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Column " + name + " in " + path + " is corrupt.", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static final class ColumnBytes {
+        private final byte[] bytes;
+        private int position = 0;
+
+        private ColumnBytes(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        private int readVarInt() {
+            int zigzag = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                zigzag |= (b & 0x7f) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+
+        private long readLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (bytes[position++] & 0xff);
+            }
+            return value;
+        }
+
+        private String readString() {
+            final int length = readVarInt();
+            final String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
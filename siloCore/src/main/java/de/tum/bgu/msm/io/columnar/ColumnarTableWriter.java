@@ -0,0 +1,191 @@
+package de.tum.bgu.msm.io.columnar;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.Deflater;
+
+/**
+ * Writes a table in the {@link ColumnarTable} format. All columns need to have the number of rows given
+ * to the constructor. Columns are encoded and compressed in parallel when the table is written.
+ */
+public final class ColumnarTableWriter {
+
+    private final int rows;
+    private final List<Column> columns = new ArrayList<>();
+
+    private static final class Column {
+        private final String name;
+        private final byte encoding;
+        private final byte[] data;
+        private byte[] compressed;
+        private int compressedLength;
+
+        private Column(String name, byte encoding, byte[] data) {
+            this.name = name;
+            this.encoding = encoding;
+            this.data = data;
+        }
+
+        private void compress() {
+            final Deflater deflater = new Deflater();
+            deflater.setInput(data);
+            deflater.finish();
+            compressed = new byte[Math.max(64, data.length + data.length / 100 + 64)];
+            compressedLength = 0;
+            while (!deflater.finished()) {
+                if (compressedLength == compressed.length) {
+                    compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                }
+                compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+            }
+            deflater.end();
+        }
+    }
+
+    public ColumnarTableWriter(int rows) {
+        this.rows = rows;
+    }
+
+    public void addIntColumn(String name, int[] values) {
+        checkLength(name, values.length);
+        final ColumnBytes out = new ColumnBytes(rows);
+        for (int value : values) {
+            out.writeVarInt(value);
+        }
+        add(name, ColumnarTable.INT, out);
+    }
+
+    /**
+     * Adds a column of ids, which are stored as differences to the previous id.
+     */
+    public void addIdColumn(String name, int[] values) {
+        checkLength(name, values.length);
+        final ColumnBytes out = new ColumnBytes(rows);
+        int previous = 0;
+        for (int value : values) {
+            out.writeVarInt(value - previous);
+            previous = value;
+        }
+        add(name, ColumnarTable.ID, out);
+    }
+
+    public void addDictionaryColumn(String name, String[] values) {
+        checkLength(name, values.length);
+        final Map<String, Integer> indexByValue = new LinkedHashMap<>();
+        final int[] indices = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            indices[i] = indexByValue.computeIfAbsent(values[i], v -> indexByValue.size());
+        }
+        final ColumnBytes out = new ColumnBytes(rows);
+        out.writeVarInt(indexByValue.size());
+        for (String value : indexByValue.keySet()) {
+            out.writeString(value);
+        }
+        for (int index : indices) {
+            out.writeVarInt(index);
+        }
+        add(name, ColumnarTable.DICTIONARY, out);
+    }
+
+    public void addDoubleColumn(String name, double[] values) {
+        checkLength(name, values.length);
+        final ColumnBytes out = new ColumnBytes(rows * 8);
+        for (double value : values) {
+            out.writeLong(Double.doubleToLongBits(value));
+        }
+        add(name, ColumnarTable.DOUBLE, out);
+    }
+
+    public void addBooleanColumn(String name, boolean[] values) {
+        checkLength(name, values.length);
+        final byte[] bits = new byte[(values.length + 7) / 8];
+        for (int i = 0; i < values.length; i++) {
+            if (values[i]) {
+                bits[i >> 3] |= (byte) (1 << (i & 7));
+            }
+        }
+        columns.add(new Column(name, ColumnarTable.BOOLEAN, bits));
+    }
+
+    public void write(String path) throws IOException {
+        columns.parallelStream().forEach(Column::compress);
+        final File file = new File(path);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+            out.writeInt(ColumnarTable.MAGIC);
+            out.writeInt(ColumnarTable.VERSION);
+            out.writeInt(rows);
+            out.writeInt(columns.size());
+            for (Column column : columns) {
+                out.writeUTF(column.name);
+                out.writeByte(column.encoding);
+                out.writeInt(column.compressedLength);
+                out.writeInt(column.data.length);
+                out.write(column.compressed, 0, column.compressedLength);
+            }
+        }
+    }
+
+    private void checkLength(String name, int length) {
+        if (length != rows) {
+            throw new IllegalArgumentException("Column " + name + " has " + length + " instead of " + rows + " rows.");
+        }
+    }
+
+    private void add(String name, byte encoding, ColumnBytes buffer) {
+        columns.add(new Column(name, encoding, buffer.toByteArray()));
+    }
+
+    /**
+     * Growing byte array with the variable length encoding of the format.
+     */
+    private static final class ColumnBytes {
+        private byte[] bytes;
+        private int length = 0;
+
+        private ColumnBytes(int initialCapacity) {
+            bytes = new byte[Math.max(16, initialCapacity)];
+        }
+
+        private void ensureCapacity(int additional) {
+            if (length + additional > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + additional));
+            }
+        }
+
+        /**
+         * Zigzag encodes the value, so that small negative values such as -1 also take one byte.
+         */
+        private void writeVarInt(int value) {
+            ensureCapacity(5);
+            int zigzag = (value << 1) ^ (value >> 31);
+            while ((zigzag & ~0x7f) != 0) {
+                bytes[length++] = (byte) ((zigzag & 0x7f) | 0x80);
+                zigzag >>>= 7;
+            }
+            bytes[length++] = (byte) zigzag;
+        }
+
+        private void writeLong(long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                bytes[length++] = (byte) (value >>> shift);
+            }
+        }
+
+        private void writeString(String value) {
+            final byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(utf8.length);
+            ensureCapacity(utf8.length);
+            System.arraycopy(utf8, 0, bytes, length, utf8.length);
+            length += utf8.length;
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(bytes, length);
+        }
+    }
+}
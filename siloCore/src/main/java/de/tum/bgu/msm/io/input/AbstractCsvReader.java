@@ -14,6 +14,8 @@ public abstract class AbstractCsvReader extends AbstractInputReader{
 
     private static final Logger logger = LogManager.getLogger(AbstractCsvReader.class);
 
+    private static final String REGEX_META_CHARACTERS = ".$|()[]{}^?*+\\";
+
     private BufferedReader reader;
 
     private int numberOfRecords = 0;
@@ -26,7 +28,16 @@ public abstract class AbstractCsvReader extends AbstractInputReader{
 
     protected abstract void processRecord(String[] record);
 
+    /**
+     * Reads the file with a {@link FastCsvReader} if the delimiter is a single character without special meaning
+     * in regular expressions. Otherwise, lines are split by the delimiter as regular expression.
+     */
     public void read(Path filePath, String delimiter) {
+        if (delimiter.length() == 1 && REGEX_META_CHARACTERS.indexOf(delimiter.charAt(0)) < 0
+                && delimiter.charAt(0) < 128) {
+            readFast(filePath, delimiter.charAt(0));
+            return;
+        }
         initializeReader(filePath, delimiter);
         try {
             String record;
@@ -46,6 +57,20 @@ public abstract class AbstractCsvReader extends AbstractInputReader{
         logger.info(this.getClass().getSimpleName() + ": Read " + numberOfRecords + " records.");
     }
 
+    private void readFast(Path filePath, char delimiter) {
+        try (FastCsvReader in = new FastCsvReader(filePath, delimiter, StandardCharsets.ISO_8859_1)) {
+            processHeader(in.getHeader());
+            FastCsvReader.Record record;
+            while ((record = in.nextRecord()) != null) {
+                numberOfRecords++;
+                processRecord(record.getFields());
+            }
+        } catch (IOException e) {
+            logger.error("Error reading csv file " + filePath + " at record number " + numberOfRecords + ": " + e.getMessage(), e);
+        }
+        logger.info(this.getClass().getSimpleName() + ": Read " + numberOfRecords + " records.");
+    }
+
     private void initializeReader(Path filePath, String delimiter) {
         try {
 
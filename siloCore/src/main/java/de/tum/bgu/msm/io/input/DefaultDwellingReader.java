@@ -1,13 +1,13 @@
 package de.tum.bgu.msm.io.input;
 
 import de.tum.bgu.msm.data.dwelling.*;
+import de.tum.bgu.msm.io.columnar.ColumnarTable;
+import de.tum.bgu.msm.io.columnar.ColumnarTableReader;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.locationtech.jts.geom.Coordinate;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
 
 public class DefaultDwellingReader implements DwellingReader {
@@ -45,14 +45,15 @@ public class DefaultDwellingReader implements DwellingReader {
 
     @Override
     public void readData(String path) {
+        path = ColumnarTable.resolveInputFile(path);
+        if (ColumnarTable.isColumnarFile(path)) {
+            readColumnarData(path);
+            return;
+        }
         logger.info("Reading dwelling micro data from ascii file");
-        String recString = "";
         int recCount = 0;
-        try {
-            BufferedReader in = new BufferedReader(new FileReader(path));
-            recString = in.readLine();
-
-            String[] header = recString.split(",");
+        try (FastCsvReader in = new FastCsvReader(path, ',')) {
+            String[] header = in.getHeader();
             int posId = SiloUtil.findPositionInArray("id", header);
             int posZone = SiloUtil.findPositionInArray("zone", header);
             int posHh = SiloUtil.findPositionInArray("hhID", header);
@@ -72,23 +73,23 @@ public class DefaultDwellingReader implements DwellingReader {
             }
 
             int noCoordCounter = 0;
-            while ((recString = in.readLine()) != null) {
+            FastCsvReader.Record record;
+            while ((record = in.nextRecord()) != null) {
                 recCount++;
-                String[] lineElements = recString.split(",");
-                int id = Integer.parseInt(lineElements[posId]);
-                int zoneId = Integer.parseInt(lineElements[posZone]);
-                int hhId = Integer.parseInt(lineElements[posHh]);
-                String tp = lineElements[posType].replace("\"", "");
+                int id = record.getInt(posId);
+                int zoneId = record.getInt(posZone);
+                int hhId = record.getInt(posHh);
+                String tp = record.getString(posType).replace("\"", "");
                 DwellingType type = dwellingTypes.valueOf(tp);
-                int price = Integer.parseInt(lineElements[posCosts]);
-                int area = Integer.parseInt(lineElements[posRooms]);
-                int quality = Integer.parseInt(lineElements[posQuality]);
-                int yearBuilt = Integer.parseInt(lineElements[posYear]);
+                int price = record.getInt(posCosts);
+                int area = record.getInt(posRooms);
+                int quality = record.getInt(posQuality);
+                int yearBuilt = record.getInt(posYear);
 
                 Coordinate coordinate = null;
                 if (posCoordX >= 0 && posCoordY >= 0) {
                     try {
-                        coordinate = new Coordinate(Double.parseDouble(lineElements[posCoordX]), Double.parseDouble(lineElements[posCoordY]));
+                        coordinate = new Coordinate(record.getDouble(posCoordX), record.getDouble(posCoordY));
                     } catch (Exception e) {
                         noCoordCounter++;
                     }
@@ -106,8 +107,49 @@ public class DefaultDwellingReader implements DwellingReader {
             }
         } catch (IOException e) {
             logger.fatal("IO Exception caught reading synpop dwelling file: " + path);
-            logger.fatal("recCount = " + recCount + ", recString = <" + recString + ">");
+            logger.fatal("recCount = " + recCount);
         }
         logger.info("Finished reading " + recCount + " dwellings.");
     }
+
+    private void readColumnarData(String path) {
+        logger.info("Reading dwelling micro data from columnar file");
+        final ColumnarTableReader table;
+        try {
+            table = new ColumnarTableReader(path);
+        } catch (IOException e) {
+            throw new RuntimeException("IO Exception caught reading dwelling file: " + path, e);
+        }
+        final int[] ids = table.getIntColumn("id");
+        final int[] zones = table.getIntColumn("zone");
+        final String[] types = table.getStringColumn("type");
+        final int[] households = table.getIntColumn("hhID");
+        final int[] bedrooms = table.getIntColumn("bedrooms");
+        final int[] qualities = table.getIntColumn("quality");
+        final int[] prices = table.getIntColumn("monthlyCost");
+        final int[] yearsBuilt = table.getIntColumn("yearBuilt");
+        final double[] coordX = table.getDoubleColumn("coordX");
+        final double[] coordY = table.getDoubleColumn("coordY");
+
+        int noCoordCounter = 0;
+        for (int i = 0; i < table.getRowCount(); i++) {
+            Coordinate coordinate = null;
+            if (Double.isNaN(coordX[i]) || Double.isNaN(coordY[i])) {
+                noCoordCounter++;
+            } else {
+                coordinate = new Coordinate(coordX[i], coordY[i]);
+            }
+            Dwelling dwelling = dwellingFactory.createDwelling(ids[i], zones[i], coordinate, households[i],
+                    dwellingTypes.valueOf(types[i]), bedrooms[i], qualities[i], prices[i], yearsBuilt[i]);
+            dwellingData.addDwelling(dwelling);
+            if (ids[i] == SiloUtil.trackDd) {
+                SiloUtil.trackWriter.println("Read dwelling with following attributes from " + path);
+                SiloUtil.trackWriter.println(dwelling.toString());
+            }
+        }
+        if(noCoordCounter > 0) {
+            logger.warn("There were " + noCoordCounter + " dwellings without coordinates.");
+        }
+        logger.info("Finished reading " + table.getRowCount() + " dwellings.");
+    }
 }
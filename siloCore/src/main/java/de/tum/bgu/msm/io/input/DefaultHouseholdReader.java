@@ -3,12 +3,12 @@ package de.tum.bgu.msm.io.input;
 import de.tum.bgu.msm.data.household.Household;
 import de.tum.bgu.msm.data.household.HouseholdDataManager;
 import de.tum.bgu.msm.data.household.HouseholdFactory;
+import de.tum.bgu.msm.io.columnar.ColumnarTable;
+import de.tum.bgu.msm.io.columnar.ColumnarTableReader;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
 
 public class DefaultHouseholdReader implements HouseholdReader{
@@ -23,27 +23,28 @@ public class DefaultHouseholdReader implements HouseholdReader{
     }
 
     public void readData(String fileName) {
+        fileName = ColumnarTable.resolveInputFile(fileName);
+        if (ColumnarTable.isColumnarFile(fileName)) {
+            readColumnarData(fileName);
+            return;
+        }
         logger.info("Reading household micro data from ascii file");
 
-        String recString = "";
         int recCount = 0;
-        try {
-            BufferedReader in = new BufferedReader(new FileReader(fileName));
-            recString = in.readLine();
-
+        try (FastCsvReader in = new FastCsvReader(fileName, ',')) {
             // read header
-            String[] header = recString.split(",");
+            String[] header = in.getHeader();
             int posId = SiloUtil.findPositionInArray("id", header);
             int posDwell = SiloUtil.findPositionInArray("dwelling", header);
             int posAutos = SiloUtil.findPositionInArray("autos", header);
 
             // read line
-            while ((recString = in.readLine()) != null) {
+            FastCsvReader.Record record;
+            while ((record = in.nextRecord()) != null) {
                 recCount++;
-                String[] lineElements = recString.split(",");
-                int id = Integer.parseInt(lineElements[posId]);
-                int dwellingID = Integer.parseInt(lineElements[posDwell]);
-                int autos = Integer.parseInt(lineElements[posAutos]);
+                int id = record.getInt(posId);
+                int dwellingID = record.getInt(posDwell);
+                int autos = record.getInt(posAutos);
 
                 Household hh = factory.createHousehold(id, dwellingID, autos);  // this automatically puts it in id->household map in Household class
                 householdData.addHousehold(hh);
@@ -53,10 +54,32 @@ public class DefaultHouseholdReader implements HouseholdReader{
                 }
             }
         } catch (IOException e) {
-            logger.fatal("recCount = " + recCount + ", recString = <" + recString + ">");
+            logger.fatal("recCount = " + recCount);
             throw new RuntimeException("IO Exception caught reading synpop household file: " + fileName);
         }
         logger.info("Finished reading " + recCount + " households.");
 
     }
+
+    private void readColumnarData(String fileName) {
+        logger.info("Reading household micro data from columnar file");
+        final ColumnarTableReader table;
+        try {
+            table = new ColumnarTableReader(fileName);
+        } catch (IOException e) {
+            throw new RuntimeException("IO Exception caught reading household file: " + fileName, e);
+        }
+        final int[] ids = table.getIntColumn("id");
+        final int[] dwellings = table.getIntColumn("dwelling");
+        final int[] autos = table.getIntColumn("autos");
+        for (int i = 0; i < table.getRowCount(); i++) {
+            Household hh = factory.createHousehold(ids[i], dwellings[i], autos[i]);
+            householdData.addHousehold(hh);
+            if (ids[i] == SiloUtil.trackHh) {
+                SiloUtil.trackWriter.println("Read household with following attributes from " + fileName);
+                SiloUtil.trackWriter.println(hh.toString());
+            }
+        }
+        logger.info("Finished reading " + table.getRowCount() + " households.");
+    }
 }
@@ -1,13 +1,13 @@
 package de.tum.bgu.msm.io.input;
 
 import de.tum.bgu.msm.data.job.*;
+import de.tum.bgu.msm.io.columnar.ColumnarTable;
+import de.tum.bgu.msm.io.columnar.ColumnarTableReader;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.locationtech.jts.geom.Coordinate;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
 
 public class DefaultJobReader implements JobReader {
@@ -21,17 +21,18 @@ public class DefaultJobReader implements JobReader {
 
     @Override
     public void readData(String fileName) {
+        fileName = ColumnarTable.resolveInputFile(fileName);
+        if (ColumnarTable.isColumnarFile(fileName)) {
+            readColumnarData(fileName);
+            return;
+        }
 
         logger.info("Reading job micro data from ascii file");
         JobFactory factory = jobData.getFactory();
-        String recString = "";
         int recCount = 0;
-        try {
-            BufferedReader in = new BufferedReader(new FileReader(fileName));
-            recString = in.readLine();
-
+        try (FastCsvReader in = new FastCsvReader(fileName, ',')) {
             // read header
-            String[] header = recString.split(",");
+            String[] header = in.getHeader();
             int posId = SiloUtil.findPositionInArray("id", header);
             int posZone = SiloUtil.findPositionInArray("zone", header);
             int posWorker = SiloUtil.findPositionInArray("personId", header);
@@ -50,18 +51,18 @@ public class DefaultJobReader implements JobReader {
 
 
             // read line
-            while ((recString = in.readLine()) != null) {
+            FastCsvReader.Record record;
+            while ((record = in.nextRecord()) != null) {
                 recCount++;
-                String[] lineElements = recString.split(",");
-                int id = Integer.parseInt(lineElements[posId]);
-                int zoneId = Integer.parseInt(lineElements[posZone]);
-                int worker = Integer.parseInt(lineElements[posWorker]);
-                String type = lineElements[posType].replace("\"", "");
+                int id = record.getInt(posId);
+                int zoneId = record.getInt(posZone);
+                int worker = record.getInt(posWorker);
+                String type = record.getString(posType).replace("\"", "");
 
                 Coordinate coordinate = null;
                 if (posCoordX >= 0 && posCoordY >= 0) {
                     try {
-                        coordinate = new Coordinate(Double.parseDouble(lineElements[posCoordX]), Double.parseDouble(lineElements[posCoordY]));
+                        coordinate = new Coordinate(record.getDouble(posCoordX), record.getDouble(posCoordY));
                     } catch (Exception e) {
                         noCoordCounter++;
                     }
@@ -80,8 +81,45 @@ public class DefaultJobReader implements JobReader {
             }
         } catch (IOException e) {
             logger.fatal("IO Exception caught reading synpop job file: " + fileName, new RuntimeException());
-            logger.fatal("recCount = " + recCount + ", recString = <" + recString + ">", new RuntimeException());
+            logger.fatal("recCount = " + recCount, new RuntimeException());
         }
         logger.info("Finished reading " + recCount + " jobs.");
     }
+
+    private void readColumnarData(String fileName) {
+        logger.info("Reading job micro data from columnar file");
+        JobFactory factory = jobData.getFactory();
+        final ColumnarTableReader table;
+        try {
+            table = new ColumnarTableReader(fileName);
+        } catch (IOException e) {
+            throw new RuntimeException("IO Exception caught reading job file: " + fileName, e);
+        }
+        final int[] ids = table.getIntColumn("id");
+        final int[] zones = table.getIntColumn("zone");
+        final int[] workers = table.getIntColumn("personId");
+        final String[] types = table.getStringColumn("type");
+        final double[] coordX = table.getDoubleColumn("coordX");
+        final double[] coordY = table.getDoubleColumn("coordY");
+
+        int noCoordCounter = 0;
+        for (int i = 0; i < table.getRowCount(); i++) {
+            Coordinate coordinate = null;
+            if (Double.isNaN(coordX[i]) || Double.isNaN(coordY[i])) {
+                noCoordCounter++;
+            } else {
+                coordinate = new Coordinate(coordX[i], coordY[i]);
+            }
+            Job jj = factory.createJob(ids[i], zones[i], coordinate, workers[i], types[i]);
+            jobData.addJob(jj);
+            if (ids[i] == SiloUtil.trackJj) {
+                SiloUtil.trackWriter.println("Read job with following attributes from " + fileName);
+                SiloUtil.trackWriter.println(jj.toString());
+            }
+        }
+        if(noCoordCounter > 0) {
+            logger.warn("There were " + noCoordCounter + " jobs without coordinates.");
+        }
+        logger.info("Finished reading " + table.getRowCount() + " jobs.");
+    }
 }
@@ -3,12 +3,12 @@ package de.tum.bgu.msm.io.input;
 import de.tum.bgu.msm.data.household.HouseholdDataManager;
 import de.tum.bgu.msm.data.household.Household;
 import de.tum.bgu.msm.data.person.*;
+import de.tum.bgu.msm.io.columnar.ColumnarTable;
+import de.tum.bgu.msm.io.columnar.ColumnarTableReader;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
 
 public class DefaultPersonReader implements PersonReader{
@@ -22,17 +22,18 @@ public class DefaultPersonReader implements PersonReader{
 
     @Override
     public void readData(String path) {
+        path = ColumnarTable.resolveInputFile(path);
+        if (ColumnarTable.isColumnarFile(path)) {
+            readColumnarData(path);
+            return;
+        }
         logger.info("Reading person micro data from ascii file");
 
         PersonFactory ppFactory = PersonUtils.getFactory();
-        String recString = "";
         int recCount = 0;
-        try {
-            BufferedReader in = new BufferedReader(new FileReader(path));
-            recString = in.readLine();
-
+        try (FastCsvReader in = new FastCsvReader(path, ',')) {
             // read header
-            String[] header = recString.split(",");
+            String[] header = in.getHeader();
             int posId = SiloUtil.findPositionInArray("id", header);
             int posHhId = SiloUtil.findPositionInArray("hhID",header);
             int posAge = SiloUtil.findPositionInArray("age",header);
@@ -44,23 +45,23 @@ public class DefaultPersonReader implements PersonReader{
             int posDriver = SiloUtil.findPositionInArray("driversLicense", header);
 
             // read line
-            while ((recString = in.readLine()) != null) {
+            FastCsvReader.Record record;
+            while ((record = in.nextRecord()) != null) {
                 recCount++;
-                String[] lineElements = recString.split(",");
-                int id         = Integer.parseInt(lineElements[posId]);
-                int hhid       = Integer.parseInt(lineElements[posHhId]);
-                int age        = Integer.parseInt(lineElements[posAge]);
-                Gender gender     = Gender.valueOf(Integer.parseInt(lineElements[posGender]));
-                String relShp  = lineElements[posRelShp].replace("\"", "");
+                int id         = record.getInt(posId);
+                int hhid       = record.getInt(posHhId);
+                int age        = record.getInt(posAge);
+                Gender gender     = Gender.valueOf(record.getInt(posGender));
+                String relShp  = record.getString(posRelShp).replace("\"", "");
                 PersonRole pr  = PersonRole.valueOf(relShp.toUpperCase());
-                Occupation occupation = Occupation.valueOf(Integer.parseInt(lineElements[posOccupation]));
-                int workplace  = Integer.parseInt(lineElements[posWorkplace]);
+                Occupation occupation = Occupation.valueOf(record.getInt(posOccupation));
+                int workplace  = record.getInt(posWorkplace);
                 //todo remove the workplace if they are not employed - temporary if school ids or zones are stored there
                 if (!occupation.equals(Occupation.EMPLOYED)){
                     workplace = -1;
                 }
-                int income     = Integer.parseInt(lineElements[posIncome]);
-                boolean license = Boolean.parseBoolean(lineElements[posDriver]);
+                int income     = record.getInt(posIncome);
+                boolean license = record.getBoolean(posDriver);
                 //todo temporary assign driving license since this is not in the current SP version
                 //boolean license = MicroDataManager.obtainLicense(gender, age);
                 Household household = householdDataManager.getHouseholdFromId(hhid);
@@ -79,8 +80,48 @@ public class DefaultPersonReader implements PersonReader{
             }
         } catch (IOException e) {
             logger.fatal("IO Exception caught reading synpop household file: " + path);
-            logger.fatal("recCount = " + recCount + ", recString = <" + recString + ">");
+            logger.fatal("recCount = " + recCount);
         }
         logger.info("Finished reading " + recCount + " persons.");
     }
+
+    private void readColumnarData(String path) {
+        logger.info("Reading person micro data from columnar file");
+        PersonFactory ppFactory = PersonUtils.getFactory();
+        final ColumnarTableReader table;
+        try {
+            table = new ColumnarTableReader(path);
+        } catch (IOException e) {
+            throw new RuntimeException("IO Exception caught reading person file: " + path, e);
+        }
+        final int[] ids = table.getIntColumn("id");
+        final int[] hhIds = table.getIntColumn("hhid");
+        final int[] ages = table.getIntColumn("age");
+        final String[] genders = table.getStringColumn("gender");
+        final String[] roles = table.getStringColumn("relationShip");
+        final String[] occupations = table.getStringColumn("occupation");
+        final boolean[] licenses = table.getBooleanColumn("driversLicense");
+        final int[] workplaces = table.getIntColumn("workplace");
+        final int[] incomes = table.getIntColumn("income");
+
+        for (int i = 0; i < table.getRowCount(); i++) {
+            Occupation occupation = Occupation.valueOf(occupations[i]);
+            int workplace = occupation.equals(Occupation.EMPLOYED) ? workplaces[i] : -1;
+            Household household = householdDataManager.getHouseholdFromId(hhIds[i]);
+            if(household == null) {
+                throw new RuntimeException("Person " + ids[i] + " refers to non existing household " + hhIds[i] + "!");
+            }
+            Person pp = ppFactory.createPerson(ids[i], ages[i], Gender.valueOf(genders[i]), occupation,
+                    PersonRole.valueOf(roles[i]), workplace, incomes[i]);
+            householdDataManager.addPerson(pp);
+            householdDataManager.addPersonToHousehold(pp, household);
+            pp.setDriverLicense(licenses[i]);
+
+            if (ids[i] == SiloUtil.trackPp) {
+                SiloUtil.trackWriter.println("Read person with following attributes from " + path);
+                SiloUtil.trackWriter.println(pp.toString());
+            }
+        }
+        logger.info("Finished reading " + table.getRowCount() + " persons.");
+    }
 }
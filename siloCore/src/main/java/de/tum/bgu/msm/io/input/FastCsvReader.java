@@ -0,0 +1,423 @@
+package de.tum.bgu.msm.io.input;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+/**
+ * Reads delimited text files from memory mapped chunks. Several chunks ahead of the current record are split into
+ * lines and fields in parallel, while the records are returned in the order of the file by {@link #nextRecord()}.
+ * Numeric fields are parsed directly from the bytes of the file, without creating a String for every line and field.
+ * <p>
+ * Fields are returned as they are written in the file, i.e. quotes are not removed and the delimiter can not be
+ * quoted. Empty lines are skipped. Lines may end with "\n" or "\r\n" and must not be longer than {@link #MAX_LINE_LENGTH}.
+ */
+public final class FastCsvReader implements Closeable {
+
+    static final int DEFAULT_CHUNK_SIZE = 1 << 23;
+    static final int MAX_LINE_LENGTH = 1 << 20;
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15};
+
+    private final String path;
+    private final FileChannel channel;
+    private final long size;
+    private final byte delimiter;
+    private final Charset charset;
+    private final int chunkSize;
+    private final int chunksAhead;
+    private final String[] header;
+    private final long dataStart;
+
+    private final Deque<Future<Chunk>> pendingChunks = new ArrayDeque<>();
+    private long nextChunkStart;
+    private Chunk chunk;
+    private int row;
+    private final Record record = new Record();
+    private long recordCount = 0;
+
+    public FastCsvReader(String path, char delimiter) throws IOException {
+        this(Paths.get(path), delimiter, StandardCharsets.UTF_8);
+    }
+
+    public FastCsvReader(Path path, char delimiter, Charset charset) throws IOException {
+        this(path, delimiter, charset, DEFAULT_CHUNK_SIZE);
+    }
+
+    FastCsvReader(Path path, char delimiter, Charset charset, int chunkSize) throws IOException {
+        if (delimiter > 127) {
+            throw new IllegalArgumentException("Only ASCII delimiters are supported.");
+        }
+        this.path = path.toString();
+        this.delimiter = (byte) delimiter;
+        this.charset = charset;
+        this.chunkSize = chunkSize;
+        this.chunksAhead = 2 * Runtime.getRuntime().availableProcessors();
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            this.size = channel.size();
+            if (size == 0) {
+                throw new IOException(path + " is empty.");
+            }
+            final ByteBuffer start = ByteBuffer.allocate((int) Math.min(size, MAX_LINE_LENGTH + 1));
+            while (start.hasRemaining()) {
+                if (channel.read(start, start.position()) < 0) {
+                    break;
+                }
+            }
+            int headerEnd = 0;
+            while (headerEnd < start.limit() && start.get(headerEnd) != '\n') {
+                headerEnd++;
+            }
+            if (headerEnd > MAX_LINE_LENGTH) {
+                throw new IOException("Header of " + path + " is longer than " + MAX_LINE_LENGTH + " bytes.");
+            }
+            this.dataStart = Math.min(size, headerEnd + 1);
+            int headerLength = headerEnd;
+            if (headerLength > 0 && start.get(headerLength - 1) == '\r') {
+                headerLength--;
+            }
+            final String headerLine = new String(start.array(), 0, headerLength, charset);
+            this.header = headerLine.split(Pattern.quote(String.valueOf(delimiter)));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        this.nextChunkStart = dataStart;
+    }
+
+    /**
+     * @return the fields of the first line, split like {@link String#split(String)} does
+     */
+    public String[] getHeader() {
+        return header;
+    }
+
+    /**
+     * Returns the next record, or null at the end of the file. The returned record is reused, i.e. it is only
+     * valid until the next call.
+     */
+    public Record nextRecord() {
+        while (chunk == null || row >= chunk.rows) {
+            scheduleChunks();
+            if (pendingChunks.isEmpty()) {
+                chunk = null;
+                return null;
+            }
+            chunk = await(pendingChunks.poll());
+            row = 0;
+        }
+        record.row = row++;
+        recordCount++;
+        return record;
+    }
+
+    /**
+     * @return the number of records returned so far
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Future<Chunk> pending : pendingChunks) {
+            pending.cancel(false);
+        }
+        pendingChunks.clear();
+        chunk = null;
+        channel.close();
+    }
+
+    private void scheduleChunks() {
+        while (pendingChunks.size() < chunksAhead && nextChunkStart < size) {
+            final long start = nextChunkStart;
+            final long end = Math.min(size, start + chunkSize);
+            pendingChunks.add(ForkJoinPool.commonPool().submit(() -> index(start, end)));
+            nextChunkStart = end;
+        }
+    }
+
+    private Chunk await(Future<Chunk> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while reading " + path, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw (UncheckedIOException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException("Could not read " + path, e.getCause());
+        }
+    }
+
+    /**
+     * Splits all lines starting in [start, end) into fields. Lines starting in this range can end after it.
+     */
+    private Chunk index(long start, long end) {
+        final long mapStart = start == dataStart ? start : start - 1;
+        final long mapEnd = Math.min(size, end + MAX_LINE_LENGTH + 1);
+        final MappedByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + path, e);
+        }
+        final int limit = buffer.limit();
+        final int rangeEnd = (int) (end - mapStart);
+
+        // a line starts in this chunk only if it follows the new line character of the previous one
+        int lineStart = 0;
+        if (start != dataStart) {
+            while (lineStart < limit && buffer.get(lineStart) != '\n') {
+                lineStart++;
+            }
+            lineStart++;
+        }
+
+        final Chunk chunk = new Chunk(buffer, chunkSize / 32);
+        while (lineStart < rangeEnd && lineStart < limit) {
+            chunk.startRow(lineStart - 1);
+            int position = lineStart;
+            byte b = 0;
+            while (position < limit && (b = buffer.get(position)) != '\n') {
+                if (b == delimiter) {
+                    chunk.addBound(position);
+                }
+                position++;
+            }
+            if (position == limit && mapEnd != size) {
+                throw new IllegalStateException("Line at byte " + (mapStart + lineStart) + " of " + path
+                        + " is longer than " + MAX_LINE_LENGTH + " bytes.");
+            }
+            int lineEnd = position;
+            if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            if (lineEnd == lineStart) {
+                chunk.dropRow();
+            } else {
+                chunk.addBound(lineEnd);
+                chunk.endRow();
+            }
+            lineStart = position + 1;
+        }
+        return chunk;
+    }
+
+    /**
+     * Positions of the fields of all lines of one chunk. The fields of row r are enclosed by the bounds
+     * rowStarts[r] to rowStarts[r+1]-1, each bound is the position of the delimiter before the field
+     * (or the position before the line) and after the last field the end of the line.
+     */
+    private static final class Chunk {
+        private final MappedByteBuffer buffer;
+        private int[] bounds;
+        private int boundCount = 0;
+        private int[] rowStarts = new int[1024];
+        private int rows = 0;
+
+        private Chunk(MappedByteBuffer buffer, int expectedBounds) {
+            this.buffer = buffer;
+            this.bounds = new int[Math.max(1024, expectedBounds)];
+        }
+
+        private void startRow(int beforeLine) {
+            if (rows + 1 >= rowStarts.length) {
+                rowStarts = Arrays.copyOf(rowStarts, rowStarts.length * 2);
+            }
+            rowStarts[rows] = boundCount;
+            addBound(beforeLine);
+        }
+
+        private void addBound(int position) {
+            if (boundCount == bounds.length) {
+                bounds = Arrays.copyOf(bounds, bounds.length * 2);
+            }
+            bounds[boundCount++] = position;
+        }
+
+        private void endRow() {
+            rows++;
+            rowStarts[rows] = boundCount;
+        }
+
+        private void dropRow() {
+            boundCount = rowStarts[rows];
+        }
+    }
+
+    /**
+     * A line of the file. Columns are counted from 0, in the order of the header.
+     */
+    public final class Record {
+
+        private int row;
+        private byte[] scratch = new byte[64];
+
+        private Record() {
+        }
+
+        public int size() {
+            return chunk.rowStarts[row + 1] - chunk.rowStarts[row] - 1;
+        }
+
+        public int getInt(int column) {
+            final int boundIndex = boundIndex(column);
+            final int start = chunk.bounds[boundIndex] + 1;
+            final int end = chunk.bounds[boundIndex + 1];
+            final ByteBuffer buffer = chunk.buffer;
+            int position = start;
+            boolean negative = false;
+            if (position < end && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+                negative = buffer.get(position) == '-';
+                position++;
+            }
+            if (position == end || end - position > 10) {
+                return Integer.parseInt(getString(column));
+            }
+            long value = 0;
+            for (; position < end; position++) {
+                final int digit = buffer.get(position) - '0';
+                if (digit < 0 || digit > 9) {
+                    return Integer.parseInt(getString(column));
+                }
+                value = value * 10 + digit;
+            }
+            value = negative ? -value : value;
+            if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                return Integer.parseInt(getString(column));
+            }
+            return (int) value;
+        }
+
+        /**
+         * Parses plain decimal numbers with up to 15 digits directly, which gives the same (correctly rounded)
+         * value as {@link Double#parseDouble(String)}. Other notations are passed on to {@link Double#parseDouble(String)}.
+         */
+        public double getDouble(int column) {
+            final int boundIndex = boundIndex(column);
+            final int start = chunk.bounds[boundIndex] + 1;
+            final int end = chunk.bounds[boundIndex + 1];
+            final ByteBuffer buffer = chunk.buffer;
+            int position = start;
+            boolean negative = false;
+            if (position < end && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+                negative = buffer.get(position) == '-';
+                position++;
+            }
+            long mantissa = 0;
+            int digits = 0;
+            int fractionDigits = -1;
+            for (; position < end; position++) {
+                final byte b = buffer.get(position);
+                if (b == '.' && fractionDigits < 0) {
+                    fractionDigits = 0;
+                } else if (b >= '0' && b <= '9' && digits < 15) {
+                    mantissa = mantissa * 10 + (b - '0');
+                    digits++;
+                    if (fractionDigits >= 0) {
+                        fractionDigits++;
+                    }
+                } else {
+                    return Double.parseDouble(getString(column));
+                }
+            }
+            if (digits == 0) {
+                return Double.parseDouble(getString(column));
+            }
+            final double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+            return negative ? -value : value;
+        }
+
+        /**
+         * @return true if the field is "true", ignoring case, like {@link Boolean#parseBoolean(String)}
+         */
+        public boolean getBoolean(int column) {
+            final int boundIndex = boundIndex(column);
+            final int start = chunk.bounds[boundIndex] + 1;
+            final int end = chunk.bounds[boundIndex + 1];
+            if (end - start != 4) {
+                return false;
+            }
+            final String expected = "true";
+            for (int i = 0; i < 4; i++) {
+                if (Character.toLowerCase((char) chunk.buffer.get(start + i)) != expected.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public String getString(int column) {
+            final int boundIndex = boundIndex(column);
+            return decode(chunk.bounds[boundIndex] + 1, chunk.bounds[boundIndex + 1]);
+        }
+
+        /**
+         * @return all fields of the line, without trailing empty fields like {@link String#split(String)}
+         */
+        public String[] getFields() {
+            int fields = size();
+            while (fields > 0 && fieldLength(fields - 1) == 0) {
+                fields--;
+            }
+            final String[] values = new String[fields];
+            for (int i = 0; i < fields; i++) {
+                values[i] = getString(i);
+            }
+            return values;
+        }
+
+        private int fieldLength(int column) {
+            final int boundIndex = chunk.rowStarts[row] + column;
+            return chunk.bounds[boundIndex + 1] - chunk.bounds[boundIndex] - 1;
+        }
+
+        private int boundIndex(int column) {
+            if (column < 0 || column >= size()) {
+                throw new ArrayIndexOutOfBoundsException("Record " + recordCount + " of " + path + " has "
+                        + size() + " fields, field " + column + " does not exist.");
+            }
+            return chunk.rowStarts[row] + column;
+        }
+
+        private String decode(int start, int end) {
+            final int length = end - start;
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            chunk.buffer.get(start, scratch, 0, length);
+            return new String(scratch, 0, length, charset);
+        }
+
+        /**
+         * @return the text of the line
+         */
+        @Override
+        public String toString() {
+            final int first = chunk.rowStarts[row];
+            final int last = chunk.rowStarts[row + 1] - 1;
+            return decode(chunk.bounds[first] + 1, chunk.bounds[last]);
+        }
+    }
+}
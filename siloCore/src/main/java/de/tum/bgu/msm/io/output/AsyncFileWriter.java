@@ -0,0 +1,258 @@
+package de.tum.bgu.msm.io.output;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writer for output files that collects the written text in buffers of {@link #BUFFER_SIZE} characters. Full
+ * buffers are encoded and written to the file by a single background thread if asynchronous writing is enabled
+ * (see {@link #setAsynchronous(boolean)}), so the simulation can go on while large files are written. Otherwise,
+ * full buffers are written by the calling thread. Files ending with ".gz" are compressed with the level set by
+ * {@link #setCompressionLevel(int)}.
+ * <p>
+ * The text is copied into the buffer when it is written, i.e. the file holds a snapshot of the values at the time
+ * of writing. At most {@link #MAX_PENDING_BUFFERS} buffers of all files wait for the background thread, further
+ * writes block until a buffer was written. Buffers are reused afterwards. {@link #close()} returns without waiting for
+ * the file to be written, {@link #awaitAll()} waits until all files handed to the background thread are written and
+ * throws the first error the background thread ran into.
+ */
+public final class AsyncFileWriter extends Writer {
+
+    private final static Logger logger = LogManager.getLogger(AsyncFileWriter.class);
+
+    static final int BUFFER_SIZE = 1 << 16;
+    static final int MAX_PENDING_BUFFERS = 32;
+
+    private static volatile boolean asynchronous = false;
+    private static volatile int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+    private static final BlockingQueue<StringBuilder> freeBuffers = new ArrayBlockingQueue<>(MAX_PENDING_BUFFERS);
+    private static final Semaphore pendingBuffers = new Semaphore(MAX_PENDING_BUFFERS);
+    private static final ThreadPoolExecutor backgroundWriter = createBackgroundWriter();
+    private static final AtomicReference<IOException> firstFailure = new AtomicReference<>();
+
+    private final String fileName;
+    private final boolean writeInBackground;
+    private final Writer out;
+    private final char[] encodeBuffer = new char[BUFFER_SIZE];
+
+    private StringBuilder buffer;
+    private boolean closed = false;
+    private volatile IOException failure;
+
+    public AsyncFileWriter(File file, boolean append) throws IOException {
+        this.fileName = file.getPath();
+        this.writeInBackground = asynchronous;
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        final OutputStream stream;
+        if (fileName.endsWith(".gz")) {
+            final int level = compressionLevel;
+            stream = new GZIPOutputStream(new FileOutputStream(file, append), BUFFER_SIZE) {
+                {
+                    def.setLevel(level);
+                }
+            };
+        } else {
+            stream = new BufferedOutputStream(new FileOutputStream(file, append), BUFFER_SIZE);
+        }
+        this.out = new OutputStreamWriter(stream, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Enables or disables writing in the background for writers created afterwards. Disabled by default.
+     */
+    public static void setAsynchronous(boolean enabled) {
+        asynchronous = enabled;
+    }
+
+    /**
+     * Sets the compression level (0-9, or -1 for the default level) of gzipped files created afterwards.
+     */
+    public static void setCompressionLevel(int level) {
+        if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level " + level);
+        }
+        compressionLevel = level;
+    }
+
+    /**
+     * Waits until all buffers handed to the background thread so far are written and their files are closed,
+     * if they were closed by the caller. Throws the first error of the background thread since the last call, as
+     * the writers that ran into it may have been closed without noticing.
+     */
+    public static void awaitAll() throws IOException {
+        try {
+            backgroundWriter.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e);
+        }
+        final IOException failure = firstFailure.getAndSet(null);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        synchronized (lock) {
+            ensureOpen();
+            buffer().append((char) c);
+            handOffIfFull();
+        }
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        synchronized (lock) {
+            ensureOpen();
+            buffer().append(cbuf, off, len);
+            handOffIfFull();
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        synchronized (lock) {
+            ensureOpen();
+            buffer().append(str, off, off + len);
+            handOffIfFull();
+        }
+    }
+
+    /**
+     * Hands the buffered text over to be written. In the background mode, this does not wait for the text to be
+     * written to the file.
+     */
+    @Override
+    public void flush() throws IOException {
+        synchronized (lock) {
+            ensureOpen();
+            handOff();
+            run(() -> {
+                if (failure == null) {
+                    out.flush();
+                }
+            });
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            handOff();
+            closed = true;
+            run(out::close);
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Writer of " + fileName + " is closed.");
+        }
+        if (failure != null) {
+            throw new IOException("Could not write " + fileName, failure);
+        }
+    }
+
+    private StringBuilder buffer() {
+        if (buffer == null) {
+            buffer = freeBuffers.poll();
+            if (buffer == null) {
+                buffer = new StringBuilder(BUFFER_SIZE);
+            }
+        }
+        return buffer;
+    }
+
+    private void handOffIfFull() throws IOException {
+        if (buffer.length() >= BUFFER_SIZE) {
+            handOff();
+        }
+    }
+
+    private void handOff() throws IOException {
+        if (buffer == null || buffer.length() == 0) {
+            return;
+        }
+        final StringBuilder chunk = buffer;
+        buffer = null;
+        run(() -> {
+            try {
+                encode(chunk);
+            } finally {
+                chunk.setLength(0);
+                freeBuffers.offer(chunk);
+            }
+        });
+    }
+
+    private void encode(StringBuilder chunk) throws IOException {
+        if (failure != null) {
+            return;
+        }
+        for (int start = 0; start < chunk.length(); start += encodeBuffer.length) {
+            final int end = Math.min(chunk.length(), start + encodeBuffer.length);
+            chunk.getChars(start, end, encodeBuffer, 0);
+            out.write(encodeBuffer, 0, end - start);
+        }
+    }
+
+    private interface WriteTask {
+        void run() throws IOException;
+    }
+
+    /**
+     * Runs the task on the background thread, or on the calling thread if the writer does not write in the background.
+     */
+    private void run(WriteTask task) throws IOException {
+        if (!writeInBackground) {
+            task.run();
+            return;
+        }
+        pendingBuffers.acquireUninterruptibly();
+        try {
+            backgroundWriter.execute(() -> {
+                try {
+                    task.run();
+                } catch (IOException e) {
+                    if (failure == null) {
+                        logger.error("Could not write " + fileName, e);
+                        failure = e;
+                        firstFailure.compareAndSet(null, new IOException("Could not write " + fileName, e));
+                    }
+                } finally {
+                    pendingBuffers.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendingBuffers.release();
+            throw new IOException("Could not hand over output of " + fileName, e);
+        }
+    }
+
+    /**
+     * The thread is not a daemon, so a program only ends after all files are written. It ends when idle,
+     * so it does not keep a finished program alive.
+     */
+    private static ThreadPoolExecutor createBackgroundWriter() {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> new Thread(runnable, "silo-output-writer"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
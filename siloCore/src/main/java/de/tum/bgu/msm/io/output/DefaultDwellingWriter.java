@@ -1,10 +1,13 @@
 package de.tum.bgu.msm.io.output;
 
 import de.tum.bgu.msm.data.dwelling.Dwelling;
+import de.tum.bgu.msm.io.columnar.ColumnarTable;
+import de.tum.bgu.msm.io.columnar.ColumnarTableWriter;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.Collection;
 
@@ -19,8 +22,12 @@ public class DefaultDwellingWriter implements DwellingWriter {
 
     @Override
     public void writeDwellings(String path) {
+        if (ColumnarTable.isColumnarFile(path)) {
+            writeDwellingsColumnar(path);
+            return;
+        }
         logger.info("  Writing dwelling file to " + path);
-        PrintWriter pwd = SiloUtil.openFileForSequentialWriting(path, false);
+        PrintWriter pwd = SiloUtil.openFileForAsyncWriting(path, false);
         pwd.print("id,zone,type,hhID,bedrooms,quality,monthlyCost,yearBuilt,coordX,coordY");
         pwd.println();
 
@@ -56,4 +63,48 @@ public class DefaultDwellingWriter implements DwellingWriter {
         }
         pwd.close();
     }
+
+    private void writeDwellingsColumnar(String path) {
+        logger.info("  Writing dwelling file to " + path);
+        final int[] ids = new int[dwellings.size()];
+        final int[] zones = new int[dwellings.size()];
+        final String[] types = new String[dwellings.size()];
+        final int[] households = new int[dwellings.size()];
+        final int[] bedrooms = new int[dwellings.size()];
+        final int[] qualities = new int[dwellings.size()];
+        final int[] prices = new int[dwellings.size()];
+        final int[] yearsBuilt = new int[dwellings.size()];
+        final double[] coordX = new double[dwellings.size()];
+        final double[] coordY = new double[dwellings.size()];
+        int i = 0;
+        for (Dwelling dd : dwellings) {
+            ids[i] = dd.getId();
+            zones[i] = dd.getZoneId();
+            types[i] = dd.getType().toString();
+            households[i] = dd.getResidentId();
+            bedrooms[i] = dd.getBedrooms();
+            qualities[i] = dd.getQuality();
+            prices[i] = dd.getPrice();
+            yearsBuilt[i] = dd.getYearBuilt();
+            coordX[i] = dd.getCoordinate() != null ? dd.getCoordinate().x : Double.NaN;
+            coordY[i] = dd.getCoordinate() != null ? dd.getCoordinate().y : Double.NaN;
+            i++;
+        }
+        final ColumnarTableWriter table = new ColumnarTableWriter(dwellings.size());
+        table.addIdColumn("id", ids);
+        table.addIntColumn("zone", zones);
+        table.addDictionaryColumn("type", types);
+        table.addIntColumn("hhID", households);
+        table.addIntColumn("bedrooms", bedrooms);
+        table.addIntColumn("quality", qualities);
+        table.addIntColumn("monthlyCost", prices);
+        table.addIntColumn("yearBuilt", yearsBuilt);
+        table.addDoubleColumn("coordX", coordX);
+        table.addDoubleColumn("coordY", coordY);
+        try {
+            table.write(path);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write dwelling file " + path, e);
+        }
+    }
 }
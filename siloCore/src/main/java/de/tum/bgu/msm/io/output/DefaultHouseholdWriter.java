@@ -2,10 +2,13 @@ package de.tum.bgu.msm.io.output;
 
 import de.tum.bgu.msm.data.household.Household;
 import de.tum.bgu.msm.data.vehicle.VehicleType;
+import de.tum.bgu.msm.io.columnar.ColumnarTable;
+import de.tum.bgu.msm.io.columnar.ColumnarTableWriter;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.Collection;
 
@@ -19,8 +22,12 @@ public class DefaultHouseholdWriter implements HouseholdWriter {
     }
     @Override
     public void writeHouseholds(String path) {
+        if (ColumnarTable.isColumnarFile(path)) {
+            writeHouseholdsColumnar(path);
+            return;
+        }
         logger.info("  Writing household file to " + path);
-        PrintWriter pwh = SiloUtil.openFileForSequentialWriting(path, false);
+        PrintWriter pwh = SiloUtil.openFileForAsyncWriting(path, false);
         pwh.println("id,dwelling,hhSize,autos");
         for (Household hh : householdData) {
             if (hh.getId() == SiloUtil.trackHh) {
@@ -37,4 +44,30 @@ public class DefaultHouseholdWriter implements HouseholdWriter {
         }
         pwh.close();
     }
+
+    private void writeHouseholdsColumnar(String path) {
+        logger.info("  Writing household file to " + path);
+        final int[] ids = new int[householdData.size()];
+        final int[] dwellings = new int[householdData.size()];
+        final int[] sizes = new int[householdData.size()];
+        final int[] autos = new int[householdData.size()];
+        int i = 0;
+        for (Household hh : householdData) {
+            ids[i] = hh.getId();
+            dwellings[i] = hh.getDwellingId();
+            sizes[i] = hh.getHhSize();
+            autos[i] = (int) hh.getVehicles().stream().filter(v -> v.getType().equals(VehicleType.CAR)).count();
+            i++;
+        }
+        final ColumnarTableWriter table = new ColumnarTableWriter(householdData.size());
+        table.addIdColumn("id", ids);
+        table.addIntColumn("dwelling", dwellings);
+        table.addIntColumn("hhSize", sizes);
+        table.addIntColumn("autos", autos);
+        try {
+            table.write(path);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write household file " + path, e);
+        }
+    }
 }
@@ -2,8 +2,11 @@ package de.tum.bgu.msm.io.output;
 
 import de.tum.bgu.msm.data.job.Job;
 import de.tum.bgu.msm.data.job.JobData;
+import de.tum.bgu.msm.io.columnar.ColumnarTable;
+import de.tum.bgu.msm.io.columnar.ColumnarTableWriter;
 import de.tum.bgu.msm.utils.SiloUtil;
 
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.Collection;
 
@@ -17,7 +20,11 @@ public class DefaultJobWriter implements JobWriter {
 
     @Override
     public void writeJobs(String path) {
-        PrintWriter pwj = SiloUtil.openFileForSequentialWriting(path, false);
+        if (ColumnarTable.isColumnarFile(path)) {
+            writeJobsColumnar(path);
+            return;
+        }
+        PrintWriter pwj = SiloUtil.openFileForAsyncWriting(path, false);
         pwj.print("id,zone,personId,type,coordX,coordY");
         pwj.println();
         for (Job jj : jobs) {
@@ -45,4 +52,35 @@ public class DefaultJobWriter implements JobWriter {
         }
         pwj.close();
     }
+
+    private void writeJobsColumnar(String path) {
+        final int[] ids = new int[jobs.size()];
+        final int[] zones = new int[jobs.size()];
+        final int[] workers = new int[jobs.size()];
+        final String[] types = new String[jobs.size()];
+        final double[] coordX = new double[jobs.size()];
+        final double[] coordY = new double[jobs.size()];
+        int i = 0;
+        for (Job jj : jobs) {
+            ids[i] = jj.getId();
+            zones[i] = jj.getZoneId();
+            workers[i] = jj.getWorkerId();
+            types[i] = jj.getType();
+            coordX[i] = jj.getCoordinate() != null ? jj.getCoordinate().x : Double.NaN;
+            coordY[i] = jj.getCoordinate() != null ? jj.getCoordinate().y : Double.NaN;
+            i++;
+        }
+        final ColumnarTableWriter table = new ColumnarTableWriter(jobs.size());
+        table.addIdColumn("id", ids);
+        table.addIntColumn("zone", zones);
+        table.addIntColumn("personId", workers);
+        table.addDictionaryColumn("type", types);
+        table.addDoubleColumn("coordX", coordX);
+        table.addDoubleColumn("coordY", coordY);
+        try {
+            table.write(path);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write job file " + path, e);
+        }
+    }
 }
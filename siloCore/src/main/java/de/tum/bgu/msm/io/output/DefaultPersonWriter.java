@@ -2,11 +2,15 @@ package de.tum.bgu.msm.io.output;
 
 import de.tum.bgu.msm.data.household.HouseholdData;
 import de.tum.bgu.msm.data.person.Person;
+import de.tum.bgu.msm.io.columnar.ColumnarTable;
+import de.tum.bgu.msm.io.columnar.ColumnarTableWriter;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
 import java.io.PrintWriter;
+import java.util.Collection;
 
 public class DefaultPersonWriter implements PersonWriter {
 
@@ -19,8 +23,12 @@ public class DefaultPersonWriter implements PersonWriter {
 
     @Override
     public void writePersons(String path) {
+        if (ColumnarTable.isColumnarFile(path)) {
+            writePersonsColumnar(path);
+            return;
+        }
         logger.info("  Writing person file to " + path);
-        PrintWriter pwp = SiloUtil.openFileForSequentialWriting(path, false);
+        PrintWriter pwp = SiloUtil.openFileForAsyncWriting(path, false);
         pwp.print("id,hhid,age,gender,relationShip,occupation,driversLicense,workplace,income");
         pwp.println();
         for (Person pp : householdData.getPersons()) {
@@ -51,4 +59,46 @@ public class DefaultPersonWriter implements PersonWriter {
         }
         pwp.close();
     }
+
+    private void writePersonsColumnar(String path) {
+        logger.info("  Writing person file to " + path);
+        final Collection<Person> persons = householdData.getPersons();
+        final int[] ids = new int[persons.size()];
+        final int[] hhIds = new int[persons.size()];
+        final int[] ages = new int[persons.size()];
+        final String[] genders = new String[persons.size()];
+        final String[] roles = new String[persons.size()];
+        final String[] occupations = new String[persons.size()];
+        final boolean[] licenses = new boolean[persons.size()];
+        final int[] workplaces = new int[persons.size()];
+        final int[] incomes = new int[persons.size()];
+        int i = 0;
+        for (Person pp : persons) {
+            ids[i] = pp.getId();
+            hhIds[i] = pp.getHousehold().getId();
+            ages[i] = pp.getAge();
+            genders[i] = pp.getGender().name();
+            roles[i] = pp.getRole().name();
+            occupations[i] = pp.getOccupation().name();
+            licenses[i] = pp.hasDriverLicense();
+            workplaces[i] = pp.getJobId();
+            incomes[i] = pp.getAnnualIncome();
+            i++;
+        }
+        final ColumnarTableWriter table = new ColumnarTableWriter(persons.size());
+        table.addIdColumn("id", ids);
+        table.addIdColumn("hhid", hhIds);
+        table.addIntColumn("age", ages);
+        table.addDictionaryColumn("gender", genders);
+        table.addDictionaryColumn("relationShip", roles);
+        table.addDictionaryColumn("occupation", occupations);
+        table.addBooleanColumn("driversLicense", licenses);
+        table.addIntColumn("workplace", workplaces);
+        table.addIntColumn("income", incomes);
+        try {
+            table.write(path);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write person file " + path, e);
+        }
+    }
 }
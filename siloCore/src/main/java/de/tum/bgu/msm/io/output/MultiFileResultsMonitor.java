@@ -18,12 +18,11 @@ import de.tum.bgu.msm.data.vehicle.VehicleType;
 import de.tum.bgu.msm.events.MicroEvent;
 import de.tum.bgu.msm.events.impls.household.MigrationEvent;
 import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.matsim.api.core.v01.TransportMode;
 
-import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.PrintWriter;
 import java.util.Formatter;
 import java.util.List;
@@ -60,27 +59,20 @@ public class MultiFileResultsMonitor implements ResultsMonitor {
     public void setup() {
 
         String pathname = properties.main.baseDirectory + "scenOutput/" + properties.main.scenarioName + "/siloResults/";
-        try {
-            File file = new File(pathname + "popYear.csv");
-            //
-            // file.getParentFile().mkdirs();
-            popYearW = new PrintWriter(file);
-            hhTypeW = new PrintWriter(new File(pathname + "hhType.csv"));
-            hhSizeW = new PrintWriter(new File(pathname + "hhSize.csv"));
-            hhAveSizeW = new PrintWriter(new File(pathname + "aveHhSize.csv"));
-            hhAveIncomeW = new PrintWriter(new File(pathname + "hhAveIncome.csv"));
-            labourParticipationRateW = new PrintWriter(new File(pathname + "labourParticipationRate.csv"));
-            commutingTimeW = new PrintWriter(new File(pathname + "regionAvCommutingTime.csv"));
-            carOwnW = new PrintWriter(new File(pathname + "carOwnership.csv"));
-            ddQualW = new PrintWriter(new File(pathname + "dwellingQualityLevel.csv"));
-            ddCountW = new PrintWriter(new File(pathname + "dwellings.csv"));
-            landRegionW = new PrintWriter(new File(pathname + "regionAvailableLand.csv"));
-            eventCountW = new PrintWriter(new File(pathname + "eventCounts.csv"));
-            migrantsW = new PrintWriter(new File(pathname + "persMigrants.csv"));
-            vacantJobsRegionW = new PrintWriter(new File(pathname + "vacantJobsRegion.csv"));
-        } catch (FileNotFoundException e) {
-            logger.error("Cannot write the result file: " + pathname, e);
-        }
+        popYearW = SiloUtil.openFileForAsyncWriting(pathname + "popYear.csv", false);
+        hhTypeW = SiloUtil.openFileForAsyncWriting(pathname + "hhType.csv", false);
+        hhSizeW = SiloUtil.openFileForAsyncWriting(pathname + "hhSize.csv", false);
+        hhAveSizeW = SiloUtil.openFileForAsyncWriting(pathname + "aveHhSize.csv", false);
+        hhAveIncomeW = SiloUtil.openFileForAsyncWriting(pathname + "hhAveIncome.csv", false);
+        labourParticipationRateW = SiloUtil.openFileForAsyncWriting(pathname + "labourParticipationRate.csv", false);
+        commutingTimeW = SiloUtil.openFileForAsyncWriting(pathname + "regionAvCommutingTime.csv", false);
+        carOwnW = SiloUtil.openFileForAsyncWriting(pathname + "carOwnership.csv", false);
+        ddQualW = SiloUtil.openFileForAsyncWriting(pathname + "dwellingQualityLevel.csv", false);
+        ddCountW = SiloUtil.openFileForAsyncWriting(pathname + "dwellings.csv", false);
+        landRegionW = SiloUtil.openFileForAsyncWriting(pathname + "regionAvailableLand.csv", false);
+        eventCountW = SiloUtil.openFileForAsyncWriting(pathname + "eventCounts.csv", false);
+        migrantsW = SiloUtil.openFileForAsyncWriting(pathname + "persMigrants.csv", false);
+        vacantJobsRegionW = SiloUtil.openFileForAsyncWriting(pathname + "vacantJobsRegion.csv", false);
     }
 
 
@@ -3,7 +3,6 @@ package de.tum.bgu.msm.io.output;
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.zip.GZIPOutputStream;
 
 public class YearByYearCsvModelTracker {
 
@@ -11,7 +10,7 @@ public class YearByYearCsvModelTracker {
     private final String baseFileName;
     private final String header;
 
-    private GZIPOutputStream currentWriter;
+    private Writer currentWriter;
 
     public YearByYearCsvModelTracker(Path rootDirectory, String baseFileName, String header) {
         this.rootDirectory = rootDirectory;
@@ -28,15 +27,13 @@ public class YearByYearCsvModelTracker {
     public void newYear(int currentYear) {
         try {
             if (currentWriter != null) {
-                currentWriter.flush();
                 currentWriter.close();
             }
 
-            OutputStream fos = Files.newOutputStream(rootDirectory.resolve(baseFileName + currentYear + ".csv.gz"));
-            currentWriter = new GZIPOutputStream(fos);
+            currentWriter = new AsyncFileWriter(rootDirectory.resolve(baseFileName + currentYear + ".csv.gz").toFile(), false);
 
-            currentWriter.write(header.getBytes());
-            currentWriter.write("\n".getBytes());
+            currentWriter.write(header);
+            currentWriter.write('\n');
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -45,7 +42,6 @@ public class YearByYearCsvModelTracker {
     public void end() {
         try {
             if (currentWriter != null) {
-                currentWriter.flush();
                 currentWriter.close();
             }
         } catch (IOException e) {
@@ -55,8 +51,8 @@ public class YearByYearCsvModelTracker {
 
     public void trackRecord(String record) {
         try {
-            currentWriter.write(record.getBytes());
-            currentWriter.write("\n".getBytes());
+            currentWriter.write(record);
+            currentWriter.write('\n');
         } catch (IOException e) {
             e.printStackTrace();
         }
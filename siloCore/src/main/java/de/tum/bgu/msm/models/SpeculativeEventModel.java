@@ -0,0 +1,34 @@
+package de.tum.bgu.msm.models;
+
+import de.tum.bgu.msm.events.MicroEvent;
+
+/**
+ * An {@link EventModel} whose events can be processed in batches: decisions are computed speculatively
+ * and in parallel against the state at the beginning of the batch, and are then committed one by one
+ * in the original (shuffled) order of the events.
+ *
+ * @param <T> the type of events handled by this model
+ * @param <D> the type of the speculative decision
+ */
+public interface SpeculativeEventModel<T extends MicroEvent, D> extends EventModel<T> {
+
+    /**
+     * Draws the random seed for the next event. Called on the simulation thread in the order of the events,
+     * so that decisions do not depend on the order in which they are computed.
+     */
+    long drawSeed();
+
+    /**
+     * Computes the decision for the given event without changing any data.
+     * Called concurrently for the events of a batch.
+     */
+    D decide(T event, long seed);
+
+    /**
+     * Applies the given decision on the simulation thread. If the decision is no longer valid because of
+     * decisions committed earlier in the same batch, implementations have to decide again against the
+     * current state.
+     * @return  true if the event is triggered, i.e. a change in data occurred; false otherwise
+     */
+    boolean commit(T event, D decision, long seed);
+}
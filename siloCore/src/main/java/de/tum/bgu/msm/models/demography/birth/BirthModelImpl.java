@@ -24,11 +24,11 @@ import de.tum.bgu.msm.data.person.*;
 import de.tum.bgu.msm.events.impls.person.BirthEvent;
 import de.tum.bgu.msm.models.AbstractModel;
 import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.simulator.ParallelEventGenerator;
 import de.tum.bgu.msm.utils.SiloUtil;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 import java.util.Random;
 
 import static de.tum.bgu.msm.data.person.Gender.FEMALE;
@@ -63,14 +63,11 @@ public class BirthModelImpl extends AbstractModel implements BirthModel {
 
     @Override
     public Collection<BirthEvent> getEventsForCurrentYear(int year) {
-        final List<BirthEvent> events = new ArrayList<>();
-        for (Person per : dataContainer.getHouseholdDataManager().getPersons()) {
-            final int id = per.getId();
-            if (properties.eventRules.birth && personCanGiveBirth(per)) {
-                events.add(new BirthEvent(id));
-            }
+        if (!properties.eventRules.birth) {
+            return new ArrayList<>();
         }
-        return events;
+        return ParallelEventGenerator.createEvents(dataContainer.getHouseholdDataManager().getPersons(),
+                per -> personCanGiveBirth(per) ? new BirthEvent(per.getId()) : null);
     }
 
     @Override
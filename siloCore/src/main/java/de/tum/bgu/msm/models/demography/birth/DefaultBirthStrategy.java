@@ -1,16 +1,28 @@
 package de.tum.bgu.msm.models.demography.birth;
 
+import de.tum.bgu.msm.utils.RateTable;
+
 public class DefaultBirthStrategy implements BirthStrategy {
 
+    /**
+     * Birth probabilities by number of children (0, 1, 2, 3 or more) and age (up to 50, older women have no children)
+     */
+    private final RateTable birthRates;
+
     public DefaultBirthStrategy() {
+        birthRates = RateTable.compile((numberOfChildren, age) -> lookUpBirthProbability(age, numberOfChildren), 4, 51);
     }
 
     @Override
     public double calculateBirthProbability(int personAge, int numberOfChildren) {
-        var alpha = 0.;
         if (personAge < 0){
             throw new RuntimeException("Undefined negative person age!"+personAge);
         }
+        return birthRates.get(numberOfChildren, personAge);
+    }
+
+    private static double lookUpBirthProbability(int personAge, int numberOfChildren) {
+        var alpha = 0.;
 
         if (numberOfChildren == 0){
             if (personAge <= 14){
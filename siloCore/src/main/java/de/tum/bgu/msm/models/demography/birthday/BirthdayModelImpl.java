@@ -5,11 +5,11 @@ import de.tum.bgu.msm.data.person.Person;
 import de.tum.bgu.msm.events.impls.person.BirthDayEvent;
 import de.tum.bgu.msm.models.AbstractModel;
 import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.simulator.ParallelEventGenerator;
 import de.tum.bgu.msm.utils.SiloUtil;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 import java.util.Random;
 
 public class BirthdayModelImpl extends AbstractModel implements BirthdayModel {
@@ -26,14 +26,11 @@ public class BirthdayModelImpl extends AbstractModel implements BirthdayModel {
 
     @Override
     public Collection<BirthDayEvent> getEventsForCurrentYear(int year) {
-        List<BirthDayEvent> events = new ArrayList<>();
-        for (Person per : dataContainer.getHouseholdDataManager().getPersons()) {
-            final int id = per.getId();
-            if(properties.eventRules.birthday) {
-                events.add(new BirthDayEvent(id));
-            }
+        if (!properties.eventRules.birthday) {
+            return new ArrayList<>();
         }
-        return events;
+        return ParallelEventGenerator.createEvents(dataContainer.getHouseholdDataManager().getPersons(),
+                per -> new BirthDayEvent(per.getId()));
     }
 
     @Override
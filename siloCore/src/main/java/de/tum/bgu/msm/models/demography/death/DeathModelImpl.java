@@ -9,11 +9,10 @@ import de.tum.bgu.msm.data.person.PersonRole;
 import de.tum.bgu.msm.events.impls.person.DeathEvent;
 import de.tum.bgu.msm.models.AbstractModel;
 import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.simulator.ParallelEventGenerator;
 import de.tum.bgu.msm.utils.SiloUtil;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 import java.util.Random;
 
 /**
@@ -32,11 +31,8 @@ public class DeathModelImpl extends AbstractModel implements DeathModel {
 
     @Override
     public Collection<DeathEvent> getEventsForCurrentYear(int year) {
-        final List<DeathEvent> events = new ArrayList<>();
-        for (Person person : dataContainer.getHouseholdDataManager().getPersons()) {
-            events.add(new DeathEvent(person.getId()));
-        }
-        return events;
+        return ParallelEventGenerator.createEvents(dataContainer.getHouseholdDataManager().getPersons(),
+                person -> new DeathEvent(person.getId()));
     }
 
     @Override
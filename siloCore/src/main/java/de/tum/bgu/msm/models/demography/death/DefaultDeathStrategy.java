@@ -2,17 +2,29 @@ package de.tum.bgu.msm.models.demography.death;
 
 import de.tum.bgu.msm.data.person.Gender;
 import de.tum.bgu.msm.data.person.Person;
+import de.tum.bgu.msm.utils.RateTable;
 
 public class DefaultDeathStrategy implements DeathStrategy {
 
+    /**
+     * Death probabilities by gender and age (up to 100)
+     */
+    private final RateTable deathRates;
+
     public DefaultDeathStrategy() {
+        deathRates = RateTable.compile((gender, age) -> lookUpDeathProbability(Gender.values()[gender], age),
+                Gender.values().length, 101);
     }
 
     @Override
     public double calculateDeathProbability(Person person) {
-        final int personAge = Math.min(person.getAge(), 100);
-        Gender personSex = person.getGender();
+        if (person.getAge() < 0){
+            throw new RuntimeException("Undefined negative person age!"+person.getAge());
+        }
+        return deathRates.get(person.getGender().ordinal(), person.getAge());
+    }
 
+    private static double lookUpDeathProbability(Gender personSex, int personAge) {
         var alpha = 0.;
 
         if ("MALE".equals(personSex.name())) {
@@ -425,10 +437,6 @@ public class DefaultDeathStrategy implements DeathStrategy {
             }
         }
 
-        if (personAge < 0){
-            throw new RuntimeException("Undefined negative person age!"+personAge);
-        }
-
         return alpha;
     }
 }
\ No newline at end of file
@@ -13,13 +13,12 @@ import de.tum.bgu.msm.models.autoOwnership.CreateCarOwnershipModel;
 import de.tum.bgu.msm.models.relocation.moves.MovesModel;
 import de.tum.bgu.msm.models.relocation.moves.MovesModelImpl;
 import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.simulator.ParallelEventGenerator;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 import java.util.Random;
 
 public class DivorceModelImpl extends AbstractModel implements DivorceModel {
@@ -54,13 +53,8 @@ public class DivorceModelImpl extends AbstractModel implements DivorceModel {
 
     @Override
     public Collection<DivorceEvent> getEventsForCurrentYear(int year) {
-        final List<DivorceEvent> events = new ArrayList<>();
-        for (Person person : dataContainer.getHouseholdDataManager().getPersons()) {
-            if (person.getRole() == PersonRole.MARRIED) {
-                events.add(new DivorceEvent(person.getId()));
-            }
-        }
-        return events;
+        return ParallelEventGenerator.createEvents(dataContainer.getHouseholdDataManager().getPersons(),
+                person -> person.getRole() == PersonRole.MARRIED ? new DivorceEvent(person.getId()) : null);
     }
 
     @Override
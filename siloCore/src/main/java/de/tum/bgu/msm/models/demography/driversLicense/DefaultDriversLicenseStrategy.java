@@ -2,18 +2,37 @@ package de.tum.bgu.msm.models.demography.driversLicense;
 
 import de.tum.bgu.msm.data.person.Person;
 import de.tum.bgu.msm.data.person.PersonType;
+import de.tum.bgu.msm.utils.RateTable;
 
 /**
  * Created by matthewokrah on 13/11/2017.
  */
 public class DefaultDriversLicenseStrategy implements DriversLicenseStrategy{
 
+    /**
+     * Probabilities by person type
+     */
+    private final RateTable changeRates;
+    private final RateTable createRates;
+
     public DefaultDriversLicenseStrategy() {
+        changeRates = RateTable.compile(type -> lookUpChangeDriversLicenseProbability(PersonType.values()[type]),
+                PersonType.values().length);
+        createRates = RateTable.compile(type -> lookUpCreateDriversLicenseProbability(PersonType.values()[type]),
+                PersonType.values().length);
     }
 
     @Override
     public double calculateChangeDriversLicenseProbability(Person person) {
-        PersonType personType = person.getType();
+        return changeRates.get(person.getType().ordinal());
+    }
+
+    @Override
+    public double calculateCreateDriversLicenseProbability(Person pp) {
+        return createRates.get(pp.getType().ordinal());
+    }
+
+    private static double lookUpChangeDriversLicenseProbability(PersonType personType) {
         switch (personType.name()) {
             case "MEN_AGE_15_TO_19":
                 return 0.86;
@@ -91,9 +110,7 @@ public class DefaultDriversLicenseStrategy implements DriversLicenseStrategy{
         return 0.;
     }
 
-    @Override
-    public double calculateCreateDriversLicenseProbability(Person pp) {
-        PersonType personType = pp.getType();
+    private static double lookUpCreateDriversLicenseProbability(PersonType personType) {
         switch (personType.name()) {
             case "MEN_AGE_15_TO_19":
                 return 0.86;
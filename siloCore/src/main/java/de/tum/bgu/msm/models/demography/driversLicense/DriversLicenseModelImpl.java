@@ -5,11 +5,10 @@ import de.tum.bgu.msm.data.person.Person;
 import de.tum.bgu.msm.events.impls.person.LicenseEvent;
 import de.tum.bgu.msm.models.AbstractModel;
 import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.simulator.ParallelEventGenerator;
 import de.tum.bgu.msm.utils.SiloUtil;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 import java.util.Random;
 
 /**
@@ -35,11 +34,8 @@ public class DriversLicenseModelImpl extends AbstractModel implements DriversLic
 
     @Override
     public Collection<LicenseEvent> getEventsForCurrentYear(int year) {
-        final List<LicenseEvent> events = new ArrayList<>();
-        for (Person person : dataContainer.getHouseholdDataManager().getPersons()) {
-            events.add(new LicenseEvent(person.getId()));
-        }
-        return events;
+        return ParallelEventGenerator.createEvents(dataContainer.getHouseholdDataManager().getPersons(),
+                person -> new LicenseEvent(person.getId()));
     }
 
     @Override
@@ -6,11 +6,10 @@ import de.tum.bgu.msm.data.person.Person;
 import de.tum.bgu.msm.events.impls.person.EducationEvent;
 import de.tum.bgu.msm.models.AbstractModel;
 import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.simulator.ParallelEventGenerator;
 import de.tum.bgu.msm.utils.SiloUtil;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 import java.util.Random;
 
 /**
@@ -26,13 +25,9 @@ public class EducationModelImpl extends AbstractModel implements EducationModel
 
     @Override
     public Collection<EducationEvent> getEventsForCurrentYear(int year) {
-        final List<EducationEvent> events = new ArrayList<>();
-        for (Person person : dataContainer.getHouseholdDataManager().getPersons()) {
-            if (person.getAge() >= 19 && person.getOccupation().equals(Occupation.STUDENT)) {
-                events.add(new EducationEvent(person.getId()));
-            }
-        }
-        return events;
+        return ParallelEventGenerator.createEvents(dataContainer.getHouseholdDataManager().getPersons(),
+                person -> person.getAge() >= 19 && person.getOccupation().equals(Occupation.STUDENT) ?
+                        new EducationEvent(person.getId()) : null);
     }
 
     @Override
@@ -10,7 +10,9 @@ import de.tum.bgu.msm.data.person.Occupation;
 import de.tum.bgu.msm.data.person.Person;
 import de.tum.bgu.msm.events.impls.person.EmploymentEvent;
 import de.tum.bgu.msm.models.AbstractModel;
+import de.tum.bgu.msm.models.SpeculativeEventModel;
 import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.simulator.ParallelEventGenerator;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -24,8 +26,11 @@ import java.util.Random;
  * Simulates finding a new job and quitting a job
  * Author: Rolf Moeckel, PB Albuquerque
  * Created on 1 March 2013 in Santa Fe
+ *
+ * Job seekers can be processed in batches, see {@link SpeculativeEventModel}. The decision of a FIND event is the
+ * vacant job chosen for the person, quitting a job is not decided in advance.
  **/
-public class EmploymentModelImpl extends AbstractModel implements EmploymentModel {
+public class EmploymentModelImpl extends AbstractModel implements EmploymentModel, SpeculativeEventModel<EmploymentEvent, Job> {
 
     private final static Logger logger = LogManager.getLogger(EmploymentModelImpl.class);
 
@@ -77,27 +82,28 @@ public class EmploymentModelImpl extends AbstractModel implements EmploymentMode
             }
         }
 
-        for (Person pp : dataContainer.getHouseholdDataManager().getPersons()) {
+        events.addAll(ParallelEventGenerator.createEvents(dataContainer.getHouseholdDataManager().getPersons(), random,
+                (pp, partitionRandom, partitionEvents) -> {
             int age = pp.getAge();
             if (age > 99) {
-                continue;  // people older than 99 will always be unemployed/retired
+                return;  // people older than 99 will always be unemployed/retired
             }
             int gen = pp.getGender().ordinal();
             boolean employed = pp.getJobId() > 0;
 
             // find job
             if (changeRate[gen][age] > 0 && !employed) {
-                if (random.nextDouble() < changeRate[gen][age]) {
-                    events.add(new EmploymentEvent(pp.getId(), EmploymentEvent.Type.FIND));
+                if (partitionRandom.nextDouble() < changeRate[gen][age]) {
+                    partitionEvents.add(new EmploymentEvent(pp.getId(), EmploymentEvent.Type.FIND));
                 }
             }
             // lose job
             if (changeRate[gen][age] < 0 && employed) {
-                if (random.nextDouble() < Math.abs(changeRate[gen][age])) {
-                    events.add(new EmploymentEvent(pp.getId(), EmploymentEvent.Type.QUIT));
+                if (partitionRandom.nextDouble() < Math.abs(changeRate[gen][age])) {
+                    partitionEvents.add(new EmploymentEvent(pp.getId(), EmploymentEvent.Type.QUIT));
                 }
             }
-        }
+        }));
         return events;
     }
 
@@ -113,6 +119,50 @@ public class EmploymentModelImpl extends AbstractModel implements EmploymentMode
         }
     }
 
+    @Override
+    public long drawSeed() {
+        return random.nextLong();
+    }
+
+    @Override
+    public Job decide(EmploymentEvent event, long seed) {
+        if (event.getType() != EmploymentEvent.Type.FIND) {
+            return null;
+        }
+        final Person pp = dataContainer.getHouseholdDataManager().getPersonFromId(event.getPersonId());
+        if (pp == null) {
+            return null;
+        }
+        return dataContainer.getJobDataManager().chooseVacantJob(getHomeZone(pp),
+                dataContainer.getGeoData().getRegions().values(), new Random(seed));
+    }
+
+    @Override
+    public boolean commit(EmploymentEvent event, Job decision, long seed) {
+        if (event.getType() != EmploymentEvent.Type.FIND) {
+            return handleEvent(event);
+        }
+        final Person pp = dataContainer.getHouseholdDataManager().getPersonFromId(event.getPersonId());
+        if (pp == null) {
+            return false;
+        }
+        Job jj = decision;
+        if (jj == null || !dataContainer.getJobDataManager().takeVacantJob(jj)) {
+            // the job has been taken by a person committed earlier in the same batch, or no job was vacant when
+            // deciding. Choose again with the same random stream against the current vacancies.
+            jj = dataContainer.getJobDataManager().chooseVacantJob(getHomeZone(pp),
+                    dataContainer.getGeoData().getRegions().values(), new Random(seed));
+            if (jj != null) {
+                dataContainer.getJobDataManager().takeVacantJob(jj);
+            }
+        }
+        if (jj == null) {
+            missingJob++;
+            return false;
+        }
+        return takeNewJob(pp, jj);
+    }
+
     @Override
     public void endYear(int year) {
         if (missingJob > 0) {
@@ -182,14 +232,21 @@ public class EmploymentModelImpl extends AbstractModel implements EmploymentMode
     }
 
     private Job findJob(Person pp) {
+        return dataContainer.getJobDataManager().findVacantJob(
+                getHomeZone(pp), dataContainer.getGeoData().getRegions().values());
+    }
+
+    /**
+     * @return the zone the person lives in, or null if the household has no dwelling yet
+     */
+    private Zone getHomeZone(Person pp) {
         final Household household = pp.getHousehold();
         final Dwelling dwelling = dataContainer.getRealEstateDataManager().getDwelling(household.getDwellingId());
         Zone zone = null;
         if (dwelling != null) {
             zone = dataContainer.getGeoData().getZones().get(dwelling.getZoneId());
         }
-        return dataContainer.getJobDataManager().findVacantJob(
-                zone, dataContainer.getGeoData().getRegions().values());
+        return zone;
     }
 
     boolean takeNewJob(Person person, Job job) {
@@ -28,13 +28,12 @@ import de.tum.bgu.msm.models.autoOwnership.CreateCarOwnershipModel;
 import de.tum.bgu.msm.models.relocation.moves.MovesModel;
 import de.tum.bgu.msm.models.relocation.moves.MovesModelImpl;
 import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.simulator.ParallelEventGenerator;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 import java.util.Random;
 
 /**
@@ -76,13 +75,8 @@ public class LeaveParentHhModelImpl extends AbstractModel implements LeaveParent
 
     @Override
     public Collection<LeaveParentsEvent> getEventsForCurrentYear(int year) {
-        final List<LeaveParentsEvent> events = new ArrayList<>();
-        for (Person person : dataContainer.getHouseholdDataManager().getPersons()) {
-            if (qualifiesForParentalHHLeave(person)) {
-                events.add(new LeaveParentsEvent(person.getId()));
-            }
-        }
-        return events;
+        return ParallelEventGenerator.createEvents(dataContainer.getHouseholdDataManager().getPersons(),
+                person -> qualifiesForParentalHHLeave(person) ? new LeaveParentsEvent(person.getId()) : null);
     }
 
     @Override
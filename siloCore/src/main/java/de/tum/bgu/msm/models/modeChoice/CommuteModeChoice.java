@@ -7,6 +7,9 @@ import de.tum.bgu.msm.data.household.Household;
 import de.tum.bgu.msm.data.person.Person;
 import de.tum.bgu.msm.data.travelTimes.TravelTimes;
 
+import java.util.List;
+import java.util.Random;
+
 public interface CommuteModeChoice {
 
     /*
@@ -21,6 +24,19 @@ public interface CommuteModeChoice {
      */
     CommuteModeChoiceMapping assignRegionalCommuteModeChoice(Region region, TravelTimes travelTimes, Household household);
 
+    /*
+    Returns the regional commute mode choices for all given regions, in the order of the list, as if
+     assignRegionalCommuteModeChoice was called for one region after the other. Implementations can override this to
+     look up the jobs of the household only once.
+     */
+    default CommuteModeChoiceMapping[] assignRegionalCommuteModeChoices(List<Region> regions, TravelTimes travelTimes, Household household) {
+        final CommuteModeChoiceMapping[] mappings = new CommuteModeChoiceMapping[regions.size()];
+        for (int i = 0; i < mappings.length; i++) {
+            mappings[i] = assignRegionalCommuteModeChoice(regions.get(i), travelTimes, household);
+        }
+        return mappings;
+    }
+
     /*
     Returns commute mode choice and commute time probability to search for a region where to find a job,
      given a home location
@@ -29,4 +45,11 @@ public interface CommuteModeChoice {
                                                                           Zone homeZone,
                                                                           TravelTimes travelTimes,
                                                                           Person person);
+
+    /*
+    Returns a copy of this mode choice that draws all random decisions from the given random number generator.
+     Used to give concurrent housing strategies independent, reproducible random streams, so implementations must
+     not share their random number generator with the copy. Mode choices without random decisions may return themselves.
+     */
+    CommuteModeChoice duplicate(Random random);
 }
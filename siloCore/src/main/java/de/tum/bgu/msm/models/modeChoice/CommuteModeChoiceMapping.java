@@ -1,22 +1,74 @@
 package de.tum.bgu.msm.models.modeChoice;
 
-import cern.colt.map.tobject.OpenIntObjectHashMap;
 import de.tum.bgu.msm.data.person.Person;
 
+import java.util.Arrays;
+
+/**
+ * The commute modes and their utilities of the workers of a household. Households have only a few workers, so the
+ * mapping keeps the person ids, modes and utilities in parallel arrays and looks persons up by a linear scan instead
+ * of allocating a map entry and a {@link CommuteMode} for every worker.
+ */
 public class CommuteModeChoiceMapping {
 
-    private OpenIntObjectHashMap map;
+    private int[] personIds;
+    private String[] modes;
+    private double[] utilities;
+    private int size;
 
     public CommuteModeChoiceMapping(int numberOfPersons) {
-        map =  new OpenIntObjectHashMap(numberOfPersons);
+        final int capacity = Math.max(numberOfPersons, 1);
+        personIds = new int[capacity];
+        modes = new String[capacity];
+        utilities = new double[capacity];
     }
 
     public void assignMode(CommuteMode mode, Person person) {
-        map.put(person.getId(), mode);
+        assignMode(mode.mode, mode.utility, person);
+    }
+
+    public void assignMode(String mode, double utility, Person person) {
+        int index = indexOf(person.getId());
+        if (index < 0) {
+            if (size == personIds.length) {
+                personIds = Arrays.copyOf(personIds, size * 2);
+                modes = Arrays.copyOf(modes, size * 2);
+                utilities = Arrays.copyOf(utilities, size * 2);
+            }
+            index = size++;
+            personIds[index] = person.getId();
+        }
+        modes[index] = mode;
+        utilities[index] = utility;
     }
 
+    /**
+     * Returns the commute mode of the person or null if none was assigned. Use {@link #getUtility(Person)} where only
+     * the utility is needed.
+     */
     public CommuteMode getMode(Person person) {
-        return (CommuteMode) map.get(person.getId());
+        final int index = indexOf(person.getId());
+        if (index < 0) {
+            return null;
+        }
+        return new CommuteMode(modes[index], utilities[index]);
+    }
+
+    public double getUtility(Person person) {
+        final int index = indexOf(person.getId());
+        if (index < 0) {
+            throw new IllegalArgumentException("No commute mode was assigned to person " + person.getId());
+        }
+        return utilities[index];
+    }
+
+    private int indexOf(int personId) {
+        for (int i = 0; i < size; i++) {
+            if (personIds[i] == personId) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     public final static class CommuteMode {
@@ -64,6 +64,22 @@ public class CommuteModeChoiceWithoutCarOwnership implements CommuteModeChoice {
         B_EXP_HOUSING_UTILITY = properties.moves.B_EXP_HOUSING_UTILITY;
     }
 
+    private CommuteModeChoiceWithoutCarOwnership(CommuteModeChoiceWithoutCarOwnership template, Random random) {
+        this.properties = template.properties;
+        this.commutingTimeProbability = template.commutingTimeProbability;
+        this.jobDataManager = template.jobDataManager;
+        this.geoData = template.geoData;
+        this.random = random;
+        B_TIME = template.B_TIME;
+        B_PT = template.B_PT;
+        B_EXP_HOUSING_UTILITY = template.B_EXP_HOUSING_UTILITY;
+    }
+
+    @Override
+    public CommuteModeChoice duplicate(Random random) {
+        return new CommuteModeChoiceWithoutCarOwnership(this, random);
+    }
+
 
     @Override
     public CommuteModeChoiceMapping assignCommuteModeChoice(Location from, TravelTimes travelTimes, Household household) {
@@ -2,17 +2,18 @@ package de.tum.bgu.msm.models.modeChoice;
 
 import de.tum.bgu.msm.container.DataContainer;
 import de.tum.bgu.msm.data.Location;
+import de.tum.bgu.msm.data.OneToManyTravelTimes;
 import de.tum.bgu.msm.data.Region;
 import de.tum.bgu.msm.data.Zone;
 import de.tum.bgu.msm.data.accessibility.CommutingTimeProbability;
 import de.tum.bgu.msm.data.geo.GeoData;
 import de.tum.bgu.msm.data.household.Household;
-import de.tum.bgu.msm.data.household.HouseholdUtil;
 import de.tum.bgu.msm.data.job.Job;
 import de.tum.bgu.msm.data.job.JobDataManager;
 import de.tum.bgu.msm.data.person.Occupation;
 import de.tum.bgu.msm.data.person.Person;
 import de.tum.bgu.msm.data.travelTimes.TravelTimes;
+import de.tum.bgu.msm.data.vehicle.Vehicle;
 import de.tum.bgu.msm.data.vehicle.VehicleType;
 import de.tum.bgu.msm.properties.Properties;
 import org.matsim.api.core.v01.TransportMode;
@@ -21,6 +22,9 @@ import java.util.*;
 
 public class SimpleCommuteModeChoice implements CommuteModeChoice {
 
+    private static final ThreadLocal<CarCandidates> CAR_CANDIDATES = ThreadLocal.withInitial(CarCandidates::new);
+    private static final ThreadLocal<Commuters> COMMUTERS = ThreadLocal.withInitial(Commuters::new);
+
     private final Properties properties;
     private final CommutingTimeProbability commutingTimeProbability;
     private final JobDataManager jobDataManager;
@@ -54,152 +58,318 @@ public class SimpleCommuteModeChoice implements CommuteModeChoice {
         B_EXP_HOUSING_UTILITY = properties.moves.B_EXP_HOUSING_UTILITY;
     }
 
+    private SimpleCommuteModeChoice(SimpleCommuteModeChoice template, Random random) {
+        this.properties = template.properties;
+        this.commutingTimeProbability = template.commutingTimeProbability;
+        this.jobDataManager = template.jobDataManager;
+        this.geoData = template.geoData;
+        this.random = random;
+        B_TIME = template.B_TIME;
+        B_PT = template.B_PT;
+        B_EXP_HOUSING_UTILITY = template.B_EXP_HOUSING_UTILITY;
+    }
+
+    @Override
+    public CommuteModeChoice duplicate(Random random) {
+        return new SimpleCommuteModeChoice(this, random);
+    }
+
 
     @Override
     public CommuteModeChoiceMapping assignCommuteModeChoice(Location from, TravelTimes travelTimes, Household household) {
 
-        CommuteModeChoiceMapping commuteModeChoiceMapping = new CommuteModeChoiceMapping(HouseholdUtil.getNumberOfWorkers(household));
+        final Commuters commuters = COMMUTERS.get();
+        fill(commuters, household);
+        queryCommuteTimes(from, travelTimes, commuters);
 
-        Map<Integer, Map<String, Double>> commuteModesByPerson = new LinkedHashMap<>();
-        TreeMap<Double, Person> personByProbability = new TreeMap<>();
+        CommuteModeChoiceMapping commuteModeChoiceMapping = new CommuteModeChoiceMapping(commuters.size);
+        final CarCandidates carCandidates = CAR_CANDIDATES.get();
+        carCandidates.clear();
 
-        for (Person pp : household.getPersons().values()) {
-            if (pp.getOccupation() == Occupation.EMPLOYED && pp.getJobId() != -2) {
+        for (int i = 0; i < commuters.size; i++) {
+            Person pp = commuters.workers[i];
 
-                Job job = jobDataManager.getJobFromId(pp.getJobId());
+            double commutingTimeProbabilityPt = commutingTimeProbability.getCommutingTimeProbability(commuters.ptMinutes[i], TransportMode.pt);
 
-                int ptMinutes = (int) travelTimes.getTravelTime(from, job,
-                        job.getStartTimeInSeconds().orElse((int) properties.transportModel.peakHour_s), TransportMode.pt);
-                double commutingTimeProbabilityPt = commutingTimeProbability.getCommutingTimeProbability(ptMinutes, TransportMode.pt);
-                double ptUtility = B_PT + B_TIME * commutingTimeProbabilityPt;
+            if (!pp.hasDriverLicense() || commuters.numberOfCars == 0) {
+                commuteModeChoiceMapping.assignMode(TransportMode.pt, Math.pow(commutingTimeProbabilityPt, B_EXP_HOUSING_UTILITY), pp);
+            } else {
+                double commutingTimeProbabilityCar = this.commutingTimeProbability.getCommutingTimeProbability(commuters.carMinutes[i], TransportMode.car);
+                addCarCandidate(carCandidates, pp, commutingTimeProbabilityCar, commutingTimeProbabilityPt);
+            }
+        }
 
+        assignCarsByProbability(commuteModeChoiceMapping, carCandidates, commuters.numberOfCars);
+        commuters.clear();
+        return commuteModeChoiceMapping;
+    }
 
-                if (!pp.hasDriverLicense() || (int) (household.getVehicles().stream().filter(v-> v.getType().equals(VehicleType.CAR)).count()) == 0) {
-                    CommuteModeChoiceMapping.CommuteMode ptCommuteMode =
-                            new CommuteModeChoiceMapping.CommuteMode(TransportMode.pt, Math.pow(commutingTimeProbabilityPt, B_EXP_HOUSING_UTILITY));
-                    commuteModeChoiceMapping.assignMode(ptCommuteMode, pp);
-                } else {
-                    int carMinutes = (int) travelTimes.getTravelTime(from, job,
-                            job.getStartTimeInSeconds().orElse((int) properties.transportModel.peakHour_s), TransportMode.car);
-                    double commutingTimeProbabilityCar = this.commutingTimeProbability.getCommutingTimeProbability(carMinutes, TransportMode.car);
-                    double carUtility = B_TIME * commutingTimeProbabilityCar;
-
-                    ptUtility = Math.exp(ptUtility);
-                    carUtility = Math.exp(carUtility);
-
-                    Map<String, Double> utilityByMode = new LinkedHashMap<>();
-                    utilityByMode.put(TransportMode.car, Math.pow(commutingTimeProbabilityCar, B_EXP_HOUSING_UTILITY));
-                    utilityByMode.put(TransportMode.pt, Math.pow(commutingTimeProbabilityPt, B_EXP_HOUSING_UTILITY));
-                    commuteModesByPerson.put(pp.getId(), utilityByMode);
-                    double probabilityAsKey;
-                    if(carUtility == 0 && ptUtility == 0) {
-                        probabilityAsKey = 0.5;
-                    } else {
-                        probabilityAsKey = carUtility / (carUtility + ptUtility);
+    /**
+     * Queries the pt commute times of all workers and the car commute times of the workers that could drive, with one
+     * one-to-many query per mode for all workers whose jobs start at the same time.
+     */
+    private static void queryCommuteTimes(Location from, TravelTimes travelTimes, Commuters commuters) {
+        final List<Job> destinations = commuters.destinations;
+        final int[] members = commuters.members;
+        for (int i = 0; i < commuters.size; i++) {
+            if (commuters.queried[i]) {
+                continue;
+            }
+            final int startTime = commuters.startTimes[i];
+            int size = 0;
+            for (int j = i; j < commuters.size; j++) {
+                if (commuters.startTimes[j] == startTime) {
+                    commuters.queried[j] = true;
+                    members[size++] = j;
+                    destinations.add(commuters.jobs[j]);
+                }
+            }
+            final double[] ptTimes = OneToManyTravelTimes.getTravelTimes(travelTimes, from, destinations, startTime, TransportMode.pt);
+            for (int k = 0; k < size; k++) {
+                commuters.ptMinutes[members[k]] = (int) ptTimes[k];
+            }
+            destinations.clear();
+
+            if (commuters.numberOfCars > 0) {
+                int drivers = 0;
+                for (int k = 0; k < size; k++) {
+                    if (commuters.workers[members[k]].hasDriverLicense()) {
+                        members[drivers++] = members[k];
+                        destinations.add(commuters.jobs[members[k]]);
                     }
-                    while (personByProbability.containsKey(probabilityAsKey)) {
-                        //more than one hh member has exactly the same probability, so it would be replaced in the treemap
-                        probabilityAsKey += random.nextDouble();
+                }
+                if (drivers > 0) {
+                    final double[] carTimes = OneToManyTravelTimes.getTravelTimes(travelTimes, from, destinations, startTime, TransportMode.car);
+                    for (int k = 0; k < drivers; k++) {
+                        commuters.carMinutes[members[k]] = (int) carTimes[k];
                     }
-                    personByProbability.put(probabilityAsKey, pp);
+                    destinations.clear();
                 }
             }
         }
+    }
+
+    @Override
+    public CommuteModeChoiceMapping assignRegionalCommuteModeChoice(Region region, TravelTimes travelTimes, Household household) {
+        final Commuters commuters = COMMUTERS.get();
+        fill(commuters, household);
+        final CommuteModeChoiceMapping mapping = assignRegionalCommuteModeChoice(region, travelTimes, commuters);
+        commuters.clear();
+        return mapping;
+    }
+
+    @Override
+    public CommuteModeChoiceMapping[] assignRegionalCommuteModeChoices(List<Region> regions, TravelTimes travelTimes, Household household) {
+        final Commuters commuters = COMMUTERS.get();
+        fill(commuters, household);
+        final CommuteModeChoiceMapping[] mappings = new CommuteModeChoiceMapping[regions.size()];
+        for (int i = 0; i < mappings.length; i++) {
+            mappings[i] = assignRegionalCommuteModeChoice(regions.get(i), travelTimes, commuters);
+        }
+        commuters.clear();
+        return mappings;
+    }
 
-        int counter =(int) (household.getVehicles().stream().filter(v-> v.getType().equals(VehicleType.CAR)).count()) ;
+    private CommuteModeChoiceMapping assignRegionalCommuteModeChoice(Region region, TravelTimes travelTimes, Commuters commuters) {
+
+        CommuteModeChoiceMapping commuteModeChoiceMapping = new CommuteModeChoiceMapping(commuters.size);
+        final CarCandidates carCandidates = CAR_CANDIDATES.get();
+        carCandidates.clear();
+
+        for (int i = 0; i < commuters.size; i++) {
+            Person pp = commuters.workers[i];
+            Zone jobZone = commuters.jobZones[i];
+            int startTime = commuters.startTimes[i];
+
+            int ptMinutes = (int) travelTimes.getTravelTimeFromRegion(region, jobZone, startTime, TransportMode.pt);
+            double commutingTimeProbabilityPt = commutingTimeProbability.getCommutingTimeProbability(ptMinutes, TransportMode.pt);
+
+            if (!pp.hasDriverLicense() || commuters.numberOfCars == 0) {
+                commuteModeChoiceMapping.assignMode(TransportMode.pt, Math.pow(commutingTimeProbabilityPt, B_EXP_HOUSING_UTILITY), pp);
+            } else {
+                int carMinutes = (int) travelTimes.getTravelTimeFromRegion(region, jobZone, startTime, TransportMode.car);
+                double commutingTimeProbabilityCar = this.commutingTimeProbability.getCommutingTimeProbability(carMinutes, TransportMode.car);
+                addCarCandidate(carCandidates, pp, commutingTimeProbabilityCar, commutingTimeProbabilityPt);
+            }
+        }
+
+        assignCarsByProbability(commuteModeChoiceMapping, carCandidates, commuters.numberOfCars);
+        return commuteModeChoiceMapping;
+    }
 
-        for (Map.Entry<Double, Person> personForProbability : personByProbability.descendingMap().entrySet()) {
-            Person person = personForProbability.getValue();
-            CommuteModeChoiceMapping.CommuteMode commuteMode;
-            if(counter == 0) {
-                commuteMode = new CommuteModeChoiceMapping.CommuteMode(TransportMode.pt,
-                        commuteModesByPerson.get(person.getId()).get(TransportMode.pt));
+    /**
+     * Hands out the cars of the household to the workers that could drive, starting with the worker with the highest
+     * probability to choose the car. Workers that do not get a car commute by pt.
+     */
+    private void assignCarsByProbability(CommuteModeChoiceMapping commuteModeChoiceMapping, CarCandidates carCandidates, int numberOfCars) {
+        carCandidates.sortByDescendingProbability();
+        int counter = numberOfCars;
+        for (int i = 0; i < carCandidates.size; i++) {
+            final Person person = carCandidates.persons[i];
+            if (counter == 0) {
+                commuteModeChoiceMapping.assignMode(TransportMode.pt, carCandidates.ptUtilities[i], person);
             } else {
-                if (random.nextDouble() < personForProbability.getKey()) {
-                    commuteMode =
-                            new CommuteModeChoiceMapping.CommuteMode(TransportMode.car,
-                                    commuteModesByPerson.get(person.getId()).get(TransportMode.car));
+                if (random.nextDouble() < carCandidates.carProbabilities[i]) {
+                    commuteModeChoiceMapping.assignMode(TransportMode.car, carCandidates.carUtilities[i], person);
                     counter--;
                 } else {
-                    commuteMode = new CommuteModeChoiceMapping.CommuteMode(TransportMode.pt, commuteModesByPerson.get(person.getId()).get(TransportMode.pt));
+                    commuteModeChoiceMapping.assignMode(TransportMode.pt, carCandidates.ptUtilities[i], person);
                 }
             }
-            commuteModeChoiceMapping.assignMode(commuteMode, person);
+            carCandidates.persons[i] = null;
         }
+    }
 
-        return commuteModeChoiceMapping;
+    private void addCarCandidate(CarCandidates carCandidates, Person person,
+                                 double commutingTimeProbabilityCar, double commutingTimeProbabilityPt) {
+        final double carUtility = Math.exp(B_TIME * commutingTimeProbabilityCar);
+        final double ptUtility = Math.exp(B_PT + B_TIME * commutingTimeProbabilityPt);
+        double probabilityAsKey;
+        if (carUtility == 0 && ptUtility == 0) {
+            probabilityAsKey = 0.5;
+        } else {
+            probabilityAsKey = carUtility / (carUtility + ptUtility);
+        }
+        while (carCandidates.contains(probabilityAsKey)) {
+            //more than one hh member has exactly the same probability, so the order of the candidates would be ambiguous
+            probabilityAsKey += random.nextDouble();
+        }
+        carCandidates.add(person, probabilityAsKey, Math.pow(commutingTimeProbabilityCar, B_EXP_HOUSING_UTILITY),
+                Math.pow(commutingTimeProbabilityPt, B_EXP_HOUSING_UTILITY));
     }
 
-    @Override
-    public CommuteModeChoiceMapping assignRegionalCommuteModeChoice(Region region, TravelTimes travelTimes, Household household) {
+    private static int countCars(Household household) {
+        int cars = 0;
+        for (Vehicle vehicle : household.getVehicles()) {
+            if (vehicle.getType().equals(VehicleType.CAR)) {
+                cars++;
+            }
+        }
+        return cars;
+    }
 
-        CommuteModeChoiceMapping commuteModeChoiceMapping = new CommuteModeChoiceMapping(HouseholdUtil.getNumberOfWorkers(household));
+    /**
+     * Scratch arrays for the workers of a household that have a driver's license and could use one of the household's
+     * cars. Reused by all calls on the same thread, as the mode choice is evaluated for every candidate dwelling and
+     * region of every moving household.
+     */
+    private static final class CarCandidates {
+
+        private Person[] persons = new Person[4];
+        private double[] carProbabilities = new double[4];
+        private double[] carUtilities = new double[4];
+        private double[] ptUtilities = new double[4];
+        private int size;
+
+        private void clear() {
+            size = 0;
+        }
 
-        Map<Integer, Map<String, Double>> commuteModesByPerson = new LinkedHashMap<>();
-        TreeMap<Double, Person> personByProbability = new TreeMap<>();
+        private void add(Person person, double carProbability, double carUtility, double ptUtility) {
+            if (size == persons.length) {
+                persons = Arrays.copyOf(persons, size * 2);
+                carProbabilities = Arrays.copyOf(carProbabilities, size * 2);
+                carUtilities = Arrays.copyOf(carUtilities, size * 2);
+                ptUtilities = Arrays.copyOf(ptUtilities, size * 2);
+            }
+            persons[size] = person;
+            carProbabilities[size] = carProbability;
+            carUtilities[size] = carUtility;
+            ptUtilities[size] = ptUtility;
+            size++;
+        }
 
+        private boolean contains(double carProbability) {
+            for (int i = 0; i < size; i++) {
+                if (Double.compare(carProbabilities[i], carProbability) == 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
 
+        /**
+         * Insertion sort, households rarely have more than a few workers.
+         */
+        private void sortByDescendingProbability() {
+            for (int i = 1; i < size; i++) {
+                final Person person = persons[i];
+                final double carProbability = carProbabilities[i];
+                final double carUtility = carUtilities[i];
+                final double ptUtility = ptUtilities[i];
+                int j = i - 1;
+                while (j >= 0 && Double.compare(carProbabilities[j], carProbability) < 0) {
+                    persons[j + 1] = persons[j];
+                    carProbabilities[j + 1] = carProbabilities[j];
+                    carUtilities[j + 1] = carUtilities[j];
+                    ptUtilities[j + 1] = ptUtilities[j];
+                    j--;
+                }
+                persons[j + 1] = person;
+                carProbabilities[j + 1] = carProbability;
+                carUtilities[j + 1] = carUtility;
+                ptUtilities[j + 1] = ptUtility;
+            }
+        }
+    }
+
+    private void fill(Commuters commuters, Household household) {
+        commuters.size = 0;
         for (Person pp : household.getPersons().values()) {
             if (pp.getOccupation() == Occupation.EMPLOYED && pp.getJobId() != -2) {
-
                 Job job = jobDataManager.getJobFromId(pp.getJobId());
-                Zone jobZone = geoData.getZones().get(job.getZoneId());
-
-
-                int ptMinutes = (int) travelTimes.getTravelTimeFromRegion(region, jobZone,
-                        job.getStartTimeInSeconds().orElse((int) properties.transportModel.peakHour_s), TransportMode.pt);
-                double commutingTimeProbabilityPt = commutingTimeProbability.getCommutingTimeProbability(ptMinutes, TransportMode.pt);
-                double ptUtility = B_PT + B_TIME * commutingTimeProbabilityPt;
-
-                if (!pp.hasDriverLicense() || (int) (household.getVehicles().stream().filter(v-> v.getType().equals(VehicleType.CAR)).count())  == 0) {
-                    CommuteModeChoiceMapping.CommuteMode ptCommuteMode =
-                            new CommuteModeChoiceMapping.CommuteMode(TransportMode.pt, Math.pow(commutingTimeProbabilityPt, B_EXP_HOUSING_UTILITY));
-                    commuteModeChoiceMapping.assignMode(ptCommuteMode, pp);
-                } else {
-                    int carMinutes = (int) travelTimes.getTravelTimeFromRegion(region, jobZone,
-                            job.getStartTimeInSeconds().orElse((int) properties.transportModel.peakHour_s), TransportMode.car);
-                    double commutingTimeProbabilityCar = this.commutingTimeProbability.getCommutingTimeProbability(carMinutes, TransportMode.car);
-                    double carUtility = B_TIME * commutingTimeProbabilityCar;
-                    Map<String, Double> utilityByMode = new LinkedHashMap<>();
-                    utilityByMode.put(TransportMode.car, Math.pow(commutingTimeProbabilityCar, B_EXP_HOUSING_UTILITY));
-                    utilityByMode.put(TransportMode.pt, Math.pow(commutingTimeProbabilityPt, B_EXP_HOUSING_UTILITY));
-                    commuteModesByPerson.put(pp.getId(), utilityByMode);
-                    double probabilityAsKey;
-                    ptUtility = Math.exp(ptUtility);
-                    carUtility = Math.exp(carUtility);
-                    if(carUtility == 0 && ptUtility == 0) {
-                        probabilityAsKey = 0.5;
-                    } else {
-                        probabilityAsKey = carUtility / (carUtility + ptUtility);
-                    }
-                    while (personByProbability.containsKey(probabilityAsKey)) {
-                        //more than one hh member has exactly the same probability, so it would be replaced in the treemap
-                        probabilityAsKey += random.nextDouble();
-                    }
-                    personByProbability.put(probabilityAsKey, pp);
-                }
+                commuters.add(pp, job, geoData.getZones().get(job.getZoneId()),
+                        job.getStartTimeInSeconds().orElse((int) properties.transportModel.peakHour_s));
             }
         }
+        commuters.numberOfCars = countCars(household);
+    }
 
-        int counter = (int) (household.getVehicles().stream().filter(v-> v.getType().equals(VehicleType.CAR)).count()) ;
-
-        for (Map.Entry<Double, Person> personForProbability : personByProbability.descendingMap().entrySet()) {
-            Person person = personForProbability.getValue();
-            CommuteModeChoiceMapping.CommuteMode commuteMode;
-            if(counter == 0) {
-                commuteMode = new CommuteModeChoiceMapping.CommuteMode(TransportMode.pt, commuteModesByPerson.get(person.getId()).get(TransportMode.pt));
-            } else {
-                if (random.nextDouble() < personForProbability.getKey()) {
-                    commuteMode = new CommuteModeChoiceMapping.CommuteMode(TransportMode.car, commuteModesByPerson.get(person.getId()).get(TransportMode.car));
-                    counter--;
-                } else {
-                    commuteMode = new CommuteModeChoiceMapping.CommuteMode(TransportMode.pt, commuteModesByPerson.get(person.getId()).get(TransportMode.pt));
-                }
+    /**
+     * Scratch arrays for the workers of a household with their jobs, the zones and start times of the jobs and the
+     * number of cars of the household. None of these depend on the region, so they are looked up once per household
+     * and reused for all regions. The commute times are only filled for a dwelling. Reused by all calls on the same
+     * thread, like {@link CarCandidates}.
+     */
+    private static final class Commuters {
+
+        private Person[] workers = new Person[4];
+        private Job[] jobs = new Job[4];
+        private Zone[] jobZones = new Zone[4];
+        private int[] startTimes = new int[4];
+        private int[] ptMinutes = new int[4];
+        private int[] carMinutes = new int[4];
+        private boolean[] queried = new boolean[4];
+        private int[] members = new int[4];
+        private final List<Job> destinations = new ArrayList<>();
+        private int size;
+        private int numberOfCars;
+
+        private void add(Person worker, Job job, Zone jobZone, int startTime) {
+            if (size == workers.length) {
+                workers = Arrays.copyOf(workers, size * 2);
+                jobs = Arrays.copyOf(jobs, size * 2);
+                jobZones = Arrays.copyOf(jobZones, size * 2);
+                startTimes = Arrays.copyOf(startTimes, size * 2);
+                ptMinutes = Arrays.copyOf(ptMinutes, size * 2);
+                carMinutes = Arrays.copyOf(carMinutes, size * 2);
+                queried = Arrays.copyOf(queried, size * 2);
+                members = Arrays.copyOf(members, size * 2);
             }
-            commuteModeChoiceMapping.assignMode(commuteMode, person);
+            workers[size] = worker;
+            jobs[size] = job;
+            jobZones[size] = jobZone;
+            startTimes[size] = startTime;
+            size++;
         }
 
-        return commuteModeChoiceMapping;
+        private void clear() {
+            Arrays.fill(workers, 0, size, null);
+            Arrays.fill(jobs, 0, size, null);
+            Arrays.fill(jobZones, 0, size, null);
+            Arrays.fill(queried, 0, size, false);
+            size = 0;
+        }
     }
 
     @Override
@@ -229,9 +399,9 @@ public class SimpleCommuteModeChoice implements CommuteModeChoice {
 
 
         if (random.nextDouble() < probabilityCar) {
-            commuteModeChoiceMapping.assignMode(new CommuteModeChoiceMapping.CommuteMode(TransportMode.car, Math.pow(commutingTimeProbabilityCar, B_EXP_HOUSING_UTILITY)), person);
+            commuteModeChoiceMapping.assignMode(TransportMode.car, Math.pow(commutingTimeProbabilityCar, B_EXP_HOUSING_UTILITY), person);
         } else {
-            commuteModeChoiceMapping.assignMode(new CommuteModeChoiceMapping.CommuteMode(TransportMode.pt, Math.pow(commutingTimeProbabilityPt, B_EXP_HOUSING_UTILITY)), person);
+            commuteModeChoiceMapping.assignMode(TransportMode.pt, Math.pow(commutingTimeProbabilityPt, B_EXP_HOUSING_UTILITY), person);
 
         }
 
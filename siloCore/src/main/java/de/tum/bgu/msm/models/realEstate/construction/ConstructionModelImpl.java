@@ -6,6 +6,7 @@ import de.tum.bgu.msm.data.Zone;
 import de.tum.bgu.msm.data.accessibility.Accessibility;
 import de.tum.bgu.msm.data.development.Development;
 import de.tum.bgu.msm.data.dwelling.Dwelling;
+import de.tum.bgu.msm.data.dwelling.DwellingAggregates;
 import de.tum.bgu.msm.data.dwelling.DwellingFactory;
 import de.tum.bgu.msm.data.dwelling.DwellingType;
 import de.tum.bgu.msm.data.dwelling.RealEstateDataManager;
@@ -20,7 +21,6 @@ import org.locationtech.jts.geom.Coordinate;
 
 import java.io.PrintWriter;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Build new dwellings based on current demand. Model works in two steps. At the end of each simulation period,
@@ -43,7 +43,7 @@ public class ConstructionModelImpl extends AbstractModel implements Construction
 
     private float betaForZoneChoice;
     private float priceIncreaseForNewDwelling;
-    private Map<Integer, List<Dwelling>> dwellingsByRegion;
+    private Map<Integer, Integer> dwellingCountByRegion;
     PrintWriter pwd;
 
 
@@ -74,9 +74,14 @@ public class ConstructionModelImpl extends AbstractModel implements Construction
 
     @Override
     public void prepareYear(int year) {
-        dwellingsByRegion = dataContainer.getRealEstateDataManager().getDwellings()
-                .stream().collect(Collectors.groupingBy(d -> geoData.getZones().get(d.getZoneId()).getRegion().getId()
-        ));
+        final DwellingAggregates aggregates = dataContainer.getRealEstateDataManager().getDwellingAggregates();
+        dwellingCountByRegion = new HashMap<>();
+        for (int region : geoData.getRegions().keySet()) {
+            final int dwellingsInRegion = aggregates.getCountInRegion(region);
+            if (dwellingsInRegion > 0) {
+                dwellingCountByRegion.put(region, dwellingsInRegion);
+            }
+        }
     }
 
     @Override
@@ -88,32 +93,35 @@ public class ConstructionModelImpl extends AbstractModel implements Construction
         RealEstateDataManager realEstate = dataContainer.getRealEstateDataManager();
         logger.info("  Planning dwellings to be constructed from " + year + " to " + (year + 1));
 
+        // all dwelling aggregates are taken from the ones calculated at the beginning of the year, as no dwelling has changed since
+        final DwellingAggregates aggregates = realEstate.getDwellingAggregates();
+
         // calculate demand by region
-        double[][] vacancyByRegion = realEstate.getVacancyRateByTypeAndRegion();
+        double[][] vacancyByRegion = calculateVacancyRateByTypeAndRegion(aggregates);
 
         List<DwellingType> dwellingTypes = realEstate.getDwellingTypes().getTypes();
         double[][] demandByRegion = new double[dwellingTypes.size()][geoData.getRegions().keySet().stream().max(Comparator.naturalOrder()).get() + 1];
-        double[][] avePriceByTypeAndZone = calculateScaledAveragePriceByZone(100);
-        double[][] aveAbsolutePriceByTypeAndZone = calculateAbsoluteAveragePriceByZone();
-        double[][] avePriceByTypeAndRegion = calculateScaledAveragePriceByRegion(100);
-        double[][] aveAbsolutePriceByTypeAndRegion = calculateAbosluteAveragePriceByRegion();
-        float[][] aveSizeByTypeAndRegion = calculateAverageSizeByTypeAndByRegion();
+        double[][] aveAbsolutePriceByTypeAndZone = calculateAbsoluteAveragePriceByZone(aggregates);
+        double[][] avePriceByTypeAndZone = scaleByType(aveAbsolutePriceByTypeAndZone, 100);
+        double[][] aveAbsolutePriceByTypeAndRegion = calculateAbsoluteAveragePriceByRegion(aggregates);
+        double[][] avePriceByTypeAndRegion = scaleByType(aveAbsolutePriceByTypeAndRegion, 100);
+        float[][] aveSizeByTypeAndRegion = calculateAverageSizeByTypeAndByRegion(aggregates);
 
 
         for (DwellingType dt : dwellingTypes) {
             int dto = dwellingTypes.indexOf(dt);
             for (int region : geoData.getRegions().keySet()) {
-                if (dwellingsByRegion.containsKey(region)){
-                    demandByRegion[dto][region] = demandStrategy.calculateConstructionDemand(vacancyByRegion[dto][region], dt, dwellingsByRegion.get(region).size());
+                if (dwellingCountByRegion.containsKey(region)){
+                    demandByRegion[dto][region] = demandStrategy.calculateConstructionDemand(vacancyByRegion[dto][region], dt, dwellingCountByRegion.get(region));
                 } else {
-                    //regions that, after scaling down the population, do not have any dwelling, thus are not in the map dwellingsByRegion
+                    //regions that, after scaling down the population, do not have any dwelling, thus are not in the map dwellingCountByRegion
                     demandByRegion[dto][region] = 0;
                 }
 
             }
         }
         // try to satisfy demand, build more housing in zones with particularly low vacancy rates, if available land use permits
-        int[][] existingDwellings = realEstate.getDwellingCountByTypeAndRegion();
+        int[][] existingDwellings = calculateDwellingCountByTypeAndRegion(aggregates);
 
 
         final int highestZoneId = geoData.getZones().keySet().stream().max(Comparator.naturalOrder()).get();
@@ -244,72 +252,63 @@ public class ConstructionModelImpl extends AbstractModel implements Construction
         pwd.close();
     }
 
-    private double[][] calculateScaledAveragePriceByZone(float scaler) {
-        // calculate scaled average housing price by dwelling type and zone
-
-        RealEstateDataManager realEstate = dataContainer.getRealEstateDataManager();
-        List<DwellingType> dwellingTypes = realEstate.getDwellingTypes().getTypes();
+    private double[][] calculateVacancyRateByTypeAndRegion(DwellingAggregates aggregates) {
+        // calculate vacancy rate by dwelling type and region
+        List<DwellingType> dwellingTypes = aggregates.getTypes();
+        double[][] vacancyRate = new double[dwellingTypes.size()][aggregates.getHighestRegionId() + 1];
+        for (int dto = 0; dto < dwellingTypes.size(); dto++) {
+            for (int region : geoData.getRegions().keySet()) {
+                vacancyRate[dto][region] = aggregates.getVacancyRateInRegion(dto, region);
+            }
+        }
+        return vacancyRate;
+    }
 
-        final int highestZoneId = geoData.getZones().keySet().stream().max(Comparator.naturalOrder()).get();
-        double[][] avePrice = new double[dwellingTypes.size()][highestZoneId + 1];
-        int[][] counter = new int[dwellingTypes.size()][highestZoneId + 1];
-        for (Dwelling dd : realEstate.getDwellings()) {
-            int dt = dwellingTypes.indexOf(dd.getType());
-            int zone = geoData.getZones().get(dd.getZoneId()).getZoneId();
-            counter[dt][zone]++;
-            avePrice[dt][zone] += dd.getPrice();
+    private int[][] calculateDwellingCountByTypeAndRegion(DwellingAggregates aggregates) {
+        // count dwellings by dwelling type and region, starting at one like RealEstateDataManager#getDwellingCountByTypeAndRegion
+        List<DwellingType> dwellingTypes = aggregates.getTypes();
+        int[][] dwellingCount = new int[dwellingTypes.size()][aggregates.getHighestRegionId() + 1];
+        for (int dto = 0; dto < dwellingTypes.size(); dto++) {
+            for (int region = 0; region <= aggregates.getHighestRegionId(); region++) {
+                dwellingCount[dto][region] = 1 + aggregates.getCountInRegion(dto, region);
+            }
         }
-        for (DwellingType dt : dwellingTypes) {
-            int dto = dwellingTypes.indexOf(dt);
-            double[] avePriceThisType = new double[highestZoneId + 1];
+        return dwellingCount;
+    }
+
+    private double[][] calculateAbsoluteAveragePriceByZone(DwellingAggregates aggregates) {
+        // calculate average housing price by dwelling type and zone
+        List<DwellingType> dwellingTypes = aggregates.getTypes();
+        double[][] avePrice = new double[dwellingTypes.size()][aggregates.getHighestZoneId() + 1];
+        for (int dto = 0; dto < dwellingTypes.size(); dto++) {
             for (int zone : geoData.getZones().keySet()) {
-                if (counter[dto][zone] > 0) {
-                    avePriceThisType[zone] = avePrice[dto][zone] / counter[dto][zone];
-                } else {
-                    avePriceThisType[zone] = 0;
-                }
-            }
-            double[] scaledAvePriceThisDwellingType = SiloUtil.scaleArray(avePriceThisType, scaler);
-            for (int zones : geoData.getZones().keySet()) {
-                avePrice[dto][zones] = scaledAvePriceThisDwellingType[zones];
+                avePrice[dto][zone] = aggregates.getAveragePriceInZone(dto, zone);
             }
         }
         return avePrice;
     }
 
-    private double[][] calculateAbsoluteAveragePriceByZone() {
-        // calculate scaled average housing price by dwelling type and zone
-
-        RealEstateDataManager realEstate = dataContainer.getRealEstateDataManager();
-        List<DwellingType> dwellingTypes = realEstate.getDwellingTypes().getTypes();
-
-        final int highestZoneId = geoData.getZones().keySet().stream().max(Comparator.naturalOrder()).get();
-        double[][] avePrice = new double[dwellingTypes.size()][highestZoneId + 1];
-        int[][] counter = new int[dwellingTypes.size()][highestZoneId + 1];
-        for (Dwelling dd : realEstate.getDwellings()) {
-            int dt = dwellingTypes.indexOf(dd.getType());
-            int zone = geoData.getZones().get(dd.getZoneId()).getZoneId();
-            counter[dt][zone]++;
-            avePrice[dt][zone] += dd.getPrice();
-        }
-        for (DwellingType dt : dwellingTypes) {
-            int dto = dwellingTypes.indexOf(dt);
-            double[] avePriceThisType = new double[highestZoneId + 1];
-            for (int zone : geoData.getZones().keySet()) {
-                if (counter[dto][zone] > 0) {
-                    avePriceThisType[zone] = avePrice[dto][zone] / counter[dto][zone];
-                } else {
-                    avePriceThisType[zone] = 0;
-                }
-            }
-            double[] scaledAvePriceThisDwellingType = avePriceThisType;
-            for (int zones : geoData.getZones().keySet()) {
-                avePrice[dto][zones] = scaledAvePriceThisDwellingType[zones];
+    private double[][] calculateAbsoluteAveragePriceByRegion(DwellingAggregates aggregates) {
+        // calculate average housing price by dwelling type and region
+        List<DwellingType> dwellingTypes = aggregates.getTypes();
+        double[][] avePrice = new double[dwellingTypes.size()][aggregates.getHighestRegionId() + 1];
+        for (int dto = 0; dto < dwellingTypes.size(); dto++) {
+            for (int region : geoData.getRegions().keySet()) {
+                avePrice[dto][region] = aggregates.getAveragePriceInRegion(dto, region);
             }
         }
         return avePrice;
     }
 
+    private static double[][] scaleByType(double[][] valuesByType, float scaler) {
+        // scale values of every dwelling type so that the largest value equals scaler
+        double[][] scaled = new double[valuesByType.length][];
+        for (int dto = 0; dto < valuesByType.length; dto++) {
+            scaled[dto] = SiloUtil.scaleArray(valuesByType[dto].clone(), scaler);
+        }
+        return scaled;
+    }
+
 
 
     private ConstructionEvent createNewDwelling(RealEstateDataManager realEstate, float[][] aveSizeByTypeAndRegion,
@@ -373,88 +372,13 @@ public class ConstructionModelImpl extends AbstractModel implements Construction
     }
 
 
-    private double[][] calculateScaledAveragePriceByRegion(float scaler) {
-
-        RealEstateDataManager realEstate = dataContainer.getRealEstateDataManager();
-        List<DwellingType> dwellingTypes = realEstate.getDwellingTypes().getTypes();
-        final int highestRegionId = geoData.getRegions().keySet().stream().max(Comparator.naturalOrder()).get();
-        double[][] avePrice = new double[dwellingTypes.size()][highestRegionId + 1];
-        int[][] counter = new int[dwellingTypes.size()][highestRegionId + 1];
-        for (Dwelling dd : realEstate.getDwellings()) {
-            int dt = dwellingTypes.indexOf(dd.getType());
-            int region = geoData.getZones().get(dd.getZoneId()).getRegion().getId();
-            counter[dt][region]++;
-            avePrice[dt][region] += dd.getPrice();
-        }
-        for (DwellingType dt : dwellingTypes) {
-            int dto = dwellingTypes.indexOf(dt);
-            double[] avePriceThisType = new double[highestRegionId + 1];
-            for (int region : geoData.getRegions().keySet()) {
-                if (counter[dto][region] > 0) {
-                    avePriceThisType[region] = avePrice[dto][region] / counter[dto][region];
-                } else {
-                    avePriceThisType[region] = 0;
-                }
-            }
-            double[] scaledAvePriceThisDwellingType = SiloUtil.scaleArray(avePriceThisType, scaler);
-            for (int region : geoData.getRegions().keySet()) {
-                avePrice[dto][region] = scaledAvePriceThisDwellingType[region];
-            }
-        }
-        return avePrice;
-    }
-
-    private double[][] calculateAbosluteAveragePriceByRegion() {
-
-        RealEstateDataManager realEstate = dataContainer.getRealEstateDataManager();
-        List<DwellingType> dwellingTypes = realEstate.getDwellingTypes().getTypes();
-        final int highestRegionId = geoData.getRegions().keySet().stream().max(Comparator.naturalOrder()).get();
-        double[][] avePrice = new double[dwellingTypes.size()][highestRegionId + 1];
-        int[][] counter = new int[dwellingTypes.size()][highestRegionId + 1];
-        for (Dwelling dd : realEstate.getDwellings()) {
-            int dt = dwellingTypes.indexOf(dd.getType());
-            int region = geoData.getZones().get(dd.getZoneId()).getRegion().getId();
-            counter[dt][region]++;
-            avePrice[dt][region] += dd.getPrice();
-        }
-        for (DwellingType dt : dwellingTypes) {
-            int dto = dwellingTypes.indexOf(dt);
-            double[] avePriceThisType = new double[highestRegionId + 1];
-            for (int region : geoData.getRegions().keySet()) {
-                if (counter[dto][region] > 0) {
-                    avePriceThisType[region] = avePrice[dto][region] / counter[dto][region];
-                } else {
-                    avePriceThisType[region] = 0;
-                }
-            }
-            double[] scaledAvePriceThisDwellingType = avePriceThisType;
-            for (int region : geoData.getRegions().keySet()) {
-                avePrice[dto][region] = scaledAvePriceThisDwellingType[region];
-            }
-        }
-        return avePrice;
-    }
-
-    private float[][] calculateAverageSizeByTypeAndByRegion() {
+    private float[][] calculateAverageSizeByTypeAndByRegion(DwellingAggregates aggregates) {
         // calculate average housing size by dwelling type and region
-        final int highestRegionId = geoData.getRegions().keySet().stream().max(Comparator.naturalOrder()).get();
-        List<DwellingType> dwellingTypes = dataContainer.getRealEstateDataManager().getDwellingTypes().getTypes();
-        float[][] aveSize = new float[dwellingTypes.size()][highestRegionId + 1];
-        int[][] counter = new int[dwellingTypes.size()][highestRegionId + 1];
-        for (Dwelling dd : dataContainer.getRealEstateDataManager().getDwellings()) {
-            int dt = dwellingTypes.indexOf(dd.getType());
-            int region = geoData.getZones().get(dd.getZoneId()).getRegion().getId();
-            counter[dt][region]++;
-            aveSize[dt][region] += dd.getBedrooms();
-        }
-        for (DwellingType dt : dwellingTypes) {
-            int dto = dwellingTypes.indexOf(dt);
+        List<DwellingType> dwellingTypes = aggregates.getTypes();
+        float[][] aveSize = new float[dwellingTypes.size()][aggregates.getHighestRegionId() + 1];
+        for (int dto = 0; dto < dwellingTypes.size(); dto++) {
             for (int region : geoData.getRegions().keySet()) {
-                if (counter[dto][region] > 0) {
-                    aveSize[dto][region] = aveSize[dto][region] / counter[dto][region];
-                } else {
-                    aveSize[dto][region] = 0;
-                }
+                aveSize[dto][region] = aggregates.getAverageSizeInRegion(dto, region);
             }
         }
         // catch if one region should not have a given dwelling type (should almost never happen, but theoretically possible)
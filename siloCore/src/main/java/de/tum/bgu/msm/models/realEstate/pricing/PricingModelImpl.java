@@ -2,6 +2,7 @@ package de.tum.bgu.msm.models.realEstate.pricing;
 
 import de.tum.bgu.msm.container.DataContainer;
 import de.tum.bgu.msm.data.dwelling.Dwelling;
+import de.tum.bgu.msm.data.dwelling.DwellingAggregates;
 import de.tum.bgu.msm.data.dwelling.DwellingType;
 import de.tum.bgu.msm.models.AbstractModel;
 import de.tum.bgu.msm.properties.Properties;
@@ -72,8 +73,8 @@ public final class PricingModelImpl extends AbstractModel implements PricingMode
         // updated prices based on current demand
         logger.info("  Updating real-estate prices at the end of " + year);
 
-        // get vacancy rate
-        double[][] vacRate = dataContainer.getRealEstateDataManager().getVacancyRateByTypeAndRegion();
+        // get vacancy rate from the aggregates shared with the other models ending the year
+        final DwellingAggregates aggregates = dataContainer.getRealEstateDataManager().getDwellingAggregates();
         List<DwellingType> dwellingTypes = dataContainer.getRealEstateDataManager().getDwellingTypes().getTypes();
 //        HashMap<String, Integer> priceChange = new LinkedHashMap<>();
 
@@ -87,7 +88,7 @@ public final class PricingModelImpl extends AbstractModel implements PricingMode
             int dto = dwellingTypes.indexOf(dd.getType());
             int currentPrice = dd.getPrice();
             int region = dataContainer.getGeoData().getZones().get(dd.getZoneId()).getRegion().getId();
-            double vacancyRateAtThisRegion = vacRate[dto][region];
+            double vacancyRateAtThisRegion = aggregates.getVacancyRateInRegion(dto, region);
             float structuralVacancyRate = dd.getType().getStructuralVacancyRate();
             double changeRate;
             if (vacancyRateAtThisRegion == 0) {
@@ -114,7 +115,7 @@ public final class PricingModelImpl extends AbstractModel implements PricingMode
             cnt[dto]++;
             sumOfPrices[dto] += newPrice;
 
-//            String token = dto+"_"+vacRate[dto][region]+"_"+currentPrice+"_"+newPrice;
+//            String token = dto+"_"+vacancyRateAtThisRegion+"_"+currentPrice+"_"+newPrice;
 //            if (priceChange.containsKey(token)) {
 //                priceChange.put(token, (priceChange.get(token) + 1));
 //            } else {
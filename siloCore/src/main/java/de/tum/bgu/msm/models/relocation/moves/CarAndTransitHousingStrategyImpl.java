@@ -1,6 +1,7 @@
 package de.tum.bgu.msm.models.relocation.moves;
 
 import de.tum.bgu.msm.container.DataContainer;
+import de.tum.bgu.msm.data.OneToManyTravelTimes;
 import de.tum.bgu.msm.data.Region;
 import de.tum.bgu.msm.data.Zone;
 import de.tum.bgu.msm.data.accessibility.Accessibility;
@@ -25,10 +26,13 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.matsim.api.core.v01.TransportMode;
 
+import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 import static de.tum.bgu.msm.data.dwelling.RealEstateUtils.RENT_CATEGORIES;
 
@@ -126,25 +130,33 @@ public class CarAndTransitHousingStrategyImpl implements HousingStrategy {
         double travelCostUtility = 1; //do not have effect at the moment;
         double factorForThisZone;
         JobDataManager jobDataManager = dataContainer.getJobDataManager();
-        double workDistanceUtility = 1;
+        final List<Job> jobs = new ArrayList<>();
         for (Person pp: hh.getPersons().values()) {
             if (pp.getOccupation() == Occupation.EMPLOYED && pp.getJobId() != -2) {
-                final Job job = jobDataManager.getJobFromId(pp.getJobId());
-                if(carToWorkersRatio == 0.) {
-                    int ptTime = (int) travelTimes.getTravelTime(dwelling, job, properties.transportModel.peakHour_s, TransportMode.pt);
-                    factorForThisZone = commutingTimeProbability.getCommutingTimeProbability(Math.max(1, ptTime), TransportMode.pt);
-                } else if( carToWorkersRatio == 1.) {
-                    int carTime = (int) travelTimes.getTravelTime(dwelling, job,  properties.transportModel.peakHour_s, TransportMode.car);
-                    factorForThisZone = commutingTimeProbability.getCommutingTimeProbability(Math.max(1, carTime), TransportMode.car);
-                } else {
-                    int carTime = (int) travelTimes.getTravelTime(dwelling, job,  properties.transportModel.peakHour_s, TransportMode.car);
-                    int ptTime = (int) travelTimes.getTravelTime(dwelling, job,  properties.transportModel.peakHour_s, TransportMode.pt);
-                    double factorCar = commutingTimeProbability.getCommutingTimeProbability(Math.max(1, carTime), TransportMode.car);
-                    double factorPt = commutingTimeProbability.getCommutingTimeProbability(Math.max(1, ptTime), TransportMode.pt);
-                    factorForThisZone= factorCar * carToWorkersRatio + (1 - carToWorkersRatio) * factorPt;
-                }
-                workDistanceUtility *= factorForThisZone;
+                jobs.add(jobDataManager.getJobFromId(pp.getJobId()));
+            }
+        }
+        // one query per mode from the dwelling to the jobs of all workers
+        final double[] carTimes = carToWorkersRatio == 0. || jobs.isEmpty() ? null : OneToManyTravelTimes.getTravelTimes(
+                travelTimes, dwelling, jobs, properties.transportModel.peakHour_s, TransportMode.car);
+        final double[] ptTimes = carToWorkersRatio == 1. || jobs.isEmpty() ? null : OneToManyTravelTimes.getTravelTimes(
+                travelTimes, dwelling, jobs, properties.transportModel.peakHour_s, TransportMode.pt);
+        double workDistanceUtility = 1;
+        for (int i = 0; i < jobs.size(); i++) {
+            if(carToWorkersRatio == 0.) {
+                int ptTime = (int) ptTimes[i];
+                factorForThisZone = commutingTimeProbability.getCommutingTimeProbability(Math.max(1, ptTime), TransportMode.pt);
+            } else if( carToWorkersRatio == 1.) {
+                int carTime = (int) carTimes[i];
+                factorForThisZone = commutingTimeProbability.getCommutingTimeProbability(Math.max(1, carTime), TransportMode.car);
+            } else {
+                int carTime = (int) carTimes[i];
+                int ptTime = (int) ptTimes[i];
+                double factorCar = commutingTimeProbability.getCommutingTimeProbability(Math.max(1, carTime), TransportMode.car);
+                double factorPt = commutingTimeProbability.getCommutingTimeProbability(Math.max(1, ptTime), TransportMode.pt);
+                factorForThisZone= factorCar * carToWorkersRatio + (1 - carToWorkersRatio) * factorPt;
             }
+            workDistanceUtility *= factorForThisZone;
         }
         return dwellingUtilityStrategy.calculateSelectDwellingUtility(ht, ddSizeUtility, ddPriceUtility,
                 ddQualityUtility, ddAutoAccessibilityUtility,
@@ -210,6 +222,14 @@ public class CarAndTransitHousingStrategyImpl implements HousingStrategy {
         return strategy;
     }
 
+    /**
+     * This strategy does not make random decisions.
+     */
+    @Override
+    public HousingStrategy duplicate(Random random) {
+        return duplicate();
+    }
+
     private void calculateShareOfForeignersByZoneAndRegion() {
         final IndexedDoubleMatrix1D hhByZone = new IndexedDoubleMatrix1D(geoData.getZones().values());
         hhByRegion.assign(0);
@@ -1,6 +1,7 @@
 package de.tum.bgu.msm.models.relocation.moves;
 
 import de.tum.bgu.msm.container.DataContainer;
+import de.tum.bgu.msm.data.OneToManyTravelTimes;
 import de.tum.bgu.msm.data.Region;
 import de.tum.bgu.msm.data.Zone;
 import de.tum.bgu.msm.data.accessibility.Accessibility;
@@ -23,10 +24,13 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.matsim.api.core.v01.TransportMode;
 
+import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 import static de.tum.bgu.msm.data.dwelling.RealEstateUtils.RENT_CATEGORIES;
 
@@ -121,17 +125,26 @@ public class CarOnlyHousingStrategyImpl implements HousingStrategy {
         double travelCostUtility = 1; //do not have effect at the moment;
 
         JobDataManager jobDataManager = dataContainer.getJobDataManager();
-        double workDistanceUtility = 1;
+        final List<Job> jobs = new ArrayList<>();
         for (Person pp: hh.getPersons().values()) {
             if (pp.getOccupation() == Occupation.EMPLOYED && pp.getJobId() != -2) {
                 final Job job = jobDataManager.getJobFromId(pp.getJobId());
                 if(job != null) {
-                    int expectedCommuteTime = (int) travelTimes.getTravelTime(dwelling, job, properties.transportModel.peakHour_s, TransportMode.car);
-                    double factorForThisZone = commutingTimeProbability.getCommutingTimeProbability(Math.max(1, expectedCommuteTime), TransportMode.car);
-                    workDistanceUtility *= factorForThisZone;
+                    jobs.add(job);
                 }
             }
         }
+        double workDistanceUtility = 1;
+        if (!jobs.isEmpty()) {
+            // one query from the dwelling to the jobs of all workers
+            final double[] commuteTimes = OneToManyTravelTimes.getTravelTimes(travelTimes, dwelling, jobs,
+                    properties.transportModel.peakHour_s, TransportMode.car);
+            for (double commuteTime : commuteTimes) {
+                int expectedCommuteTime = (int) commuteTime;
+                double factorForThisZone = commutingTimeProbability.getCommutingTimeProbability(Math.max(1, expectedCommuteTime), TransportMode.car);
+                workDistanceUtility *= factorForThisZone;
+            }
+        }
         return dwellingUtilityStrategy.calculateSelectDwellingUtility(ht, ddSizeUtility, ddPriceUtility,
                 ddQualityUtility, ddAutoAccessibilityUtility,
                 0, workDistanceUtility);
@@ -183,6 +196,14 @@ public class CarOnlyHousingStrategyImpl implements HousingStrategy {
         return strategy;
     }
 
+    /**
+     * This strategy does not make random decisions.
+     */
+    @Override
+    public HousingStrategy duplicate(Random random) {
+        return duplicate();
+    }
+
     private void calculateShareOfForeignersByZoneAndRegion() {
         final IndexedDoubleMatrix1D hhByZone = new IndexedDoubleMatrix1D(geoData.getZones().values());
         hhByRegion.assign(0);
@@ -0,0 +1,120 @@
+package de.tum.bgu.msm.models.relocation.moves;
+
+import de.tum.bgu.msm.data.dwelling.Dwelling;
+import de.tum.bgu.msm.data.household.Household;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Evaluates the selection probabilities of the candidate dwellings of a searching household in parallel.
+ * Every worker owns a {@link SeededHousingStrategy} that is re-seeded with a seed drawn by the
+ * {@link MovesModelImpl} before each candidate is evaluated, so the result depends neither on the number
+ * of threads nor on the order in which candidates are picked up by the workers.
+ */
+final class DwellingUtilityEvaluator {
+
+    private final Worker[] workers;
+    private final List<Worker> tasks;
+    private final ExecutorService executor;
+
+    private final AtomicInteger nextCandidate = new AtomicInteger();
+    private Household household;
+    private Dwelling[] candidates;
+    private long[] seeds;
+    private double[] probabilities;
+
+    DwellingUtilityEvaluator(HousingStrategy housingStrategy, int threads) {
+        workers = new Worker[Math.max(threads, 1)];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker(new SeededHousingStrategy(housingStrategy));
+        }
+        tasks = Arrays.asList(workers);
+        executor = Executors.newFixedThreadPool(workers.length, runnable -> {
+            Thread thread = new Thread(runnable, "dwelling-search");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    int getNumberOfThreads() {
+        return workers.length;
+    }
+
+    /**
+     * Stores the selection probability of each candidate dwelling in the array of probabilities at the same index.
+     * Dwellings the household is not eligible to live in get a probability of zero.
+     */
+    static void evaluate(SeededHousingStrategy strategy, Household household,
+                         Dwelling[] candidates, long[] seeds, double[] probabilities) {
+        for (int i = 0; i < candidates.length; i++) {
+            probabilities[i] = evaluate(strategy, household, candidates[i], seeds[i]);
+        }
+    }
+
+    private static double evaluate(SeededHousingStrategy seededStrategy, Household household, Dwelling dwelling, long seed) {
+        return evaluate(seededStrategy.seed(seed), household, dwelling);
+    }
+
+    /**
+     * @return the selection probability of the dwelling, or zero if the household is not eligible to live in it
+     */
+    static double evaluate(HousingStrategy strategy, Household household, Dwelling dwelling) {
+        if (strategy.isHouseholdEligibleToLiveHere(household, dwelling)) {
+            final double util = strategy.calculateHousingUtility(household, dwelling);
+            return strategy.calculateSelectDwellingProbability(util);
+        } else {
+            return 0.0;
+        }
+    }
+
+    /**
+     * Same as {@link #evaluate(SeededHousingStrategy, Household, Dwelling[], long[], double[])}, but distributes
+     * the candidates among the workers of this evaluator.
+     */
+    void evaluate(Household household, Dwelling[] candidates, long[] seeds, double[] probabilities) {
+        this.household = household;
+        this.candidates = candidates;
+        this.seeds = seeds;
+        this.probabilities = probabilities;
+        nextCandidate.set(0);
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException("Could not evaluate dwellings for household " + household.getId(), e);
+        } finally {
+            this.household = null;
+            this.candidates = null;
+        }
+    }
+
+    void close() {
+        executor.shutdownNow();
+    }
+
+    private final class Worker implements Callable<Void> {
+
+        private final SeededHousingStrategy strategy;
+
+        private Worker(SeededHousingStrategy strategy) {
+            this.strategy = strategy;
+        }
+
+        @Override
+        public Void call() {
+            int i;
+            while ((i = nextCandidate.getAndIncrement()) < candidates.length) {
+                probabilities[i] = evaluate(strategy, household, candidates[i], seeds[i]);
+            }
+            return null;
+        }
+    }
+}
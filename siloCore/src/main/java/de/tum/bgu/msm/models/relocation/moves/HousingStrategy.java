@@ -5,6 +5,9 @@ import de.tum.bgu.msm.data.dwelling.Dwelling;
 import de.tum.bgu.msm.data.household.Household;
 import de.tum.bgu.msm.utils.Sampler;
 
+import java.util.List;
+import java.util.Random;
+
 /**
  * @author Nico
  * Interface specification of housing related utilities/decisions.
@@ -54,10 +57,32 @@ public interface HousingStrategy<T extends Dwelling> {
      */
     double calculateRegionalUtility(Household household, Region region);
 
+    /**
+     * Calculates the regional utilities of the given household for all given regions at once, as
+     * {@link #calculateRegionalUtility(Household, Region)} would in the order of the list, and writes them to
+     * the given array. Implementations can override this to do household specific work only once per household.
+     * @param utilities the array to write the utility of the i-th region to. Needs at least the size of the list.
+     */
+    default void calculateRegionalUtilities(Household household, List<Region> regions, double[] utilities) {
+        for (int i = 0; i < regions.size(); i++) {
+            utilities[i] = calculateRegionalUtility(household, regions.get(i));
+        }
+    }
+
     /**
      * This method duplicates the strategy object for usage in concurrent environments.
      * Implementations should ensure thread safety.
      * @return an independent/ thread safe copy of the strategy
      */
     HousingStrategy duplicate();
+
+    /**
+     * Duplicates the strategy like {@link #duplicate()}, but lets the copy draw all random decisions
+     * of the utility calculations (e.g. commute mode choice) from the given random number generator.
+     * This allows the {@link MovesModelImpl} to re-seed the copy for every evaluated dwelling, which keeps
+     * parallel dwelling searches reproducible. The copy must not draw from any random number generator it shares
+     * with other copies. Strategies without random decisions may return {@link #duplicate()}.
+     * @return an independent/ thread safe copy of the strategy that uses the given random number generator
+     */
+    HousingStrategy duplicate(Random random);
 }
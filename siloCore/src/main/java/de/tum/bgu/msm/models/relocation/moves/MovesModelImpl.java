@@ -12,10 +12,11 @@ import de.tum.bgu.msm.data.household.HouseholdType;
 import de.tum.bgu.msm.data.household.HouseholdUtil;
 import de.tum.bgu.msm.data.vehicle.VehicleType;
 import de.tum.bgu.msm.events.impls.household.MoveEvent;
+import de.tum.bgu.msm.io.checkpoint.Checkpointable;
 import de.tum.bgu.msm.io.output.YearByYearCsvModelTracker;
 import de.tum.bgu.msm.models.AbstractModel;
+import de.tum.bgu.msm.models.SpeculativeEventModel;
 import de.tum.bgu.msm.properties.Properties;
-import de.tum.bgu.msm.properties.modules.TransportModelPropertiesModule;
 import de.tum.bgu.msm.util.concurrent.ConcurrentExecutor;
 import de.tum.bgu.msm.utils.SampleException;
 import de.tum.bgu.msm.utils.Sampler;
@@ -25,21 +26,25 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.locationtech.jts.geom.Coordinate;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Nico
  * Default implementation of the {@link MovesModel} interface. Implements general dwelling search
  * and move logic based on housing satisfaction/utility. The actual utility calculations are defined
  * in the {@link HousingStrategy} argument.
+ * Move events can be decided speculatively in batches, see {@link SpeculativeEventModel}. A decision is the id of
+ * the chosen dwelling, {@link #NO_DWELLING_FOUND} or {@link #STAY}.
  */
-public class MovesModelImpl extends AbstractModel implements MovesModel {
+public class MovesModelImpl extends AbstractModel implements MovesModel, SpeculativeEventModel<MoveEvent, Integer>, Checkpointable {
 
 //    public static BufferedWriter fileWriter;
 
@@ -48,11 +53,18 @@ public class MovesModelImpl extends AbstractModel implements MovesModel {
     protected final static Logger logger = LogManager.getLogger(MovesModelImpl.class);
     private static final int MAX_NUMBER_DWELLINGS = 20;
 
+    private static final int STAY = 0;
+    private static final int NO_DWELLING_FOUND = -1;
+
     private final MovesStrategy movesStrategy;
     private final HousingStrategy housingStrategy;
 
-    private final boolean threaded = false;
-    // switching this off since we are searching for randomness in regression tests
+    private final boolean seededSearch;
+    private DwellingUtilityEvaluator dwellingUtilityEvaluator;
+    private final Queue<SeededHousingStrategy> seededStrategies = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger repeatedSearches = new AtomicInteger();
+    private volatile int committedMoves = 0;
+    private final Map<Integer, Integer> committedMovesAtDecision = new ConcurrentHashMap<>();
 
     private final Map<HouseholdType, Double> averageHousingSatisfaction = new ConcurrentHashMap<>();
     private final Map<Integer, Double> satisfactionByHousehold = new ConcurrentHashMap<>();
@@ -73,7 +85,7 @@ public class MovesModelImpl extends AbstractModel implements MovesModel {
 //        }
         this.movesStrategy = movesStrategy;
         this.housingStrategy = housingStrategy;
-//        this.threaded = properties.transportModel.travelTimeImplIdentifier == TransportModelPropertiesModule.TravelTimeImplIdentifier.MATSIM;
+        this.seededSearch = properties.moves.parallelDwellingSearch || properties.main.eventBatchSize > 1;
     }
 
     @Override
@@ -91,6 +103,34 @@ public class MovesModelImpl extends AbstractModel implements MovesModel {
         calculateAverageHousingUtility();
         track = true;
         relocationTracker.newYear(year);
+        seededStrategies.clear();
+        repeatedSearches.set(0);
+        committedMovesAtDecision.clear();
+        startDwellingUtilityEvaluator();
+    }
+
+    /**
+     * Writes the average housing satisfaction by household type. Its values are recalculated every year, but
+     * household types of earlier years are kept even if there is no such household anymore.
+     */
+    @Override
+    public void writeCheckpoint(DataOutput out) throws IOException {
+        final Map<HouseholdType, Double> satisfactions = new EnumMap<>(HouseholdType.class);
+        satisfactions.putAll(averageHousingSatisfaction);
+        out.writeInt(satisfactions.size());
+        for (Map.Entry<HouseholdType, Double> satisfaction : satisfactions.entrySet()) {
+            out.writeUTF(satisfaction.getKey().name());
+            out.writeDouble(satisfaction.getValue());
+        }
+    }
+
+    @Override
+    public void readCheckpoint(DataInput in) throws IOException {
+        averageHousingSatisfaction.clear();
+        final int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            averageHousingSatisfaction.put(HouseholdType.valueOf(in.readUTF()), in.readDouble());
+        }
     }
 
     @Override
@@ -99,22 +139,40 @@ public class MovesModelImpl extends AbstractModel implements MovesModel {
         for (Household hh : dataContainer.getHouseholdDataManager().getHouseholds()) {
             events.add(new MoveEvent(hh.getId()));
         }
-        if (threaded) {
-            final int threads = Math.max(properties.main.numberOfThreads - 1, 1);
-            UtilityUtils.startThreads(housingStrategy, threads);
-            logger.info("=========> Started " + threads + " background threads for dwelling utility evaluation");
-        }
-
         return events;
     }
 
     @Override
     public void endYear(int year) {
-        UtilityUtils.endYear();
+        closeDwellingUtilityEvaluator();
+        if (repeatedSearches.get() > 0) {
+            logger.info("Repeated " + repeatedSearches.get() + " dwelling searches as the chosen dwelling was taken or other " +
+                    "dwellings were vacated earlier in the same batch.");
+        }
+    }
+
+    /**
+     * Duplicates the housing strategy for the parallel dwelling search of this year. This has to happen after the
+     * strategy has been prepared for the year, as the copies share the regional utilities of the original.
+     */
+    private void startDwellingUtilityEvaluator() {
+        closeDwellingUtilityEvaluator();
+        if (properties.moves.parallelDwellingSearch) {
+            dwellingUtilityEvaluator = new DwellingUtilityEvaluator(housingStrategy, properties.main.numberOfThreads);
+            logger.info("=========> Using " + dwellingUtilityEvaluator.getNumberOfThreads() + " thread(s) for dwelling utility evaluation");
+        }
+    }
+
+    private void closeDwellingUtilityEvaluator() {
+        if (dwellingUtilityEvaluator != null) {
+            dwellingUtilityEvaluator.close();
+            dwellingUtilityEvaluator = null;
+        }
     }
 
     @Override
     public void endSimulation() {
+        closeDwellingUtilityEvaluator();
         relocationTracker.end();
 //        try {
 //            fileWriter.close();
@@ -124,34 +182,108 @@ public class MovesModelImpl extends AbstractModel implements MovesModel {
     }
 
     /**
-     * Simulates (a) if this household moves and (b) where this household moves
+     * Simulates (a) if this household moves and (b) where this household moves. Unless dwellings are searched in
+     * parallel or events are batched, all random draws are taken from the random stream of the model in the same
+     * order as in sequential runs without per-event seeds.
      */
     @Override
     public boolean handleEvent(MoveEvent event) {
-
-        int hhId = event.getHouseholdId();
-        Household household = dataContainer.getHouseholdDataManager().getHouseholdFromId(hhId);
+        if (seededSearch) {
+            final long seed = drawSeed();
+            return commit(event, decide(event, seed, true), seed);
+        }
+        Household household = dataContainer.getHouseholdDataManager().getHouseholdFromId(event.getHouseholdId());
         if (household == null) {
             // Household does not exist anymore
             return false;
         }
+        if (!moveOrNot(household, random.nextDouble(), housingStrategy)) {
+            return false;
+        }
+        return move(household, searchForNewDwelling(household, random, null, false));
+    }
+
+    @Override
+    public long drawSeed() {
+        return random.nextLong();
+    }
+
+    @Override
+    public Integer decide(MoveEvent event, long seed) {
+        return decide(event, seed, false);
+    }
+
+    private int decide(MoveEvent event, long seed, boolean parallelEvaluation) {
+        Household household = dataContainer.getHouseholdDataManager().getHouseholdFromId(event.getHouseholdId());
+        if (household == null) {
+            // Household does not exist anymore
+            return STAY;
+        }
+        final Random eventRandom = new Random(seed);
+        final double moveDraw = eventRandom.nextDouble();
+        final long searchSeed = eventRandom.nextLong();
 
         // Step 1: Consider relocation if household is not very satisfied or if
         // household income exceed restriction for low-income dwelling
-        if (!moveOrNot(household)) {
-            return false;
+        final SeededHousingStrategy strategy = acquireSeededStrategy();
+        final boolean move;
+        try {
+            move = moveOrNot(household, moveDraw, strategy.seed(seed));
+        } finally {
+            seededStrategies.offer(strategy);
+        }
+        if (!move) {
+            return STAY;
         }
 
-        final int idOldDd = household.getDwellingId();
         // Step 2: Choose new dwelling
-        int idNewDD = searchForNewDwelling(household);
+        final int idNewDD = searchForNewDwelling(household, searchSeed, parallelEvaluation);
+        if (idNewDD > 0) {
+            return idNewDD;
+        }
+        // remember the vacancies the search failed on, see commit
+        committedMovesAtDecision.put(household.getId(), committedMoves);
+        return NO_DWELLING_FOUND;
+    }
 
+    @Override
+    public boolean commit(MoveEvent event, Integer decision, long seed) {
+        if (decision == STAY) {
+            return false;
+        }
+        int hhId = event.getHouseholdId();
+        Household household = dataContainer.getHouseholdDataManager().getHouseholdFromId(hhId);
+        if (household == null) {
+            return false;
+        }
+
+        int idNewDD = decision;
+        final Integer committedMovesAtSearch = committedMovesAtDecision.remove(hhId);
+        final boolean dwellingTaken = idNewDD > 0
+                && dataContainer.getRealEstateDataManager().getDwelling(idNewDD).getResidentId() > 0;
+        final boolean dwellingsVacated = idNewDD == NO_DWELLING_FOUND
+                && committedMovesAtSearch != null && committedMovesAtSearch != committedMoves;
+        if (dwellingTaken || dwellingsVacated) {
+            // the dwelling has been taken, or households committed earlier in the same batch have vacated dwellings
+            // the search did not know of. Search again with the same random stream against the current vacancies.
+            final Random eventRandom = new Random(seed);
+            eventRandom.nextDouble();
+            idNewDD = searchForNewDwelling(household, eventRandom.nextLong(), true);
+            repeatedSearches.incrementAndGet();
+        }
+        return move(household, idNewDD);
+    }
+
+    private boolean move(Household household, int idNewDD) {
+        final int hhId = household.getId();
+        final int idOldDd = household.getDwellingId();
         if (idNewDD > 0) {
 
             // Step 3: Move household
             dataContainer.getHouseholdDataManager().saveHouseholdMemento(household);
             printMove(household, idOldDd, idNewDD);
             moveHousehold(household, idOldDd, idNewDD);
+            committedMoves++;
             if (hhId == SiloUtil.trackHh) {
                 SiloUtil.trackWriter.println("Household " + hhId + " has moved to newDwelling " +
                         idOldDd);
@@ -198,19 +330,54 @@ public class MovesModelImpl extends AbstractModel implements MovesModel {
 
     @Override
     public int searchForNewDwelling(Household household) {
+        if (seededSearch) {
+            return searchForNewDwelling(household, random.nextLong(), true);
+        }
+        return searchForNewDwelling(household, random, null, false);
+    }
 
+    /**
+     * Every search draws from its own random stream, such that the outcome does not depend on the thread
+     * the search runs on or on how the evaluation of candidate dwellings is distributed among threads.
+     * @param parallelEvaluation  whether candidate dwellings may be evaluated by the parallel dwelling search
+     */
+    private int searchForNewDwelling(Household household, long seed, boolean parallelEvaluation) {
+        final SeededHousingStrategy strategy = acquireSeededStrategy();
+        try {
+            return searchForNewDwelling(household, new Random(seed), strategy, parallelEvaluation);
+        } finally {
+            seededStrategies.offer(strategy);
+        }
+    }
+
+    /**
+     * @param strategy  the copy of the housing strategy that is re-seeded for every evaluation, or null to evaluate
+     *                  all dwellings with the housing strategy of the model and to draw everything else from the
+     *                  given random number generator
+     */
+    private int searchForNewDwelling(Household household, Random searchRandom, SeededHousingStrategy strategy,
+                                     boolean parallelEvaluation) {
         // Step 1: select region
+        final HousingStrategy regionStrategy = strategy != null ? strategy.seed(searchRandom.nextLong()) : housingStrategy;
         final GeoData geoData = dataContainer.getGeoData();
-        Sampler<Region> regionSampler = new Sampler<>(geoData.getRegions().size(), Region.class, this.random);
-        for (Region region : geoData.getRegions().values()) {
-            double utility;
-            if (dataContainer.getRealEstateDataManager().getNumberOfVacantDDinRegion(region.getId()) == 0) {
-                // if utility it normalized by regional attibutes other than number of vacant dwellings, it could happen
-                // that a region is chosen with 0 vacant dwellings. To avoid this case, set utility to 0 if no vacant
-                // dwellings are available in that region.
-                utility = 0.;
-            } else {
-                utility = housingStrategy.calculateRegionalUtility(household, region);
+        final Collection<Region> regions = geoData.getRegions().values();
+        // if utility it normalized by regional attibutes other than number of vacant dwellings, it could happen
+        // that a region is chosen with 0 vacant dwellings. To avoid this case, set utility to 0 if no vacant
+        // dwellings are available in that region.
+        final List<Region> regionsWithVacancies = new ArrayList<>(regions.size());
+        for (Region region : regions) {
+            if (dataContainer.getRealEstateDataManager().getNumberOfVacantDDinRegion(region.getId()) > 0) {
+                regionsWithVacancies.add(region);
+            }
+        }
+        final double[] utilities = new double[regionsWithVacancies.size()];
+        regionStrategy.calculateRegionalUtilities(household, regionsWithVacancies, utilities);
+        Sampler<Region> regionSampler = new Sampler<>(regions.size(), Region.class, searchRandom);
+        int next = 0;
+        for (Region region : regions) {
+            double utility = 0.;
+            if (next < regionsWithVacancies.size() && regionsWithVacancies.get(next) == region) {
+                utility = utilities[next++];
             }
             regionSampler.incrementalAdd(region, utility);
         }
@@ -225,46 +392,35 @@ public class MovesModelImpl extends AbstractModel implements MovesModel {
         }
 
         // Step 2: select vacant dwelling in selected region
-        List<Dwelling> vacantDwellings
-                = new ArrayList<>(dataContainer.getRealEstateDataManager().getListOfVacantDwellingsInRegion(selectedRegion.getId()));
+        /** No household will evaluate more than {@link MAX_NUMBER_DWELLINGS} dwellings */
+        final List<Dwelling> vacantDwellings = dataContainer.getRealEstateDataManager()
+                .sampleVacantDwellingsInRegion(selectedRegion.getId(), MAX_NUMBER_DWELLINGS, searchRandom);
         if (vacantDwellings.isEmpty()) {
             return -1;
         }
-
-        /** No household will evaluate more than {@link MAX_NUMBER_DWELLINGS} dwellings */
         int maxNumberOfDwellings = Math.min(MAX_NUMBER_DWELLINGS, vacantDwellings.size());
 
-        UtilityUtils.reset(maxNumberOfDwellings);
-
-        Collections.shuffle(vacantDwellings, this.random);
-        for (int i = 0; i < maxNumberOfDwellings; i++) {
-            Dwelling dwelling = vacantDwellings.get(i);
-            if (housingStrategy.isHouseholdEligibleToLiveHere(household, dwelling)) {
-                if (threaded) {
-                    UtilityUtils.queue.add(new UtilityTask(i, dwelling, household));
-                } else {
-                    double util = housingStrategy.calculateHousingUtility(household, dwelling);
-                    double prob = housingStrategy.calculateSelectDwellingProbability(util);
-                    UtilityUtils.probabilities[i] = prob;
-                    UtilityUtils.dwellings[i] = dwelling;
-                }
+        final Dwelling[] dwellings = new Dwelling[maxNumberOfDwellings];
+        final double[] probabilities = new double[maxNumberOfDwellings];
+        if (strategy != null) {
+            final long[] seeds = new long[maxNumberOfDwellings];
+            for (int i = 0; i < maxNumberOfDwellings; i++) {
+                dwellings[i] = vacantDwellings.get(i);
+                seeds[i] = searchRandom.nextLong();
+            }
+            if (parallelEvaluation && dwellingUtilityEvaluator != null) {
+                dwellingUtilityEvaluator.evaluate(household, dwellings, seeds, probabilities);
             } else {
-                UtilityUtils.probabilities[i] = 0.0;
-                UtilityUtils.dwellings[i] = dwelling;
+                DwellingUtilityEvaluator.evaluate(strategy, household, dwellings, seeds, probabilities);
             }
-        }
-
-
-        if (threaded) {
-            try {
-                UtilityUtils.barrier.await();
-                UtilityUtils.barrier.await();
-            } catch (InterruptedException | BrokenBarrierException e) {
-                e.printStackTrace();
+        } else {
+            for (int i = 0; i < maxNumberOfDwellings; i++) {
+                dwellings[i] = vacantDwellings.get(i);
+                probabilities[i] = DwellingUtilityEvaluator.evaluate(housingStrategy, household, dwellings[i]);
             }
         }
 
-        Sampler<Dwelling> sampler = new Sampler<>(UtilityUtils.dwellings, UtilityUtils.probabilities, this.random);
+        Sampler<Dwelling> sampler = new Sampler<>(dwellings, probabilities, searchRandom);
         try {
             return sampler.sampleObject().getId();
         } catch (SampleException e) {
@@ -273,17 +429,26 @@ public class MovesModelImpl extends AbstractModel implements MovesModel {
         }
     }
 
-    private boolean moveOrNot(Household household) {
+    /**
+     * Returns an unused copy of the housing strategy. Copies are kept for the rest of the year
+     * so that concurrent searches do not need to duplicate the strategy again.
+     */
+    private SeededHousingStrategy acquireSeededStrategy() {
+        final SeededHousingStrategy strategy = seededStrategies.poll();
+        return strategy != null ? strategy : new SeededHousingStrategy(housingStrategy);
+    }
+
+    private boolean moveOrNot(Household household, double randomDraw, HousingStrategy strategy) {
         HouseholdType hhType = household.getHouseholdType();
         Dwelling dd = dataContainer.getRealEstateDataManager().getDwelling(household.getDwellingId());
-        if (!housingStrategy.isHouseholdEligibleToLiveHere(household, dd)) {
+        if (!strategy.isHouseholdEligibleToLiveHere(household, dd)) {
             return true;
         }
         final double currentUtil = satisfactionByHousehold.get(household.getId());
         final double avgSatisfaction = averageHousingSatisfaction.getOrDefault(hhType, currentUtil);
 
         final double prop = movesStrategy.getMovingProbability(avgSatisfaction, currentUtil);
-        return this.random.nextDouble() <= prop;
+        return randomDraw <= prop;
     }
 
 
@@ -298,13 +463,8 @@ public class MovesModelImpl extends AbstractModel implements MovesModel {
         final Collection<Household> households = householdDataManager.getHouseholds();
         ConcurrentHashMultiset<HouseholdType> hhByType = ConcurrentHashMultiset.create();
 
-        int numberOfTasks;
-
-        if (threaded) {
-            numberOfTasks = Properties.get().main.numberOfThreads;
-        } else {
-            numberOfTasks = 1;
-        }
+        // the satisfaction of current dwellings is evaluated in a single partition, as the zone maps are not thread-safe
+        final int numberOfTasks = 1;
         final int partitionSize = (int) ((double) households.size() / (numberOfTasks)) + 1;
         Iterable<List<Household>> partitions = Iterables.partition(households, partitionSize);
         ConcurrentExecutor<Void> executor = ConcurrentExecutor.fixedPoolService(Properties.get().main.numberOfThreads);
@@ -358,112 +518,6 @@ public class MovesModelImpl extends AbstractModel implements MovesModel {
         }
     }
 
-    private static class UtilityTask {
-        private final int id;
-        private final Dwelling dwelling;
-        private final Household household;
-
-        private UtilityTask(int id, Dwelling dwelling, Household household) {
-            this.id = id;
-            this.dwelling = dwelling;
-            this.household = household;
-        }
-    }
-
-    private static class UtilityUtils extends Thread {
-
-        /**
-         * The queue that each thread listens to to poll for new dwelling evaluations.
-         * Tasks are put into the queue from the main thread inside the searchForNewDwelling method
-         */
-        private static final Queue<UtilityTask> queue = new ConcurrentLinkedQueue<>();
-
-        private static CyclicBarrier barrier;
-
-        /**
-         * boolean that is used to stop threads once they're running.
-         */
-        private static boolean run = false;
-
-        /**
-         * static array that is used to store probabilities of dwelling evaluations accessed
-         * from different threads
-         */
-        private static double[] probabilities;
-
-        /**
-         * static array that is used to store dwellings of evaluations accessed
-         * from different threads
-         */
-        private static Dwelling[] dwellings;
-
-        /**
-         * the strategy for each thread that is used for dwelling evaluation
-         */
-        private HousingStrategy strategy;
-
-        private UtilityUtils(HousingStrategy strategy) {
-            this.strategy = strategy;
-        }
-
-        /**
-         * reset static probability and dwelling arrays for the next dwelling search.
-         * reset the job counter.
-         */
-        private static void reset(int maxNumber) {
-            probabilities = new double[maxNumber];
-            dwellings = new Dwelling[maxNumber];
-        }
-
-        /**
-         * start the given number of background threads with the given housing strategy.
-         * The strategy will be duplicated for each thread to ensure thread-safety.
-         */
-        private static void startThreads(HousingStrategy strategy, int threads) {
-            run = true;
-            barrier = new CyclicBarrier(threads +1);
-            for (int i = 0; i < threads; i++) {
-                UtilityUtils thread = new UtilityUtils(strategy.duplicate());
-                thread.setDaemon(true);
-                thread.start();
-            }
-        }
-
-        /**
-         * stop the background threads from running
-         */
-        private static void endYear() {
-            run = false;
-        }
-
-        /**
-         * when running, a thread polls the queue for utility tasks. for each task
-         * a dwelling has to be evaluated. after the evaluation, the probabilities
-         * are stored in the static array that is shared among the threads and the
-         * jobcounter is incremented
-         */
-        @Override
-        public void run() {
-            while (run) {
-                final UtilityTask poll = queue.poll();
-                if (poll != null) {
-                    final Dwelling dwelling = poll.dwelling;
-                    final double util = strategy.calculateHousingUtility(poll.household, dwelling);
-                    double probability = strategy.calculateSelectDwellingProbability(util);
-                    final int i = poll.id;
-                    probabilities[i] = probability;
-                    dwellings[i] = dwelling;
-                } else {
-                    try {
-                        barrier.await();
-                    } catch (InterruptedException | BrokenBarrierException e) {
-                        e.printStackTrace();
-                    }
-                }
-            }
-        }
-    }
-
     public Map<Integer, Integer> getHouseholdsByZone() {
         return householdsByZone;
     }
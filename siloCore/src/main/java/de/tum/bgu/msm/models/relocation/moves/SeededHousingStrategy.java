@@ -0,0 +1,26 @@
+package de.tum.bgu.msm.models.relocation.moves;
+
+import java.util.Random;
+
+/**
+ * A copy of a {@link HousingStrategy} that draws all random decisions from its own random number generator.
+ * The generator is re-seeded before every use, so that results only depend on the given seed and not on
+ * which copy or thread is used.
+ */
+final class SeededHousingStrategy {
+
+    private final Random random = new Random();
+    private final HousingStrategy strategy;
+
+    SeededHousingStrategy(HousingStrategy housingStrategy) {
+        this.strategy = housingStrategy.duplicate(random);
+    }
+
+    /**
+     * Re-seeds the random number generator of the copy and returns the copy.
+     */
+    HousingStrategy seed(long seed) {
+        random.setSeed(seed);
+        return strategy;
+    }
+}
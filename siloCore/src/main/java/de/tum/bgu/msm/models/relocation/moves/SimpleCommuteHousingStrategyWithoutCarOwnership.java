@@ -26,6 +26,7 @@ import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Random;
 
 import static de.tum.bgu.msm.data.dwelling.RealEstateUtils.RENT_CATEGORIES;
 
@@ -145,7 +146,7 @@ public class SimpleCommuteHousingStrategyWithoutCarOwnership implements HousingS
         for (Person pp : hh.getPersons().values()) {
             if (pp.getOccupation() == Occupation.EMPLOYED && pp.getJobId() != -2) {
 
-                workDistanceUtility *= commuteModeChoiceMapping.getMode(pp).utility;
+                workDistanceUtility *= commuteModeChoiceMapping.getUtility(pp);
 
             }
         }
@@ -177,7 +178,7 @@ public class SimpleCommuteHousingStrategyWithoutCarOwnership implements HousingS
 
         for (Person pp : household.getPersons().values()) {
             if (pp.getOccupation() == Occupation.EMPLOYED && pp.getJobId() != -2) {
-                thisRegionFactor *= commuteModeChoiceMapping.getMode(pp).utility;
+                thisRegionFactor *= commuteModeChoiceMapping.getUtility(pp);
             }
         }
 
@@ -187,6 +188,15 @@ public class SimpleCommuteHousingStrategyWithoutCarOwnership implements HousingS
 
     @Override
     public HousingStrategy duplicate() {
+        return copyWith(commuteModeChoice);
+    }
+
+    @Override
+    public HousingStrategy duplicate(Random random) {
+        return copyWith(commuteModeChoice.duplicate(random));
+    }
+
+    private HousingStrategy copyWith(CommuteModeChoice commuteModeChoice) {
         TravelTimes ttCopy = travelTimes.duplicate();
         SimpleCommuteHousingStrategyWithoutCarOwnership strategy = new SimpleCommuteHousingStrategyWithoutCarOwnership(dataContainer, properties, ttCopy,
                 dwellingUtilityStrategy, dwellingProbabilityStrategy, regionUtilityStrategy, regionProbabilityStrategy, commuteModeChoice);
@@ -142,7 +142,7 @@ public class SimpleCommuteModeChoiceHousingStrategyImpl implements HousingStrate
         for (Person pp : hh.getPersons().values()) {
             if (pp.getOccupation() == Occupation.EMPLOYED && pp.getJobId() != -2) {
 
-                workDistanceUtility *= commuteModeChoiceMapping.getMode(pp).utility;
+                workDistanceUtility *= commuteModeChoiceMapping.getUtility(pp);
 
             }
         }
@@ -174,7 +174,7 @@ public class SimpleCommuteModeChoiceHousingStrategyImpl implements HousingStrate
 
         for (Person pp : household.getPersons().values()) {
             if (pp.getOccupation() == Occupation.EMPLOYED && pp.getJobId() != -2) {
-                thisRegionFactor *= commuteModeChoiceMapping.getMode(pp).utility;
+                thisRegionFactor *= commuteModeChoiceMapping.getUtility(pp);
             }
         }
 
@@ -182,8 +182,35 @@ public class SimpleCommuteModeChoiceHousingStrategyImpl implements HousingStrate
         return normalize(region, util);
     }
 
+    @Override
+    public void calculateRegionalUtilities(Household household, List<Region> regions, double[] utilities) {
+        final CommuteModeChoiceMapping[] commuteModeChoiceMappings =
+                commuteModeChoice.assignRegionalCommuteModeChoices(regions, travelTimes, household);
+        final Map<Integer, Double> utilityByRegion = utilityByIncomeByRegion.get(household.getHouseholdType().getIncomeCategory());
+
+        for (int i = 0; i < regions.size(); i++) {
+            final Region region = regions.get(i);
+            double thisRegionFactor = 1;
+            for (Person pp : household.getPersons().values()) {
+                if (pp.getOccupation() == Occupation.EMPLOYED && pp.getJobId() != -2) {
+                    thisRegionFactor *= commuteModeChoiceMappings[i].getUtility(pp);
+                }
+            }
+            utilities[i] = normalize(region, utilityByRegion.get(region.getId()) * thisRegionFactor);
+        }
+    }
+
     @Override
     public HousingStrategy duplicate() {
+        return copyWith(commuteModeChoice);
+    }
+
+    @Override
+    public HousingStrategy duplicate(Random random) {
+        return copyWith(commuteModeChoice.duplicate(random));
+    }
+
+    private HousingStrategy copyWith(CommuteModeChoice commuteModeChoice) {
         TravelTimes ttCopy = travelTimes.duplicate();
         SimpleCommuteModeChoiceHousingStrategyImpl strategy = new SimpleCommuteModeChoiceHousingStrategyImpl(dataContainer, properties, ttCopy,
                 dwellingUtilityStrategy, dwellingProbabilityStrategy, regionUtilityStrategy, regionProbabilityStrategy, commuteModeChoice);
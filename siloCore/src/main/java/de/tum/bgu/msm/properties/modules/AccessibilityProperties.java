@@ -27,6 +27,13 @@ public class AccessibilityProperties {
     public final float betaTransit;
     public final String htsWorkTLFD;
 
+    /**
+     * If true, the impedance terms e^(beta * traveltime) of the Hansen accessibility are kept in memory and only
+     * recalculated when the peak skims change. In all other years only the employment is updated.
+     * Requires memory for two zone to zone matrices. Default = false.
+     */
+    public final boolean incrementalHansenAccessibility;
+
     /**
      * A factor every travel time in the car skim is multiplied with to allow for different time units. Use this to
      * convert input travel times to minutes as expected by SILO.
@@ -42,6 +49,18 @@ public class AccessibilityProperties {
     public final double skimFileFactorTransit;
     public final Set<Integer> skimYears;
 
+    /**
+     * If true, skims read from omx files are additionally stored in a binary cache file next to the omx file
+     * and read from there in later runs, as long as the omx file has not changed. Default = false.
+     */
+    public final boolean useSkimCache;
+
+    /**
+     * If true, cells of skims read from file with a travel time of 0 (e.g. intrazonal travel times) are filled with
+     * a fraction of the travel time to the nearest zones, as for skims calculated with MATSim. Default = false.
+     */
+    public final boolean fillIntrazonalSkimValues;
+
     public final float betaTimeCarExponentialCommutingTime;
     public final float betaTimePtExponentialCommutingTime;
 
@@ -53,6 +72,7 @@ public class AccessibilityProperties {
         betaAuto = (float) PropertiesUtil.getDoubleProperty(bundle, "auto.accessibility.beta", -0.3);
         alphaTransit = (float) PropertiesUtil.getDoubleProperty(bundle, "transit.accessibility.a", 1.2);
         betaTransit = (float) PropertiesUtil.getDoubleProperty(bundle, "transit.accessibility.b", -0.3);
+        incrementalHansenAccessibility = PropertiesUtil.getBooleanProperty(bundle, "accessibility.incremental.hansen", false);
 
         PropertiesUtil.newPropertySubmodule("Accessibility - travel time distribution");
         htsWorkTLFD = PropertiesUtil.getStringProperty(bundle, "hts.work.tlfd", "input/hts_work_tripLengthFrequencyDistribution.csv");
@@ -74,6 +94,8 @@ public class AccessibilityProperties {
         skimFileFactorCar = PropertiesUtil.getDoubleProperty(bundle, "skims.factor.car", 1.);
         transitPeakSkim = PropertiesUtil.getStringProperty(bundle,"transit.peak.time.matrix.name", "travelTimeTransit");
         skimFileFactorTransit = PropertiesUtil.getDoubleProperty(bundle, "skims.factor.transit", 1/60.);
+        useSkimCache = PropertiesUtil.getBooleanProperty(bundle, "skims.binary.cache", false);
+        fillIntrazonalSkimValues = PropertiesUtil.getBooleanProperty(bundle, "skims.fill.intrazonal", false);
 
         betaTimeCarExponentialCommutingTime = (float) PropertiesUtil.getDoubleProperty(bundle, "beta.time.utility.car", -0.01);
         betaTimePtExponentialCommutingTime = (float) PropertiesUtil.getDoubleProperty(bundle, "beta.time.utility.pt", -0.01);
@@ -72,6 +72,45 @@ public class MainProperties {
      */
     public final int numberOfThreads;
 
+    /**
+     * Number of events of the same type that are decided in parallel, if the handling model supports speculative
+     * decisions. Values below 2 process all events sequentially. If batching is enabled, events of these models
+     * (e.g. moves) are processed after all other events of the year, in their shuffled order. Batched runs are
+     * reproducible for a given seed and batch size, independent of the number of threads.
+     */
+    public final int eventBatchSize;
+
+    /**
+     * Stores households, persons, dwellings and jobs in arrays indexed by their id instead of hash maps.
+     * Saves a lot of memory for large populations, but ids should be dense as the arrays grow up to the highest id.
+     */
+    public final boolean idIndexedDataStores;
+
+    /**
+     * Years at the beginning of which a binary checkpoint of the simulation is written to the scenario output folder.
+     * A run can be resumed from a checkpoint with identical results. Requires id indexed data stores, because the
+     * iteration order of the hash map based data stores cannot be restored.
+     */
+    public final Set<Integer> checkpointYears;
+
+    /**
+     * Writes micro data and result files on a background thread, so the next year can start while the files of
+     * the previous year are still being written. Disabled by default. Errors of the background thread are only
+     * reported when the run ends.
+     */
+    public final boolean asynchronousOutput;
+
+    /**
+     * Compression level (0-9, or -1 for the default) of gzipped output files.
+     */
+    public final int outputCompressionLevel;
+
+    /**
+     * Writes micro data files in the binary columnar format (see {@link de.tum.bgu.msm.io.columnar.ColumnarTable})
+     * instead of csv. The default readers load both formats.
+     */
+    public final boolean columnarMicroDataOutput;
+
     /**
      * Returns the sub-sample of the population to be simulated in SILO
      */
@@ -142,6 +181,16 @@ public class MainProperties {
         housingEnvironmentImpactFile = PropertiesUtil.getStringProperty(bundle, "housing.environment.impact.file.name", "bemHousing");
 
         numberOfThreads = PropertiesUtil.getIntProperty(bundle, "number.of.threads", Runtime.getRuntime().availableProcessors());
+        eventBatchSize = PropertiesUtil.getIntProperty(bundle, "event.batch.size", 0);
+        idIndexedDataStores = PropertiesUtil.getBooleanProperty(bundle, "id.indexed.data.stores", false);
+        checkpointYears = Arrays.stream(PropertiesUtil.getIntPropertyArray(bundle, "checkpoint.years", new int[] {-1}))
+                .boxed().filter(i -> i > 0).collect(Collectors.toSet());
+        if (!checkpointYears.isEmpty() && !idIndexedDataStores) {
+            throw new RuntimeException("Writing checkpoints requires id indexed data stores. Set id.indexed.data.stores = true.");
+        }
+        asynchronousOutput = PropertiesUtil.getBooleanProperty(bundle, "output.asynchronous", false);
+        outputCompressionLevel = PropertiesUtil.getIntProperty(bundle, "output.compression.level", -1);
+        columnarMicroDataOutput = PropertiesUtil.getBooleanProperty(bundle, "output.microdata.columnar", false);
 
         scaleFactor = PropertiesUtil.getDoubleProperty(bundle, "scale.factor", 1.);
     }
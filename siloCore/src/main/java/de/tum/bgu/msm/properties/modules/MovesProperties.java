@@ -17,6 +17,13 @@ public final class MovesProperties {
 
     public final boolean trackRelocations;
 
+    /**
+     * Evaluate the candidate dwellings of a searching household in parallel on
+     * {@link MainProperties#numberOfThreads} threads. Every search then draws from its own seeded random stream, so
+     * results do not depend on the number of threads, but differ from the default sequential search.
+     */
+    public final boolean parallelDwellingSearch;
+
     public final float B_TIME;
     public final float B_PT;
     public final float B_EXP_HOUSING_UTILITY;
@@ -39,6 +46,9 @@ public final class MovesProperties {
 
         trackRelocations = PropertiesUtil.getBooleanProperty(bundle, "track.relocations", true);
 
+        PropertiesUtil.newPropertySubmodule("Relocation properties - dwelling search");
+        parallelDwellingSearch = PropertiesUtil.getBooleanProperty(bundle, "moves.parallel.dwelling.search", false);
+
         B_TIME = (float) PropertiesUtil.getDoubleProperty(bundle, "mode.choice.impedance.coefficient", 10f);
         B_PT = (float) PropertiesUtil.getDoubleProperty(bundle, "mode.choice.pt.asc", 0f);
         B_EXP_HOUSING_UTILITY = (float) PropertiesUtil.getDoubleProperty(bundle, "mc.housing.time.coefficient.ratio", 20f);
@@ -67,6 +67,20 @@ public class TransportModelPropertiesModule {
 
     public final String[] matsimNetworkModes;
 
+    /**
+     * Maximum number of routes between micro locations or zones that are cached by the MATSim travel times. The
+     * cache is disabled by default (0), so that every query is routed at its exact departure time.
+     */
+    public final int matsimRouteCacheSize;
+
+    /**
+     * Width of the departure time bins of cached MATSim routes. Queries departing in the same bin share the route
+     * calculated for the first of them, so cached travel times are only exact up to the congestion changes within
+     * a bin. Car routes without access and egress legs are shared between locations with the same nearest links,
+     * routes of all other modes only between identical coordinates.
+     */
+    public final double matsimRouteCacheTimeBin_s;
+
     public TransportModelPropertiesModule(ResourceBundle bundle) {
         PropertiesUtil.newPropertySubmodule("Transport model properties");
         transportModelYears = Arrays.stream(PropertiesUtil.getIntPropertyArray(bundle, "transport.model.years", new int[]{2024,2037,2050}))
@@ -106,6 +120,10 @@ public class TransportModelPropertiesModule {
 
         matsimInitialPlansFile = PropertiesUtil.getStringProperty(bundle, "matsim.initial.plans", null);
 
+        PropertiesUtil.newPropertySubmodule("MATSim - Route cache for travel time queries");
+        matsimRouteCacheSize = PropertiesUtil.getIntProperty(bundle, "matsim.route.cache.size", 0);
+        matsimRouteCacheTimeBin_s = PropertiesUtil.getDoubleProperty(bundle, "matsim.route.cache.time.bin", 15 * 60);
+
     }
 
 }
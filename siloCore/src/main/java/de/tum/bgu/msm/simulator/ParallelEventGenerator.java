@@ -0,0 +1,85 @@
+package de.tum.bgu.msm.simulator;
+
+import de.tum.bgu.msm.events.MicroEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Creates the events of a year from a population (e.g. all persons) on all cores. The population is split into
+ * {@link #NUMBER_OF_PARTITIONS} partitions in its iteration order. Each partition is processed with its own random
+ * number generator, seeded with a number drawn from the random number generator of the model, and the events of all
+ * partitions are merged in the order of the partitions. The events are thus the same for a given seed, independent
+ * of the number of threads. Models that draw random numbers while creating their events (e.g. employment) draw
+ * different numbers than a single sequential generator would, so their results for a given seed differ from those
+ * of runs that created the events sequentially.
+ */
+public final class ParallelEventGenerator {
+
+    public static final int NUMBER_OF_PARTITIONS = 64;
+
+    /**
+     * Creates the events of one member of the population. Called concurrently for different members, so
+     * implementations must not change any data and must only draw random numbers from the given generator.
+     */
+    public interface EventCreator<S, T extends MicroEvent> {
+        void createEvents(S subject, Random random, List<T> events);
+    }
+
+    private ParallelEventGenerator() {
+    }
+
+    /**
+     * Creates at most one event per member of the population without drawing random numbers.
+     * @param creator returns the event of the given member, or null if no event is created
+     */
+    public static <S, T extends MicroEvent> List<T> createEvents(Collection<S> population,
+                                                                 Function<? super S, ? extends T> creator) {
+        return createEvents(population, new long[NUMBER_OF_PARTITIONS], (subject, random, events) -> {
+            final T event = creator.apply(subject);
+            if (event != null) {
+                events.add(event);
+            }
+        });
+    }
+
+    /**
+     * Creates the events of the population with random numbers drawn from per partition generators. Draws
+     * {@link #NUMBER_OF_PARTITIONS} seeds from the given generator, in the calling thread.
+     */
+    public static <S, T extends MicroEvent> List<T> createEvents(Collection<S> population, Random random,
+                                                                 EventCreator<? super S, T> creator) {
+        final long[] seeds = new long[NUMBER_OF_PARTITIONS];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = random.nextLong();
+        }
+        return createEvents(population, seeds, creator);
+    }
+
+    private static <S, T extends MicroEvent> List<T> createEvents(Collection<S> population, long[] seeds,
+                                                                  EventCreator<? super S, T> creator) {
+        @SuppressWarnings("unchecked")
+        final S[] subjects = (S[]) population.toArray();
+        final List<List<T>> eventsByPartition = new ArrayList<>(NUMBER_OF_PARTITIONS);
+        for (int i = 0; i < NUMBER_OF_PARTITIONS; i++) {
+            eventsByPartition.add(new ArrayList<>());
+        }
+        IntStream.range(0, NUMBER_OF_PARTITIONS).parallel().forEach(partition -> {
+            final Random random = new Random(seeds[partition]);
+            final List<T> events = eventsByPartition.get(partition);
+            final int end = (int) ((long) subjects.length * (partition + 1) / NUMBER_OF_PARTITIONS);
+            for (int i = (int) ((long) subjects.length * partition / NUMBER_OF_PARTITIONS); i < end; i++) {
+                creator.createEvents(subjects[i], random, events);
+            }
+        });
+        final List<T> events = new ArrayList<>(eventsByPartition.stream().mapToInt(List::size).sum());
+        for (List<T> partitionEvents : eventsByPartition) {
+            events.addAll(partitionEvents);
+        }
+        return events;
+    }
+}
@@ -8,12 +8,17 @@ import de.tum.bgu.msm.io.output.ResultsMonitor;
 import de.tum.bgu.msm.models.AbstractModel;
 import de.tum.bgu.msm.models.EventModel;
 import de.tum.bgu.msm.models.ModelUpdateListener;
+import de.tum.bgu.msm.models.SpeculativeEventModel;
+import de.tum.bgu.msm.utils.EventTimeTracker;
 import de.tum.bgu.msm.utils.SiloUtil;
 import de.tum.bgu.msm.utils.TimeTracker;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 /**
  * Generates a series of events in random order
@@ -31,11 +36,29 @@ public final class Simulator {
 
     private final List<MicroEvent> events = new ArrayList<>();
     private final TimeTracker timeTracker;
+    private final EventTimeTracker eventTimeTracker;
 
     private final Set<ResultsMonitor> resultsMonitors = new HashSet<>() ;
 
+    private final int eventBatchSize;
+    private final int numberOfThreads;
+    private ForkJoinPool speculationPool;
+
     public Simulator(TimeTracker timeTracker) {
+        this(timeTracker, null, 0, 1);
+    }
+
+    /**
+     * @param eventTimeTracker  records the handling time of each event, may be null to disable event timing
+     * @param eventBatchSize  maximum number of events of one type that are decided in parallel by a
+     *                        {@link SpeculativeEventModel}. Values below 2 disable batching. If batching is enabled,
+     *                        the events of these models are processed after all other events of the year.
+     */
+    public Simulator(TimeTracker timeTracker, EventTimeTracker eventTimeTracker, int eventBatchSize, int numberOfThreads) {
         this.timeTracker = timeTracker;
+        this.eventTimeTracker = eventTimeTracker;
+        this.eventBatchSize = eventBatchSize;
+        this.numberOfThreads = numberOfThreads;
     }
 
     public <T extends MicroEvent> void registerEventModel(Class<T> klass, EventModel<T> model) {
@@ -100,20 +123,111 @@ public final class Simulator {
 
     private void processEvents() {
         logger.info("  Processing events...");
+        if (eventBatchSize > 1 && speculationPool == null) {
+            speculationPool = new ForkJoinPool(numberOfThreads);
+            logger.info("  Deciding batches of up to " + eventBatchSize + " events on " + numberOfThreads + " threads.");
+        }
+        if (speculationPool == null) {
+            for (int counter = 0; counter < events.size(); counter++) {
+                handleEvent(events.get(counter));
+                logProgress(counter);
+            }
+            return;
+        }
+        final Set<Class<? extends MicroEvent>> speculativeTypes = new HashSet<>();
+        for (Map.Entry<Class<? extends MicroEvent>, EventModel> entry : models.entrySet()) {
+            if (entry.getValue() instanceof SpeculativeEventModel) {
+                speculativeTypes.add(entry.getKey());
+            }
+        }
         int counter = 0;
-        for (MicroEvent e: events) {
-            if (LongMath.isPowerOfTwo(counter)) {
-                logger.info("Handled " + counter + " events.");
+        for (List<MicroEvent> batch : createBatches(events, speculativeTypes, eventBatchSize)) {
+            if (batch.size() > 1) {
+                processBatch((SpeculativeEventModel) models.get(batch.get(0).getClass()), batch);
+            } else {
+                handleEvent(batch.get(0));
+            }
+            for (int end = counter + batch.size(); counter < end; counter++) {
+                logProgress(counter);
+            }
+        }
+    }
+
+    /**
+     * Splits the shuffled events into the units in which they are processed if batching is enabled. Events of
+     * models that can decide speculatively are taken out of the shuffled order and processed after all other
+     * events, type by type in the order in which their types first occur, in batches of up to the given size.
+     * All other events come first, one per unit. Both keep their relative (shuffled) order.
+     */
+    static List<List<MicroEvent>> createBatches(List<MicroEvent> events,
+                                                Set<Class<? extends MicroEvent>> speculativeTypes, int batchSize) {
+        final List<List<MicroEvent>> units = new ArrayList<>();
+        final Map<Class<? extends MicroEvent>, List<MicroEvent>> speculativeEvents = new LinkedHashMap<>();
+        for (MicroEvent event : events) {
+            if (speculativeTypes.contains(event.getClass())) {
+                speculativeEvents.computeIfAbsent(event.getClass(), k -> new ArrayList<>()).add(event);
+            } else {
+                units.add(Collections.singletonList(event));
+            }
+        }
+        for (List<MicroEvent> eventsOfType : speculativeEvents.values()) {
+            for (int i = 0; i < eventsOfType.size(); i += batchSize) {
+                units.add(eventsOfType.subList(i, Math.min(i + batchSize, eventsOfType.size())));
             }
-//            timeTracker.reset();
-            Class<? extends MicroEvent> klass= e.getClass();
+        }
+        return units;
+    }
+
+    private void handleEvent(MicroEvent e) {
+        final Class<? extends MicroEvent> klass = e.getClass();
+        final long start = eventTimeTracker != null ? System.nanoTime() : 0;
+        boolean success = this.models.get(klass).handleEvent(e);
+        if (success) {
+            eventCounter.add(klass);
+        }
+        if (eventTimeTracker != null) {
+            eventTimeTracker.record(klass, System.nanoTime() - start, success);
+        }
+    }
 
-            boolean success = this.models.get(klass).handleEvent(e);
-            if(success) {
-                eventCounter.add(klass);
+    private static void logProgress(int counter) {
+        if (LongMath.isPowerOfTwo(counter)) {
+            logger.info("Handled " + counter + " events.");
+        }
+    }
+
+    /**
+     * Decides all events of the batch in parallel against the current state and commits the decisions
+     * in the order of the events. Seeds are drawn in the order of the events, so results are reproducible
+     * independent of the number of threads.
+     */
+    private void processBatch(SpeculativeEventModel model, List<MicroEvent> batch) {
+        final long[] seeds = new long[batch.size()];
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = model.drawSeed();
+        }
+        final Object[] decisions = new Object[batch.size()];
+        final long[] nanos = new long[batch.size()];
+        try {
+            speculationPool.submit(() -> IntStream.range(0, decisions.length).parallel().forEach(i -> {
+                final long start = System.nanoTime();
+                decisions[i] = model.decide(batch.get(i), seeds[i]);
+                nanos[i] = System.nanoTime() - start;
+            })).get();
+        } catch (InterruptedException | ExecutionException ex) {
+            throw new RuntimeException("Could not decide batch of " + batch.size() + " events.", ex);
+        }
+        for (int i = 0; i < decisions.length; i++) {
+            final MicroEvent event = batch.get(i);
+            final long start = System.nanoTime();
+            final boolean success = model.commit(event, decisions[i], seeds[i]);
+            if (success) {
+                eventCounter.add(event.getClass());
+            }
+            if (eventTimeTracker != null) {
+                // time spent on the event, summed over the speculative decision and the commit
+                eventTimeTracker.record(event.getClass(), nanos[i] + System.nanoTime() - start, success);
             }
-            counter++;
-//            timeTracker.record(klass.getSimpleName());
         }
     }
 
@@ -133,6 +247,9 @@ public final class Simulator {
     }
 
     public void endSimulation() {
+        if (speculationPool != null) {
+            speculationPool.shutdown();
+        }
         for(ModelUpdateListener modelUpdateListener : modelUpdateListeners) {
             modelUpdateListener.endSimulation();
         }
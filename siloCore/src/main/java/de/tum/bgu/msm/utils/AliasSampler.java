@@ -0,0 +1,163 @@
+package de.tum.bgu.msm.utils;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Samples objects from a fixed discrete distribution in constant time using Vose's alias method.
+ * Building the alias table takes linear time, so this sampler pays off whenever the same distribution
+ * is sampled many times. Every draw consumes exactly one {@link Random#nextDouble()} of the given
+ * random number generator, so results are reproducible for a given seed.
+ * Use {@link FenwickSampler} if the weights change between draws.
+ */
+public final class AliasSampler<T> {
+
+    /**
+     * Only holds instances of T.
+     */
+    private final Object[] objects;
+    private final double[] weights;
+    private final double[] acceptance;
+    private final int[] aliases;
+    private final double sum;
+
+    private final Random random;
+
+    public AliasSampler(List<T> objects, double[] weights, Random random) {
+        this(weights, objects.toArray(), random);
+    }
+
+    public AliasSampler(T[] objects, double[] weights, Random random) {
+        this(weights, objects, random);
+    }
+
+    /**
+     * Takes the weights first, as a constructor for Object[] would have the same erasure as the one for T[].
+     */
+    private AliasSampler(double[] weights, Object[] objects, Random random) {
+        if (objects.length != weights.length) {
+            throw new IllegalArgumentException("Number of objects (" + objects.length
+                    + ") does not match number of weights (" + weights.length + ")");
+        }
+        this.objects = objects;
+        this.weights = weights.clone();
+        this.random = random;
+        this.acceptance = new double[weights.length];
+        this.aliases = new int[weights.length];
+
+        double sum = 0;
+        for (double weight : weights) {
+            if (weight < 0 || Double.isNaN(weight)) {
+                throw new IllegalArgumentException("Weights must not be negative: " + weight);
+            }
+            sum += weight;
+        }
+        this.sum = sum;
+        if (sum > 0) {
+            buildTable();
+        }
+    }
+
+    private AliasSampler(AliasSampler<T> template, Random random) {
+        this.objects = template.objects;
+        this.weights = template.weights;
+        this.acceptance = template.acceptance;
+        this.aliases = template.aliases;
+        this.sum = template.sum;
+        this.random = random;
+    }
+
+    private void buildTable() {
+        final int n = weights.length;
+        final double[] scaled = new double[n];
+        final int[] small = new int[n];
+        final int[] large = new int[n];
+        int smallSize = 0;
+        int largeSize = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / sum;
+            if (scaled[i] < 1) {
+                small[smallSize++] = i;
+            } else {
+                large[largeSize++] = i;
+            }
+        }
+        int lastLarge = largeSize > 0 ? large[largeSize - 1] : 0;
+        while (smallSize > 0 && largeSize > 0) {
+            final int less = small[--smallSize];
+            final int more = large[--largeSize];
+            acceptance[less] = scaled[less];
+            aliases[less] = more;
+            lastLarge = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1;
+            if (scaled[more] < 1) {
+                small[smallSize++] = more;
+            } else {
+                large[largeSize++] = more;
+            }
+        }
+        while (largeSize > 0) {
+            final int index = large[--largeSize];
+            acceptance[index] = 1;
+            aliases[index] = index;
+        }
+        // only left because of rounding errors. Objects without weight must never be returned.
+        while (smallSize > 0) {
+            final int index = small[--smallSize];
+            if (weights[index] > 0) {
+                acceptance[index] = 1;
+                aliases[index] = index;
+            } else {
+                acceptance[index] = 0;
+                aliases[index] = lastLarge;
+            }
+        }
+    }
+
+    public int sampleIndex() throws SampleException {
+        return sampleIndex(random);
+    }
+
+    /**
+     * Samples with the given random number generator instead of the one of this sampler, so one alias table can be
+     * used with different random number generators.
+     */
+    public int sampleIndex(Random random) throws SampleException {
+        if (sum <= 0) {
+            throw new SampleException("Could not sample from " + objects.length
+                    + " objects as the sum of weights is " + sum);
+        }
+        final double position = random.nextDouble() * weights.length;
+        final int column = Math.min((int) position, weights.length - 1);
+        return position - column < acceptance[column] ? column : aliases[column];
+    }
+
+    public T sampleObject() throws SampleException {
+        return getObject(sampleIndex());
+    }
+
+    public T sampleObject(Random random) throws SampleException {
+        return getObject(sampleIndex(random));
+    }
+
+    @SuppressWarnings("unchecked")
+    private T getObject(int index) {
+        return (T) objects[index];
+    }
+
+    public double getCumulatedProbability() {
+        return sum;
+    }
+
+    public int getNumberOfObjects() {
+        return objects.length;
+    }
+
+    /**
+     * Copies the sampler. Like {@link Sampler#copy()}, the copy uses a new random number generator which is
+     * seeded on a random number drawn from the original random generator. The alias table is shared.
+     */
+    public AliasSampler<T> copy() {
+        return new AliasSampler<>(this, new Random(random.nextInt()));
+    }
+}
@@ -0,0 +1,128 @@
+package de.tum.bgu.msm.utils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Random number generator that produces exactly the same numbers as {@link Random} for the same seed, but whose
+ * state can be written to and restored from a simulation checkpoint. {@link Random} does not expose its state.
+ * Generators provided by {@link SiloUtil#provideNewRandom()} are registered with a serial number in the order of
+ * their creation. As models are set up in the same order in every run, a resumed run can hand the state of each
+ * generator to the generator with the same serial number.
+ */
+final class CheckpointableRandom extends Random {
+
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    private static final Map<CheckpointableRandom, Long> serialByRandom = new WeakHashMap<>();
+    private static long nextSerial = 0;
+
+    // not initialized in the declaration, as the constructor of Random sets the seed before field initializers run
+    private long seed;
+    private double nextNextGaussian;
+    private boolean haveNextNextGaussian;
+
+    CheckpointableRandom(long seed) {
+        super(seed);
+    }
+
+    static CheckpointableRandom createRegistered(long seed) {
+        final CheckpointableRandom random = new CheckpointableRandom(seed);
+        synchronized (serialByRandom) {
+            serialByRandom.put(random, nextSerial++);
+        }
+        return random;
+    }
+
+    @Override
+    public synchronized void setSeed(long seed) {
+        this.seed = (seed ^ MULTIPLIER) & MASK;
+        haveNextNextGaussian = false;
+    }
+
+    @Override
+    protected synchronized int next(int bits) {
+        seed = (seed * MULTIPLIER + ADDEND) & MASK;
+        return (int) (seed >>> (48 - bits));
+    }
+
+    @Override
+    public synchronized double nextGaussian() {
+        // same polar method as Random, which keeps its cached second value private
+        if (haveNextNextGaussian) {
+            haveNextNextGaussian = false;
+            return nextNextGaussian;
+        }
+        double v1, v2, s;
+        do {
+            v1 = 2 * nextDouble() - 1;
+            v2 = 2 * nextDouble() - 1;
+            s = v1 * v1 + v2 * v2;
+        } while (s >= 1 || s == 0);
+        final double multiplier = StrictMath.sqrt(-2 * StrictMath.log(s) / s);
+        nextNextGaussian = v2 * multiplier;
+        haveNextNextGaussian = true;
+        return v1 * multiplier;
+    }
+
+    synchronized void writeState(DataOutput out) throws IOException {
+        out.writeLong(seed);
+        out.writeDouble(nextNextGaussian);
+        out.writeBoolean(haveNextNextGaussian);
+    }
+
+    synchronized void readState(DataInput in) throws IOException {
+        seed = in.readLong();
+        nextNextGaussian = in.readDouble();
+        haveNextNextGaussian = in.readBoolean();
+    }
+
+    /**
+     * Writes the states of all registered generators that are still in use, ordered by serial number.
+     */
+    static void writeRegisteredStates(DataOutput out) throws IOException {
+        synchronized (serialByRandom) {
+            final List<Map.Entry<CheckpointableRandom, Long>> entries = new ArrayList<>(serialByRandom.entrySet());
+            entries.sort(Map.Entry.comparingByValue());
+            out.writeLong(nextSerial);
+            out.writeInt(entries.size());
+            for (Map.Entry<CheckpointableRandom, Long> entry : entries) {
+                out.writeLong(entry.getValue());
+                entry.getKey().writeState(out);
+            }
+        }
+    }
+
+    /**
+     * Restores the states of the registered generators with the serial numbers found in the checkpoint.
+     * Generators that are only in the checkpoint were not used anymore when it was written and are skipped.
+     * @return the number of generators whose state was restored
+     */
+    static int readRegisteredStates(DataInput in) throws IOException {
+        synchronized (serialByRandom) {
+            final Map<Long, CheckpointableRandom> randomBySerial = new HashMap<>();
+            for (Map.Entry<CheckpointableRandom, Long> entry : serialByRandom.entrySet()) {
+                randomBySerial.put(entry.getValue(), entry.getKey());
+            }
+            final long checkpointNextSerial = in.readLong();
+            final int count = in.readInt();
+            final CheckpointableRandom unused = new CheckpointableRandom(0);
+            int restored = 0;
+            for (int i = 0; i < count; i++) {
+                final CheckpointableRandom random = randomBySerial.get(in.readLong());
+                if (random != null) {
+                    random.readState(in);
+                    restored++;
+                } else {
+                    unused.readState(in);
+                }
+            }
+            nextSerial = checkpointNextSerial;
+            return restored;
+        }
+    }
+}
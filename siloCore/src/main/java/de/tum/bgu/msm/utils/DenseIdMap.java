@@ -0,0 +1,195 @@
+package de.tum.bgu.msm.utils;
+
+import java.util.*;
+
+/**
+ * Map from non-negative integer ids to objects that stores the objects in an array indexed by id.
+ * Compared to a hash map this avoids a boxed key and an entry object per mapping, which matters for
+ * synthetic populations with millions of persons, as long as ids are reasonably dense.
+ * Modifications are synchronized. Lookups are not, and iteration is weakly consistent like for a
+ * {@link java.util.concurrent.ConcurrentHashMap}: it never throws a {@link ConcurrentModificationException}
+ * and may or may not reflect modifications made after the iterator was created.
+ */
+public final class DenseIdMap<V> extends AbstractMap<Integer, V> {
+
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private volatile Object[] values;
+    private volatile int size = 0;
+
+    private final Values valuesView = new Values();
+    private final EntrySet entrySetView = new EntrySet();
+
+    public DenseIdMap() {
+        this(1024);
+    }
+
+    public DenseIdMap(int expectedHighestId) {
+        values = new Object[Math.max(expectedHighestId + 1, 16)];
+    }
+
+    public V get(int id) {
+        final Object[] values = this.values;
+        return id >= 0 && id < values.length ? (V) values[id] : null;
+    }
+
+    @Override
+    public V get(Object key) {
+        return key instanceof Integer ? get((int) (Integer) key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public synchronized V put(Integer key, V value) {
+        final int id = key;
+        if (id < 0) {
+            throw new IllegalArgumentException("Ids must not be negative: " + id);
+        }
+        Objects.requireNonNull(value);
+        Object[] values = this.values;
+        if (id >= values.length) {
+            int newLength = (int) Math.min(Math.max(id + 1L, values.length * 3L / 2), MAX_ARRAY_SIZE);
+            values = Arrays.copyOf(values, newLength);
+            this.values = values;
+        }
+        final V previous = (V) values[id];
+        values[id] = value;
+        if (previous == null) {
+            size++;
+        }
+        return previous;
+    }
+
+    public synchronized V remove(int id) {
+        final Object[] values = this.values;
+        if (id < 0 || id >= values.length) {
+            return null;
+        }
+        final V previous = (V) values[id];
+        if (previous != null) {
+            values[id] = null;
+            size--;
+        }
+        return previous;
+    }
+
+    @Override
+    public V remove(Object key) {
+        return key instanceof Integer ? remove((int) (Integer) key) : null;
+    }
+
+    @Override
+    public synchronized void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Collection<V> values() {
+        return valuesView;
+    }
+
+    @Override
+    public Set<Entry<Integer, V>> entrySet() {
+        return entrySetView;
+    }
+
+    private abstract class DenseIterator<T> implements Iterator<T> {
+
+        private final Object[] values = DenseIdMap.this.values;
+        private int next = -1;
+        private int last = -1;
+
+        DenseIterator() {
+            advance();
+        }
+
+        private void advance() {
+            do {
+                next++;
+            } while (next < values.length && values[next] == null);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < values.length;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            final V value = (V) values[next];
+            advance();
+            return map(last, value);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            DenseIdMap.this.remove(last);
+            last = -1;
+        }
+
+        abstract T map(int id, V value);
+    }
+
+    private final class Values extends AbstractCollection<V> {
+
+        @Override
+        public Iterator<V> iterator() {
+            return new DenseIterator<V>() {
+                @Override
+                V map(int id, V value) {
+                    return value;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            DenseIdMap.this.clear();
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<Integer, V>> {
+
+        @Override
+        public Iterator<Entry<Integer, V>> iterator() {
+            return new DenseIterator<Entry<Integer, V>>() {
+                @Override
+                Entry<Integer, V> map(int id, V value) {
+                    return new SimpleImmutableEntry<>(id, value);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            DenseIdMap.this.clear();
+        }
+    }
+}
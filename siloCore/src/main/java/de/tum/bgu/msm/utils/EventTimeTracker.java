@@ -0,0 +1,121 @@
+package de.tum.bgu.msm.utils;
+
+import de.tum.bgu.msm.events.MicroEvent;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Records how often events of each type are handled, how often they succeed and how long handling takes.
+ * Durations are kept in a logarithmic histogram with eight sub-buckets per power of two, so percentiles
+ * are accurate to about 12% without storing individual measurements.
+ */
+public class EventTimeTracker {
+
+    public static final String HEADER = "year,event,count,successes,successRate,totalMs,meanNs,p99Ns";
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+    private final Map<Class<? extends MicroEvent>, EventStatistics> statistics = new LinkedHashMap<>();
+
+    public void record(Class<? extends MicroEvent> eventType, long nanos, boolean success) {
+        statistics.computeIfAbsent(eventType, k -> new EventStatistics()).record(nanos, success);
+    }
+
+    public void reset() {
+        statistics.clear();
+    }
+
+    public long getCount(Class<? extends MicroEvent> eventType) {
+        EventStatistics stats = statistics.get(eventType);
+        return stats == null ? 0 : stats.count;
+    }
+
+    public long getSuccesses(Class<? extends MicroEvent> eventType) {
+        EventStatistics stats = statistics.get(eventType);
+        return stats == null ? 0 : stats.successes;
+    }
+
+    public long getTotalNanos(Class<? extends MicroEvent> eventType) {
+        EventStatistics stats = statistics.get(eventType);
+        return stats == null ? 0 : stats.totalNanos;
+    }
+
+    /**
+     * Returns an upper bound of the given percentile (between 0 and 1) of the recorded durations in nanoseconds.
+     */
+    public long getPercentileNanos(Class<? extends MicroEvent> eventType, double percentile) {
+        EventStatistics stats = statistics.get(eventType);
+        return stats == null ? 0 : stats.percentile(percentile);
+    }
+
+    /**
+     * Returns one csv line per event type in the format of {@link #HEADER}.
+     */
+    public String toCsv(int year) {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<Class<? extends MicroEvent>, EventStatistics> entry : statistics.entrySet()) {
+            EventStatistics stats = entry.getValue();
+            builder.append(year)
+                    .append(",").append(entry.getKey().getSimpleName())
+                    .append(",").append(stats.count)
+                    .append(",").append(stats.successes)
+                    .append(",").append(String.format(Locale.US, "%.4f", (double) stats.successes / stats.count))
+                    .append(",").append(String.format(Locale.US, "%.3f", stats.totalNanos / 1e6))
+                    .append(",").append(stats.totalNanos / stats.count)
+                    .append(",").append(stats.percentile(0.99))
+                    .append("\n");
+        }
+        return builder.toString();
+    }
+
+    static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) Math.max(nanos, 0);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int mantissa = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + mantissa;
+    }
+
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int mantissa = bucket % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + mantissa + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    private static final class EventStatistics {
+
+        private long count;
+        private long successes;
+        private long totalNanos;
+        private final long[] histogram = new long[BUCKETS];
+
+        private void record(long nanos, boolean success) {
+            count++;
+            if (success) {
+                successes++;
+            }
+            totalNanos += nanos;
+            histogram[bucketOf(nanos)]++;
+        }
+
+        private long percentile(double percentile) {
+            final long rank = (long) Math.ceil(percentile * count);
+            long cumulated = 0;
+            for (int i = 0; i < histogram.length; i++) {
+                cumulated += histogram[i];
+                if (cumulated >= rank && cumulated > 0) {
+                    return upperBoundOf(i);
+                }
+            }
+            return 0;
+        }
+    }
+}
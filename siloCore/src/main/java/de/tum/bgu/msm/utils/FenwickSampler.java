@@ -0,0 +1,148 @@
+package de.tum.bgu.msm.utils;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Samples objects from a discrete distribution whose weights change between draws, e.g. when one
+ * vacancy is removed after every draw. Weights are kept in a Fenwick tree, so both updating a single
+ * weight and drawing an object take logarithmic time.
+ * A draw consumes exactly one {@link Random#nextDouble()} and returns the first object at which the
+ * cumulated weight exceeds the drawn position, i.e. the same object as {@link Sampler#sampleIndex()}
+ * for the same weights and random number generator (up to rounding of the partial sums).
+ */
+public final class FenwickSampler<T> {
+
+    /**
+     * Only holds instances of T.
+     */
+    private final Object[] objects;
+    private final double[] weights;
+    private final double[] tree;
+    private final int highestStep;
+
+    private final Random random;
+    private int updatesSinceRebuild = 0;
+
+    public FenwickSampler(List<T> objects, double[] weights, Random random) {
+        this(weights, objects.toArray(), random);
+    }
+
+    public FenwickSampler(T[] objects, double[] weights, Random random) {
+        this(weights, objects, random);
+    }
+
+    /**
+     * Takes the weights first, as a constructor for Object[] would have the same erasure as the one for T[].
+     */
+    private FenwickSampler(double[] weights, Object[] objects, Random random) {
+        if (objects.length != weights.length) {
+            throw new IllegalArgumentException("Number of objects (" + objects.length
+                    + ") does not match number of weights (" + weights.length + ")");
+        }
+        for (double weight : weights) {
+            checkWeight(weight);
+        }
+        this.objects = objects;
+        this.weights = weights.clone();
+        this.tree = new double[weights.length + 1];
+        this.highestStep = weights.length == 0 ? 0 : Integer.highestOneBit(weights.length);
+        this.random = random;
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the tree from the current weights in linear time. Called regularly so that rounding
+     * errors of incremental updates cannot accumulate.
+     */
+    private void rebuild() {
+        System.arraycopy(weights, 0, tree, 1, weights.length);
+        for (int i = 1; i < tree.length; i++) {
+            final int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+        updatesSinceRebuild = 0;
+    }
+
+    public void setWeight(int index, double weight) {
+        checkWeight(weight);
+        final double delta = weight - weights[index];
+        weights[index] = weight;
+        if (++updatesSinceRebuild > weights.length) {
+            rebuild();
+            return;
+        }
+        for (int i = index + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    public double getWeight(int index) {
+        return weights[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    public T getObject(int index) {
+        return (T) objects[index];
+    }
+
+    public int getNumberOfObjects() {
+        return objects.length;
+    }
+
+    public double getCumulatedProbability() {
+        double sum = 0;
+        for (int i = weights.length; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    public int sampleIndex() throws SampleException {
+        final double sum = getCumulatedProbability();
+        if (sum <= 0) {
+            throw new SampleException("Could not sample from " + objects.length
+                    + " objects as the sum of weights is " + sum);
+        }
+        double remaining = sum * random.nextDouble();
+        int position = 0;
+        for (int step = highestStep; step > 0; step >>= 1) {
+            final int next = position + step;
+            if (next < tree.length && tree[next] <= remaining) {
+                position = next;
+                remaining -= tree[next];
+            }
+        }
+        return skipEmpty(position);
+    }
+
+    public T sampleObject() throws SampleException {
+        return getObject(sampleIndex());
+    }
+
+    /**
+     * Partial sums may be off by rounding errors, which could let the search end on an object without weight
+     * or behind the last object. Moves to the closest object with weight in that case.
+     */
+    private int skipEmpty(int index) throws SampleException {
+        for (int i = index; i < weights.length; i++) {
+            if (weights[i] > 0) {
+                return i;
+            }
+        }
+        for (int i = Math.min(index, weights.length) - 1; i >= 0; i--) {
+            if (weights[i] > 0) {
+                return i;
+            }
+        }
+        throw new SampleException("Could not sample from " + objects.length + " objects as all weights are zero");
+    }
+
+    private static void checkWeight(double weight) {
+        if (weight < 0 || Double.isNaN(weight)) {
+            throw new IllegalArgumentException("Weights must not be negative: " + weight);
+        }
+    }
+}
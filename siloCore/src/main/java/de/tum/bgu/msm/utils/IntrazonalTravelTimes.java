@@ -0,0 +1,91 @@
+package de.tum.bgu.msm.utils;
+
+import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix2D;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Fills the cells of a skim that have a travel time of 0, i.e. the intrazonal travel times and any pairs of zones
+ * that could not be skimmed, with a fraction of the average travel time from the origin to its nearest neighbours.
+ * <p>
+ * Rows are processed in parallel. Each row is copied into a primitive array once, its nearest neighbours are
+ * selected in a single pass over that array, keeping only the smallest travel times found so far, and only the
+ * filled cells are written back.
+ */
+public final class IntrazonalTravelTimes {
+
+    private final static Logger logger = LogManager.getLogger(IntrazonalTravelTimes.class);
+
+    private IntrazonalTravelTimes() {
+    }
+
+    /**
+     * @param numberOfNeighbours number of nearest neighbours (i.e. smallest positive travel times) per origin
+     * @param maximumMinutes travel time used in place of missing neighbours, if a row has too few positive values
+     * @param proportionOfTime fraction of the average neighbour travel time that is assigned
+     * @return the number of filled cells that are not on the diagonal
+     */
+    public static int assign(IndexedDoubleMatrix2D skim, int numberOfNeighbours, double maximumMinutes,
+                             double proportionOfTime) {
+        final int rows = skim.rows();
+        final int columns = skim.columns();
+        final int[] columnIds = new int[columns];
+        for (int column = 0; column < columns; column++) {
+            columnIds[column] = skim.getIdForInternalColumnIndex(column);
+        }
+        final AtomicInteger nonIntrazonalCounter = new AtomicInteger();
+        IntStream.range(0, rows).parallel().forEach(rowIndex -> {
+            final int rowId = skim.getIdForInternalRowIndex(rowIndex);
+            final double[] row = new double[columns];
+            for (int column = 0; column < columns; column++) {
+                row[column] = skim.getIndexed(rowId, columnIds[column]);
+            }
+            final double value = calculateIntrazonalValue(row, numberOfNeighbours, maximumMinutes, proportionOfTime);
+            int filled = 0;
+            for (int column = 0; column < columns; column++) {
+                if (row[column] == 0) {
+                    skim.setIndexed(rowId, columnIds[column], value);
+                    if (columnIds[column] != rowId) {
+                        filled++;
+                    }
+                }
+            }
+            nonIntrazonalCounter.addAndGet(filled);
+        });
+        logger.info("Calculated intrazonal times and distances using the " + numberOfNeighbours + " nearest neighbours.");
+        logger.info("The calculation of intrazonals has also assigned values for cells with travel time equal to 0, that are not intrazonal: (" +
+                nonIntrazonalCounter.get() + " cases).");
+        return nonIntrazonalCounter.get();
+    }
+
+    /**
+     * Returns the average of the smallest positive values of the row, multiplied by the proportion of time. Missing
+     * neighbours count with the maximum minutes.
+     */
+    static double calculateIntrazonalValue(double[] row, int numberOfNeighbours, double maximumMinutes,
+                                           double proportionOfTime) {
+        final double[] nearest = new double[numberOfNeighbours];
+        Arrays.fill(nearest, maximumMinutes);
+        final int last = numberOfNeighbours - 1;
+        for (double value : row) {
+            if (value != 0 && value < nearest[last]) {
+                // insertion into the sorted neighbours, behind equal values
+                int position = last;
+                while (position > 0 && nearest[position - 1] > value) {
+                    nearest[position] = nearest[position - 1];
+                    position--;
+                }
+                nearest[position] = value;
+            }
+        }
+        double sum = 0;
+        for (double value : nearest) {
+            sum += value;
+        }
+        return sum / numberOfNeighbours * proportionOfTime;
+    }
+}
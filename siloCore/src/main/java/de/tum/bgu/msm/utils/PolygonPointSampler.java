@@ -0,0 +1,136 @@
+package de.tum.bgu.msm.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.triangulate.ConformingDelaunayTriangulationBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Draws uniformly distributed points from a (multi) polygon. The polygon is split into triangles once, a draw
+ * selects a triangle with probability proportional to its area from an {@link AliasSampler} and a uniform point in that
+ * triangle, which takes constant time and three random numbers. If the polygon can not be triangulated exactly,
+ * points are drawn by rejection sampling within the bounding box instead.
+ * <p>
+ * Instances can be shared between threads, as long as each thread uses its own random number generator.
+ */
+public final class PolygonPointSampler {
+
+    private final static Logger logger = LogManager.getLogger(PolygonPointSampler.class);
+
+    private static final double AREA_TOLERANCE = 1e-6;
+
+    /**
+     * Triangles as {ax, ay, bx - ax, by - ay, cx - ax, cy - ay}, or null if rejection sampling is used.
+     */
+    private final AliasSampler<double[]> triangles;
+
+    private final PreparedGeometry geometry;
+    private final Envelope envelope;
+
+    public PolygonPointSampler(Geometry geometry) {
+        this(geometry, true);
+    }
+
+    /**
+     * @param triangulate false to always use rejection sampling, as for geometries that can not be triangulated
+     */
+    PolygonPointSampler(Geometry geometry, boolean triangulate) {
+        this.geometry = PreparedGeometryFactory.prepare(geometry);
+        this.envelope = geometry.getEnvelopeInternal();
+        this.triangles = triangulate ? triangulate(geometry) : null;
+    }
+
+    /**
+     * @return true if points are drawn from triangles, false if rejection sampling is used
+     */
+    boolean isTriangulated() {
+        return triangles != null;
+    }
+
+    public Coordinate sample(Random random) {
+        if (triangles == null) {
+            return sampleByRejection(random);
+        }
+        final double[] triangle;
+        try {
+            triangle = triangles.sampleObject(random);
+        } catch (SampleException e) {
+            throw new RuntimeException(e);
+        }
+        double u = random.nextDouble();
+        double v = random.nextDouble();
+        // mirrors points of the parallelogram spanned by the triangle back into the triangle
+        if (u + v > 1) {
+            u = 1 - u;
+            v = 1 - v;
+        }
+        return new Coordinate(triangle[0] + u * triangle[2] + v * triangle[4],
+                triangle[1] + u * triangle[3] + v * triangle[5]);
+    }
+
+    private Coordinate sampleByRejection(Random random) {
+        final Geometry polygon = geometry.getGeometry();
+        for (int i = 0; i < 100000; i++) {
+            final Coordinate coordinate = new Coordinate(envelope.getMinX() + envelope.getWidth() * random.nextDouble(),
+                    envelope.getMinY() + envelope.getHeight() * random.nextDouble());
+            if (geometry.contains(polygon.getFactory().createPoint(coordinate))) {
+                return coordinate;
+            }
+        }
+        throw new RuntimeException("Could not draw a point within " + polygon.getGeometryType()
+                + " with envelope " + envelope);
+    }
+
+    /**
+     * Triangulates the geometry with a Delaunay triangulation conforming to its edges, so that every triangle is
+     * either inside or outside of it. Returns null if the triangles inside do not cover the area of the geometry.
+     */
+    private AliasSampler<double[]> triangulate(Geometry polygon) {
+        if (polygon.getArea() <= 0) {
+            return null;
+        }
+        final Geometry triangulation;
+        try {
+            final ConformingDelaunayTriangulationBuilder builder = new ConformingDelaunayTriangulationBuilder();
+            builder.setSites(polygon);
+            builder.setConstraints(polygon);
+            triangulation = builder.getTriangles(polygon.getFactory());
+        } catch (RuntimeException e) {
+            logger.warn("Could not triangulate " + polygon.getGeometryType() + " with envelope " + envelope
+                    + ", using rejection sampling instead: " + e.getMessage());
+            return null;
+        }
+
+        final List<double[]> insideTriangles = new ArrayList<>();
+        final List<Double> areas = new ArrayList<>();
+        double totalArea = 0;
+        for (int i = 0; i < triangulation.getNumGeometries(); i++) {
+            final Coordinate[] corners = triangulation.getGeometryN(i).getCoordinates();
+            final double ax = corners[0].x;
+            final double ay = corners[0].y;
+            final double[] triangle = {ax, ay, corners[1].x - ax, corners[1].y - ay, corners[2].x - ax, corners[2].y - ay};
+            final double area = Math.abs(triangle[2] * triangle[5] - triangle[3] * triangle[4]) / 2;
+            final Coordinate centroid = new Coordinate(ax + (triangle[2] + triangle[4]) / 3, ay + (triangle[3] + triangle[5]) / 3);
+            if (area > 0 && geometry.contains(polygon.getFactory().createPoint(centroid))) {
+                insideTriangles.add(triangle);
+                areas.add(area);
+                totalArea += area;
+            }
+        }
+        if (Math.abs(totalArea - polygon.getArea()) > AREA_TOLERANCE * polygon.getArea()) {
+            logger.warn("Triangles of " + polygon.getGeometryType() + " with envelope " + envelope + " cover an area of "
+                    + totalArea + " instead of " + polygon.getArea() + ", using rejection sampling instead.");
+            return null;
+        }
+        return new AliasSampler<>(insideTriangles.toArray(new double[0][]),
+                areas.stream().mapToDouble(Double::doubleValue).toArray(), null);
+    }
+}
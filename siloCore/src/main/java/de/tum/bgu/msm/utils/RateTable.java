@@ -0,0 +1,143 @@
+package de.tum.bgu.msm.utils;
+
+import de.tum.bgu.msm.io.input.FastCsvReader;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dense table of rates (e.g. probabilities by gender and age) with up to three integer dimensions, so that a rate
+ * is looked up with one array access instead of evaluating the rule it was derived from. Indices larger than the
+ * last index of a dimension use the last index, e.g. a table of ages up to 100 returns the rate of age 100 for all
+ * older persons. Negative indices are not allowed.
+ * <p>
+ * Tables are compiled once from a function, e.g. from hard-coded constants with {@link #compile(Rate2, int, int)},
+ * or read from a csv file with {@link #read(String, String, String...)}.
+ */
+public final class RateTable {
+
+    public interface Rate1 {
+        double rate(int i);
+    }
+
+    public interface Rate2 {
+        double rate(int i, int j);
+    }
+
+    public interface Rate3 {
+        double rate(int i, int j, int k);
+    }
+
+    private final int size0;
+    private final int size1;
+    private final int size2;
+    private final double[] rates;
+
+    private RateTable(int size0, int size1, int size2) {
+        if (size0 <= 0 || size1 <= 0 || size2 <= 0) {
+            throw new IllegalArgumentException("Dimensions of a rate table must not be empty.");
+        }
+        this.size0 = size0;
+        this.size1 = size1;
+        this.size2 = size2;
+        this.rates = new double[size0 * size1 * size2];
+    }
+
+    public static RateTable compile(Rate1 rate, int size) {
+        final RateTable table = new RateTable(size, 1, 1);
+        for (int i = 0; i < size; i++) {
+            table.rates[i] = rate.rate(i);
+        }
+        return table;
+    }
+
+    public static RateTable compile(Rate2 rate, int size0, int size1) {
+        final RateTable table = new RateTable(size0, size1, 1);
+        for (int i = 0; i < size0; i++) {
+            for (int j = 0; j < size1; j++) {
+                table.rates[i * size1 + j] = rate.rate(i, j);
+            }
+        }
+        return table;
+    }
+
+    public static RateTable compile(Rate3 rate, int size0, int size1, int size2) {
+        final RateTable table = new RateTable(size0, size1, size2);
+        for (int i = 0; i < size0; i++) {
+            for (int j = 0; j < size1; j++) {
+                for (int k = 0; k < size2; k++) {
+                    table.rates[(i * size1 + j) * size2 + k] = rate.rate(i, j, k);
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Reads a table from a csv file with one row per cell. The given index columns hold the (non-negative) indices
+     * of the cell in every dimension, the rate column holds its rate. The size of each dimension is its largest index
+     * plus one, cells without a row have a rate of 0.
+     */
+    public static RateTable read(String fileName, String rateColumn, String... indexColumns) {
+        if (indexColumns.length < 1 || indexColumns.length > 3) {
+            throw new IllegalArgumentException("Rate tables have one to three dimensions.");
+        }
+        final List<int[]> indices = new ArrayList<>();
+        final List<Double> values = new ArrayList<>();
+        final int[] sizes = {1, 1, 1};
+        try (FastCsvReader reader = new FastCsvReader(fileName, ',')) {
+            final int rateIndex = SiloUtil.findPositionInArray(rateColumn, reader.getHeader());
+            final int[] positions = new int[indexColumns.length];
+            for (int d = 0; d < indexColumns.length; d++) {
+                positions[d] = SiloUtil.findPositionInArray(indexColumns[d], reader.getHeader());
+            }
+            FastCsvReader.Record record;
+            while ((record = reader.nextRecord()) != null) {
+                final int[] cell = new int[3];
+                for (int d = 0; d < positions.length; d++) {
+                    cell[d] = record.getInt(positions[d]);
+                    if (cell[d] < 0) {
+                        throw new IllegalArgumentException("Negative index " + cell[d] + " in column "
+                                + indexColumns[d] + " of " + fileName);
+                    }
+                    sizes[d] = Math.max(sizes[d], cell[d] + 1);
+                }
+                indices.add(cell);
+                values.add(record.getDouble(rateIndex));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read rate table " + fileName, e);
+        }
+        final RateTable table = new RateTable(sizes[0], sizes[1], sizes[2]);
+        for (int i = 0; i < indices.size(); i++) {
+            final int[] cell = indices.get(i);
+            table.rates[(cell[0] * sizes[1] + cell[1]) * sizes[2] + cell[2]] = values.get(i);
+        }
+        return table;
+    }
+
+    public double get(int i) {
+        return rates[index(i, size0)];
+    }
+
+    public double get(int i, int j) {
+        return rates[index(i, size0) * size1 + index(j, size1)];
+    }
+
+    public double get(int i, int j, int k) {
+        return rates[(index(i, size0) * size1 + index(j, size1)) * size2 + index(k, size2)];
+    }
+
+    private static int index(int index, int size) {
+        if (index < 0) {
+            throw new IllegalArgumentException("Negative index " + index + " in rate table.");
+        }
+        return Math.min(index, size - 1);
+    }
+
+    @Override
+    public String toString() {
+        return "RateTable " + size0 + "x" + size1 + "x" + size2;
+    }
+}
@@ -7,6 +7,7 @@ import de.tum.bgu.msm.common.matrix.Matrix;
 import de.tum.bgu.msm.container.DataContainer;
 import de.tum.bgu.msm.container.ModelContainer;
 import de.tum.bgu.msm.data.SummarizeData;
+import de.tum.bgu.msm.io.output.AsyncFileWriter;
 import de.tum.bgu.msm.properties.Properties;
 import de.tum.bgu.msm.properties.PropertiesUtil;
 import omx.OmxMatrix;
@@ -38,7 +39,8 @@ public class SiloUtil {
     private final static Logger logger = LogManager.getLogger(SiloUtil.class);
 
     private static final String TIME_TRACKER_FILE = "timeTracker.csv";
-    private static Random rand;
+    private static final String EVENT_TIME_TRACKER_FILE = "eventTimeTracker.csv";
+    private static CheckpointableRandom rand;
     public static int trackHh;
     public static int trackPp;
     public static int trackDd;
@@ -63,6 +65,8 @@ public class SiloUtil {
         PropertiesUtil.writePropertiesForThisRun(propertiesPath);
 
         initializeRandomNumber(properties.main.randomSeed);
+        AsyncFileWriter.setAsynchronous(properties.main.asynchronousOutput);
+        AsyncFileWriter.setCompressionLevel(properties.main.outputCompressionLevel);
         trackingFile("open");
         loadHdf5Lib();
         return properties;
@@ -176,21 +180,40 @@ public class SiloUtil {
 
     public static void initializeRandomNumber(int seed) {
         if (seed == -1)
-            rand = new Random();
+            rand = new CheckpointableRandom(new Random().nextLong());
         else
-            rand = new Random(seed);
+            rand = new CheckpointableRandom(seed);
     }
 
 
     public static Random getRandomObject() {
         if(rand == null) {
-            rand = new Random(42);
+            rand = new CheckpointableRandom(42);
         }
         return rand;
     }
 
     public static Random provideNewRandom() {
-        return new Random(getRandomObject().nextInt());
+        return CheckpointableRandom.createRegistered(getRandomObject().nextInt());
+    }
+
+    /**
+     * Writes the state of the random object and of all random number generators
+     * provided by {@link #provideNewRandom()} that are still in use.
+     */
+    public static void writeRandomStates(DataOutput out) throws IOException {
+        ((CheckpointableRandom) getRandomObject()).writeState(out);
+        CheckpointableRandom.writeRegisteredStates(out);
+    }
+
+    /**
+     * Restores the random states written by {@link #writeRandomStates(DataOutput)}. Needs to be called after all models
+     * were created, as the generators are matched by the order in which they were provided.
+     */
+    public static void readRandomStates(DataInput in) throws IOException {
+        ((CheckpointableRandom) getRandomObject()).readState(in);
+        final int restored = CheckpointableRandom.readRegisteredStates(in);
+        logger.info("Restored the state of " + restored + " random number generators.");
     }
 
     public static float getRandomNumberAsFloat() {
@@ -344,6 +367,21 @@ public class SiloUtil {
     }
 
 
+    /**
+     * Opens a file like {@link #openFileForSequentialWriting(String, boolean)}, but the file is written by an
+     * {@link AsyncFileWriter}, i.e. in the background if asynchronous output is enabled. Files ending with ".gz"
+     * are compressed.
+     */
+    public static PrintWriter openFileForAsyncWriting(String fileName, boolean appendFile) {
+        try {
+            return new PrintWriter(new AsyncFileWriter(new File(fileName), appendFile));
+        } catch (IOException e) {
+            logger.error("Could not open file <" + fileName + ">.");
+            return null;
+        }
+    }
+
+
     public static void writeTableDataSet (TableDataSet data, String fileName) {
         try {
             CSVFileWriter cfwWriter = new CSVFileWriter();
@@ -1100,6 +1138,12 @@ public class SiloUtil {
     public static void closeAllFiles (long startTime, TimeTracker timeTracker) {
         // run this method whenever SILO closes, regardless of whether SILO completed successfully or SILO crashed
         trackingFile("close");
+        try {
+            AsyncFileWriter.awaitAll();
+        } catch (IOException e) {
+            // only reached if the run failed before, so the original error is not hidden
+            logger.error("Could not write all output files.", e);
+        }
         SummarizeData.resultFileSpatial("close");
         SummarizeData.resultFileSpatial_2("close");
         float endTime = rounder(((System.currentTimeMillis() - startTime) / 60000), 1);
@@ -1165,4 +1209,20 @@ public class SiloUtil {
         pw.write(timeTracker.toString());
         pw.close();
     }
-}
\ No newline at end of file
+
+    public static void writeOutEventTimeTracker (EventTimeTracker eventTimeTracker, int year) {
+        // append counts and run times of the events handled in this year, next to the file summarizing model run times
+
+        boolean append = year != Properties.get().main.baseYear;
+        String fileName = Properties.get().main.baseDirectory + "scenOutput/" +
+                Properties.get().main.scenarioName + "/" + EVENT_TIME_TRACKER_FILE;
+        boolean writeHeader = !append || !new File(fileName).exists();
+        PrintWriter pw = openFileForSequentialWriting(fileName, append);
+        if (writeHeader) {
+            pw.println(EventTimeTracker.HEADER);
+        }
+        pw.write(eventTimeTracker.toCsv(year));
+        pw.close();
+        eventTimeTracker.reset();
+    }
+}
@@ -0,0 +1,151 @@
+package de.tum.bgu.msm.utils;
+
+import de.tum.bgu.msm.data.Id;
+import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix2D;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary cache for skim matrices, so that skims of repeated runs do not have to be decoded from omx (hdf5) again.
+ * The file consists of a header with the length and modification time of the omx file it was created from, the
+ * dimensions, the factor that was applied to the skim and the zone ids of rows and columns, followed by the travel times as 64 bit doubles in row-major order, so that a skim read
+ * from the cache is identical to the skim read from omx. Cache files are read through a memory-mapped file channel.
+ */
+public final class SkimCache {
+
+    private static final Logger logger = LogManager.getLogger(SkimCache.class);
+
+    private static final int MAGIC = 0x534b494d;
+    private static final int VERSION = 3;
+    private static final int FIXED_HEADER_BYTES = 4 * Integer.BYTES + 2 * Long.BYTES + Double.BYTES;
+
+    private SkimCache() {
+    }
+
+    /**
+     * Returns the cache file for the given omx file and matrix name.
+     */
+    public static File cacheFileFor(String omxFile, String matrixName) {
+        return new File(omxFile + "." + matrixName + ".skimcache");
+    }
+
+    /**
+     * Writes the skim that was read from the given omx file to the cache file. The file is written to a temporary file
+     * first and then moved, so that concurrent runs never see an incomplete cache.
+     */
+    public static void write(IndexedDoubleMatrix2D skim, double factor, String omxFile, File cacheFile) throws IOException {
+        final File source = new File(omxFile);
+        final int rows = skim.rows();
+        final int columns = skim.columns();
+        final int[] rowIds = new int[rows];
+        final int[] columnIds = new int[columns];
+        for (int row = 0; row < rows; row++) {
+            rowIds[row] = skim.getIdForInternalRowIndex(row);
+        }
+        for (int column = 0; column < columns; column++) {
+            columnIds[column] = skim.getIdForInternalColumnIndex(column);
+        }
+        final File tempFile = new File(cacheFile.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(source.length());
+            out.writeLong(source.lastModified());
+            out.writeInt(rows);
+            out.writeInt(columns);
+            out.writeDouble(factor);
+            for (int id : rowIds) {
+                out.writeInt(id);
+            }
+            for (int id : columnIds) {
+                out.writeInt(id);
+            }
+            for (int row = 0; row < rows; row++) {
+                for (int column = 0; column < columns; column++) {
+                    out.writeDouble(skim.getIndexed(rowIds[row], columnIds[column]));
+                }
+            }
+        }
+        Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        logger.info("Wrote skim cache " + cacheFile);
+    }
+
+    /**
+     * Reads a skim from the cache file. Returns null if the cache file does not exist, is not a valid cache of this
+     * version, was created from an omx file with a different length or modification time (e.g. an older copy that
+     * replaced the original) or with a different factor, in which case the skim needs to be read from omx again.
+     */
+    public static IndexedDoubleMatrix2D read(File cacheFile, String omxFile, double factor) throws IOException {
+        if (!cacheFile.isFile()) {
+            return null;
+        }
+        final File source = new File(omxFile);
+        try (FileChannel channel = FileChannel.open(cacheFile.toPath(), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size < FIXED_HEADER_BYTES) {
+                return null;
+            }
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            final long sourceLength = buffer.getLong();
+            final long sourceLastModified = buffer.getLong();
+            if (sourceLength != source.length() || sourceLastModified != source.lastModified()) {
+                logger.info("Skim cache " + cacheFile + " was created from a different version of " + omxFile);
+                return null;
+            }
+            final int rows = buffer.getInt();
+            final int columns = buffer.getInt();
+            final double cachedFactor = buffer.getDouble();
+            if (cachedFactor != factor) {
+                logger.info("Skim cache " + cacheFile + " was created with factor " + cachedFactor + ", not " + factor);
+                return null;
+            }
+            if (size != FIXED_HEADER_BYTES + (long) (rows + columns) * Integer.BYTES + (long) rows * columns * Double.BYTES) {
+                return null;
+            }
+            final int[] rowIds = new int[rows];
+            final int[] columnIds = new int[columns];
+            for (int row = 0; row < rows; row++) {
+                rowIds[row] = buffer.getInt();
+            }
+            for (int column = 0; column < columns; column++) {
+                columnIds[column] = buffer.getInt();
+            }
+            final IndexedDoubleMatrix2D skim = new IndexedDoubleMatrix2D(toIds(rowIds), toIds(columnIds));
+            final DoubleBuffer values = buffer.slice().order(ByteOrder.BIG_ENDIAN).asDoubleBuffer();
+            for (int row = 0; row < rows; row++) {
+                final int offset = row * columns;
+                for (int column = 0; column < columns; column++) {
+                    skim.setIndexed(rowIds[row], columnIds[column], values.get(offset + column));
+                }
+            }
+            return skim;
+        }
+    }
+
+    private static List<Id> toIds(int[] ids) {
+        final List<Id> list = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            list.add(() -> id);
+        }
+        return list;
+    }
+}
@@ -2,21 +2,60 @@ package de.tum.bgu.msm.utils;
 
 import de.tum.bgu.msm.data.travelTimes.SkimTravelTimes;
 import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix2D;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.matsim.api.core.v01.TransportMode;
 
+import java.io.File;
+import java.io.IOException;
+
 public class TravelTimeUtil {
 
+    private static final Logger logger = LogManager.getLogger(TravelTimeUtil.class);
+
     public static void updateTransitSkim(SkimTravelTimes travelTimes, int year, Properties properties) {
         final String transitSkimFile = properties.accessibility.transitSkimFile(year);
-        travelTimes.readSkim(TransportMode.pt, transitSkimFile,
-                properties.accessibility.transitPeakSkim, properties.accessibility.skimFileFactorTransit);
+        readSkim(travelTimes, TransportMode.pt, transitSkimFile,
+                properties.accessibility.transitPeakSkim, properties.accessibility.skimFileFactorTransit, properties);
     }
 
     public static void updateCarSkim(SkimTravelTimes travelTimes, int year, Properties properties) {
         final String carSkimFile = properties.accessibility.autoSkimFile(year);
-        travelTimes.readSkim(TransportMode.car, carSkimFile,
-                properties.accessibility.autoPeakSkim, properties.accessibility.skimFileFactorCar);
+        readSkim(travelTimes, TransportMode.car, carSkimFile,
+                properties.accessibility.autoPeakSkim, properties.accessibility.skimFileFactorCar, properties);
+    }
+
+    private static void readSkim(SkimTravelTimes travelTimes, String mode, String file, String matrixName,
+                                 double factor, Properties properties) {
+        readSkimFromFileOrCache(travelTimes, mode, file, matrixName, factor, properties);
+        if (properties.accessibility.fillIntrazonalSkimValues) {
+            IntrazonalTravelTimes.assign(travelTimes.getPeakSkim(mode), 5, Float.MAX_VALUE, 0.66f);
+        }
+    }
+
+    private static void readSkimFromFileOrCache(SkimTravelTimes travelTimes, String mode, String file, String matrixName,
+                                                double factor, Properties properties) {
+        if (!properties.accessibility.useSkimCache) {
+            travelTimes.readSkim(mode, file, matrixName, factor);
+            return;
+        }
+        final File cacheFile = SkimCache.cacheFileFor(file, matrixName);
+        try {
+            final IndexedDoubleMatrix2D skim = SkimCache.read(cacheFile, file, factor);
+            if (skim != null) {
+                logger.info("Read " + mode + " skim from cache " + cacheFile);
+                travelTimes.updateSkimMatrix(skim, mode);
+                return;
+            }
+        } catch (IOException e) {
+            logger.warn("Could not read skim cache " + cacheFile + ". Reading " + file + " instead.", e);
+        }
+        travelTimes.readSkim(mode, file, matrixName, factor);
+        try {
+            SkimCache.write(travelTimes.getPeakSkim(mode), factor, file, cacheFile);
+        } catch (IOException e) {
+            logger.warn("Could not write skim cache " + cacheFile, e);
+        }
     }
 }
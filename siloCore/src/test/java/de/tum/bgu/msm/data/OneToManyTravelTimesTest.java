@@ -0,0 +1,121 @@
+package de.tum.bgu.msm.data;
+
+import de.tum.bgu.msm.data.geo.DefaultGeoData;
+import de.tum.bgu.msm.data.geo.GeoData;
+import de.tum.bgu.msm.data.geo.RegionImpl;
+import de.tum.bgu.msm.data.geo.ZoneImpl;
+import de.tum.bgu.msm.data.travelTimes.SkimTravelTimes;
+import de.tum.bgu.msm.data.travelTimes.TravelTimes;
+import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix2D;
+import org.junit.Assert;
+import org.junit.Test;
+import org.matsim.api.core.v01.TransportMode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class OneToManyTravelTimesTest {
+
+    private static final double TIME_OF_DAY = 8 * 3600;
+
+    @Test
+    public void testSkimTravelTimesEqualSingleQueries() {
+        final GeoData geoData = createGeoData();
+        final Random random = new Random(42);
+        final IndexedDoubleMatrix2D car = new IndexedDoubleMatrix2D(geoData.getZones().values(), geoData.getZones().values());
+        car.assign(argument -> random.nextDouble() * 60);
+        final IndexedDoubleMatrix2D pt = new IndexedDoubleMatrix2D(geoData.getZones().values(), geoData.getZones().values());
+        pt.assign(argument -> random.nextDouble() * 90);
+        final SkimTravelTimes skimTravelTimes = new SkimTravelTimes();
+        skimTravelTimes.updateSkimMatrix(car, TransportMode.car);
+        skimTravelTimes.updateSkimMatrix(pt, TransportMode.pt);
+
+        assertEqualToSingleQueries(skimTravelTimes, geoData, TransportMode.car);
+        assertEqualToSingleQueries(skimTravelTimes, geoData, TransportMode.pt);
+
+        final TravelTimesWrapper wrapper = new TravelTimesWrapper(skimTravelTimes, null, geoData);
+        assertEqualToSingleQueries(wrapper, geoData, TransportMode.car);
+        assertEqualToSingleQueries(wrapper, geoData, TransportMode.pt);
+    }
+
+    @Test
+    public void testOtherTravelTimesEqualSingleQueries() {
+        final GeoData geoData = createGeoData();
+        final TravelTimes travelTimes = new PairwiseTravelTimes();
+
+        assertEqualToSingleQueries(travelTimes, geoData, TransportMode.car);
+        assertEqualToSingleQueries(travelTimes, geoData, TransportMode.walk);
+
+        final TravelTimesWrapper wrapper = new TravelTimesWrapper(travelTimes, null, geoData);
+        assertEqualToSingleQueries(wrapper, geoData, TransportMode.car);
+    }
+
+    @Test
+    public void testNoDestinations() {
+        final GeoData geoData = createGeoData();
+        final double[] times = OneToManyTravelTimes.getTravelTimes(new PairwiseTravelTimes(),
+                geoData.getZones().get(1), new ArrayList<Zone>(), TIME_OF_DAY, TransportMode.car);
+        Assert.assertEquals(0, times.length);
+    }
+
+    private static void assertEqualToSingleQueries(TravelTimes travelTimes, GeoData geoData, String mode) {
+        final List<Zone> destinations = new ArrayList<>(geoData.getZones().values());
+        // repeated destinations and an order that differs from the zone ids
+        destinations.add(geoData.getZones().get(3));
+        destinations.add(0, geoData.getZones().get(5));
+        for (Zone origin : geoData.getZones().values()) {
+            final double[] times = OneToManyTravelTimes.getTravelTimes(travelTimes, origin, destinations, TIME_OF_DAY, mode);
+            Assert.assertEquals(destinations.size(), times.length);
+            for (int i = 0; i < times.length; i++) {
+                Assert.assertEquals(travelTimes.getTravelTime(origin, destinations.get(i), TIME_OF_DAY, mode), times[i], 0.);
+            }
+        }
+    }
+
+    private static GeoData createGeoData() {
+        final GeoData geoData = new DefaultGeoData();
+        final RegionImpl region1 = new RegionImpl(1);
+        final RegionImpl region2 = new RegionImpl(2);
+        geoData.addRegion(region1);
+        geoData.addRegion(region2);
+        for (int id = 1; id <= 5; id++) {
+            final RegionImpl region = id <= 3 ? region1 : region2;
+            final ZoneImpl zone = new ZoneImpl(id, 10, region);
+            region.addZone(zone);
+            geoData.addZone(zone);
+        }
+        return geoData;
+    }
+
+    /**
+     * Travel times that can only be queried per origin destination pair.
+     */
+    private static final class PairwiseTravelTimes implements TravelTimes {
+
+        @Override
+        public double getTravelTime(Location origin, Location destination, double timeOfDay_s, String mode) {
+            return 7.5 * origin.getZoneId() + destination.getZoneId() + timeOfDay_s / 3600 + mode.length();
+        }
+
+        @Override
+        public double getTravelTimeFromRegion(Region origin, Zone destination, double timeOfDay_s, String mode) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public double getTravelTimeToRegion(Zone origin, Region destination, double timeOfDay_s, String mode) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public IndexedDoubleMatrix2D getPeakSkim(String mode) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public TravelTimes duplicate() {
+            return this;
+        }
+    }
+}
@@ -15,6 +15,7 @@ import de.tum.bgu.msm.data.job.JobFactoryImpl;
 import de.tum.bgu.msm.data.travelTimes.SkimTravelTimes;
 import de.tum.bgu.msm.data.travelTimes.TravelTimes;
 import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix1D;
 import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix2D;
 import org.junit.Assert;
 import org.junit.Test;
@@ -234,4 +235,38 @@ public class AccessibilityTest {
         Assert.assertEquals(86.2602, accessibility.getRegionalAccessibility(region2), 0.001);
         Assert.assertEquals(65.0838, accessibility.getRegionalAccessibility(region3), 0.001);
     }
+
+    @Test
+    public void testIncrementalAccessibilitiesMatchFullCalculation() {
+        GeoData geoData = new DefaultGeoData();
+        final RegionImpl region = new RegionImpl(1);
+        geoData.addRegion(region);
+        for (int i = 1; i <= 8; i++) {
+            final ZoneImpl zone = new ZoneImpl(i, 10, region);
+            region.addZone(zone);
+            geoData.addZone(zone);
+        }
+
+        Random random = new Random(42);
+        IndexedDoubleMatrix2D travelTimes = new IndexedDoubleMatrix2D(geoData.getZones().values(), geoData.getZones().values());
+        travelTimes.assign(argument -> random.nextDouble() * 10);
+        travelTimes.setIndexed(2, 3, 0);
+        IndexedDoubleMatrix1D employment = new IndexedDoubleMatrix1D(geoData.getZones().values());
+        employment.assign(argument -> random.nextInt(20));
+
+        IndexedDoubleMatrix1D full = new IndexedDoubleMatrix1D(geoData.getZones().values());
+        IndexedDoubleMatrix1D incremental = new IndexedDoubleMatrix1D(geoData.getZones().values());
+        final IndexedDoubleMatrix2D zoneToZone =
+                AccessibilityImpl.calculateZoneToZoneAccessibilities(employment, travelTimes, 1.2, -0.3);
+        AccessibilityImpl.aggregateAccessibilities(zoneToZone, zoneToZone, full, full, geoData.getZones().keySet());
+
+        AccessibilityImpl.HansenImpedance impedance = new AccessibilityImpl.HansenImpedance(travelTimes, -0.3);
+        Assert.assertTrue(impedance.isFor(travelTimes));
+        Assert.assertFalse(impedance.isFor(travelTimes.copy()));
+        impedance.aggregateAccessibilities(employment, 1.2, incremental, geoData.getZones().keySet());
+
+        for (int zone : geoData.getZones().keySet()) {
+            Assert.assertEquals(full.getIndexed(zone), incremental.getIndexed(zone), 1e-9);
+        }
+    }
 }
@@ -0,0 +1,80 @@
+package de.tum.bgu.msm.data.dwelling;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class VacantDwellingIndexTest {
+
+    private static Dwelling createDwelling(int id) {
+        return new DwellingFactoryImpl().createDwelling(id, 1, null, -1,
+                DefaultDwellingTypes.DefaultDwellingTypeImpl.SFD, 3, 3, 1000, 2000);
+    }
+
+    @Test
+    public void testAddAndRemove() {
+        VacantDwellingIndex index = new VacantDwellingIndex();
+        List<Dwelling> dwellings = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            Dwelling dwelling = createDwelling(i);
+            dwellings.add(dwelling);
+            Assert.assertTrue(index.add(1, dwelling));
+        }
+        Assert.assertFalse(index.add(1, dwellings.get(0)));
+        Assert.assertEquals(10, index.getNumberOfVacantDwellings(1));
+
+        Assert.assertTrue(index.remove(1, dwellings.get(2)));
+        Assert.assertTrue(index.remove(1, dwellings.get(9)));
+        Assert.assertTrue(index.remove(1, dwellings.get(0)));
+        Assert.assertFalse(index.remove(1, dwellings.get(2)));
+        Assert.assertFalse(index.remove(2, dwellings.get(3)));
+        Assert.assertEquals(7, index.getNumberOfVacantDwellings(1));
+        Assert.assertEquals(0, index.getNumberOfVacantDwellings(2));
+
+        List<Integer> remaining = new ArrayList<>();
+        for (Dwelling dwelling : index.getVacantDwellings(1)) {
+            remaining.add(dwelling.getId());
+        }
+        Assert.assertEquals(Arrays.asList(2, 4, 5, 6, 7, 8, 9), remaining);
+    }
+
+    @Test
+    public void testOrderMatchesList() {
+        VacantDwellingIndex index = new VacantDwellingIndex();
+        List<Dwelling> list = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 1; i <= 1000; i++) {
+            Dwelling dwelling = createDwelling(i);
+            index.add(1, dwelling);
+            list.add(dwelling);
+            if (random.nextDouble() < 0.6) {
+                Dwelling removed = list.remove(random.nextInt(list.size()));
+                Assert.assertTrue(index.remove(1, removed));
+            }
+            if (i % 100 == 0) {
+                Assert.assertEquals(list, index.getVacantDwellings(1));
+                Assert.assertEquals(list, new ArrayList<>(index.getVacantDwellings(1)));
+                for (int j = 0; j < list.size(); j++) {
+                    Assert.assertSame(list.get(j), index.getVacantDwellings(1).get(j));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSampleIsDistinctAndReproducible() {
+        VacantDwellingIndex index = new VacantDwellingIndex();
+        for (int i = 1; i <= 100; i++) {
+            index.add(1, createDwelling(i));
+        }
+        List<Dwelling> first = index.sample(1, 20, new Random(42));
+        List<Dwelling> second = index.sample(1, 20, new Random(42));
+        Assert.assertEquals(20, first.size());
+        Assert.assertEquals(20, new HashSet<>(first).size());
+        Assert.assertEquals(first, second);
+
+        Assert.assertEquals(100, index.sample(1, 200, new Random(42)).size());
+        Assert.assertTrue(index.sample(2, 20, new Random(42)).isEmpty());
+    }
+}
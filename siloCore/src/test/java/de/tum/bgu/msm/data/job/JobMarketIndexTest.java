@@ -0,0 +1,94 @@
+package de.tum.bgu.msm.data.job;
+
+import de.tum.bgu.msm.data.Region;
+import de.tum.bgu.msm.data.geo.RegionImpl;
+import de.tum.bgu.msm.utils.SampleException;
+import de.tum.bgu.msm.utils.Sampler;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class JobMarketIndexTest {
+
+    @Test
+    public void testAddAndRemoveVacantJobs() {
+        JobMarketIndex index = new JobMarketIndex();
+        JobFactory factory = new JobFactoryImpl();
+        List<Job> jobs = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            Job job = factory.createJob(i, 1, null, -1, null);
+            jobs.add(job);
+            Assert.assertTrue(index.addVacantJob(1, job));
+        }
+        Assert.assertFalse(index.addVacantJob(1, jobs.get(0)));
+        Assert.assertEquals(5, index.getNumberOfVacantJobs(1));
+
+        Assert.assertSame(jobs.get(1), index.removeVacantJob(1, 1));
+        Assert.assertSame(jobs.get(2), index.removeVacantJob(1, 1));
+        Assert.assertEquals(3, index.getNumberOfVacantJobs(1));
+        Assert.assertTrue(index.addVacantJob(1, jobs.get(1)));
+
+        // the remaining jobs keep their order, as in a list the jobs are removed from
+        List<Integer> remaining = new ArrayList<>();
+        for (Job job : index.getVacantJobsByRegion().get(1)) {
+            remaining.add(job.getId());
+        }
+        Assert.assertEquals(Arrays.asList(1, 4, 5, 2), remaining);
+
+        index.clearVacantJobs();
+        Assert.assertEquals(0, index.getNumberOfVacantJobs(1));
+        Assert.assertTrue(index.addVacantJob(1, jobs.get(0)));
+    }
+
+    @Test
+    public void testRemovalMatchesList() {
+        JobMarketIndex index = new JobMarketIndex();
+        JobFactory factory = new JobFactoryImpl();
+        Map<Integer, List<Job>> lists = new HashMap<>();
+        Random random = new Random(42);
+        int nextId = 1;
+        for (int i = 0; i < 20000; i++) {
+            int region = 1 + random.nextInt(3);
+            List<Job> list = lists.computeIfAbsent(region, r -> new ArrayList<>());
+            if (list.isEmpty() || random.nextDouble() < 0.55) {
+                Job job = factory.createJob(nextId++, region, null, -1, null);
+                list.add(job);
+                Assert.assertTrue(index.addVacantJob(region, job));
+            } else if (random.nextBoolean()) {
+                int position = random.nextInt(list.size());
+                Assert.assertSame(list.remove(position), index.removeVacantJob(region, position));
+            } else {
+                Job job = list.remove(random.nextInt(list.size()));
+                Assert.assertTrue(index.removeVacantJob(job));
+                Assert.assertFalse(index.removeVacantJob(job));
+            }
+        }
+        for (Map.Entry<Integer, List<Job>> entry : lists.entrySet()) {
+            List<Job> list = entry.getValue();
+            Assert.assertEquals(list.size(), index.getNumberOfVacantJobs(entry.getKey()));
+            Assert.assertEquals(list, new ArrayList<>(index.getVacantJobsByRegion().get(entry.getKey())));
+            for (int i = 0; i < list.size(); i++) {
+                Assert.assertSame(list.get(i), index.getVacantJob(entry.getKey(), i));
+            }
+        }
+    }
+
+    @Test
+    public void testRegionChoiceMatchesSampler() throws SampleException {
+        JobMarketIndex.RegionChoice choice = new JobMarketIndex.RegionChoice();
+        Region[] regions = {new RegionImpl(1), new RegionImpl(2), new RegionImpl(3), new RegionImpl(4)};
+        double[] weights = {0.5, 0, 2.5, 1};
+        Random random = new Random(42);
+        Random samplerRandom = new Random(42);
+        for (int i = 0; i < 100; i++) {
+            choice.clear(regions.length);
+            Sampler<Region> sampler = new Sampler<>(regions.length, Region.class, samplerRandom);
+            for (int j = 0; j < regions.length; j++) {
+                choice.add(regions[j], weights[j]);
+                sampler.incrementalAdd(regions[j], weights[j]);
+            }
+            Assert.assertSame(sampler.sampleObject(), choice.choose(random));
+        }
+    }
+}
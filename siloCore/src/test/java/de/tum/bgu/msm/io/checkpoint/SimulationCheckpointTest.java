@@ -0,0 +1,264 @@
+package de.tum.bgu.msm.io.checkpoint;
+
+import de.tum.bgu.msm.container.DataContainer;
+import de.tum.bgu.msm.container.DefaultDataContainer;
+import de.tum.bgu.msm.container.ModelContainer;
+import de.tum.bgu.msm.data.dwelling.*;
+import de.tum.bgu.msm.data.geo.DefaultGeoData;
+import de.tum.bgu.msm.data.geo.GeoData;
+import de.tum.bgu.msm.data.geo.RegionImpl;
+import de.tum.bgu.msm.data.geo.ZoneImpl;
+import de.tum.bgu.msm.data.household.*;
+import de.tum.bgu.msm.data.job.*;
+import de.tum.bgu.msm.data.person.*;
+import de.tum.bgu.msm.data.vehicle.Car;
+import de.tum.bgu.msm.data.vehicle.CarType;
+import de.tum.bgu.msm.data.vehicle.Vehicle;
+import de.tum.bgu.msm.models.ModelUpdateListener;
+import de.tum.bgu.msm.properties.Properties;
+import de.tum.bgu.msm.utils.SiloUtil;
+import org.junit.Assert;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+public class SimulationCheckpointTest {
+
+    private static final Properties PROPERTIES = Properties.initializeProperties("./test/silo.properties");
+
+    private static final class CountingModel implements ModelUpdateListener, Checkpointable {
+        private int count;
+        private int resumeYear = -1;
+
+        @Override
+        public void setup() {
+        }
+
+        @Override
+        public void prepareYear(int year) {
+        }
+
+        @Override
+        public void endYear(int year) {
+        }
+
+        @Override
+        public void endSimulation() {
+        }
+
+        @Override
+        public void prepareResume(int year) {
+            resumeYear = year;
+        }
+
+        @Override
+        public void writeCheckpoint(DataOutput out) throws IOException {
+            out.writeInt(count);
+        }
+
+        @Override
+        public void readCheckpoint(DataInput in) throws IOException {
+            count = in.readInt();
+        }
+    }
+
+    @Test
+    public void testResumedStateEqualsWrittenState() throws IOException {
+        final GeoData geoData = createGeoData();
+        final DataContainer original = createDataContainer(geoData);
+        fillMicroData(original);
+        original.getHouseholdDataManager().setup();
+        final CountingModel originalModel = new CountingModel();
+        originalModel.count = 17;
+        final ModelContainer originalModels = createModelContainer(originalModel);
+
+        final Random modelRandom = SiloUtil.provideNewRandom();
+        SiloUtil.getRandomObject().nextDouble();
+        modelRandom.nextDouble();
+
+        final File file = File.createTempFile("checkpoint", ".bin");
+        file.deleteOnExit();
+        SimulationCheckpointWriter.write(file, 2015, original, originalModels, new MicroDataCheckpointAttributes() {});
+
+        final double expectedSiloDraw = SiloUtil.getRandomObject().nextDouble();
+        final double expectedModelDraw = modelRandom.nextDouble();
+        final int expectedHouseholdId = original.getHouseholdDataManager().getNextHouseholdId();
+        final int expectedPersonId = original.getHouseholdDataManager().getNextPersonId();
+
+        final DataContainer resumed = createDataContainer(geoData);
+        final CountingModel resumedModel = new CountingModel();
+        try (SimulationCheckpointReader reader = new SimulationCheckpointReader(file)) {
+            Assert.assertEquals(2015, reader.getYear());
+            reader.readMicroData(resumed, new MicroDataCheckpointAttributes() {});
+            final ModelContainer resumedModels = createModelContainer(resumedModel);
+            reader.prepareResume(resumed, resumedModels);
+            Assert.assertEquals(2015, resumedModel.resumeYear);
+            resumed.getHouseholdDataManager().setup();
+            reader.readState(resumed, resumedModels);
+        }
+
+        assertSameDwellings(original, resumed);
+        assertSameHouseholds(original, resumed);
+        assertSameJobs(original, resumed);
+
+        Assert.assertEquals(expectedSiloDraw, SiloUtil.getRandomObject().nextDouble(), 0.);
+        Assert.assertEquals(expectedModelDraw, modelRandom.nextDouble(), 0.);
+        Assert.assertEquals(expectedHouseholdId, resumed.getHouseholdDataManager().getNextHouseholdId());
+        Assert.assertEquals(expectedPersonId, resumed.getHouseholdDataManager().getNextPersonId());
+        Assert.assertEquals(17, resumedModel.count);
+    }
+
+    private static GeoData createGeoData() {
+        final GeoData geoData = new DefaultGeoData();
+        final RegionImpl region = new RegionImpl(1);
+        geoData.addRegion(region);
+        for (int id = 1; id <= 3; id++) {
+            final ZoneImpl zone = new ZoneImpl(id, 10, region);
+            region.addZone(zone);
+            geoData.addZone(zone);
+        }
+        return geoData;
+    }
+
+    private static DataContainer createDataContainer(GeoData geoData) {
+        final DwellingData dwellingData = new DwellingDataImpl(true);
+        final HouseholdData householdData = new HouseholdDataImpl(true);
+        final JobData jobData = new JobDataImpl(true);
+        final RealEstateDataManager realEstateDataManager = new RealEstateDataManagerImpl(new DefaultDwellingTypes(),
+                dwellingData, householdData, geoData, new DwellingFactoryImpl(), PROPERTIES);
+        final JobDataManager jobDataManager = new JobDataManagerImpl(PROPERTIES, new JobFactoryImpl(), jobData,
+                geoData, null, null);
+        final HouseholdDataManager householdDataManager = new HouseholdDataManagerImpl(householdData, dwellingData,
+                new PersonFactoryImpl(), new HouseholdFactoryImpl(), PROPERTIES, realEstateDataManager);
+        return new DefaultDataContainer(geoData, realEstateDataManager, jobDataManager, householdDataManager,
+                null, null, null, PROPERTIES);
+    }
+
+    private static ModelContainer createModelContainer(CountingModel model) {
+        final ModelContainer modelContainer = new ModelContainer(null, null, null, null, null, null,
+                null, null, null, null, null, null, null, null, null, null, null, null);
+        modelContainer.registerModelUpdateListener(model);
+        return modelContainer;
+    }
+
+    private static void fillMicroData(DataContainer dataContainer) {
+        final RealEstateDataManager realEstate = dataContainer.getRealEstateDataManager();
+        final HouseholdDataManager households = dataContainer.getHouseholdDataManager();
+        final JobDataManager jobs = dataContainer.getJobDataManager();
+        final List<DwellingType> types = realEstate.getDwellingTypes().getTypes();
+        final Random random = new Random(42);
+
+        for (int id = 1; id <= 20; id++) {
+            final Coordinate coordinate = id % 5 == 0 ? null : new Coordinate(random.nextDouble() * 1000, random.nextDouble() * 1000);
+            final Dwelling dd = realEstate.getDwellingFactory().createDwelling(id, 1 + id % 3, coordinate,
+                    id <= 10 ? id : -1, types.get(id % types.size()), 1 + id % 4, 1 + id % 3, 500 + id * 10, 1950 + id);
+            dd.setFloorSpace(40 + id);
+            dd.setUsage(DwellingUsage.values()[id % DwellingUsage.values().length]);
+            realEstate.addDwelling(dd);
+        }
+
+        int personId = 1;
+        for (int id = 1; id <= 10; id++) {
+            final Household hh = households.getHouseholdFactory().createHousehold(id, id, 0);
+            for (int car = 0; car < id % 3; car++) {
+                hh.getVehicles().add(new Car(car, CarType.values()[car % CarType.values().length], id + car));
+            }
+            households.addHousehold(hh);
+            for (int member = 0; member <= id % 4; member++) {
+                final boolean employed = personId % 2 == 0;
+                final Person pp = households.getPersonFactory().createPerson(personId, 10 + 7 * member + id,
+                        Gender.values()[personId % 2], employed ? Occupation.EMPLOYED : Occupation.UNEMPLOYED,
+                        member == 0 ? PersonRole.SINGLE : PersonRole.CHILD, employed ? personId : -1,
+                        employed ? 20000 + personId : 0);
+                pp.setDriverLicense(member == 0);
+                households.addPerson(pp);
+                households.addPersonToHousehold(pp, hh);
+                if (employed) {
+                    jobs.addJob(jobs.getFactory().createJob(personId, 1 + personId % 3,
+                            new Coordinate(personId, 2 * personId), personId, "RETAIL"));
+                }
+                personId++;
+            }
+        }
+        jobs.addJob(jobs.getFactory().createJob(1000, 2, null, -1, "OFFICE"));
+    }
+
+    private static void assertSameDwellings(DataContainer expected, DataContainer actual) {
+        final List<Dwelling> expectedDwellings = new ArrayList<>(expected.getRealEstateDataManager().getDwellings());
+        final List<Dwelling> actualDwellings = new ArrayList<>(actual.getRealEstateDataManager().getDwellings());
+        Assert.assertEquals(expectedDwellings.size(), actualDwellings.size());
+        for (int i = 0; i < expectedDwellings.size(); i++) {
+            final Dwelling e = expectedDwellings.get(i);
+            final Dwelling a = actualDwellings.get(i);
+            Assert.assertEquals(e.getId(), a.getId());
+            Assert.assertEquals(e.getZoneId(), a.getZoneId());
+            Assert.assertEquals(e.getCoordinate(), a.getCoordinate());
+            Assert.assertEquals(e.getResidentId(), a.getResidentId());
+            Assert.assertEquals(e.getType(), a.getType());
+            Assert.assertEquals(e.getBedrooms(), a.getBedrooms());
+            Assert.assertEquals(e.getQuality(), a.getQuality());
+            Assert.assertEquals(e.getPrice(), a.getPrice());
+            Assert.assertEquals(e.getYearBuilt(), a.getYearBuilt());
+            Assert.assertEquals(e.getFloorSpace(), a.getFloorSpace());
+            Assert.assertEquals(e.getUsage(), a.getUsage());
+        }
+    }
+
+    private static void assertSameHouseholds(DataContainer expected, DataContainer actual) {
+        final List<Household> expectedHouseholds = new ArrayList<>(expected.getHouseholdDataManager().getHouseholds());
+        final List<Household> actualHouseholds = new ArrayList<>(actual.getHouseholdDataManager().getHouseholds());
+        Assert.assertEquals(expectedHouseholds.size(), actualHouseholds.size());
+        for (int i = 0; i < expectedHouseholds.size(); i++) {
+            final Household e = expectedHouseholds.get(i);
+            final Household a = actualHouseholds.get(i);
+            Assert.assertEquals(e.getId(), a.getId());
+            Assert.assertEquals(e.getDwellingId(), a.getDwellingId());
+            Assert.assertEquals(e.getVehicles().size(), a.getVehicles().size());
+            for (int j = 0; j < e.getVehicles().size(); j++) {
+                final Vehicle ev = e.getVehicles().get(j);
+                final Vehicle av = a.getVehicles().get(j);
+                Assert.assertEquals(ev.getId(), av.getId());
+                Assert.assertEquals(((Car) ev).getCarType(), ((Car) av).getCarType());
+                Assert.assertEquals(ev.getAge(), av.getAge());
+            }
+            Assert.assertEquals(e.getPersons().size(), a.getPersons().size());
+            final Iterator<? extends Person> actualPersons = a.getPersons().values().iterator();
+            for (Person ep : e.getPersons().values()) {
+                final Person ap = actualPersons.next();
+                Assert.assertEquals(ep.getId(), ap.getId());
+                Assert.assertEquals(ep.getAge(), ap.getAge());
+                Assert.assertEquals(ep.getGender(), ap.getGender());
+                Assert.assertEquals(ep.getOccupation(), ap.getOccupation());
+                Assert.assertEquals(ep.getRole(), ap.getRole());
+                Assert.assertEquals(ep.getJobId(), ap.getJobId());
+                Assert.assertEquals(ep.getAnnualIncome(), ap.getAnnualIncome());
+                Assert.assertEquals(ep.hasDriverLicense(), ap.hasDriverLicense());
+                Assert.assertSame(a, ap.getHousehold());
+                Assert.assertSame(ap, actual.getHouseholdDataManager().getPersonFromId(ap.getId()));
+            }
+        }
+    }
+
+    private static void assertSameJobs(DataContainer expected, DataContainer actual) {
+        final List<Job> expectedJobs = new ArrayList<>(expected.getJobDataManager().getJobs());
+        final List<Job> actualJobs = new ArrayList<>(actual.getJobDataManager().getJobs());
+        Assert.assertEquals(expectedJobs.size(), actualJobs.size());
+        for (int i = 0; i < expectedJobs.size(); i++) {
+            final Job e = expectedJobs.get(i);
+            final Job a = actualJobs.get(i);
+            Assert.assertEquals(e.getId(), a.getId());
+            Assert.assertEquals(e.getZoneId(), a.getZoneId());
+            Assert.assertEquals(e.getCoordinate(), a.getCoordinate());
+            Assert.assertEquals(e.getWorkerId(), a.getWorkerId());
+            Assert.assertEquals(e.getType(), a.getType());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package de.tum.bgu.msm.io.columnar;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+public class ColumnarTableTest {
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        final int rows = 10000;
+        final Random random = new Random(42);
+        final int[] ids = new int[rows];
+        final int[] values = new int[rows];
+        final String[] types = new String[rows];
+        final double[] doubles = new double[rows];
+        final boolean[] flags = new boolean[rows];
+        final String[] dictionary = {"MARRIED", "SINGLE", "CHILD", "\u00fc"};
+        for (int i = 0; i < rows; i++) {
+            // mostly ascending ids with a few steps back
+            ids[i] = i % 100 == 99 ? i - 50 : i * 3;
+            values[i] = random.nextInt() - (i % 2 == 0 ? 0 : Integer.MAX_VALUE);
+            types[i] = dictionary[random.nextInt(dictionary.length)];
+            doubles[i] = i % 7 == 0 ? Double.NaN : random.nextGaussian() * 1e6;
+            flags[i] = random.nextBoolean();
+        }
+        values[0] = Integer.MIN_VALUE;
+        values[1] = Integer.MAX_VALUE;
+        values[2] = -1;
+
+        final ColumnarTableWriter writer = new ColumnarTableWriter(rows);
+        writer.addIdColumn("id", ids);
+        writer.addIntColumn("value", values);
+        writer.addDictionaryColumn("type", types);
+        writer.addDoubleColumn("coordX", doubles);
+        writer.addBooleanColumn("flag", flags);
+
+        final File file = File.createTempFile("table", ColumnarTable.FILE_EXTENSION);
+        try {
+            writer.write(file.getPath());
+            final ColumnarTableReader reader = new ColumnarTableReader(file.getPath());
+            Assert.assertEquals(rows, reader.getRowCount());
+            Assert.assertTrue(reader.hasColumn("type"));
+            Assert.assertFalse(reader.hasColumn("zone"));
+            Assert.assertArrayEquals(ids, reader.getIntColumn("id"));
+            Assert.assertArrayEquals(values, reader.getIntColumn("value"));
+            Assert.assertArrayEquals(types, reader.getStringColumn("type"));
+            Assert.assertArrayEquals(doubles, reader.getDoubleColumn("coordX"), 0.);
+            final boolean[] readFlags = reader.getBooleanColumn("flag");
+            for (int i = 0; i < rows; i++) {
+                Assert.assertEquals(flags[i], readFlags[i]);
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongColumnType() throws IOException {
+        final ColumnarTableWriter writer = new ColumnarTableWriter(1);
+        writer.addDictionaryColumn("type", new String[]{"MF234"});
+        final File file = File.createTempFile("table", ColumnarTable.FILE_EXTENSION);
+        try {
+            writer.write(file.getPath());
+            new ColumnarTableReader(file.getPath()).getIntColumn("type");
+        } finally {
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package de.tum.bgu.msm.io.input;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+public class FastCsvReaderTest {
+
+    @Test
+    public void testSameValuesAsSplitAndParse() throws IOException {
+        final Random random = new Random(42);
+        final StringBuilder content = new StringBuilder("id,zone,type,coordX,driversLicense\r\n");
+        for (int i = 0; i < 5000; i++) {
+            content.append(random.nextInt() % (i + 1)).append(',')
+                    .append(random.nextInt(5000)).append(",\"MF")
+                    .append(random.nextInt(500)).append("\",")
+                    .append(i % 3 == 0 ? "NULL" : i % 3 == 1 ? Double.toString(random.nextGaussian() * 1e6)
+                            : Integer.toString(random.nextInt(100000) - 50000) + "." + random.nextInt(10)).append(',')
+                    .append(random.nextBoolean() ? "TRUE" : "false")
+                    .append(i % 10 == 0 ? "\r\n" : "\n");
+            if (i % 1000 == 0) {
+                content.append('\n');
+            }
+        }
+        final File file = File.createTempFile("records", ".csv");
+        try {
+            Files.write(file.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+            final String[] lines = content.toString().split("\r?\n");
+            // small chunks, so that many lines are split across chunks
+            try (FastCsvReader reader = new FastCsvReader(file.toPath(), ',', StandardCharsets.UTF_8, 97)) {
+                Assert.assertArrayEquals(lines[0].split(","), reader.getHeader());
+                int line = 1;
+                FastCsvReader.Record record;
+                while ((record = reader.nextRecord()) != null) {
+                    while (lines[line].isEmpty()) {
+                        line++;
+                    }
+                    final String[] fields = lines[line].split(",");
+                    Assert.assertEquals(lines[line], record.toString());
+                    Assert.assertArrayEquals(fields, record.getFields());
+                    Assert.assertEquals(Integer.parseInt(fields[0]), record.getInt(0));
+                    Assert.assertEquals(Integer.parseInt(fields[1]), record.getInt(1));
+                    Assert.assertEquals(fields[2], record.getString(2));
+                    if (fields[3].equals("NULL")) {
+                        try {
+                            record.getDouble(3);
+                            Assert.fail();
+                        } catch (NumberFormatException e) {
+                            // expected, like Double.parseDouble
+                        }
+                    } else {
+                        Assert.assertEquals(Double.parseDouble(fields[3]), record.getDouble(3), 0.);
+                    }
+                    Assert.assertEquals(Boolean.parseBoolean(fields[4]), record.getBoolean(4));
+                    line++;
+                }
+                Assert.assertEquals(lines.length, line);
+                Assert.assertEquals(5000, reader.getRecordCount());
+            }
+        } finally {
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package de.tum.bgu.msm.io.output;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+public class AsyncFileWriterTest {
+
+    @Test
+    public void testBackgroundWritingKeepsOrder() throws IOException {
+        final File file = File.createTempFile("async", ".csv");
+        file.deleteOnExit();
+        AsyncFileWriter.setAsynchronous(true);
+        final StringBuilder expected = new StringBuilder();
+        try (PrintWriter pw = new PrintWriter(new AsyncFileWriter(file, false))) {
+            for (int i = 0; i < 100000; i++) {
+                pw.print(i);
+                pw.print(",");
+                pw.println(i * 0.5);
+                expected.append(i).append(",").append(i * 0.5).append(System.lineSeparator());
+            }
+        } finally {
+            AsyncFileWriter.setAsynchronous(false);
+        }
+        AsyncFileWriter.awaitAll();
+        Assert.assertEquals(expected.toString(), new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testAwaitAllRethrowsBackgroundFailure() throws IOException {
+        final File full = new File("/dev/full");
+        Assume.assumeTrue(full.exists());
+        AsyncFileWriter.setAsynchronous(true);
+        try (Writer writer = new AsyncFileWriter(full, false)) {
+            final char[] chunk = new char[AsyncFileWriter.BUFFER_SIZE];
+            Arrays.fill(chunk, 'x');
+            writer.write(chunk);
+        } finally {
+            AsyncFileWriter.setAsynchronous(false);
+        }
+        try {
+            AsyncFileWriter.awaitAll();
+            Assert.fail("The failure of the background thread was not rethrown.");
+        } catch (IOException e) {
+            Assert.assertEquals("Could not write " + full.getPath(), e.getMessage());
+        }
+        // reported only once
+        AsyncFileWriter.awaitAll();
+    }
+
+    @Test
+    public void testCompressedFile() throws IOException {
+        final File file = File.createTempFile("async", ".csv.gz");
+        file.deleteOnExit();
+        try (Writer writer = new AsyncFileWriter(file, false)) {
+            writer.write("id,value\n");
+            writer.write("1,ä\n");
+        }
+        try (Reader reader = new InputStreamReader(new GZIPInputStream(new FileInputStream(file)), StandardCharsets.UTF_8)) {
+            final StringBuilder content = new StringBuilder();
+            int c;
+            while ((c = reader.read()) >= 0) {
+                content.append((char) c);
+            }
+            Assert.assertEquals("id,value\n1,ä\n", content.toString());
+        }
+    }
+}
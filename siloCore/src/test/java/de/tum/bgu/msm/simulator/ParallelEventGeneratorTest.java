@@ -0,0 +1,61 @@
+package de.tum.bgu.msm.simulator;
+
+import de.tum.bgu.msm.events.MicroEvent;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelEventGeneratorTest {
+
+    private static final class TestEvent implements MicroEvent {
+        private final int id;
+        private final double draw;
+
+        private TestEvent(int id, double draw) {
+            this.id = id;
+            this.draw = draw;
+        }
+    }
+
+    @Test
+    public void testKeepsOrderOfPopulation() {
+        final List<Integer> population = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            population.add(i);
+        }
+        final List<TestEvent> events = ParallelEventGenerator.createEvents(population,
+                id -> id % 3 == 0 ? new TestEvent(id, 0) : null);
+        Assert.assertEquals(334, events.size());
+        for (int i = 0; i < events.size(); i++) {
+            Assert.assertEquals(3 * i, events.get(i).id);
+        }
+    }
+
+    @Test
+    public void testSameEventsIndependentOfThreads() throws Exception {
+        final List<Integer> population = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            population.add(i);
+        }
+        final List<TestEvent> parallel = createRandomEvents(population);
+        final List<TestEvent> sequential = new ForkJoinPool(1).submit(() -> createRandomEvents(population)).get();
+        Assert.assertEquals(parallel.size(), sequential.size());
+        for (int i = 0; i < parallel.size(); i++) {
+            Assert.assertEquals(parallel.get(i).id, sequential.get(i).id);
+            Assert.assertEquals(parallel.get(i).draw, sequential.get(i).draw, 0.);
+        }
+    }
+
+    private static List<TestEvent> createRandomEvents(List<Integer> population) {
+        return ParallelEventGenerator.createEvents(population, new Random(42), (id, random, events) -> {
+            final double draw = random.nextDouble();
+            if (draw < 0.5) {
+                events.add(new TestEvent(id, draw));
+            }
+        });
+    }
+}
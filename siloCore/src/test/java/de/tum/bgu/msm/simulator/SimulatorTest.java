@@ -0,0 +1,79 @@
+package de.tum.bgu.msm.simulator;
+
+import de.tum.bgu.msm.events.MicroEvent;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class SimulatorTest {
+
+    private static final class MoveEvent implements MicroEvent {
+    }
+
+    private static final class BirthdayEvent implements MicroEvent {
+    }
+
+    private static final class DeathEvent implements MicroEvent {
+    }
+
+    @Test
+    public void testBatchesFormInShuffledEvents() {
+        final List<MicroEvent> events = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            events.add(new MoveEvent());
+            events.add(new BirthdayEvent());
+            events.add(new BirthdayEvent());
+            events.add(new DeathEvent());
+        }
+        Collections.shuffle(events, new Random(42));
+
+        final List<List<MicroEvent>> units = Simulator.createBatches(events,
+                Collections.singleton(MoveEvent.class), 64);
+
+        final List<MicroEvent> sequential = new ArrayList<>();
+        final List<MicroEvent> moves = new ArrayList<>();
+        int batches = 0;
+        for (List<MicroEvent> unit : units) {
+            Assert.assertTrue(unit.size() <= 64);
+            if (unit.get(0) instanceof MoveEvent) {
+                // all sequential events come before the batches
+                Assert.assertEquals(3000, sequential.size());
+                for (MicroEvent event : unit) {
+                    Assert.assertTrue(event instanceof MoveEvent);
+                }
+                moves.addAll(unit);
+                batches++;
+            } else {
+                Assert.assertEquals(1, unit.size());
+                sequential.addAll(unit);
+            }
+        }
+        // 1000 moves in batches of 64
+        Assert.assertEquals(16, batches);
+        Assert.assertEquals(64, units.get(3000).size());
+        Assert.assertEquals(1000 - 15 * 64, units.get(units.size() - 1).size());
+
+        // both keep their shuffled order
+        final List<MicroEvent> expectedSequential = new ArrayList<>();
+        final List<MicroEvent> expectedMoves = new ArrayList<>();
+        for (MicroEvent event : events) {
+            (event instanceof MoveEvent ? expectedMoves : expectedSequential).add(event);
+        }
+        Assert.assertEquals(expectedSequential, sequential);
+        Assert.assertEquals(expectedMoves, moves);
+    }
+
+    @Test
+    public void testNoBatchesWithoutSpeculativeTypes() {
+        final List<MicroEvent> events = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            events.add(new MoveEvent());
+        }
+        final List<List<MicroEvent>> units = Simulator.createBatches(events, Collections.emptySet(), 64);
+        Assert.assertEquals(100, units.size());
+        for (int i = 0; i < units.size(); i++) {
+            Assert.assertEquals(Collections.singletonList(events.get(i)), units.get(i));
+        }
+    }
+}
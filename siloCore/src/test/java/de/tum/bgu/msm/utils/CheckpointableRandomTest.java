@@ -0,0 +1,46 @@
+package de.tum.bgu.msm.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.Random;
+
+public class CheckpointableRandomTest {
+
+    @Test
+    public void testSameNumbersAsRandom() {
+        Random expected = new Random(42);
+        Random actual = new CheckpointableRandom(42);
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(expected.nextInt(), actual.nextInt());
+            Assert.assertEquals(expected.nextInt(17), actual.nextInt(17));
+            Assert.assertEquals(expected.nextDouble(), actual.nextDouble(), 0.);
+            Assert.assertEquals(expected.nextGaussian(), actual.nextGaussian(), 0.);
+            Assert.assertEquals(expected.nextLong(), actual.nextLong());
+        }
+        expected.setSeed(7);
+        actual.setSeed(7);
+        Assert.assertEquals(expected.nextFloat(), actual.nextFloat(), 0.f);
+    }
+
+    @Test
+    public void testRestoredStateContinuesSequence() throws IOException {
+        CheckpointableRandom original = new CheckpointableRandom(42);
+        for (int i = 0; i < 99; i++) {
+            original.nextDouble();
+        }
+        // leaves the second gaussian of the pair cached
+        original.nextGaussian();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        original.writeState(new DataOutputStream(bytes));
+        CheckpointableRandom restored = new CheckpointableRandom(0);
+        restored.readState(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(original.nextGaussian(), restored.nextGaussian(), 0.);
+            Assert.assertEquals(original.nextInt(), restored.nextInt());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package de.tum.bgu.msm.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class DenseIdMapTest {
+
+    @Test
+    public void testPutGetRemove() {
+        DenseIdMap<String> map = new DenseIdMap<>(4);
+        Assert.assertNull(map.put(3, "three"));
+        Assert.assertNull(map.put(1000, "thousand"));
+        Assert.assertEquals("three", map.put(3, "drei"));
+        Assert.assertEquals(2, map.size());
+        Assert.assertEquals("drei", map.get(3));
+        Assert.assertEquals("thousand", map.get((Object) 1000));
+        Assert.assertNull(map.get(5000));
+        Assert.assertNull(map.get(-1));
+
+        Assert.assertEquals("drei", map.remove(3));
+        Assert.assertNull(map.remove(3));
+        Assert.assertEquals(1, map.size());
+        Assert.assertFalse(map.containsKey(3));
+        Assert.assertEquals(Collections.singletonMap(1000, "thousand"), map);
+    }
+
+    @Test
+    public void testIterationToleratesRemoval() {
+        DenseIdMap<Integer> map = new DenseIdMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(i * 2, i);
+        }
+        int count = 0;
+        for (Integer value : map.values()) {
+            map.remove(value * 2);
+            count++;
+        }
+        Assert.assertEquals(100, count);
+        Assert.assertTrue(map.isEmpty());
+
+        map.put(7, 7);
+        Iterator<Integer> iterator = map.values().iterator();
+        iterator.next();
+        iterator.remove();
+        Assert.assertTrue(map.isEmpty());
+    }
+}
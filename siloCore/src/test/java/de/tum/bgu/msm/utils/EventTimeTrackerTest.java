@@ -0,0 +1,41 @@
+package de.tum.bgu.msm.utils;
+
+import de.tum.bgu.msm.events.MicroEvent;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EventTimeTrackerTest {
+
+    private static class DummyEvent implements MicroEvent {
+    }
+
+    @Test
+    public void testCountsAndPercentiles() {
+        EventTimeTracker tracker = new EventTimeTracker();
+        for (int i = 1; i <= 1000; i++) {
+            tracker.record(DummyEvent.class, i * 1000L, i % 4 == 0);
+        }
+        Assert.assertEquals(1000, tracker.getCount(DummyEvent.class));
+        Assert.assertEquals(250, tracker.getSuccesses(DummyEvent.class));
+        Assert.assertEquals(500500000L, tracker.getTotalNanos(DummyEvent.class));
+
+        long p99 = tracker.getPercentileNanos(DummyEvent.class, 0.99);
+        Assert.assertTrue(p99 >= 990000);
+        Assert.assertTrue(p99 <= 990000 * 1.125);
+
+        Assert.assertTrue(tracker.toCsv(2011).startsWith("2011,DummyEvent,1000,250,0.2500,500.500,500500,"));
+        tracker.reset();
+        Assert.assertEquals(0, tracker.getCount(DummyEvent.class));
+    }
+
+    @Test
+    public void testBucketsContainValue() {
+        for (long nanos : new long[]{0, 1, 7, 8, 15, 16, 17, 100, 1000, 123456789L, Long.MAX_VALUE / 3}) {
+            int bucket = EventTimeTracker.bucketOf(nanos);
+            Assert.assertTrue(EventTimeTracker.upperBoundOf(bucket) >= nanos);
+            if (bucket > 0) {
+                Assert.assertTrue(EventTimeTracker.upperBoundOf(bucket - 1) < nanos);
+            }
+        }
+    }
+}
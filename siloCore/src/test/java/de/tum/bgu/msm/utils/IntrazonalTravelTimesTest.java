@@ -0,0 +1,93 @@
+package de.tum.bgu.msm.utils;
+
+import de.tum.bgu.msm.data.Id;
+import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix2D;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class IntrazonalTravelTimesTest {
+
+    @Test
+    public void testSameValuesAsNeighbourSearch() {
+        final List<Id> zones = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            final int id = 3 * i + 1;
+            zones.add(() -> id);
+        }
+        final Random random = new Random(42);
+        final IndexedDoubleMatrix2D skim = new IndexedDoubleMatrix2D(zones, zones);
+        for (Id origin : zones) {
+            for (Id destination : zones) {
+                if (origin != destination && random.nextInt(10) > 0) {
+                    skim.setIndexed(origin.getId(), destination.getId(), random.nextInt(40) / 2.);
+                }
+            }
+        }
+        final double[][] expected = new double[zones.size()][zones.size()];
+        int expectedNonIntrazonal = 0;
+        for (int i = 0; i < zones.size(); i++) {
+            final double[] row = new double[zones.size()];
+            for (int j = 0; j < row.length; j++) {
+                row[j] = skim.getIndexed(zones.get(i).getId(), zones.get(j).getId());
+            }
+            final double value = naiveIntrazonalValue(row, 5, Float.MAX_VALUE, 0.66f);
+            for (int j = 0; j < row.length; j++) {
+                if (row[j] == 0) {
+                    expected[i][j] = value;
+                    if (i != j) {
+                        expectedNonIntrazonal++;
+                    }
+                } else {
+                    expected[i][j] = row[j];
+                }
+            }
+        }
+
+        Assert.assertEquals(expectedNonIntrazonal, IntrazonalTravelTimes.assign(skim, 5, Float.MAX_VALUE, 0.66f));
+        for (int i = 0; i < zones.size(); i++) {
+            for (int j = 0; j < zones.size(); j++) {
+                Assert.assertEquals(expected[i][j], skim.getIndexed(zones.get(i).getId(), zones.get(j).getId()), 0.);
+            }
+        }
+    }
+
+    @Test
+    public void testTooFewNeighbours() {
+        Assert.assertEquals((2. + 4. + 100.) / 3 * 0.5,
+                IntrazonalTravelTimes.calculateIntrazonalValue(new double[]{0, 4, 0, 2}, 3, 100, 0.5), 0.);
+    }
+
+    /**
+     * Keeps the smallest positive values by shifting them through a sorted array, as the intrazonal assignment
+     * of the MITO car skim updater does.
+     */
+    private static double naiveIntrazonalValue(double[] row, int numberOfNeighbours, double maximumMinutes,
+                                               double proportionOfTime) {
+        double[] minTimeValues = new double[numberOfNeighbours];
+        for (int k = 0; k < numberOfNeighbours; k++) {
+            minTimeValues[k] = maximumMinutes;
+        }
+        for (double value : row) {
+            int minimumPosition = 0;
+            while (minimumPosition < numberOfNeighbours) {
+                if (minTimeValues[minimumPosition] > value && value != 0) {
+                    for (int k = numberOfNeighbours - 1; k > minimumPosition; k--) {
+                        minTimeValues[k] = minTimeValues[k - 1];
+                    }
+                    minTimeValues[minimumPosition] = value;
+                    break;
+                }
+                minimumPosition++;
+            }
+        }
+        double globalMinTime = 0;
+        for (int k = 0; k < numberOfNeighbours; k++) {
+            globalMinTime += minTimeValues[k];
+        }
+        return globalMinTime / numberOfNeighbours * proportionOfTime;
+    }
+}
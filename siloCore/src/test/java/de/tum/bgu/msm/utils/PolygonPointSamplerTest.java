@@ -0,0 +1,128 @@
+package de.tum.bgu.msm.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKTReader;
+
+import java.util.Random;
+
+public class PolygonPointSamplerTest {
+
+    private static final int SAMPLES = 20000;
+
+    private final GeometryFactory factory = new GeometryFactory();
+
+    @Test
+    public void testPointsInsideConcavePolygon() throws ParseException {
+        final Geometry polygon = read("POLYGON ((0 0, 10 0, 10 2, 2 2, 2 10, 0 10, 0 0))");
+        final PolygonPointSampler sampler = new PolygonPointSampler(polygon);
+        Assert.assertTrue(sampler.isTriangulated());
+        assertInside(sampler, polygon);
+    }
+
+    @Test
+    public void testPointsInsidePolygonWithHole() throws ParseException {
+        final Geometry polygon = read("POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0), (3 3, 7 3, 7 7, 3 7, 3 3))");
+        final PolygonPointSampler sampler = new PolygonPointSampler(polygon);
+        Assert.assertTrue(sampler.isTriangulated());
+        assertInside(sampler, polygon);
+        final Random random = new Random(42);
+        for (int i = 0; i < SAMPLES; i++) {
+            final Coordinate coordinate = sampler.sample(random);
+            Assert.assertFalse(coordinate + " is within the hole",
+                    coordinate.x > 3 && coordinate.x < 7 && coordinate.y > 3 && coordinate.y < 7);
+        }
+    }
+
+    @Test
+    public void testPointsInsideMultiPolygon() throws ParseException {
+        final Geometry multiPolygon = read("MULTIPOLYGON (((0 0, 1 0, 1 1, 0 1, 0 0)), ((5 5, 8 5, 6 9, 5 5)))");
+        final PolygonPointSampler sampler = new PolygonPointSampler(multiPolygon);
+        Assert.assertTrue(sampler.isTriangulated());
+        assertInside(sampler, multiPolygon);
+    }
+
+    @Test
+    public void testPointsSpreadByArea() throws ParseException {
+        // areas 1 and 3
+        final Geometry multiPolygon = read("MULTIPOLYGON (((0 0, 1 0, 1 1, 0 1, 0 0)), ((10 0, 13 0, 13 1, 10 1, 10 0)))");
+        final PolygonPointSampler sampler = new PolygonPointSampler(multiPolygon);
+        final Random random = new Random(42);
+        int inSmall = 0;
+        int inLeftHalfOfLarge = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            final Coordinate coordinate = sampler.sample(random);
+            if (coordinate.x <= 1) {
+                inSmall++;
+            } else if (coordinate.x < 11.5) {
+                inLeftHalfOfLarge++;
+            }
+        }
+        Assert.assertEquals(0.25, inSmall / (double) SAMPLES, 0.015);
+        Assert.assertEquals(0.375, inLeftHalfOfLarge / (double) SAMPLES, 0.015);
+    }
+
+    @Test
+    public void testPointsSpreadUniformlyWithinTriangles() throws ParseException {
+        final Geometry polygon = read("POLYGON ((0 0, 4 0, 4 4, 0 4, 0 0))");
+        final PolygonPointSampler sampler = new PolygonPointSampler(polygon);
+        final Random random = new Random(42);
+        final int[] counts = new int[16];
+        for (int i = 0; i < SAMPLES; i++) {
+            final Coordinate coordinate = sampler.sample(random);
+            counts[Math.min((int) coordinate.x, 3) * 4 + Math.min((int) coordinate.y, 3)]++;
+        }
+        for (int count : counts) {
+            Assert.assertEquals(1. / counts.length, count / (double) SAMPLES, 0.01);
+        }
+    }
+
+    @Test
+    public void testRejectionSamplingFallback() throws ParseException {
+        final Geometry polygon = read("POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0), (3 3, 7 3, 7 7, 3 7, 3 3))");
+        final PolygonPointSampler sampler = new PolygonPointSampler(polygon, false);
+        Assert.assertFalse(sampler.isTriangulated());
+        assertInside(sampler, polygon);
+
+        final Random random = new Random(42);
+        int inLeftHalf = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            if (sampler.sample(random).x < 5) {
+                inLeftHalf++;
+            }
+        }
+        Assert.assertEquals(0.5, inLeftHalf / (double) SAMPLES, 0.015);
+    }
+
+    @Test
+    public void testDegenerateGeometryFallsBackToRejectionSampling() throws ParseException {
+        final Geometry polygon = read("POLYGON ((0 0, 10 0, 20 0, 0 0))");
+        final PolygonPointSampler sampler = new PolygonPointSampler(polygon);
+        Assert.assertFalse(sampler.isTriangulated());
+        try {
+            sampler.sample(new Random(42));
+            Assert.fail("A polygon without area has no points to draw.");
+        } catch (RuntimeException e) {
+            Assert.assertTrue(e.getMessage().startsWith("Could not draw a point within"));
+        }
+    }
+
+    private void assertInside(PolygonPointSampler sampler, Geometry geometry) {
+        // tolerates rounding errors of points on the edges
+        final Geometry bufferedGeometry = geometry.buffer(1e-9);
+        final Random random = new Random(42);
+        for (int i = 0; i < SAMPLES; i++) {
+            final Coordinate coordinate = sampler.sample(random);
+            Assert.assertTrue(coordinate + " is not within the geometry",
+                    bufferedGeometry.contains(factory.createPoint(coordinate)));
+        }
+    }
+
+    private Geometry read(String wkt) throws ParseException {
+        return new WKTReader(factory).read(wkt);
+    }
+}
@@ -0,0 +1,54 @@
+package de.tum.bgu.msm.utils;
+
+import de.tum.bgu.msm.models.demography.birth.DefaultBirthStrategy;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+public class RateTableTest {
+
+    @Test
+    public void testCompiledTableClampsToLastIndex() {
+        RateTable table = RateTable.compile((i, j, k) -> i * 100 + j * 10 + k, 2, 3, 4);
+        Assert.assertEquals(123, table.get(1, 2, 3), 0.);
+        Assert.assertEquals(23, table.get(0, 2, 3), 0.);
+        Assert.assertEquals(123, table.get(5, 7, 90), 0.);
+
+        RateTable ages = RateTable.compile(age -> age / 100., 101);
+        Assert.assertEquals(0.5, ages.get(50), 0.);
+        Assert.assertEquals(1., ages.get(120), 0.);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeIndex() {
+        RateTable.compile((i, j) -> 1, 2, 2).get(0, -1);
+    }
+
+    @Test
+    public void testReadFromCsv() throws IOException {
+        File file = File.createTempFile("rates", ".csv");
+        try {
+            Files.write(file.toPath(), "gender,age,rate\n0,0,0.1\n0,2,0.3\n1,1,0.2\n".getBytes(StandardCharsets.UTF_8));
+            RateTable table = RateTable.read(file.getPath(), "rate", "gender", "age");
+            Assert.assertEquals(0.1, table.get(0, 0), 0.);
+            Assert.assertEquals(0., table.get(0, 1), 0.);
+            Assert.assertEquals(0.3, table.get(0, 5), 0.);
+            Assert.assertEquals(0.2, table.get(1, 1), 0.);
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testBirthStrategyKeepsRates() {
+        DefaultBirthStrategy strategy = new DefaultBirthStrategy();
+        Assert.assertEquals(0., strategy.calculateBirthProbability(14, 0), 0.);
+        Assert.assertEquals(0.1278, strategy.calculateBirthProbability(30, 0), 1e-12);
+        Assert.assertEquals(0., strategy.calculateBirthProbability(60, 3), 0.);
+        Assert.assertEquals(strategy.calculateBirthProbability(30, 3), strategy.calculateBirthProbability(30, 7), 0.);
+    }
+}
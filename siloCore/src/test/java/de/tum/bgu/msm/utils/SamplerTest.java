@@ -0,0 +1,65 @@
+package de.tum.bgu.msm.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class SamplerTest {
+
+    private static final Integer[] OBJECTS = {0, 1, 2, 3, 4, 5};
+    private static final double[] WEIGHTS = {4, 0, 1, 10, 0, 5};
+
+    @Test
+    public void testAliasSamplerFrequencies() throws SampleException {
+        AliasSampler<Integer> sampler = new AliasSampler<>(OBJECTS, WEIGHTS, new Random(42));
+        int[] counts = new int[OBJECTS.length];
+        final int draws = 200000;
+        for (int i = 0; i < draws; i++) {
+            counts[sampler.sampleObject()]++;
+        }
+        Assert.assertEquals(0, counts[1]);
+        Assert.assertEquals(0, counts[4]);
+        for (int i = 0; i < OBJECTS.length; i++) {
+            Assert.assertEquals(WEIGHTS[i] / 20., counts[i] / (double) draws, 0.005);
+        }
+    }
+
+    @Test
+    public void testAliasSamplerIsReproducible() throws SampleException {
+        AliasSampler<Integer> first = new AliasSampler<>(OBJECTS, WEIGHTS, new Random(42));
+        AliasSampler<Integer> second = new AliasSampler<>(OBJECTS, WEIGHTS, new Random(42));
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(first.sampleIndex(), second.sampleIndex());
+        }
+    }
+
+    @Test
+    public void testFenwickSamplerMatchesSampler() throws SampleException {
+        Sampler<Integer> linear = new Sampler<>(OBJECTS, WEIGHTS.clone(), new Random(42));
+        FenwickSampler<Integer> fenwick = new FenwickSampler<>(OBJECTS, WEIGHTS, new Random(42));
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(linear.sampleIndex(), fenwick.sampleIndex());
+        }
+    }
+
+    @Test
+    public void testFenwickSamplerUpdates() throws SampleException {
+        FenwickSampler<Integer> sampler = new FenwickSampler<>(OBJECTS, WEIGHTS, new Random(42));
+        int[] drawn = new int[OBJECTS.length];
+        for (int i = 0; i < 20; i++) {
+            int index = sampler.sampleIndex();
+            drawn[index]++;
+            sampler.setWeight(index, sampler.getWeight(index) - 1);
+        }
+        for (int i = 0; i < OBJECTS.length; i++) {
+            Assert.assertEquals((int) WEIGHTS[i], drawn[i]);
+        }
+        Assert.assertEquals(0, sampler.getCumulatedProbability(), 0);
+        try {
+            sampler.sampleIndex();
+            Assert.fail("Expected an exception when sampling from an empty distribution");
+        } catch (SampleException expected) {
+        }
+    }
+}
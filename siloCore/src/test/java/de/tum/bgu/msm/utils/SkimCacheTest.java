@@ -0,0 +1,105 @@
+package de.tum.bgu.msm.utils;
+
+import de.tum.bgu.msm.data.Id;
+import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix2D;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class SkimCacheTest {
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        final List<Id> zones = new ArrayList<>();
+        for (int id : new int[]{3, 1, 7, 12}) {
+            zones.add(() -> id);
+        }
+        final Random random = new Random(42);
+        final IndexedDoubleMatrix2D skim = new IndexedDoubleMatrix2D(zones, zones);
+        skim.assign(argument -> random.nextDouble() * 100);
+
+        final File omxFile = createOmxFile(100);
+        final File cacheFile = File.createTempFile("skim", ".skimcache");
+        cacheFile.deleteOnExit();
+        SkimCache.write(skim, 0.5, omxFile.getPath(), cacheFile);
+
+        Assert.assertNull(SkimCache.read(cacheFile, omxFile.getPath(), 1.));
+        final IndexedDoubleMatrix2D cached = SkimCache.read(cacheFile, omxFile.getPath(), 0.5);
+        Assert.assertNotNull(cached);
+        for (Id origin : zones) {
+            for (Id destination : zones) {
+                Assert.assertEquals(skim.getIndexed(origin.getId(), destination.getId()),
+                        cached.getIndexed(origin.getId(), destination.getId()), 0.);
+            }
+        }
+    }
+
+    @Test
+    public void testRejectsCacheOfReplacedOmxFile() throws IOException {
+        final List<Id> zones = new ArrayList<>();
+        zones.add(() -> 1);
+        final IndexedDoubleMatrix2D skim = new IndexedDoubleMatrix2D(zones, zones);
+        skim.assign(argument -> 2.5);
+
+        final File omxFile = createOmxFile(100);
+        final File cacheFile = File.createTempFile("skim", ".skimcache");
+        cacheFile.deleteOnExit();
+        SkimCache.write(skim, 1., omxFile.getPath(), cacheFile);
+        Assert.assertNotNull(SkimCache.read(cacheFile, omxFile.getPath(), 1.));
+
+        // an older copy of the omx file with a different length, although the cache is more recent
+        writeBytes(omxFile, 200);
+        Assert.assertTrue(omxFile.setLastModified(cacheFile.lastModified() - 60000));
+        Assert.assertNull(SkimCache.read(cacheFile, omxFile.getPath(), 1.));
+
+        // same length, different modification time
+        SkimCache.write(skim, 1., omxFile.getPath(), cacheFile);
+        Assert.assertNotNull(SkimCache.read(cacheFile, omxFile.getPath(), 1.));
+        Assert.assertTrue(omxFile.setLastModified(omxFile.lastModified() - 60000));
+        Assert.assertNull(SkimCache.read(cacheFile, omxFile.getPath(), 1.));
+    }
+
+    @Test
+    public void testMissingCacheFile() throws IOException {
+        final File omxFile = createOmxFile(100);
+        final File cacheFile = new File(omxFile.getPath() + ".missing.skimcache");
+        Assert.assertNull(SkimCache.read(cacheFile, omxFile.getPath(), 1.));
+    }
+
+    @Test
+    public void testRejectsFloatCacheOfPreviousVersion() throws IOException {
+        final File cacheFile = File.createTempFile("skim", ".skimcache");
+        cacheFile.deleteOnExit();
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(cacheFile))) {
+            out.writeInt(0x534b494d);
+            out.writeInt(1);
+            out.writeInt(1);
+            out.writeInt(1);
+            out.writeDouble(1.);
+            out.writeInt(1);
+            out.writeInt(1);
+            out.writeFloat(2.5f);
+        }
+        Assert.assertNull(SkimCache.read(cacheFile, createOmxFile(100).getPath(), 1.));
+    }
+
+    private static File createOmxFile(int length) throws IOException {
+        final File omxFile = File.createTempFile("skim", ".omx");
+        omxFile.deleteOnExit();
+        writeBytes(omxFile, length);
+        return omxFile;
+    }
+
+    private static void writeBytes(File file, int length) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[length]);
+        }
+    }
+}
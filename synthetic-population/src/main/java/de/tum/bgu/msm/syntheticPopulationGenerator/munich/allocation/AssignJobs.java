@@ -32,6 +32,7 @@ public class AssignJobs {
     protected HashMap<Integer, int[]> idVacantJobsByZoneType;
     protected HashMap<Integer, Integer> numberVacantJobsByType;
     protected HashMap<Integer, int[]> idZonesVacantJobsByType;
+    protected HashMap<Integer, double[]> attractionZonesVacantJobsByType;
     protected HashMap<Integer, Integer> numberVacantJobsByZoneByType;
     protected HashMap<Integer, Integer> numberZonesByType;
 
@@ -107,8 +108,9 @@ public class AssignJobs {
         if (numberZonesByType.get(selectedJobType) > 0) {
             double[] probs = new double[numberZonesByType.get(selectedJobType)];
             int[] ids = idZonesVacantJobsByType.get(selectedJobType);
+            double[] attraction = attractionZonesVacantJobsByType.get(selectedJobType);
             RowVector distances = distanceImpedance.getRow(homeTaz);
-            IntStream.range(0, probs.length).parallel().forEach(id -> probs[id] = Math.exp(distances.getValueAt(ids[id] / 100) * Math.pow(numberVacantJobsByZoneByType.get(ids[id]), 0.45)));
+            IntStream.range(0, probs.length).parallel().forEach(id -> probs[id] = Math.exp(distances.getValueAt(ids[id] / 100) * attraction[id]));
             workplace = select(probs, ids);
         } else {
             workplace[0] = -2;
@@ -216,6 +218,16 @@ public class AssignJobs {
             numberVacantJobsByZoneByType.put(typeZone, numberVacantJobsByZoneByType.get(typeZone) + 1);
 
         }
+        //the attraction of a zone only changes when one of its vacant jobs is assigned, see updateMaps
+        attractionZonesVacantJobsByType = new LinkedHashMap<>();
+        for (Map.Entry<Integer, int[]> zonesByType : idZonesVacantJobsByType.entrySet()){
+            int[] ids = zonesByType.getValue();
+            double[] attraction = new double[ids.length];
+            for (int i = 0; i < numberZonesByType.get(zonesByType.getKey()); i++){
+                attraction[i] = Math.pow(numberVacantJobsByZoneByType.get(ids[i]), 0.45);
+            }
+            attractionZonesVacantJobsByType.put(zonesByType.getKey(), attraction);
+        }
     }
 
 
@@ -223,8 +235,10 @@ public class AssignJobs {
 
        numberVacantJobsByZoneByType.put(zoneType[0], numberVacantJobsByZoneByType.get(zoneType[0]) - 1);
         numberVacantJobsByType.put(selectedJobType, numberVacantJobsByType.get(selectedJobType) - 1);
+        double[] attraction = attractionZonesVacantJobsByType.get(selectedJobType);
         if (numberVacantJobsByZoneByType.get(zoneType[0]) < 1) {
             idZonesVacantJobsByType.get(selectedJobType)[zoneType[1]] = idZonesVacantJobsByType.get(selectedJobType)[numberZonesByType.get(selectedJobType) - 1];
+            attraction[zoneType[1]] = attraction[numberZonesByType.get(selectedJobType) - 1];
             idZonesVacantJobsByType.put(selectedJobType, idZonesVacantJobsByType.get(selectedJobType));
             numberZonesByType.put(selectedJobType, numberZonesByType.get(selectedJobType) - 1);
             if (numberZonesByType.get(selectedJobType) < 1) {
@@ -236,6 +250,8 @@ public class AssignJobs {
                 jobStringTypes[w] = jobStringTypes[jobStringTypes.length - 1];
                 jobStringTypes = SiloUtil.removeOneElementFromZeroBasedArray(jobStringTypes, jobStringTypes.length - 1);
             }
+        } else {
+            attraction[zoneType[1]] = Math.pow(numberVacantJobsByZoneByType.get(zoneType[0]), 0.45);
         }
     }
 
@@ -5,20 +5,20 @@ import de.tum.bgu.msm.data.job.JobDataManager;
 import de.tum.bgu.msm.data.job.JobUtils;
 import de.tum.bgu.msm.syntheticPopulationGenerator.DataSetSynPop;
 import de.tum.bgu.msm.syntheticPopulationGenerator.properties.PropertiesSynPop;
+import de.tum.bgu.msm.utils.FenwickSampler;
+import de.tum.bgu.msm.utils.SampleException;
 import de.tum.bgu.msm.utils.SiloUtil;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.Map;
 
 public class GenerateJobs {
 
     private static final Logger logger = LogManager.getLogger(GenerateJobs.class);
 
     private final DataSetSynPop dataSetSynPop;
-    private Map<Integer, Float> jobsByTaz;
+    private FenwickSampler<Integer> jobsByTaz;
     private final DataContainer dataContainer;
 
 
@@ -46,12 +46,15 @@ public class GenerateJobs {
             int totalJobs = (int) PropertiesSynPop.get().main.marginalsMunicipality.getIndexedValueAt(municipality, jobType);
             for (int job = 0; job < totalJobs; job++){
                 int id = jobData.getNextJobId();
-                int tazSelected = SiloUtil.select(jobsByTaz);
-                if (jobsByTaz.get(tazSelected) > 1){
-                    jobsByTaz.put(tazSelected, jobsByTaz.get(tazSelected) - 1);
-                } else {
-                    jobsByTaz.remove(tazSelected);
+                int tazIndex;
+                try {
+                    tazIndex = jobsByTaz.sampleIndex();
+                } catch (SampleException e) {
+                    throw new RuntimeException("No jobs of type " + jobType + " left in municipality " + municipality, e);
                 }
+                int tazSelected = jobsByTaz.getObject(tazIndex);
+                double remainingJobs = jobsByTaz.getWeight(tazIndex);
+                jobsByTaz.setWeight(tazIndex, remainingJobs > 1 ? remainingJobs - 1 : 0);
                 jobData.addJob(JobUtils.getFactory().createJob(id, tazSelected, null, -1, jobType));
             }
 
@@ -59,10 +62,13 @@ public class GenerateJobs {
 
 
     private void initializeTAZprobability(int municipality, String jobType){
-        jobsByTaz = new LinkedHashMap<>();
-        jobsByTaz.clear();
-        for (int taz : dataSetSynPop.getTazByMunicipality().get(municipality)){
-            jobsByTaz.put(taz, PropertiesSynPop.get().main.cellsMatrix.getIndexedValueAt(taz, jobType));
+        int[] tazIds = dataSetSynPop.getTazByMunicipality().get(municipality);
+        Integer[] tazs = new Integer[tazIds.length];
+        double[] jobs = new double[tazIds.length];
+        for (int i = 0; i < tazs.length; i++){
+            tazs[i] = tazIds[i];
+            jobs[i] = PropertiesSynPop.get().main.cellsMatrix.getIndexedValueAt(tazs[i], jobType);
         }
+        jobsByTaz = new FenwickSampler<>(tazs, jobs, SiloUtil.getRandomObject());
     }
 }
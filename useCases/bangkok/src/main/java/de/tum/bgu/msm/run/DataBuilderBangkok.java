@@ -31,9 +31,9 @@ public class DataBuilderBangkok {
 
     public static DefaultDataContainer getModelDataForBangkok(Properties properties, Config config) {
 
-        HouseholdData householdData = new HouseholdDataImpl();
-        JobData jobData = new JobDataImpl();
-        DwellingData dwellingData = new DwellingDataImpl();
+        HouseholdData householdData = new HouseholdDataImpl(properties.main.idIndexedDataStores);
+        JobData jobData = new JobDataImpl(properties.main.idIndexedDataStores);
+        DwellingData dwellingData = new DwellingDataImpl(properties.main.idIndexedDataStores);
 
         GeoData geoData = new DefaultGeoData();
 
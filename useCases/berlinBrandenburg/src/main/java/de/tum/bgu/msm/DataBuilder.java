@@ -25,9 +25,9 @@ public class DataBuilder {
 
     public static DataContainerWithSchools getModelDataForBerlinBrandenburg(Properties properties, Config config) {
 
-        HouseholdData householdData = new HouseholdDataImpl();
-        JobData jobData = new JobDataImpl();
-        DwellingData dwellingData = new DwellingDataImpl();
+        HouseholdData householdData = new HouseholdDataImpl(properties.main.idIndexedDataStores);
+        JobData jobData = new JobDataImpl(properties.main.idIndexedDataStores);
+        DwellingData dwellingData = new DwellingDataImpl(properties.main.idIndexedDataStores);
 
         GeoData geoData = new DefaultGeoData();
 
@@ -82,11 +82,7 @@ public class DataBuilder {
 
     static public void read(Properties properties, DataContainerWithSchools dataContainer){
 
-        GeoDataReader reader = new GeoDataReaderBerlinBrandenburg(dataContainer.getGeoData());
-        String pathShp = properties.main.baseDirectory + properties.geo.zoneShapeFile;
-        String fileName = properties.main.baseDirectory + properties.geo.zonalDataFile;
-        reader.readZoneCsv(fileName);
-        reader.readZoneShapefile(pathShp);
+        readGeoData(properties, dataContainer);
 
         int year = properties.main.startYear;
         String householdFile = properties.main.baseDirectory + properties.householdData.householdFileName;
@@ -108,11 +104,32 @@ public class DataBuilder {
         String jobsFile = properties.main.baseDirectory + properties.jobData.jobsFileName + "_" + year + ".csv";
         jjReader.readData(jobsFile);
 
-        SchoolReader ssReader = new SchoolReaderImpl(dataContainer.getSchoolData());
-        String schoolsFile = properties.main.baseDirectory + properties.schoolData.schoolsFileName + "_" + year + ".csv";
-        ssReader.readData(schoolsFile);
+        readSchools(properties, dataContainer);
 
         MicroDataScaler microDataScaler = new MicroDataScaler(dataContainer, properties);
         microDataScaler.scale();
     }
+
+    /**
+     * Reads the zones and schools only, for a run that is resumed from a checkpoint holding the micro data.
+     */
+    static public void readWithoutMicroData(Properties properties, DataContainerWithSchools dataContainer) {
+        readGeoData(properties, dataContainer);
+        new JobType(properties.jobData.jobTypes);
+        readSchools(properties, dataContainer);
+    }
+
+    private static void readGeoData(Properties properties, DataContainerWithSchools dataContainer) {
+        GeoDataReader reader = new GeoDataReaderBerlinBrandenburg(dataContainer.getGeoData());
+        String pathShp = properties.main.baseDirectory + properties.geo.zoneShapeFile;
+        String fileName = properties.main.baseDirectory + properties.geo.zonalDataFile;
+        reader.readZoneCsv(fileName);
+        reader.readZoneShapefile(pathShp);
+    }
+
+    private static void readSchools(Properties properties, DataContainerWithSchools dataContainer) {
+        SchoolReader ssReader = new SchoolReaderImpl(dataContainer.getSchoolData());
+        String schoolsFile = properties.main.baseDirectory + properties.schoolData.schoolsFileName + "_" + properties.main.startYear + ".csv";
+        ssReader.readData(schoolsFile);
+    }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package de.tum.bgu.msm;
 
 import de.tum.bgu.msm.container.ModelContainer;
+import de.tum.bgu.msm.io.MicroDataCheckpointAttributesBerlinBrandenburg;
+import de.tum.bgu.msm.io.checkpoint.SimulationCheckpointReader;
 import de.tum.bgu.msm.io.output.HouseholdSatisfactionMonitor;
 import de.tum.bgu.msm.io.output.ModalSharesResultMonitor;
 import de.tum.bgu.msm.properties.Properties;
@@ -12,6 +14,8 @@ import org.apache.logging.log4j.Logger;
 import org.matsim.core.config.Config;
 import org.matsim.core.config.ConfigUtils;
 
+import java.io.File;
+
 /**
  * Implements SILO for the Berlin-Brandenburg Metropolitan Area
  *
@@ -24,6 +28,8 @@ public class SiloBerlinBrandenburg {
 
     public static void main(String[] args) {
 
+        final File resumeFile = SimulationCheckpointReader.getResumeFile(args);
+        args = SimulationCheckpointReader.removeResumeArguments(args);
         Properties properties = SiloUtil.siloInitialization(args[0]);
 
         Config config = null;
@@ -32,10 +38,18 @@ public class SiloBerlinBrandenburg {
         }
         logger.info("Started SILO land use model for the Berlin-Brandenburg Metropolitan Area");
         DataContainerWithSchools dataContainer = DataBuilder.getModelDataForBerlinBrandenburg(properties, config);
-        DataBuilder.read(properties, dataContainer);
+        if (resumeFile != null) {
+            DataBuilder.readWithoutMicroData(properties, dataContainer);
+        } else {
+            DataBuilder.read(properties, dataContainer);
+        }
         ModelContainer modelContainer = ModelBuilderBerlinBrandenburg.getModelContainerForMuc(dataContainer, properties, config);
 
         SiloModel model = new SiloModel(properties, dataContainer, modelContainer);
+        model.setCheckpointAttributes(new MicroDataCheckpointAttributesBerlinBrandenburg());
+        if (resumeFile != null) {
+            model.resumeFrom(resumeFile);
+        }
         model.addResultMonitor(new MultiFileResultsMonitorBerlinBrandenburg(dataContainer, properties));
         model.addResultMonitor(new ModalSharesResultMonitor(dataContainer, properties));
         model.addResultMonitor(new HouseholdSatisfactionMonitor(dataContainer, properties, modelContainer));
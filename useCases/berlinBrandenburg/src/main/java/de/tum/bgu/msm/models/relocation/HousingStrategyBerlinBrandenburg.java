@@ -26,6 +26,7 @@ import org.apache.logging.log4j.Logger;
 import java.util.EnumMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Random;
 import java.util.concurrent.atomic.LongAdder;
 
 import static de.tum.bgu.msm.data.dwelling.RealEstateUtils.RENT_CATEGORIES;
@@ -126,7 +127,7 @@ public class HousingStrategyBerlinBrandenburg implements HousingStrategy {
         for (Person pp : hh.getPersons().values()) {
             if (pp.getOccupation() == Occupation.EMPLOYED && pp.getJobId() != -2) {
 
-                workDistanceUtility *= commuteModeChoiceMapping.getMode(pp).utility;
+                workDistanceUtility *= commuteModeChoiceMapping.getUtility(pp);
 
                /* if(MovesModelImpl.track) {
                     Zone workZone = geoData.getZones().get(workLocation.getZoneId());
@@ -243,7 +244,7 @@ public class HousingStrategyBerlinBrandenburg implements HousingStrategy {
 
         for (Person pp : household.getPersons().values()) {
             if (pp.getOccupation() == Occupation.EMPLOYED && pp.getJobId() != -2) {
-                thisRegionFactor *= commuteModeChoiceMapping.getMode(pp).utility;
+                thisRegionFactor *= commuteModeChoiceMapping.getUtility(pp);
             }
         }
 
@@ -292,6 +293,15 @@ public class HousingStrategyBerlinBrandenburg implements HousingStrategy {
 
     @Override
     public HousingStrategy duplicate() {
+        return copyWith(commuteModeChoice);
+    }
+
+    @Override
+    public HousingStrategy duplicate(Random random) {
+        return copyWith(commuteModeChoice.duplicate(random));
+    }
+
+    private HousingStrategy copyWith(CommuteModeChoice commuteModeChoice) {
         TravelTimes travelTimes = this.travelTimes.duplicate();
         final HousingStrategyBerlinBrandenburg housingStrategyMuc = new HousingStrategyBerlinBrandenburg(dataContainer, properties, travelTimes, dwellingProbabilityStrategy, dwellingUtilityStrategy, regionUtilityStrategy, regionProbabilityStrategy, commuteModeChoice);
         housingStrategyMuc.regionalShareForeigners = this.regionalShareForeigners;
@@ -207,6 +207,14 @@ public class HousingStrategyCapeTown implements HousingStrategy {
         return strategy;
     }
 
+    /**
+     * This strategy does not make random decisions.
+     */
+    @Override
+    public HousingStrategy duplicate(Random random) {
+        return duplicate();
+    }
+
     private void calculateRegionalUtilities() {
         logger.info("Calculating regional utilities");
         utilityByRegionByRaceByIncome.clear();
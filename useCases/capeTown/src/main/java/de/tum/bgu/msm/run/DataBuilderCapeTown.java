@@ -30,9 +30,9 @@ public class DataBuilderCapeTown {
 
     public static DataContainer getModelDataForCapeTown(Properties properties, Config config) {
 
-        HouseholdData householdData = new HouseholdDataImpl();
-        JobData jobData = new JobDataImpl();
-        DwellingData dwellingData = new DwellingDataImpl();
+        HouseholdData householdData = new HouseholdDataImpl(properties.main.idIndexedDataStores);
+        JobData jobData = new JobDataImpl(properties.main.idIndexedDataStores);
+        DwellingData dwellingData = new DwellingDataImpl(properties.main.idIndexedDataStores);
 
         GeoData geoData = new DefaultGeoData();
 
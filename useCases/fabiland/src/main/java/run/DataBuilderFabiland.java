@@ -30,9 +30,9 @@ public class DataBuilderFabiland {
 
         GeoData geoData = new DefaultGeoData();
 
-        DwellingData dwellingData = new DwellingDataImpl();
-        HouseholdData householdData = new HouseholdDataImpl();
-        JobData jobData = new JobDataImpl();
+        DwellingData dwellingData = new DwellingDataImpl(properties.main.idIndexedDataStores);
+        HouseholdData householdData = new HouseholdDataImpl(properties.main.idIndexedDataStores);
+        JobData jobData = new JobDataImpl(properties.main.idIndexedDataStores);
 
         TravelTimes travelTimes = null;
         Accessibility accessibility = null;
@@ -84,12 +84,7 @@ public class DataBuilderFabiland {
     }
 
     public static void readInput(Properties properties, DataContainer dataContainer) {
-        final GeoDataReader geoDataReaderMstm = new DefaultGeoDataReader(dataContainer.getGeoData());
-
-        String fileName = properties.main.baseDirectory + properties.geo.zonalDataFile;
-        String pathShp = properties.main.baseDirectory + properties.geo.zoneShapeFile;
-        geoDataReaderMstm.readZoneCsv(fileName);
-        geoDataReaderMstm.readZoneShapefile(pathShp);
+        readGeoData(properties, dataContainer);
 
         int year = properties.main.startYear;
 
@@ -103,6 +98,18 @@ public class DataBuilderFabiland {
         jjReader.readData(jobsFile);
     }
 
+    /**
+     * Reads the zones only, for a run that is resumed from a checkpoint holding the micro data.
+     */
+    public static void readGeoData(Properties properties, DataContainer dataContainer) {
+        final GeoDataReader geoDataReaderMstm = new DefaultGeoDataReader(dataContainer.getGeoData());
+
+        String fileName = properties.main.baseDirectory + properties.geo.zonalDataFile;
+        String pathShp = properties.main.baseDirectory + properties.geo.zoneShapeFile;
+        geoDataReaderMstm.readZoneCsv(fileName);
+        geoDataReaderMstm.readZoneShapefile(pathShp);
+    }
+
     private static void readDwellings(Properties properties, RealEstateDataManager realEstateManager, int year) {
         DwellingReader ddReader = new DefaultDwellingReader(realEstateManager);
         String dwellingsFile = properties.main.baseDirectory + properties.realEstate.dwellingsFileName + "_" + year + ".csv";
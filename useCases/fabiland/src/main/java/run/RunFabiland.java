@@ -3,6 +3,7 @@ package run;
 import de.tum.bgu.msm.SiloModel;
 import de.tum.bgu.msm.container.DataContainer;
 import de.tum.bgu.msm.container.ModelContainer;
+import de.tum.bgu.msm.io.checkpoint.SimulationCheckpointReader;
 import de.tum.bgu.msm.io.output.DefaultResultsMonitor;
 import de.tum.bgu.msm.io.output.HouseholdSatisfactionMonitor;
 import de.tum.bgu.msm.io.output.MultiFileResultsMonitor;
@@ -16,6 +17,7 @@ import org.matsim.core.config.ConfigUtils;
 import org.matsim.core.config.groups.RoutingConfigGroup;
 import org.matsim.core.controler.OutputDirectoryHierarchy;
 
+import java.io.File;
 import java.util.Arrays;
 
 public class RunFabiland {
@@ -26,6 +28,8 @@ public class RunFabiland {
         // yyyy This does not run out of the box.  Presumably, it needs an argument.  Could you please add a comment that explains to make this here run?  Thanks ...  kai, jun'23
         // yyyyyy Also, there should be a regression test running this method.  kai, jun'23
 
+        final File resumeFile = SimulationCheckpointReader.getResumeFile(args);
+        args = SimulationCheckpointReader.removeResumeArguments(args);
         Properties properties = SiloUtil.siloInitialization(args[0]);
 
         String[] matsimArgs = Arrays.copyOfRange( args, 1, args.length );
@@ -51,7 +55,11 @@ public class RunFabiland {
 
         logger.warn("Constructing data container ...");
         DataContainer dataContainer = DataBuilderFabiland.buildDataContainer(properties, config);
-        DataBuilderFabiland.readInput(properties, dataContainer);
+        if (resumeFile != null) {
+            DataBuilderFabiland.readGeoData(properties, dataContainer);
+        } else {
+            DataBuilderFabiland.readInput(properties, dataContainer);
+        }
         logger.warn("... done with constructing data container.");
 
         logger.warn("Constructing model container ...");
@@ -60,6 +68,9 @@ public class RunFabiland {
 
         logger.warn("Constructing silo model ...");
 		SiloModel model = new SiloModel(properties, dataContainer, modelContainer);
+        if (resumeFile != null) {
+            model.resumeFrom(resumeFile);
+        }
         model.addResultMonitor( new DefaultResultsMonitor(dataContainer, properties) );
         model.addResultMonitor( new MultiFileResultsMonitor(dataContainer, properties) );
         model.addResultMonitor( new HouseholdSatisfactionMonitor(dataContainer, properties, modelContainer) );
@@ -27,9 +27,9 @@ public class DataBuilderTak {
 
     public static DataContainer getTakModelData(Properties properties, Config config) {
 
-        HouseholdData householdData = new HouseholdDataImpl();
-        JobData jobData = new JobDataImpl();
-        DwellingData dwellingData = new DwellingDataImpl();
+        HouseholdData householdData = new HouseholdDataImpl(properties.main.idIndexedDataStores);
+        JobData jobData = new JobDataImpl(properties.main.idIndexedDataStores);
+        DwellingData dwellingData = new DwellingDataImpl(properties.main.idIndexedDataStores);
 
         GeoData geoData = new DefaultGeoData();
 
@@ -77,11 +77,7 @@ public class DataBuilderTak {
     }
 
     public static void read(Properties properties, DataContainer dataContainer) {
-        GeoDataReader reader = new GeoDataReaderTak(dataContainer.getGeoData());
-        String fileName = properties.main.baseDirectory + properties.geo.zonalDataFile;
-        String pathShp = properties.main.baseDirectory + properties.geo.zoneShapeFile;
-        reader.readZoneCsv(fileName);
-        reader.readZoneShapefile(pathShp);
+        readGeoData(properties, dataContainer);
 
         int year = properties.main.startYear;
         String householdFile = properties.main.baseDirectory + properties.householdData.householdFileName;
@@ -108,4 +104,20 @@ public class DataBuilderTak {
         microDataScaler.scale();
 
     }
+
+    /**
+     * Reads the zones only, for a run that is resumed from a checkpoint holding the micro data.
+     */
+    public static void readWithoutMicroData(Properties properties, DataContainer dataContainer) {
+        readGeoData(properties, dataContainer);
+        new JobType(properties.jobData.jobTypes);
+    }
+
+    private static void readGeoData(Properties properties, DataContainer dataContainer) {
+        GeoDataReader reader = new GeoDataReaderTak(dataContainer.getGeoData());
+        String fileName = properties.main.baseDirectory + properties.geo.zonalDataFile;
+        String pathShp = properties.main.baseDirectory + properties.geo.zoneShapeFile;
+        reader.readZoneCsv(fileName);
+        reader.readZoneShapefile(pathShp);
+    }
 }
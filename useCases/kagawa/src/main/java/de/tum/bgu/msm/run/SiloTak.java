@@ -4,6 +4,7 @@ import de.tum.bgu.msm.SiloModel;
 import de.tum.bgu.msm.container.DataContainer;
 import de.tum.bgu.msm.container.ModelContainer;
 import de.tum.bgu.msm.data.dwelling.DwellingType;
+import de.tum.bgu.msm.io.checkpoint.SimulationCheckpointReader;
 import de.tum.bgu.msm.io.output.*;
 import de.tum.bgu.msm.properties.Properties;
 import de.tum.bgu.msm.utils.SiloUtil;
@@ -12,6 +13,7 @@ import org.apache.logging.log4j.Logger;
 import org.matsim.core.config.Config;
 import org.matsim.core.config.ConfigUtils;
 
+import java.io.File;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -24,6 +26,8 @@ public class SiloTak {
 
     public static void main(String[] args) {
 
+        final File resumeFile = SimulationCheckpointReader.getResumeFile(args);
+        args = SimulationCheckpointReader.removeResumeArguments(args);
         Properties properties = SiloUtil.siloInitialization(args[0]);
 
         Config config = null;
@@ -32,11 +36,18 @@ public class SiloTak {
         }
         logger.info("Started SILO land use model for Takamatsu (Kagawa)");
         DataContainer dataContainer = DataBuilderTak.getTakModelData(properties, config);
-        DataBuilderTak.read(properties, dataContainer);
+        if (resumeFile != null) {
+            DataBuilderTak.readWithoutMicroData(properties, dataContainer);
+        } else {
+            DataBuilderTak.read(properties, dataContainer);
+        }
         ModelContainer modelContainer = ModelBuilderTak.getTakModels(
                 dataContainer, properties, config);
 
         SiloModel model = new SiloModel(properties, dataContainer, modelContainer);
+        if (resumeFile != null) {
+            model.resumeFrom(resumeFile);
+        }
         model.addResultMonitor(new DefaultResultsMonitor(dataContainer, properties));
         model.addResultMonitor(new MultiFileResultsMonitor(dataContainer, properties));
         model.addResultMonitor(new HouseholdSatisfactionMonitor(dataContainer, properties, modelContainer));
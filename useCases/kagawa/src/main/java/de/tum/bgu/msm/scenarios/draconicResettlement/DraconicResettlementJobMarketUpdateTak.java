@@ -105,7 +105,7 @@ public class DraconicResettlementJobMarketUpdateTak extends AbstractModel implem
                     try {
                         Zone urbanZone = zoneSampler.sampleObject();
                         Coordinate urbanCoord = urbanZone.getRandomCoordinate(random);
-                        job.relocateJob(urbanZone, urbanCoord);
+                        jobDataManager.relocateJob(job, urbanZone, urbanCoord);
                     } catch (SampleException e) {
                         logger.warn(e);
                     }
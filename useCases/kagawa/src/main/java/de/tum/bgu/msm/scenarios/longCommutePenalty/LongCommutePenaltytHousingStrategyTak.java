@@ -33,6 +33,7 @@ import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Random;
 
 import static de.tum.bgu.msm.data.dwelling.RealEstateUtils.RENT_CATEGORIES;
 
@@ -89,12 +90,23 @@ public class LongCommutePenaltytHousingStrategyTak implements HousingStrategy {
                                                  DwellingUtilityStrategy dwellingUtilityStrategy,
                                                  DwellingProbabilityStrategy dwellingProbabilityStrategy,
                                                  RegionUtilityStrategy regionUtilityStrategy, RegionProbabilityStrategy regionProbabilityStrategy) {
+        this(dataContainer, properties, travelTimes, dwellingUtilityStrategy, dwellingProbabilityStrategy, regionUtilityStrategy,
+                regionProbabilityStrategy, new SimpleCommuteModeChoice(dataContainer, properties, SiloUtil.provideNewRandom()));
+    }
+
+    private LongCommutePenaltytHousingStrategyTak(DataContainer dataContainer,
+                                                  Properties properties,
+                                                  TravelTimes travelTimes,
+                                                  DwellingUtilityStrategy dwellingUtilityStrategy,
+                                                  DwellingProbabilityStrategy dwellingProbabilityStrategy,
+                                                  RegionUtilityStrategy regionUtilityStrategy, RegionProbabilityStrategy regionProbabilityStrategy,
+                                                  CommuteModeChoice commuteModeChoice) {
         this.dataContainer = dataContainer;
         geoData = dataContainer.getGeoData();
         this.properties = properties;
         this.travelTimes = travelTimes;
         accessibility = dataContainer.getAccessibility();
-        commuteModeChoice = new SimpleCommuteModeChoice(dataContainer, properties, SiloUtil.provideNewRandom());
+        this.commuteModeChoice = commuteModeChoice;
         this.dwellingUtilityStrategy = dwellingUtilityStrategy;
         this.dwellingProbabilityStrategy = dwellingProbabilityStrategy;
         this.regionUtilityStrategy = regionUtilityStrategy;
@@ -142,7 +154,7 @@ public class LongCommutePenaltytHousingStrategyTak implements HousingStrategy {
 
         for (Person pp : hh.getPersons().values()) {
             if (pp.getOccupation() == Occupation.EMPLOYED && pp.getJobId() != -2) {
-                double thisWorkerUtility = commuteModeChoiceMapping.getMode(pp).utility;
+                double thisWorkerUtility = commuteModeChoiceMapping.getUtility(pp);
                 workDistanceUtility *= thisWorkerUtility;
                 if (thisWorkerUtility < UTILITY_THRESHOLD){
                     penaltiesForThisDwelling += PENALTY_EUR;
@@ -184,7 +196,7 @@ public class LongCommutePenaltytHousingStrategyTak implements HousingStrategy {
 
         for (Person pp : household.getPersons().values()) {
             if (pp.getOccupation() == Occupation.EMPLOYED && pp.getJobId() != -2) {
-                double thisWorkerUtility = commuteModeChoiceMapping.getMode(pp).utility;
+                double thisWorkerUtility = commuteModeChoiceMapping.getUtility(pp);
                 thisRegionFactor *= thisWorkerUtility;
                 if (thisWorkerUtility < UTILITY_THRESHOLD){
                     penaltyToThisHouseholdAndRegion += PENALTY_EUR;
@@ -226,6 +238,19 @@ public class LongCommutePenaltytHousingStrategyTak implements HousingStrategy {
         TravelTimes ttCopy = travelTimes.duplicate();
         LongCommutePenaltytHousingStrategyTak strategy = new LongCommutePenaltytHousingStrategyTak(dataContainer, properties, ttCopy,
                 dwellingUtilityStrategy, dwellingProbabilityStrategy, regionUtilityStrategy, regionProbabilityStrategy);
+        return copyRegionalUtilities(strategy);
+    }
+
+    @Override
+    public HousingStrategy duplicate(Random random) {
+        TravelTimes ttCopy = travelTimes.duplicate();
+        LongCommutePenaltytHousingStrategyTak strategy = new LongCommutePenaltytHousingStrategyTak(dataContainer, properties, ttCopy,
+                dwellingUtilityStrategy, dwellingProbabilityStrategy, regionUtilityStrategy, regionProbabilityStrategy,
+                commuteModeChoice.duplicate(random));
+        return copyRegionalUtilities(strategy);
+    }
+
+    private HousingStrategy copyRegionalUtilities(LongCommutePenaltytHousingStrategyTak strategy) {
         strategy.hhByRegion = hhByRegion;
         strategy.utilityByIncomeByRegion = utilityByIncomeByRegion;
         return strategy;
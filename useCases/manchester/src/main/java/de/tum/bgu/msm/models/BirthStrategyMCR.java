@@ -1,18 +1,29 @@
 package de.tum.bgu.msm.models;
 
 import de.tum.bgu.msm.models.demography.birth.BirthStrategy;
+import de.tum.bgu.msm.utils.RateTable;
 
 public class BirthStrategyMCR implements BirthStrategy {
 
+    /**
+     * Birth probabilities by age (up to 50, older women have no children)
+     */
+    private final RateTable birthRates;
+
     public BirthStrategyMCR() {
+        birthRates = RateTable.compile(BirthStrategyMCR::lookUpBirthProbability, 51);
     }
 
     @Override
     public double calculateBirthProbability(int personAge, int numberOfChildren) {
-        var alpha = 0.;
         if (personAge < 0){
             throw new RuntimeException("Undefined negative person age!"+personAge);
         }
+        return birthRates.get(personAge);
+    }
+
+    private static double lookUpBirthProbability(int personAge) {
+        var alpha = 0.;
 
         if (personAge <= 14){
             alpha = 0.0;
@@ -96,6 +96,11 @@ public class RealEstateDataManagerMstm implements RealEstateDataManager {
         return delegate.getListOfVacantDwellingsInRegion(region);
     }
 
+    @Override
+    public List<Dwelling> sampleVacantDwellingsInRegion(int region, int count, Random random) {
+        return delegate.sampleVacantDwellingsInRegion(region, count, random);
+    }
+
     @Override
     public int getNumberOfVacantDDinRegion(int region) {
         return delegate.getNumberOfVacantDDinRegion(region);
@@ -167,6 +172,16 @@ public class RealEstateDataManagerMstm implements RealEstateDataManager {
         return delegate.getDwellingCountByTypeAndRegion();
     }
 
+    @Override
+    public DwellingAggregates getDwellingAggregates() {
+        return delegate.getDwellingAggregates();
+    }
+
+    @Override
+    public DwellingAggregates calculateDwellingAggregates() {
+        return delegate.calculateDwellingAggregates();
+    }
+
     @Override
     public double getAvailableCapacityForConstruction(int zone) {
         return delegate.getAvailableCapacityForConstruction(zone);
@@ -248,6 +248,14 @@ public class HousingStrategyMstm implements HousingStrategy<DwellingMstm> {
         return housingStrategyMstm;
     }
 
+    /**
+     * This strategy does not make random decisions.
+     */
+    @Override
+    public HousingStrategy duplicate(Random random) {
+        return duplicate();
+    }
+
     private void calculateRacialCompositionByZoneAndRegion() {
         resetMatrices();
         updateHouseholdInventar();
@@ -37,9 +37,9 @@ public final class DataBuilder {
 
         GeoDataMstm geoData = new GeoDataMstm();
 
-        DwellingData dwellingData = new DwellingDataImpl();
-        HouseholdData householdData = new HouseholdDataImpl();
-        JobData jobData = new JobDataImpl();
+        DwellingData dwellingData = new DwellingDataImpl(properties.main.idIndexedDataStores);
+        HouseholdData householdData = new HouseholdDataImpl(properties.main.idIndexedDataStores);
+        JobData jobData = new JobDataImpl(properties.main.idIndexedDataStores);
 
         TravelTimes travelTimes = null;
         Accessibility accessibility = null;
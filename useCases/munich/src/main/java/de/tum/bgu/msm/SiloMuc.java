@@ -1,7 +1,9 @@
 package de.tum.bgu.msm;
 
 import de.tum.bgu.msm.container.ModelContainer;
+import de.tum.bgu.msm.io.MicroDataCheckpointAttributesMuc;
 import de.tum.bgu.msm.io.MultiFileResultsMonitorMuc;
+import de.tum.bgu.msm.io.checkpoint.SimulationCheckpointReader;
 import de.tum.bgu.msm.io.output.HouseholdSatisfactionMonitor;
 import de.tum.bgu.msm.io.output.ModalSharesResultMonitor;
 import de.tum.bgu.msm.io.output.MultiFileResultsMonitor;
@@ -14,6 +16,8 @@ import org.matsim.contrib.dvrp.run.Modal;
 import org.matsim.core.config.Config;
 import org.matsim.core.config.ConfigUtils;
 
+import java.io.File;
+
 /**
  * Implements SILO for the Munich Metropolitan Area
  *
@@ -26,6 +30,8 @@ public class SiloMuc {
 
     public static void main(String[] args) {
 
+        final File resumeFile = SimulationCheckpointReader.getResumeFile(args);
+        args = SimulationCheckpointReader.removeResumeArguments(args);
         Properties properties = SiloUtil.siloInitialization(args[0]);
 
         Config config = null;
@@ -34,10 +40,18 @@ public class SiloMuc {
         }
         logger.info("Started SILO land use model for the Munich Metropolitan Area");
         DataContainerWithSchools dataContainer = DataBuilder.getModelDataForMuc(properties, config);
-        DataBuilder.read(properties, dataContainer);
+        if (resumeFile != null) {
+            DataBuilder.readWithoutMicroData(properties, dataContainer);
+        } else {
+            DataBuilder.read(properties, dataContainer);
+        }
         ModelContainer modelContainer = ModelBuilderMuc.getModelContainerForMuc(dataContainer, properties, config);
 
         SiloModel model = new SiloModel(properties, dataContainer, modelContainer);
+        model.setCheckpointAttributes(new MicroDataCheckpointAttributesMuc());
+        if (resumeFile != null) {
+            model.resumeFrom(resumeFile);
+        }
         model.addResultMonitor(new MultiFileResultsMonitorMuc(dataContainer, properties));
         model.addResultMonitor(new ModalSharesResultMonitor(dataContainer, properties));
         model.addResultMonitor(new HouseholdSatisfactionMonitor(dataContainer, properties, modelContainer));
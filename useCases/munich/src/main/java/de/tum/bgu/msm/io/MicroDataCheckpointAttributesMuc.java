@@ -0,0 +1,50 @@
+package de.tum.bgu.msm.io;
+
+import de.tum.bgu.msm.data.job.Job;
+import de.tum.bgu.msm.data.job.JobMuc;
+import de.tum.bgu.msm.data.person.Nationality;
+import de.tum.bgu.msm.data.person.Person;
+import de.tum.bgu.msm.data.person.PersonMuc;
+import de.tum.bgu.msm.io.checkpoint.MicroDataCheckpointAttributes;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Writes the nationality and school of persons and the working times of jobs of the Munich implementation to checkpoints.
+ */
+public class MicroDataCheckpointAttributesMuc implements MicroDataCheckpointAttributes {
+
+    @Override
+    public void writePerson(Person person, DataOutput out) throws IOException {
+        final PersonMuc pp = (PersonMuc) person;
+        out.writeInt(pp.getNationality() == null ? -1 : pp.getNationality().ordinal());
+        out.writeInt(pp.getSchoolType());
+        out.writeInt(pp.getSchoolPlace());
+        out.writeInt(pp.getSchoolId());
+    }
+
+    @Override
+    public void readPerson(Person person, DataInput in) throws IOException {
+        final PersonMuc pp = (PersonMuc) person;
+        final int nationality = in.readInt();
+        if (nationality >= 0) {
+            pp.setNationality(Nationality.values()[nationality]);
+        }
+        pp.setSchoolType(in.readInt());
+        pp.setSchoolPlace(in.readInt());
+        pp.setSchoolId(in.readInt());
+    }
+
+    @Override
+    public void writeJob(Job job, DataOutput out) throws IOException {
+        out.writeInt(job.getStartTimeInSeconds().orElse(0));
+        out.writeInt(job.getWorkingTimeInSeconds().orElse(0));
+    }
+
+    @Override
+    public void readJob(Job job, DataInput in) throws IOException {
+        ((JobMuc) job).setJobWorkingTime(in.readInt(), in.readInt());
+    }
+}
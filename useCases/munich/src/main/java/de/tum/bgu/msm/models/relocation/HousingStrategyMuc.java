@@ -21,9 +21,12 @@ import de.tum.bgu.msm.util.matrices.IndexedDoubleMatrix1D;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.concurrent.atomic.LongAdder;
 
 import static de.tum.bgu.msm.data.dwelling.RealEstateUtils.RENT_CATEGORIES;
@@ -124,7 +127,7 @@ public class HousingStrategyMuc implements HousingStrategy {
         for (Person pp : hh.getPersons().values()) {
             if (pp.getOccupation() == Occupation.EMPLOYED && pp.getJobId() != -2) {
 
-                workDistanceUtility *= commuteModeChoiceMapping.getMode(pp).utility;
+                workDistanceUtility *= commuteModeChoiceMapping.getUtility(pp);
 
                /* if(MovesModelImpl.track) {
                     Zone workZone = geoData.getZones().get(workLocation.getZoneId());
@@ -242,7 +245,7 @@ public class HousingStrategyMuc implements HousingStrategy {
 
         for (Person pp : household.getPersons().values()) {
             if (pp.getOccupation() == Occupation.EMPLOYED && pp.getJobId() != -2) {
-                thisRegionFactor *= commuteModeChoiceMapping.getMode(pp).utility;
+                thisRegionFactor *= commuteModeChoiceMapping.getUtility(pp);
             }
         }
 
@@ -256,6 +259,32 @@ public class HousingStrategyMuc implements HousingStrategy {
         return normalize(region, baseUtil);
     }
 
+    @Override
+    public void calculateRegionalUtilities(Household household, List<Region> regions, double[] utilities) {
+        final CommuteModeChoiceMapping[] commuteModeChoiceMappings =
+                commuteModeChoice.assignRegionalCommuteModeChoices(regions, travelTimes, household);
+
+        final List<Person> workers = new ArrayList<>();
+        for (Person pp : household.getPersons().values()) {
+            if (pp.getOccupation() == Occupation.EMPLOYED && pp.getJobId() != -2) {
+                workers.add(pp);
+            }
+        }
+
+        HouseholdType ht = household.getHouseholdType();
+        Nationality nationality = ((HouseholdMuc) household).getNationality();
+        final Map<Region, Double> baseUtilByRegion = utilityByIncomeByNationalityByRegion.get(ht.getIncomeCategory()).get(nationality);
+
+        for (int i = 0; i < regions.size(); i++) {
+            final Region region = regions.get(i);
+            double thisRegionFactor = 1;
+            for (Person pp : workers) {
+                thisRegionFactor *= commuteModeChoiceMappings[i].getUtility(pp);
+            }
+            utilities[i] = normalize(region, baseUtilByRegion.get(region) * thisRegionFactor);
+        }
+    }
+
     private double normalize(Region region, double baseUtil) {
         switch (NORMALIZER) {
             case SHARE_VAC_DD: {
@@ -291,6 +320,15 @@ public class HousingStrategyMuc implements HousingStrategy {
 
     @Override
     public HousingStrategy duplicate() {
+        return copyWith(commuteModeChoice);
+    }
+
+    @Override
+    public HousingStrategy duplicate(Random random) {
+        return copyWith(commuteModeChoice.duplicate(random));
+    }
+
+    private HousingStrategy copyWith(CommuteModeChoice commuteModeChoice) {
         TravelTimes travelTimes = this.travelTimes.duplicate();
         final HousingStrategyMuc housingStrategyMuc = new HousingStrategyMuc(dataContainer, properties, travelTimes, dwellingProbabilityStrategy, dwellingUtilityStrategy, regionUtilityStrategyMuc, regionProbabilityStrategy, commuteModeChoice);
         housingStrategyMuc.regionalShareForeigners = this.regionalShareForeigners;
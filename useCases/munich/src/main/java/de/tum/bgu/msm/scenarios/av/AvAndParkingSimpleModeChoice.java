@@ -65,6 +65,23 @@ public class AvAndParkingSimpleModeChoice implements CommuteModeChoice {
 
     }
 
+    private AvAndParkingSimpleModeChoice(AvAndParkingSimpleModeChoice template, Random random) {
+        this.properties = template.properties;
+        this.commutingTimeProbability = template.commutingTimeProbability;
+        this.jobDataManager = template.jobDataManager;
+        this.geoData = template.geoData;
+        this.random = random;
+        B_TIME = template.B_TIME;
+        B_PT = template.B_PT;
+        B_EXP_HOUSING_UTILITY = template.B_EXP_HOUSING_UTILITY;
+        conventionalVehicleParkingBasedCommuteModeChoice = template.conventionalVehicleParkingBasedCommuteModeChoice.duplicate(random);
+    }
+
+    @Override
+    public CommuteModeChoice duplicate(Random random) {
+        return new AvAndParkingSimpleModeChoice(this, random);
+    }
+
 
     @Override
     public CommuteModeChoiceMapping assignCommuteModeChoice(Location from, TravelTimes travelTimes, Household household) {
@@ -33,6 +33,7 @@ import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Random;
 import java.util.concurrent.atomic.LongAdder;
 
 import static de.tum.bgu.msm.data.dwelling.RealEstateUtils.RENT_CATEGORIES;
@@ -133,7 +134,7 @@ public class ParkingBasedHousingStrategyMuc implements HousingStrategy {
         for (Person pp : hh.getPersons().values()) {
             if (pp.getOccupation() == Occupation.EMPLOYED && pp.getJobId() != -2) {
 
-                workDistanceUtility *= commuteModeChoiceMapping.getMode(pp).utility;
+                workDistanceUtility *= commuteModeChoiceMapping.getUtility(pp);
 
                /* if(MovesModelImpl.track) {
                     Zone workZone = geoData.getZones().get(workLocation.getZoneId());
@@ -273,7 +274,7 @@ public class ParkingBasedHousingStrategyMuc implements HousingStrategy {
 
         for (Person pp : household.getPersons().values()) {
             if (pp.getOccupation() == Occupation.EMPLOYED && pp.getJobId() != -2) {
-                thisRegionFactor *= commuteModeChoiceMapping.getMode(pp).utility;
+                thisRegionFactor *= commuteModeChoiceMapping.getUtility(pp);
             }
         }
 
@@ -322,6 +323,15 @@ public class ParkingBasedHousingStrategyMuc implements HousingStrategy {
 
     @Override
     public ParkingBasedHousingStrategyMuc duplicate() {
+        return copyWith(commuteModeChoice);
+    }
+
+    @Override
+    public ParkingBasedHousingStrategyMuc duplicate(Random random) {
+        return copyWith(commuteModeChoice.duplicate(random));
+    }
+
+    private ParkingBasedHousingStrategyMuc copyWith(CommuteModeChoice commuteModeChoice) {
         TravelTimes travelTimes = this.travelTimes.duplicate();
         final ParkingBasedHousingStrategyMuc housingStrategyMuc = new ParkingBasedHousingStrategyMuc(dataContainer, properties, travelTimes, dwellingProbabilityStrategy, dwellingUtilityStrategy, regionUtilityStrategyMuc, regionProbabilityStrategy, commuteModeChoice);
         housingStrategyMuc.regionalShareForeigners = this.regionalShareForeigners;
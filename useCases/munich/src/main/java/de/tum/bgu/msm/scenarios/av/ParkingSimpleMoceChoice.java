@@ -55,6 +55,22 @@ public class ParkingSimpleMoceChoice implements CommuteModeChoice {
         B_EXP_HOUSING_UTILITY = properties.moves.B_EXP_HOUSING_UTILITY;
     }
 
+    private ParkingSimpleMoceChoice(ParkingSimpleMoceChoice template, Random random) {
+        this.properties = template.properties;
+        this.commutingTimeProbability = template.commutingTimeProbability;
+        this.jobDataManager = template.jobDataManager;
+        this.geoData = template.geoData;
+        this.random = random;
+        B_TIME = template.B_TIME;
+        B_PT = template.B_PT;
+        B_EXP_HOUSING_UTILITY = template.B_EXP_HOUSING_UTILITY;
+    }
+
+    @Override
+    public ParkingSimpleMoceChoice duplicate(Random random) {
+        return new ParkingSimpleMoceChoice(this, random);
+    }
+
 
     @Override
     public CommuteModeChoiceMapping assignCommuteModeChoice(Location from, TravelTimes travelTimes, Household household) {
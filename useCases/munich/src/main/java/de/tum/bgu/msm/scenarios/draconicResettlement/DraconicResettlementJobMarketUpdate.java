@@ -97,7 +97,7 @@ public class DraconicResettlementJobMarketUpdate extends AbstractModel implement
                     try {
                         Zone urbanZone = zoneSampler.sampleObject();
                         Coordinate urbanCoord = urbanZone.getRandomCoordinate(random);
-                        job.relocateJob(urbanZone, urbanCoord);
+                        jobDataManager.relocateJob(job, urbanZone, urbanCoord);
                     } catch (SampleException e) {
                         logger.warn(e);
                     }
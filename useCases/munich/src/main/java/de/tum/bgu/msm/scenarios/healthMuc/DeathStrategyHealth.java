@@ -5,6 +5,7 @@ import de.tum.bgu.msm.data.person.Person;
 import de.tum.bgu.msm.health.data.PersonHealth;
 import de.tum.bgu.msm.health.io.LifeTableReader;
 import de.tum.bgu.msm.models.demography.death.DeathStrategy;
+import de.tum.bgu.msm.utils.RateTable;
 
 public class DeathStrategyHealth implements DeathStrategy {
 
@@ -12,32 +13,33 @@ public class DeathStrategyHealth implements DeathStrategy {
     private static final String LIFETABLE_FILENAME_MALE = "input/health/lifetable_male.csv";
     private static final String LIFETABLE_FILENAME_FEMALE = "input/health/lifetable_female.csv";
 
-    final double[] mortalityRatesMale;
-    final double[] mortalityRatesFemale;
+    /**
+     * Mortality rates by age, each sized by its own life table
+     */
+    final RateTable mortalityRatesMale;
+    final RateTable mortalityRatesFemale;
 
     public DeathStrategyHealth(String baseDirectory) {
-        this.mortalityRatesMale = LifeTableReader.readData(baseDirectory + LIFETABLE_FILENAME_MALE);
-        this.mortalityRatesFemale = LifeTableReader.readData(baseDirectory + LIFETABLE_FILENAME_FEMALE);
+        this.mortalityRatesMale = compile(LifeTableReader.readData(baseDirectory + LIFETABLE_FILENAME_MALE));
+        this.mortalityRatesFemale = compile(LifeTableReader.readData(baseDirectory + LIFETABLE_FILENAME_FEMALE));
+    }
+
+    private static RateTable compile(double[] lifeTable) {
+        return RateTable.compile(age -> lifeTable[age], lifeTable.length);
     }
 
     @Override
     public double calculateDeathProbability(Person person) {
         final int personAge = Math.min(person.getAge(), 100);
-        Gender personSex = person.getGender();
         double allCauseRR = ((PersonHealth)person).getAllCauseRR();
         double fatalAccidentRisk = ((PersonHealth)person).getWeeklyAccidentRisk("fatality");
 
-        var alpha = 0.;
-
         if (personAge < 0){
             throw new RuntimeException("Undefined negative person age!"+personAge);
         }
 
-        if ("MALE".equals(personSex.name())) {
-            alpha = mortalityRatesMale[personAge];
-        } else if (personSex.name().equals("FEMALE")) {
-           alpha = mortalityRatesFemale[personAge];
-        }
+        double alpha = person.getGender() == Gender.MALE ?
+                mortalityRatesMale.get(personAge) : mortalityRatesFemale.get(personAge);
 
         double adjustedAlpha = alpha * allCauseRR;
         return adjustedAlpha + fatalAccidentRisk - adjustedAlpha * fatalAccidentRisk;
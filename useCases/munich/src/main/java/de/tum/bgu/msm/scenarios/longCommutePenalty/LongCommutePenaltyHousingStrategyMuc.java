@@ -38,6 +38,7 @@ import java.util.EnumMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Random;
 import java.util.concurrent.atomic.LongAdder;
 
 import static de.tum.bgu.msm.data.dwelling.RealEstateUtils.RENT_CATEGORIES;
@@ -99,6 +100,17 @@ public class LongCommutePenaltyHousingStrategyMuc implements HousingStrategy {
                                                 DwellingProbabilityStrategy dwellingProbabilityStrategy,
                                                 DwellingUtilityStrategy dwellingUtilityStrategy,
                                                 RegionUtilityStrategyMuc regionUtilityStrategyMuc, RegionProbabilityStrategy regionProbabilityStrategy) {
+        this(dataContainer, properties, travelTimes, dwellingProbabilityStrategy, dwellingUtilityStrategy, regionUtilityStrategyMuc,
+                regionProbabilityStrategy, new SimpleCommuteModeChoice(dataContainer, properties, SiloUtil.provideNewRandom()));
+    }
+
+    private LongCommutePenaltyHousingStrategyMuc(DataContainer dataContainer,
+                                                 Properties properties,
+                                                 TravelTimes travelTimes,
+                                                 DwellingProbabilityStrategy dwellingProbabilityStrategy,
+                                                 DwellingUtilityStrategy dwellingUtilityStrategy,
+                                                 RegionUtilityStrategyMuc regionUtilityStrategyMuc, RegionProbabilityStrategy regionProbabilityStrategy,
+                                                 CommuteModeChoice simpleCommuteModeChoice) {
         this.dataContainer = dataContainer;
         this.properties = properties;
         this.commutingTimeProbability = dataContainer.getCommutingTimeProbability();
@@ -110,7 +122,7 @@ public class LongCommutePenaltyHousingStrategyMuc implements HousingStrategy {
         this.dwellingUtilityStrategy = dwellingUtilityStrategy;
         this.regionUtilityStrategyMuc = regionUtilityStrategyMuc;
         this.regionProbabilityStrategy = regionProbabilityStrategy;
-        this.simpleCommuteModeChoice  =new SimpleCommuteModeChoice(dataContainer, properties, SiloUtil.provideNewRandom());
+        this.simpleCommuteModeChoice = simpleCommuteModeChoice;
     }
 
     @Override
@@ -146,7 +158,7 @@ public class LongCommutePenaltyHousingStrategyMuc implements HousingStrategy {
 
         for (Person pp : hh.getPersons().values()) {
             if (pp.getOccupation() == Occupation.EMPLOYED && pp.getJobId() != -2) {
-                double thisWorkerUtility = commuteModeChoiceMapping.getMode(pp).utility;
+                double thisWorkerUtility = commuteModeChoiceMapping.getUtility(pp);
                 workDistanceUtility *= thisWorkerUtility;
                 if (thisWorkerUtility < UTILITY_THRESHOLD){
                     penaltiesForThisDwelling += PENALTY_EUR;
@@ -228,7 +240,7 @@ public class LongCommutePenaltyHousingStrategyMuc implements HousingStrategy {
 
         for (Person pp : household.getPersons().values()) {
             if (pp.getOccupation() == Occupation.EMPLOYED && pp.getJobId() != -2) {
-                double thisWorkerUtility = commuteModeChoiceMapping.getMode(pp).utility;
+                double thisWorkerUtility = commuteModeChoiceMapping.getUtility(pp);
                 thisRegionFactor *= thisWorkerUtility;
                 if (thisWorkerUtility < UTILITY_THRESHOLD){
                     penaltyToThisHouseholdAndRegion += PENALTY_EUR;
@@ -300,6 +312,17 @@ public class LongCommutePenaltyHousingStrategyMuc implements HousingStrategy {
     public HousingStrategy duplicate() {
         TravelTimes travelTimes = this.travelTimes.duplicate();
         final LongCommutePenaltyHousingStrategyMuc housingStrategyMuc = new LongCommutePenaltyHousingStrategyMuc(dataContainer, properties, travelTimes, dwellingProbabilityStrategy, dwellingUtilityStrategy, regionUtilityStrategyMuc, regionProbabilityStrategy);
+        return copyRegionalUtilities(housingStrategyMuc);
+    }
+
+    @Override
+    public HousingStrategy duplicate(Random random) {
+        TravelTimes travelTimes = this.travelTimes.duplicate();
+        final LongCommutePenaltyHousingStrategyMuc housingStrategyMuc = new LongCommutePenaltyHousingStrategyMuc(dataContainer, properties, travelTimes, dwellingProbabilityStrategy, dwellingUtilityStrategy, regionUtilityStrategyMuc, regionProbabilityStrategy, simpleCommuteModeChoice.duplicate(random));
+        return copyRegionalUtilities(housingStrategyMuc);
+    }
+
+    private HousingStrategy copyRegionalUtilities(LongCommutePenaltyHousingStrategyMuc housingStrategyMuc) {
         housingStrategyMuc.regionalShareForeigners = this.regionalShareForeigners;
         housingStrategyMuc.hhByRegion = this.hhByRegion;
         housingStrategyMuc.utilityByIncomeByNationalityByRegion = this.utilityByIncomeByNationalityByRegion;
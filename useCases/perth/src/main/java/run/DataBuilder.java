@@ -32,9 +32,9 @@ public final class DataBuilder {
 
         DefaultGeoData geoData = new DefaultGeoData();
 
-        DwellingData dwellingData = new DwellingDataImpl();
-        HouseholdData householdData = new HouseholdDataImpl();
-        JobData jobData = new JobDataImpl();
+        DwellingData dwellingData = new DwellingDataImpl(properties.main.idIndexedDataStores);
+        HouseholdData householdData = new HouseholdDataImpl(properties.main.idIndexedDataStores);
+        JobData jobData = new JobDataImpl(properties.main.idIndexedDataStores);
 
         TravelTimes travelTimes = null;
         Accessibility accessibility = null;